@@ -0,0 +1,46 @@
+package com.openclassrooms.safetynet.benchmark;
+
+import com.openclassrooms.safetynet.dto.DataWrapper;
+import com.openclassrooms.safetynet.fixture.DatasetGenerator;
+import com.openclassrooms.safetynet.repository.DataRepository;
+
+/**
+ * Jeu de données synthétique chargé directement en mémoire dans un {@link DataRepository}.
+ * Produit par {@link DatasetGenerator} : foyers de quatre résidents partageant un nom de famille,
+ * une caserne pour cinquante adresses et dix villes ; la génération est déterministe pour une taille donnée.
+ */
+final class BenchmarkDataset {
+
+  static final int ADDRESSES_PER_STATION = 50;
+  static final int CITIES = 10;
+
+  final DatasetGenerator generator;
+  final DataWrapper data;
+  final int addressCount;
+  final int stationCount;
+
+  BenchmarkDataset(int residents) {
+    DatasetGenerator.Options options = new DatasetGenerator.Options();
+    options.setResidents(residents);
+    options.setCities(CITIES);
+    options.setStations(Math.max(1, Math.ceilDiv(residents, options.getResidentsPerHousehold())
+        / ADDRESSES_PER_STATION));
+    generator = new DatasetGenerator(options);
+    data = generator.generate();
+    addressCount = generator.getAddressCount();
+    stationCount = options.getStations();
+  }
+
+  /**
+   * Charge le jeu de données dans un nouveau repository, sans passer par le fichier JSON.
+   *
+   * @return le repository chargé
+   */
+  DataRepository toRepository() {
+    DataRepository repository = new DataRepository();
+    repository.setPersons(data.getPersons());
+    repository.setFirestations(data.getFirestations());
+    repository.setMedicalRecords(data.getMedicalRecords());
+    return repository;
+  }
+}
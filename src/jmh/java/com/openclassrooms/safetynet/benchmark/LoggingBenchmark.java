@@ -0,0 +1,75 @@
+package com.openclassrooms.safetynet.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.StringMapMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Coût de la journalisation par requête, mesuré depuis plusieurs threads comme sous charge HTTP.
+ * <ul>
+ *   <li>{@code legacyControllerLogsSync} : les deux messages INFO que chaque contrôleur émettait,
+ *   avec l'appender synchrone d'origine ;</li>
+ *   <li>{@code accessLogSync} : l'enregistrement structuré unique de l'AccessLogFilter, en synchrone ;</li>
+ *   <li>{@code accessLogAsync} : le même enregistrement avec les loggers asynchrones de
+ *   {@code log4j2.component.properties}.</li>
+ * </ul>
+ * Les écritures vont dans {@code target/benchmark-logs}. En mode asynchrone, les événements au-delà de
+ * la capacité du tampon sont abandonnés : le débit mesuré est celui vu par les threads de requête.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+public class LoggingBenchmark {
+
+  private static final String CONFIGURATION = "-Dlog4j2.configurationFile=src/jmh/resources/log4j2-benchmark.properties";
+  private static final String SYNC = "-Dlog4j2.contextSelector=org.apache.logging.log4j.core.selector.ClassLoaderContextSelector";
+  private static final String ASYNC = "-Dlog4j2.contextSelector=org.apache.logging.log4j.core.async.AsyncLoggerContextSelector";
+
+  private static final Logger CONTROLLER_LOG = LogManager.getLogger("com.openclassrooms.safetynet.controller.FireController");
+  private static final Logger ACCESS_LOG = LogManager.getLogger("safetynet.access");
+
+  private final String address = "1509 Culver St";
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = {CONFIGURATION, SYNC})
+  public void legacyControllerLogsSync() {
+    CONTROLLER_LOG.info("GET request received for fire information at address: '{}'", address);
+    CONTROLLER_LOG.info("Response: Found {} residents at address: '{}'", 5, address);
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = {CONFIGURATION, SYNC})
+  public void accessLogSync() {
+    logAccess();
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = {CONFIGURATION, ASYNC})
+  public void accessLogAsync() {
+    logAccess();
+  }
+
+  private void logAccess() {
+    ACCESS_LOG.info(new StringMapMessage(6)
+        .with("method", "GET")
+        .with("path", "/fire")
+        .with("status", 200)
+        .with("durationMs", 1L)
+        .with("thread", Thread.currentThread().getName())
+        .with("query", "address=1509%20Culver%20St"));
+  }
+}
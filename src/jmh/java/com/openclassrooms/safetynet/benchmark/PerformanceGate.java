@@ -0,0 +1,251 @@
+package com.openclassrooms.safetynet.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compare les résultats d'un run JMH ({@code -rf json}) et du test de charge HTTP
+ * ({@code target/load-report.json}) à une référence versionnée, et échoue si une métrique régresse
+ * au-delà du seuil toléré ou si une métrique de la référence n'a pas été mesurée.
+ *
+ * <p>Métriques suivies : débit et p99 de chaque méthode de service (modes JMH {@code thrpt} et
+ * {@code sample}), débit et p99 de chaque opération du test de charge. Une dégradation n'est une
+ * régression que si elle dépasse le seuil et que les intervalles d'erreur JMH de la référence et de la
+ * mesure ne se recouvrent pas. Un tableau des écarts est toujours affiché. Avec {@code --update=true},
+ * la référence est remplacée par les résultats courants ; elle n'est comparable qu'aux runs de la même
+ * machine et doit être régénérée sur la machine qui exécute la porte.</p>
+ *
+ * <pre>
+ * mvn verify -Dperf.gate [-Dperf.threshold=0.20] [-Dperf.update-baseline=true]
+ * </pre>
+ */
+public class PerformanceGate {
+
+  private static final String P99 = "99.0";
+
+  /**
+   * Valeur d'une métrique, demi-largeur de son intervalle d'erreur (0 si inconnue) et sens dans lequel
+   * elle s'améliore.
+   */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Metric {
+    private double value;
+    private double error;
+    private String unit;
+    private boolean higherIsBetter;
+  }
+
+  /**
+   * Lit les résultats JMH : le score et son erreur pour le mode {@code thrpt}, le 99e centile pour le
+   * mode {@code sample}, pour lequel JMH ne fournit pas d'erreur.
+   *
+   * @param file le fichier de résultats JMH au format JSON
+   * @return les métriques indexées par nom
+   * @throws IOException en cas d'erreur de lecture
+   */
+  static Map<String, Metric> readJmh(Path file) throws IOException {
+    Map<String, Metric> metrics = new TreeMap<>();
+    JsonArray results;
+    try (Reader reader = Files.newBufferedReader(file)) {
+      results = new Gson().fromJson(reader, JsonArray.class);
+    }
+    for (JsonElement element : results) {
+      JsonObject result = element.getAsJsonObject();
+      String benchmark = result.get("benchmark").getAsString();
+      String name = "jmh " + benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+      if (result.has("params")) {
+        name += result.getAsJsonObject("params").entrySet().stream()
+            .map(param -> param.getKey() + "=" + param.getValue().getAsString())
+            .collect(Collectors.joining(",", "[", "]"));
+      }
+      JsonObject primary = result.getAsJsonObject("primaryMetric");
+      String unit = primary.get("scoreUnit").getAsString();
+      switch (result.get("mode").getAsString()) {
+        case "thrpt" -> metrics.put(name + " throughput",
+            new Metric(primary.get("score").getAsDouble(), scoreError(primary), unit, true));
+        case "sample" -> metrics.put(name + " p99",
+            new Metric(primary.getAsJsonObject("scorePercentiles").get(P99).getAsDouble(), 0, unit, false));
+        case "avgt", "ss" -> metrics.put(name + " time",
+            new Metric(primary.get("score").getAsDouble(), scoreError(primary), unit, false));
+        default -> { }
+      }
+    }
+    return metrics;
+  }
+
+  /**
+   * Lit le rapport du test de charge HTTP : débit et p99 de chaque opération. Une opération trop peu
+   * sollicitée pour que son p99 soit significatif reçoit une erreur égale à ses valeurs : elle reste
+   * mesurée, mais ne peut pas compter comme régression.
+   *
+   * @param file le rapport au format JSON
+   * @param minRequests le nombre minimal de requêtes pour qu'une opération soit significative
+   * @return les métriques indexées par nom
+   * @throws IOException en cas d'erreur de lecture
+   */
+  static Map<String, Metric> readLoad(Path file, long minRequests) throws IOException {
+    Map<String, Metric> metrics = new TreeMap<>();
+    JsonObject report;
+    try (Reader reader = Files.newBufferedReader(file)) {
+      report = new Gson().fromJson(reader, JsonObject.class);
+    }
+    for (Map.Entry<String, JsonElement> entry : report.getAsJsonObject("operations").entrySet()) {
+      JsonObject operation = entry.getValue().getAsJsonObject();
+      boolean significant = operation.get("requests").getAsLong() >= minRequests;
+      String name = "load " + entry.getKey();
+      double throughput = operation.get("throughput").getAsDouble();
+      double p99 = operation.get("p99Ms").getAsDouble();
+      metrics.put(name + " throughput", new Metric(throughput, significant ? 0 : throughput, "req/s", true));
+      metrics.put(name + " p99", new Metric(p99, significant ? 0 : p99, "ms", false));
+    }
+    return metrics;
+  }
+
+  /**
+   * Compare les métriques courantes à la référence et met en forme le tableau des écarts.
+   * Une métrique de la référence absente des mesures compte comme une régression ; une métrique absente
+   * de la référence est seulement signalée.
+   *
+   * @param baseline les métriques de référence
+   * @param current les métriques mesurées
+   * @param threshold la dégradation relative tolérée (0.20 pour 20 %)
+   * @param table reçoit le tableau des écarts
+   * @return le nombre de régressions et de métriques non mesurées
+   */
+  static int compare(Map<String, Metric> baseline, Map<String, Metric> current, double threshold,
+      StringBuilder table) {
+    int regressions = 0;
+    TreeSet<String> names = new TreeSet<>(baseline.keySet());
+    names.addAll(current.keySet());
+    String row = "%-" + names.stream().mapToInt(String::length).max().orElse(6) + "s %18s %18s %9s  %s%n";
+    table.append(String.format(Locale.ROOT, row, "metric", "baseline", "current", "change", "status"));
+    for (String name : names) {
+      Metric before = baseline.get(name);
+      Metric after = current.get(name);
+      String status;
+      String change = "";
+      if (before == null) {
+        status = "new";
+      } else if (after == null) {
+        status = "NOT RUN";
+        regressions++;
+      } else {
+        double delta = (after.getValue() - before.getValue()) / before.getValue();
+        change = String.format(Locale.ROOT, "%+.1f%%", delta * 100);
+        double degradation = before.isHigherIsBetter() ? -delta : delta;
+        boolean significant = Math.abs(after.getValue() - before.getValue()) > before.getError() + after.getError();
+        if (degradation > threshold && significant) {
+          status = "REGRESSION";
+          regressions++;
+        } else if (degradation > threshold) {
+          status = "within error";
+        } else if (degradation < -threshold && significant) {
+          status = "improved";
+        } else {
+          status = "ok";
+        }
+      }
+      table.append(String.format(Locale.ROOT, row, name, format(before), format(after), change, status));
+    }
+    return regressions;
+  }
+
+  private static String format(Metric metric) {
+    return metric == null ? "-" : String.format(Locale.ROOT, "%.3f %s", metric.getValue(), metric.getUnit());
+  }
+
+  /**
+   * Retourne la demi-largeur de l'intervalle de confiance à 99,9 % calculé par JMH, ou 0 si JMH n'a pas pu
+   * la calculer (une seule itération de mesure).
+   */
+  private static double scoreError(JsonObject primary) {
+    double error = primary.get("scoreError").getAsDouble();
+    return Double.isNaN(error) ? 0 : error;
+  }
+
+  private static Map<String, Metric> readBaseline(Path file) throws IOException {
+    if (!Files.exists(file)) {
+      return new TreeMap<>();
+    }
+    try (Reader reader = Files.newBufferedReader(file)) {
+      return new Gson().fromJson(reader, new TypeToken<TreeMap<String, Metric>>() { }.getType());
+    }
+  }
+
+  /**
+   * Point d'entrée en ligne de commande. Options {@code --baseline}, {@code --jmh}, {@code --load}
+   * (fichiers ignorés s'ils n'existent pas), {@code --threshold}, {@code --min-requests} et {@code --update}.
+   *
+   * @param args les options sous la forme {@code --nom=valeur}
+   * @throws IOException en cas d'erreur de lecture ou d'écriture
+   */
+  public static void main(String[] args) throws IOException {
+    Path baselineFile = Path.of("src/jmh/performance-baseline.json");
+    Path jmhFile = Path.of("target/jmh-result.json");
+    Path loadFile = Path.of("target/load-report.json");
+    double threshold = 0.20;
+    long minRequests = 50;
+    boolean update = false;
+    for (String arg : args) {
+      String[] option = arg.replaceFirst("^--", "").split("=", 2);
+      String value = option.length > 1 ? option[1] : "";
+      switch (option[0]) {
+        case "baseline" -> baselineFile = Path.of(value);
+        case "jmh" -> jmhFile = Path.of(value);
+        case "load" -> loadFile = Path.of(value);
+        case "threshold" -> threshold = Double.parseDouble(value);
+        case "min-requests" -> minRequests = Long.parseLong(value);
+        case "update" -> update = Boolean.parseBoolean(value);
+        default -> throw new IllegalArgumentException("Unknown option: " + arg);
+      }
+    }
+
+    Map<String, Metric> current = new TreeMap<>();
+    if (Files.exists(jmhFile)) {
+      current.putAll(readJmh(jmhFile));
+    }
+    if (Files.exists(loadFile)) {
+      current.putAll(readLoad(loadFile, minRequests));
+    }
+    if (current.isEmpty()) {
+      throw new IllegalStateException("No results found in " + jmhFile + " or " + loadFile);
+    }
+    Map<String, Metric> baseline = readBaseline(baselineFile);
+
+    StringBuilder table = new StringBuilder();
+    int regressions = compare(baseline, current, threshold, table);
+    System.out.print(table);
+
+    if (update) {
+      try (Writer writer = Files.newBufferedWriter(baselineFile)) {
+        new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create().toJson(current, writer);
+      }
+      System.out.printf("Baseline %s updated with %d metrics%n", baselineFile, current.size());
+    } else if (regressions > 0) {
+      System.out.printf("%d metric(s) regressed by more than %.0f%% or were not run against %s%n", regressions,
+          threshold * 100, baselineFile);
+      System.exit(1);
+    } else {
+      System.out.printf("No regression beyond %.0f%% against %s%n", threshold * 100, baselineFile);
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.openclassrooms.safetynet.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.openclassrooms.safetynet.benchmark.PerformanceGate.Metric;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class PerformanceGateTest {
+
+  private static final double THRESHOLD = 0.20;
+
+  @Test
+  void compare_shouldCountSignificantDegradationAsRegression() {
+    // given
+    Map<String, Metric> baseline = Map.of("jmh fire throughput", new Metric(100, 5, "ops/ms", true));
+    Map<String, Metric> current = Map.of("jmh fire throughput", new Metric(70, 5, "ops/ms", true));
+    StringBuilder table = new StringBuilder();
+
+    // when
+    int regressions = PerformanceGate.compare(baseline, current, THRESHOLD, table);
+
+    // then
+    assertThat(regressions).isEqualTo(1);
+    assertThat(table.toString()).contains("-30.0%").contains("REGRESSION");
+  }
+
+  @Test
+  void compare_shouldNotCountDegradationWithinOverlappingErrors() {
+    // given
+    Map<String, Metric> baseline = Map.of("load fire p99", new Metric(10, 3, "ms", false));
+    Map<String, Metric> current = Map.of("load fire p99", new Metric(15, 3, "ms", false));
+    StringBuilder table = new StringBuilder();
+
+    // when
+    int regressions = PerformanceGate.compare(baseline, current, THRESHOLD, table);
+
+    // then
+    assertThat(regressions).isZero();
+    assertThat(table.toString()).contains("+50.0%").contains("within error");
+  }
+
+  @Test
+  void compare_shouldCountBaselineMetricMissingFromResultsAsNotRun() {
+    // given
+    Map<String, Metric> baseline = Map.of(
+        "jmh fire throughput", new Metric(100, 0, "ops/ms", true),
+        "jmh flood throughput", new Metric(50, 0, "ops/ms", true));
+    Map<String, Metric> current = Map.of(
+        "jmh fire throughput", new Metric(100, 0, "ops/ms", true),
+        "jmh childAlert throughput", new Metric(80, 0, "ops/ms", true));
+    StringBuilder table = new StringBuilder();
+
+    // when
+    int regressions = PerformanceGate.compare(baseline, current, THRESHOLD, table);
+
+    // then
+    assertThat(regressions).isEqualTo(1);
+    assertThat(table.toString()).contains("NOT RUN").contains("new");
+  }
+
+  @Test
+  void compare_shouldReportSignificantGainAsImproved() {
+    // given
+    Map<String, Metric> baseline = Map.of("load fire p99", new Metric(20, 1, "ms", false));
+    Map<String, Metric> current = Map.of("load fire p99", new Metric(10, 1, "ms", false));
+    StringBuilder table = new StringBuilder();
+
+    // when
+    int regressions = PerformanceGate.compare(baseline, current, THRESHOLD, table);
+
+    // then
+    assertThat(regressions).isZero();
+    assertThat(table.toString()).contains("-50.0%").contains("improved");
+  }
+}
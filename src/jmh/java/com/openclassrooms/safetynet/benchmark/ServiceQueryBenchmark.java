@@ -0,0 +1,151 @@
+package com.openclassrooms.safetynet.benchmark;
+
+import com.openclassrooms.safetynet.dto.AddressCompletionDTO;
+import com.openclassrooms.safetynet.dto.ChildAlertResponseDTO;
+import com.openclassrooms.safetynet.dto.CommunityEmailDTO;
+import com.openclassrooms.safetynet.dto.FireResponseDTO;
+import com.openclassrooms.safetynet.dto.FirestationResponseDTO;
+import com.openclassrooms.safetynet.dto.FloodResponseDTO;
+import com.openclassrooms.safetynet.dto.PersonInfoResponseDTO;
+import com.openclassrooms.safetynet.dto.PhoneAlertResponseDTO;
+import com.openclassrooms.safetynet.dto.ResidentFilterResponseDTO;
+import com.openclassrooms.safetynet.repository.DataRepository;
+import com.openclassrooms.safetynet.repository.NameSearchIndex;
+import com.openclassrooms.safetynet.service.AddressAutocompleteService;
+import com.openclassrooms.safetynet.service.ChildAlertService;
+import com.openclassrooms.safetynet.service.CommunityEmailService;
+import com.openclassrooms.safetynet.service.FireService;
+import com.openclassrooms.safetynet.service.FirestationService;
+import com.openclassrooms.safetynet.service.FloodService;
+import com.openclassrooms.safetynet.service.MedicalRecordService;
+import com.openclassrooms.safetynet.service.PersonInfoService;
+import com.openclassrooms.safetynet.service.PhoneAlertService;
+import com.openclassrooms.safetynet.service.ResidentFilterService;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Débit des méthodes de consultation des services sur des jeux de données de 1 000, 100 000 et 1 000 000
+ * de résidents (voir {@link BenchmarkDataset}). Chaque appel interroge une adresse, une caserne, un nom
+ * ou une ville tirés au hasard afin de ne pas mesurer toujours le même cas.
+ *
+ * <pre>
+ * mvn -Pbenchmark verify -DskipTests -Djmh.args="ServiceQueryBenchmark -p residents=1000 -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class ServiceQueryBenchmark {
+
+  @Param({"1000", "100000", "1000000"})
+  public int residents;
+
+  private BenchmarkDataset dataset;
+
+  private FirestationService firestationService;
+  private FireService fireService;
+  private FloodService floodService;
+  private ChildAlertService childAlertService;
+  private PersonInfoService personInfoService;
+  private PhoneAlertService phoneAlertService;
+  private CommunityEmailService communityEmailService;
+  private ResidentFilterService residentFilterService;
+  private AddressAutocompleteService addressAutocompleteService;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    dataset = new BenchmarkDataset(residents);
+    DataRepository dataRepository = dataset.toRepository();
+    MedicalRecordService medicalRecordService = new MedicalRecordService(dataRepository);
+    firestationService = new FirestationService(dataRepository);
+    fireService = new FireService(dataRepository, medicalRecordService);
+    floodService = new FloodService(dataRepository, medicalRecordService);
+    childAlertService = new ChildAlertService(dataRepository);
+    personInfoService = new PersonInfoService(dataRepository, medicalRecordService);
+    phoneAlertService = new PhoneAlertService(firestationService);
+    communityEmailService = new CommunityEmailService(dataRepository);
+    residentFilterService = new ResidentFilterService(dataRepository);
+    addressAutocompleteService = new AddressAutocompleteService(dataRepository);
+  }
+
+  @Benchmark
+  public FirestationResponseDTO getPeopleByStation() {
+    return firestationService.getPeopleByStation(randomStation());
+  }
+
+  @Benchmark
+  public FireResponseDTO findResidentsByAddress() {
+    return fireService.findResidentsByAddress(dataset.generator.address(randomAddress()));
+  }
+
+  @Benchmark
+  public List<FloodResponseDTO> findHouseholdsByStationNumbers() {
+    return floodService.findHouseholdsByStationNumbers(List.of(randomStation(), randomStation()));
+  }
+
+  @Benchmark
+  public ChildAlertResponseDTO findChildrenAndFamilyByAddress() {
+    return childAlertService.findChildrenAndFamilyByAddress(dataset.generator.address(randomAddress()));
+  }
+
+  @Benchmark
+  public List<PersonInfoResponseDTO> findPersonsInfoByLastName() {
+    return personInfoService.findPersonsInfoByLastName(dataset.generator.lastName(randomAddress()));
+  }
+
+  @Benchmark
+  public List<PersonInfoResponseDTO> searchPersonsInfoFuzzy() {
+    String lastName = dataset.generator.lastName(randomAddress());
+    String mistyped = lastName.charAt(1) + lastName.substring(0, 1) + lastName.substring(2);
+    return personInfoService.searchPersonsInfo(mistyped, null, NameSearchIndex.Mode.FUZZY, 50);
+  }
+
+  @Benchmark
+  public PhoneAlertResponseDTO findPhoneNumberOfPeopleByFirestation() {
+    return phoneAlertService.findPhoneNumberOfPeopleByFirestation(randomStation());
+  }
+
+  @Benchmark
+  public List<CommunityEmailDTO> findEmailByCity() {
+    return communityEmailService.findEmailByCity(
+        dataset.generator.city(ThreadLocalRandom.current().nextInt(BenchmarkDataset.CITIES)));
+  }
+
+  @Benchmark
+  public ResidentFilterResponseDTO filterResidents() {
+    String city = dataset.generator.city(ThreadLocalRandom.current().nextInt(BenchmarkDataset.CITIES));
+    return residentFilterService.filterResidents("city:\"" + city + "\" AND station:" + randomStation()
+        + " AND (age:child OR flag:allergy)", 0);
+  }
+
+  @Benchmark
+  public List<AddressCompletionDTO> completeAddress() {
+    String address = dataset.generator.address(randomAddress());
+    return addressAutocompleteService.completeAddress(address.substring(0, address.length() / 2), 10);
+  }
+
+  private int randomAddress() {
+    return ThreadLocalRandom.current().nextInt(dataset.addressCount);
+  }
+
+  private int randomStation() {
+    return ThreadLocalRandom.current().nextInt(dataset.stationCount) + 1;
+  }
+}
@@ -0,0 +1,165 @@
+package com.openclassrooms.safetynet.config;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Contrôle d'admission des requêtes par classe de priorité.
+ * Chaque classe dispose de son propre nombre de places (bulkhead), de sorte que les écritures en masse
+ * ne puissent jamais occuper tous les threads du serveur.
+ * Seules les requêtes d'urgence attendent qu'une place se libère, pendant un délai borné : les requêtes
+ * standard et en masse sont rejetées immédiatement (503) lorsque leur classe est pleine, afin de ne jamais
+ * bloquer un thread du serveur dont une requête d'urgence pourrait avoir besoin.
+ * Les écritures sont rejetées en premier (503) lorsque la charge d'urgence dépasse un seuil.
+ * Une requête asynchrone (réponse diffusée) conserve sa place jusqu'à la fin de son dispatch asynchrone,
+ * où elle est libérée une seule fois.
+ */
+@Component
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@Slf4j
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+  private static final String PERMIT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".permit";
+
+  private final Map<PriorityClass, Semaphore> permits = new EnumMap<>(PriorityClass.class);
+  private final long emergencyQueueTimeout;
+  private final int emergencyMaxConcurrent;
+  private final int bulkShedThreshold;
+
+  public AdmissionControlInterceptor(
+      @Value("${safetynet.admission.emergency.max-concurrent:100}") int emergencyMaxConcurrent,
+      @Value("${safetynet.admission.emergency.queue-timeout-ms:2000}") long emergencyQueueTimeout,
+      @Value("${safetynet.admission.standard.max-concurrent:50}") int standardMaxConcurrent,
+      @Value("${safetynet.admission.bulk.max-concurrent:10}") int bulkMaxConcurrent,
+      @Value("${safetynet.admission.bulk.shed-threshold:20}") int bulkShedThreshold) {
+    this.emergencyMaxConcurrent = emergencyMaxConcurrent;
+    this.emergencyQueueTimeout = emergencyQueueTimeout;
+    this.bulkShedThreshold = bulkShedThreshold;
+    permits.put(PriorityClass.EMERGENCY, new Semaphore(emergencyMaxConcurrent, true));
+    permits.put(PriorityClass.STANDARD, new Semaphore(standardMaxConcurrent, true));
+    permits.put(PriorityClass.BULK, new Semaphore(bulkMaxConcurrent, true));
+  }
+
+  /**
+   * Réserve une place pour la requête dans sa classe de priorité.
+   * Une requête d'urgence est rejetée avec 503 si aucune place ne se libère avant le délai configuré ;
+   * les autres sont rejetées sans attendre si leur classe est pleine.
+   * Le dispatch asynchrone d'une requête déjà admise réutilise la place réservée au premier dispatch.
+   */
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+      throws Exception {
+    if (request.getDispatcherType() == DispatcherType.ASYNC
+        && request.getAttribute(PERMIT_ATTRIBUTE) instanceof PriorityClass) {
+      return true;
+    }
+    PriorityClass priority = resolvePriority(request, handler);
+
+    if (priority == PriorityClass.BULK && emergencyInFlight() >= bulkShedThreshold) {
+      log.warn("Shedding {} {} - emergency load is {} requests", request.getMethod(),
+          request.getRequestURI(), emergencyInFlight());
+      reject(response);
+      return false;
+    }
+
+    Semaphore semaphore = permits.get(priority);
+    boolean admitted = priority == PriorityClass.EMERGENCY
+        ? semaphore.tryAcquire(emergencyQueueTimeout, TimeUnit.MILLISECONDS)
+        : semaphore.tryAcquire();
+    if (!admitted) {
+      log.warn("Rejecting {} {} - no {} capacity available", request.getMethod(),
+          request.getRequestURI(), priority);
+      reject(response);
+      return false;
+    }
+    request.setAttribute(PERMIT_ATTRIBUTE, priority);
+    return true;
+  }
+
+  /**
+   * Libère la place réservée par {@link #preHandle}, y compris lorsque le traitement a échoué.
+   * Spring ne l'appelle pas à la fin du premier dispatch d'une requête asynchrone, mais à la fin de son
+   * dispatch asynchrone, même en cas d'expiration ou d'erreur.
+   */
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+      Exception ex) {
+    Object priority = request.getAttribute(PERMIT_ATTRIBUTE);
+    if (priority instanceof PriorityClass priorityClass) {
+      request.removeAttribute(PERMIT_ATTRIBUTE);
+      permits.get(priorityClass).release();
+    }
+  }
+
+  /**
+   * Conserve la place réservée lorsque le traitement se poursuit de manière asynchrone : elle sera libérée
+   * par {@link #afterCompletion} à la fin du dispatch asynchrone.
+   */
+  @Override
+  public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+      Object handler) {
+    log.debug("Keeping {} permit for asynchronous {} {}", request.getAttribute(PERMIT_ATTRIBUTE),
+        request.getMethod(), request.getRequestURI());
+  }
+
+  /**
+   * Détermine la classe de priorité d'une requête.
+   * Ordre de résolution : annotation de méthode, annotation de contrôleur, puis méthode HTTP
+   * (les lectures sont standard, les écritures sont en masse).
+   *
+   * @param request la requête HTTP
+   * @param handler le handler résolu par Spring MVC
+   * @return la classe de priorité de la requête
+   */
+  PriorityClass resolvePriority(HttpServletRequest request, Object handler) {
+    if (handler instanceof HandlerMethod handlerMethod) {
+      RequestPriority annotation = handlerMethod.getMethodAnnotation(RequestPriority.class);
+      if (annotation == null) {
+        annotation = handlerMethod.getBeanType().getAnnotation(RequestPriority.class);
+      }
+      if (annotation != null) {
+        return annotation.value();
+      }
+    }
+    return HttpMethod.GET.matches(request.getMethod()) ? PriorityClass.STANDARD : PriorityClass.BULK;
+  }
+
+  /**
+   * Nombre de requêtes d'urgence en cours de traitement.
+   *
+   * @return le nombre de places d'urgence occupées
+   */
+  int emergencyInFlight() {
+    return emergencyMaxConcurrent - permits.get(PriorityClass.EMERGENCY).availablePermits();
+  }
+
+  /**
+   * Nombre de places libres d'une classe de priorité.
+   *
+   * @param priority la classe de priorité
+   * @return le nombre de places disponibles
+   */
+  int availablePermits(PriorityClass priority) {
+    return permits.get(priority).availablePermits();
+  }
+
+  private void reject(HttpServletResponse response) throws Exception {
+    response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+    response.setHeader("Retry-After", "1");
+    response.getWriter().write("Server busy, retry later");
+  }
+}
@@ -0,0 +1,30 @@
+package com.openclassrooms.safetynet.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration du mode d'exécution de l'application.
+ * Lorsque {@code spring.threads.virtual.enabled=true}, Tomcat traite les requêtes sur des threads virtuels
+ * et la persistance du fichier JSON est déléguée à un exécuteur de threads virtuels.
+ * Sinon, les requêtes restent sur le pool de threads de Tomcat et la persistance est synchrone.
+ */
+@Configuration
+public class ExecutionConfig {
+
+  /**
+   * Exécuteur de persistance en mode threads virtuels.
+   * Sa fermeture à l'arrêt de l'application attend la fin des sauvegardes en cours.
+   *
+   * @return l'exécuteur de persistance
+   */
+  @Bean(destroyMethod = "close")
+  @ConditionalOnThreading(Threading.VIRTUAL)
+  public ExecutorService persistenceExecutor() {
+    return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("persistence-", 0).factory());
+  }
+}
@@ -0,0 +1,56 @@
+package com.openclassrooms.safetynet.config;
+
+import com.openclassrooms.safetynet.event.EntityType;
+import com.openclassrooms.safetynet.repository.DataRepository;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.io.File;
+import java.util.List;
+import java.util.Locale;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration des métriques Micrometer de l'application.
+ * Active l'annotation {@code @Timed} et expose les jauges du DataRepository
+ * (nombre d'entités par type, taille du fichier JSON et taux de faux positifs attendu des filtres
+ * de présence utilisés pour le contrôle des doublons).
+ */
+@Configuration
+public class MetricsConfig {
+
+  @Bean
+  public TimedAspect timedAspect(MeterRegistry registry) {
+    return new TimedAspect(registry);
+  }
+
+  @Bean
+  public MeterBinder dataRepositoryMetrics(DataRepository dataRepository) {
+    return registry -> {
+      Gauge.builder("safetynet.repository.entities", dataRepository, r -> size(r.getPersons()))
+          .tag("entity", "person")
+          .register(registry);
+      Gauge.builder("safetynet.repository.entities", dataRepository, r -> size(r.getFirestations()))
+          .tag("entity", "firestation")
+          .register(registry);
+      Gauge.builder("safetynet.repository.entities", dataRepository, r -> size(r.getMedicalRecords()))
+          .tag("entity", "medical_record")
+          .register(registry);
+      Gauge.builder("safetynet.repository.file.size", dataRepository, r -> new File(r.getFilePath()).length())
+          .baseUnit("bytes")
+          .register(registry);
+      for (EntityType entity : EntityType.values()) {
+        Gauge.builder("safetynet.repository.filter.false.positive.rate", dataRepository,
+                r -> r.expectedFalsePositiveRate(entity))
+            .tag("entity", entity.name().toLowerCase(Locale.ROOT))
+            .register(registry);
+      }
+    };
+  }
+
+  private static double size(List<?> list) {
+    return list == null ? 0 : list.size();
+  }
+}
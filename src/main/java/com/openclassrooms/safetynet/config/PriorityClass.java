@@ -0,0 +1,11 @@
+package com.openclassrooms.safetynet.config;
+
+/**
+ * Classes de priorité des requêtes HTTP utilisées par le contrôle d'admission.
+ * Les lectures d'urgence passent avant les lectures standard, elles-mêmes avant les écritures administratives.
+ */
+public enum PriorityClass {
+  EMERGENCY,
+  STANDARD,
+  BULK
+}
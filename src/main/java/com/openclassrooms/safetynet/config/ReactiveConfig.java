@@ -0,0 +1,26 @@
+package com.openclassrooms.safetynet.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Configuration du profil {@code reactive}.
+ * Tomcat et Netty étant tous deux présents, force l'utilisation de Netty pour le serveur WebFlux.
+ *
+ * <p>Ce profil ne sert que les endpoints d'alerte en lecture ({@code controller.reactive}) : les autres
+ * contrôleurs sont réservés au profil servlet, car leurs écritures bloquent sur le verrou d'écriture du
+ * dépôt et sur la persistance, ce qui ne doit jamais se produire sur la boucle d'événements de Netty.
+ * Le contrôle d'admission, l'en-tête {@code Server-Timing}, l'explication des requêtes et le journal
+ * d'accès, propres aux servlets, n'y sont pas actifs.</p>
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+  @Bean
+  public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+    return new NettyReactiveWebServerFactory();
+  }
+}
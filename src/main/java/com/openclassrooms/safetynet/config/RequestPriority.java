@@ -0,0 +1,17 @@
+package com.openclassrooms.safetynet.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Déclare la classe de priorité d'un contrôleur ou d'une méthode de contrôleur.
+ * L'annotation portée par la méthode est prioritaire sur celle portée par la classe.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequestPriority {
+
+  PriorityClass value();
+}
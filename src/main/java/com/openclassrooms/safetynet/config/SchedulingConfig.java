@@ -0,0 +1,12 @@
+package com.openclassrooms.safetynet.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Active les tâches planifiées de l'application, comme le recalcul quotidien des âges.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,27 @@
+package com.openclassrooms.safetynet.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration Spring MVC de l'application.
+ * Enregistre le contrôle d'admission par priorité sur tous les endpoints,
+ * sauf le flux de modifications dont les connexions longues ne mobilisent pas de thread.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+  private final AdmissionControlInterceptor admissionControlInterceptor;
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(admissionControlInterceptor)
+        .excludePathPatterns("/changes/stream");
+  }
+}
@@ -0,0 +1,43 @@
+package com.openclassrooms.safetynet.controller;
+
+import com.openclassrooms.safetynet.config.PriorityClass;
+import com.openclassrooms.safetynet.config.RequestPriority;
+import com.openclassrooms.safetynet.dto.AddressCompletionDTO;
+import com.openclassrooms.safetynet.service.AddressAutocompleteService;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Contrôleur REST pour l'autocomplétion des adresses.
+ * Utilisé par les régulateurs pour retrouver l'adresse exacte avant d'appeler /fire ou /childAlert.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+@Profile("!reactive")
+@RequestPriority(PriorityClass.EMERGENCY)
+public class AddressController {
+
+  private final AddressAutocompleteService addressAutocompleteService;
+
+  /**
+   * Propose les adresses qui complètent une saisie partielle.
+   *
+   * @param q la saisie
+   * @param limit le nombre maximal de propositions (10 par défaut)
+   * @return List<AddressCompletionDTO> contenant les adresses proposées et la caserne qui les dessert
+   */
+  @GetMapping("/address/autocomplete")
+  public List<AddressCompletionDTO> completeAddress(@RequestParam String q,
+      @RequestParam(defaultValue = "10") int limit) {
+    log.debug("GET request received for address completions of '{}' (limit {})", q, limit);
+    List<AddressCompletionDTO> completions = addressAutocompleteService.completeAddress(q, Math.max(0, limit));
+    log.debug("Response: Found {} address completion(s) for '{}'", completions.size(), q);
+    return completions;
+  }
+}
@@ -1,11 +1,14 @@
 package com.openclassrooms.safetynet.controller;
 
+import com.openclassrooms.safetynet.config.PriorityClass;
+import com.openclassrooms.safetynet.config.RequestPriority;
 import com.openclassrooms.safetynet.dto.ChildAlertResponseDTO;
 import com.openclassrooms.safetynet.dto.PhoneAlertResponseDTO;
 import com.openclassrooms.safetynet.service.ChildAlertService;
 import com.openclassrooms.safetynet.service.PhoneAlertService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -17,6 +20,8 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequiredArgsConstructor
 @Slf4j
+@Profile("!reactive")
+@RequestPriority(PriorityClass.EMERGENCY)
 public class AlertController {
 
   private final ChildAlertService childAlertService;
@@ -30,9 +35,9 @@ public class AlertController {
    */
   @GetMapping("/childAlert")
   public ChildAlertResponseDTO getChildAlertByAddress(@RequestParam String address) {
-    log.info("GET request received for child alert at address: '{}'", address);
+    log.debug("GET request received for child alert at address: '{}'", address);
     ChildAlertResponseDTO response = childAlertService.findChildrenAndFamilyByAddress(address);
-    log.info("Response: Found {} children and {} family members at address: '{}'", 
+    log.debug("Response: Found {} children and {} family members at address: '{}'", 
         response.getChildren().size(), response.getFamily().size(), address);
     return response;
   }
@@ -45,9 +50,9 @@ public class AlertController {
    */
   @GetMapping("/phoneAlert")
   public PhoneAlertResponseDTO getListOfPhoneNumberByAddress(@RequestParam int stationNumber) {
-    log.info("GET request received for phone numbers covered by station: {}", stationNumber);
+    log.debug("GET request received for phone numbers covered by station: {}", stationNumber);
     PhoneAlertResponseDTO response = phoneAlertService.findPhoneNumberOfPeopleByFirestation(stationNumber);
-    log.info("Response: Found {} phone numbers for station: {}", 
+    log.debug("Response: Found {} phone numbers for station: {}", 
         response.getPhoneNumber().size(), stationNumber);
     return response;
   }
@@ -0,0 +1,41 @@
+package com.openclassrooms.safetynet.controller;
+
+import com.openclassrooms.safetynet.service.ChangeStreamService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Contrôleur REST pour l'abonnement aux modifications de données.
+ * Fournit un flux Server-Sent Events filtrable par station, adresse ou ville, qui remplace l'interrogation périodique.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+@Profile("!reactive")
+public class ChangeStreamController {
+
+  private final ChangeStreamService changeStreamService;
+
+  /**
+   * Ouvre un flux d'événements des modifications concernant une station, une adresse ou une ville.
+   *
+   * @param stationNumber le numéro de station à suivre (optionnel)
+   * @param address l'adresse à suivre (optionnel)
+   * @param city la ville à suivre (optionnel)
+   * @return SseEmitter le flux d'événements
+   */
+  @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamChanges(@RequestParam(required = false) Integer stationNumber,
+      @RequestParam(required = false) String address,
+      @RequestParam(required = false) String city) {
+    log.debug("GET request received for change stream: station={}, address='{}', city='{}'",
+        stationNumber, address, city);
+    return changeStreamService.subscribe(stationNumber, address, city);
+  }
+}
@@ -1,24 +1,35 @@
 package com.openclassrooms.safetynet.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.openclassrooms.safetynet.dto.CommunityEmailDTO;
 import com.openclassrooms.safetynet.service.CommunityEmailService;
 import java.util.List;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Contrôleur REST pour la gestion des emails communautaires.
  * Fournit des endpoints pour récupérer les adresses email des résidents d'une ville.
+ * Avec {@code Accept: application/x-ndjson}, les adresses sont écrites une par ligne au fil du parcours,
+ * sans construire la liste complète, pour les villes de plusieurs centaines de milliers de résidents.
  */
 @RestController
 @RequiredArgsConstructor
 @Slf4j
+@Profile("!reactive")
 public class CommunityEmailController {
 
+  private static final String NDJSON = "application/x-ndjson";
+
   private final CommunityEmailService communityEmailService;
+  private final ObjectMapper objectMapper;
 
   /**
    * Récupère toutes les adresses email des habitants d'une ville donnée.
@@ -28,7 +39,27 @@ public class CommunityEmailController {
    */
   @GetMapping("/communityEmail")
   public List<CommunityEmailDTO> findCommunityEmail(@RequestParam String city) {
-    log.info("Retrieving community email for city {}", city);
+    log.debug("Retrieving community email for city {}", city);
     return communityEmailService.findEmailByCity(city);
   }
+
+  /**
+   * Diffuse les adresses email des habitants d'une ville donnée, une par ligne.
+   *
+   * @param city le nom de la ville
+   * @return ResponseEntity contenant le flux des adresses au format NDJSON
+   */
+  @GetMapping(value = "/communityEmail", produces = NDJSON)
+  public ResponseEntity<StreamingResponseBody> streamCommunityEmail(@RequestParam String city) {
+    log.debug("Streaming community email for city {}", city);
+    StreamingResponseBody body = output -> {
+      try (Stream<CommunityEmailDTO> emails = communityEmailService.streamEmailByCity(city)) {
+        for (CommunityEmailDTO email : (Iterable<CommunityEmailDTO>) emails::iterator) {
+          output.write(objectMapper.writeValueAsBytes(email));
+          output.write('\n');
+        }
+      }
+    };
+    return ResponseEntity.ok().header("Content-Type", NDJSON).body(body);
+  }
 }
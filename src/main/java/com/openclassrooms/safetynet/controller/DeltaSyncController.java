@@ -0,0 +1,42 @@
+package com.openclassrooms.safetynet.controller;
+
+import com.openclassrooms.safetynet.dto.ChangesResponseDTO;
+import com.openclassrooms.safetynet.service.DeltaSyncService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Contrôleur REST pour la synchronisation incrémentale des données.
+ * Fournit un endpoint retournant uniquement les modifications depuis une version donnée.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+@Profile("!reactive")
+public class DeltaSyncController {
+
+  private final DeltaSyncService deltaSyncService;
+
+  /**
+   * Récupère les modifications postérieures à une version donnée.
+   * Un client qui ne connaît pas encore l'époque des données, ou qui l'omet, reçoit une demande
+   * de resynchronisation accompagnée de l'époque et de la version courantes.
+   *
+   * @param since la dernière version connue du client (0 pour toutes les modifications conservées)
+   * @param epoch l'époque des données connue du client
+   * @return ChangesResponseDTO contenant les modifications ou l'indication de resynchronisation
+   */
+  @GetMapping("/changes")
+  public ChangesResponseDTO getChangesSince(@RequestParam long since,
+      @RequestParam(required = false) String epoch) {
+    log.debug("GET request received for changes since version {}", since);
+    ChangesResponseDTO response = deltaSyncService.findChangesSince(since, epoch);
+    log.debug("Response: {} changes, current version {}, resync required: {}",
+        response.getChanges().size(), response.getCurrentVersion(), response.isResyncRequired());
+    return response;
+  }
+}
@@ -1,10 +1,15 @@
 package com.openclassrooms.safetynet.controller;
 
+import com.openclassrooms.safetynet.config.PriorityClass;
+import com.openclassrooms.safetynet.config.RequestPriority;
 import com.openclassrooms.safetynet.dto.FireResponseDTO;
+import com.openclassrooms.safetynet.monitoring.ServerTiming;
+import com.openclassrooms.safetynet.monitoring.ServerTiming.Phase;
 import com.openclassrooms.safetynet.service.FireService;
 import com.openclassrooms.safetynet.service.FirestationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -16,6 +21,8 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequiredArgsConstructor
 @Slf4j
+@Profile("!reactive")
+@RequestPriority(PriorityClass.EMERGENCY)
 public class FireController {
 
   private final FirestationService firestationService;
@@ -29,12 +36,14 @@ public class FireController {
    */
   @GetMapping("/fire")
   public FireResponseDTO getFireInfoByAddress(@RequestParam String address) {
+    long start = ServerTiming.start();
     int stationNumber = firestationService.getStationNumberByAddress(address);
+    ServerTiming.record(Phase.RESOLVE, start);
 
     if (stationNumber == -1) {
       log.error("No firestation found for address {}", address);
     } else {
-      log.info("Retrieving people covered by firestation address {}", address);
+      log.debug("Retrieving people covered by firestation address {}", address);
     }
     return fireService.findResidentsByAddress(address);
   }
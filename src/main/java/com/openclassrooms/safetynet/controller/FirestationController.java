@@ -6,6 +6,7 @@ import com.openclassrooms.safetynet.service.FirestationService;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -22,6 +23,7 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequiredArgsConstructor
 @Slf4j
+@Profile("!reactive")
 public class FirestationController {
 
   private final FirestationService firestationService;
@@ -33,9 +35,9 @@ public class FirestationController {
    */
   @GetMapping("/firestations")
   public List<Firestation> getAllFirestations() {
-    log.info("GET request received for all firestations");
+    log.debug("GET request received for all firestations");
     List<Firestation> firestations = firestationService.getAllFirestations();
-    log.info("Response: Found {} firestations", firestations.size());
+    log.debug("Response: Found {} firestations", firestations.size());
     return firestations;
   }
 
@@ -47,9 +49,9 @@ public class FirestationController {
    */
   @GetMapping("/firestation")
   public FirestationResponseDTO getListOfPeopleByStationNumber(@RequestParam int stationNumber) {
-    log.info("GET request received for people covered by station number: {}", stationNumber);
+    log.debug("GET request received for people covered by station number: {}", stationNumber);
     FirestationResponseDTO response = firestationService.getPeopleByStation(stationNumber);
-    log.info("Response: Found {} people covered by station {}", 
+    log.debug("Response: Found {} people covered by station {}", 
         response.getPersons().size(), stationNumber);
     return response;
   }
@@ -63,12 +65,12 @@ public class FirestationController {
    */
   @PostMapping("/firestation")
   public ResponseEntity<String> postFirestationMapping(@RequestParam String address, @RequestParam int stationNumber) {
-    log.info("POST request received to create firestation: address='{}', station={}", 
+    log.debug("POST request received to create firestation: address='{}', station={}", 
         address, stationNumber);
     boolean added = firestationService.addFirestation(address, stationNumber);
 
     if (added) {
-      log.info("Response: Successfully created firestation: address='{}', station={}", 
+      log.debug("Response: Successfully created firestation: address='{}', station={}", 
           address, stationNumber);
       return ResponseEntity.status(HttpStatus.CREATED).body("Successfully added firestation");
     } else {
@@ -87,12 +89,12 @@ public class FirestationController {
    */
   @PutMapping("/firestation")
   public ResponseEntity<String> updateFirestation(@RequestParam String address, @RequestParam int stationNumber) {
-    log.info("PUT request received to update firestation: address='{}', station={}", 
+    log.debug("PUT request received to update firestation: address='{}', station={}", 
         address, stationNumber);
     boolean updated = firestationService.setFirestation(address, stationNumber);
 
     if (updated) {
-      log.info("Response: Successfully updated firestation: address='{}', station={}", 
+      log.debug("Response: Successfully updated firestation: address='{}', station={}", 
           address, stationNumber);
       return ResponseEntity.status(HttpStatus.OK).body("Successfully updated firestation");
     } else {
@@ -112,14 +114,14 @@ public class FirestationController {
    */
   @DeleteMapping("/firestation")
   public ResponseEntity<String> deleteFirestation(@RequestParam(required = false) String address, @RequestParam(required = false) Integer stationNumber) {
-    log.info("DELETE request received with address='{}', station={}", address, stationNumber);
+    log.debug("DELETE request received with address='{}', station={}", address, stationNumber);
 
     if (address != null) {
-      log.info("Processing delete request for firestation by address: '{}'", address);
+      log.debug("Processing delete request for firestation by address: '{}'", address);
       boolean deleted = firestationService.deleteFirestationByAddress(address);
 
       if(deleted) {
-        log.info("Response: Successfully deleted firestation: address='{}'", address);
+        log.debug("Response: Successfully deleted firestation: address='{}'", address);
         return ResponseEntity.ok().body("Deleted firestation with address: " + address);
       } else {
         log.error("Response: Failed to delete firestation - not found: address='{}'", address);
@@ -127,11 +129,11 @@ public class FirestationController {
       }
 
     } else if (stationNumber != null) {
-      log.info("Processing delete request for firestations by station number: {}", stationNumber);
+      log.debug("Processing delete request for firestations by station number: {}", stationNumber);
       boolean deleted = firestationService.deleteFirestationByStation(stationNumber);
 
       if(deleted) {
-        log.info("Response: Successfully deleted firestations with station number: {}", stationNumber);
+        log.debug("Response: Successfully deleted firestations with station number: {}", stationNumber);
         return ResponseEntity.ok().body("Deleted firestation with station number: " + stationNumber);
       } else {
         log.error("Response: Failed to delete firestations - none found with station number: {}", 
@@ -1,10 +1,13 @@
 package com.openclassrooms.safetynet.controller;
 
+import com.openclassrooms.safetynet.config.PriorityClass;
+import com.openclassrooms.safetynet.config.RequestPriority;
 import com.openclassrooms.safetynet.dto.FloodResponseDTO;
 import com.openclassrooms.safetynet.service.FloodService;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -16,6 +19,8 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequiredArgsConstructor
 @Slf4j
+@Profile("!reactive")
+@RequestPriority(PriorityClass.EMERGENCY)
 public class FloodController {
 
   private final FloodService floodService;
@@ -28,7 +33,7 @@ public class FloodController {
    */
   @GetMapping("/flood/stations")
   public List<FloodResponseDTO> getFloodStations(@RequestParam List<Integer> stations) {
-    log.info("Retrieving flood information for stations {}", stations);
+    log.debug("Retrieving flood information for stations {}", stations);
     return floodService.findHouseholdsByStationNumbers(stations);
   }
 }
@@ -0,0 +1,60 @@
+package com.openclassrooms.safetynet.controller;
+
+import com.openclassrooms.safetynet.config.PriorityClass;
+import com.openclassrooms.safetynet.config.RequestPriority;
+import com.openclassrooms.safetynet.dto.MedicalLookupResponseDTO;
+import com.openclassrooms.safetynet.service.MedicalLookupService;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Contrôleur REST pour la recherche des résidents par médicament ou par allergie.
+ * Utilisé lors des rappels de médicaments et des interventions à nombreuses victimes.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+@Profile("!reactive")
+@RequestPriority(PriorityClass.EMERGENCY)
+public class MedicalLookupController {
+
+  private final MedicalLookupService medicalLookupService;
+
+  /**
+   * Recherche les résidents traités par un médicament.
+   *
+   * @param name le nom du médicament, sans dosage
+   * @param stations les numéros de caserne à retenir (optionnel)
+   * @param address l'adresse à retenir (optionnelle)
+   * @return List<MedicalLookupResponseDTO> contenant les résidents trouvés
+   */
+  @GetMapping("/medication")
+  public List<MedicalLookupResponseDTO> getResidentsByMedication(@RequestParam String name,
+      @RequestParam(required = false) List<Integer> stations,
+      @RequestParam(required = false) String address) {
+    log.debug("GET request received for residents taking '{}' (stations {}, address '{}')", name, stations, address);
+    return medicalLookupService.findResidentsByMedication(name, stations, address);
+  }
+
+  /**
+   * Recherche les résidents présentant une allergie.
+   *
+   * @param name l'allergie
+   * @param stations les numéros de caserne à retenir (optionnel)
+   * @param address l'adresse à retenir (optionnelle)
+   * @return List<MedicalLookupResponseDTO> contenant les résidents trouvés
+   */
+  @GetMapping("/allergy")
+  public List<MedicalLookupResponseDTO> getResidentsByAllergy(@RequestParam String name,
+      @RequestParam(required = false) List<Integer> stations,
+      @RequestParam(required = false) String address) {
+    log.debug("GET request received for residents allergic to '{}' (stations {}, address '{}')", name, stations,
+        address);
+    return medicalLookupService.findResidentsByAllergy(name, stations, address);
+  }
+}
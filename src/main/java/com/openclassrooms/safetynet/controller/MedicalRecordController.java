@@ -6,6 +6,7 @@ import jakarta.validation.Valid;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -23,6 +24,7 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequiredArgsConstructor
 @Slf4j
+@Profile("!reactive")
 public class MedicalRecordController {
 
   private final MedicalRecordService medicalRecordService;
@@ -34,9 +36,9 @@ public class MedicalRecordController {
    */
   @GetMapping("/medicalRecords")
   public List<MedicalRecordResponseDTO> getAllMedicalRecords() {
-    log.info("GET request received for all medical records");
+    log.debug("GET request received for all medical records");
     List<MedicalRecordResponseDTO> records = medicalRecordService.findAllMedicalRecords();
-    log.info("Response: Found {} medical records", records.size());
+    log.debug("Response: Found {} medical records", records.size());
     return records;
   }
 
@@ -49,13 +51,13 @@ public class MedicalRecordController {
   @PostMapping("/medicalRecord")
   public ResponseEntity<String> createMedicalRecord(
       @RequestBody @Valid MedicalRecordResponseDTO medicalRecordResponseDTO) {
-    log.info("POST request received to create medical record for: {} {}", 
+    log.debug("POST request received to create medical record for: {} {}", 
         medicalRecordResponseDTO.getFirstName(), medicalRecordResponseDTO.getLastName());
     
     boolean created = medicalRecordService.createNewMedicalRecord(medicalRecordResponseDTO);
 
     if (created) {
-      log.info("Response: Successfully created medical record for: {} {}", 
+      log.debug("Response: Successfully created medical record for: {} {}", 
           medicalRecordResponseDTO.getFirstName(), medicalRecordResponseDTO.getLastName());
       return new ResponseEntity<>("New medical record created", HttpStatus.CREATED);
     } else {
@@ -74,13 +76,13 @@ public class MedicalRecordController {
   @PutMapping("/medicalRecord")
   public ResponseEntity<String> updateMedicalRecord(
       @RequestBody @Valid MedicalRecordResponseDTO medicalRecordResponseDTO) {
-    log.info("PUT request received to update medical record for: {} {}", 
+    log.debug("PUT request received to update medical record for: {} {}", 
         medicalRecordResponseDTO.getFirstName(), medicalRecordResponseDTO.getLastName());
     
     boolean updated = medicalRecordService.updateMedicalRecord(medicalRecordResponseDTO);
 
     if (updated) {
-      log.info("Response: Successfully updated medical record for: {} {}", 
+      log.debug("Response: Successfully updated medical record for: {} {}", 
           medicalRecordResponseDTO.getFirstName(), medicalRecordResponseDTO.getLastName());
       return new ResponseEntity<>("Medical record updated", HttpStatus.OK);
     } else {
@@ -99,13 +101,13 @@ public class MedicalRecordController {
   @DeleteMapping("/medicalRecord")
   public ResponseEntity<String> deleteMedicalRecord(
       @RequestBody @Valid MedicalRecordResponseDTO medicalRecordResponseDTO) {
-    log.info("DELETE request received for medical record: {} {}", 
+    log.debug("DELETE request received for medical record: {} {}", 
         medicalRecordResponseDTO.getFirstName(), medicalRecordResponseDTO.getLastName());
     
     boolean deleted = medicalRecordService.deleteMedicalRecord(medicalRecordResponseDTO);
 
     if (deleted) {
-      log.info("Response: Successfully deleted medical record for: {} {}", 
+      log.debug("Response: Successfully deleted medical record for: {} {}", 
           medicalRecordResponseDTO.getFirstName(), medicalRecordResponseDTO.getLastName());
       return new ResponseEntity<>("Medical record deleted", HttpStatus.OK);
     } else {
@@ -126,10 +128,10 @@ public class MedicalRecordController {
   public List<MedicalRecordResponseDTO> getMedicalRecordByName(
       @RequestParam String firstName,
       @RequestParam String lastName) {
-    log.info("GET request received for medical records with firstName: {}, lastName: {}", 
+    log.debug("GET request received for medical records with firstName: {}, lastName: {}", 
         firstName, lastName);
     List<MedicalRecordResponseDTO> records = medicalRecordService.findMedicalRecordsByName(firstName, lastName);
-    log.info("Response: Found {} medical record(s) for: {} {}", records.size(), firstName, lastName);
+    log.debug("Response: Found {} medical record(s) for: {} {}", records.size(), firstName, lastName);
     return records;
   }
 }
@@ -2,12 +2,15 @@ package com.openclassrooms.safetynet.controller;
 
 import com.openclassrooms.safetynet.dto.PersonDTO;
 import com.openclassrooms.safetynet.dto.PersonInfoResponseDTO;
+import com.openclassrooms.safetynet.repository.NameSearchIndex;
 import com.openclassrooms.safetynet.service.PersonInfoService;
 import com.openclassrooms.safetynet.service.PersonService;
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Locale;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -25,6 +28,7 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequiredArgsConstructor
 @Slf4j
+@Profile("!reactive")
 public class PersonController {
 
   private final PersonInfoService personInfoService;
@@ -32,16 +36,39 @@ public class PersonController {
 
   /**
    * Recherche les informations personnelles des personnes portant un nom de famille donné.
+   * Par défaut le nom doit correspondre exactement (casse ignorée) ; avec {@code match=prefix} ou
+   * {@code match=fuzzy}, la recherche porte sur un préfixe ou tolère les fautes de frappe, et les
+   * résultats sont classés par pertinence.
    *
    * @param lastName le nom de famille à rechercher
-   * @return List<PersonInfoResponseDTO> contenant les informations des personnes trouvées
+   * @param firstName le prénom à rechercher, avec le même mode (optionnel)
+   * @param match le mode de recherche : exact, prefix ou fuzzy (exact par défaut)
+   * @param limit le nombre maximal de personnes retournées hors mode exact (50 par défaut)
+   * @return ResponseEntity contenant les informations des personnes trouvées,
+   *     ou une erreur 400 si le mode est inconnu ou la limite n'est pas positive
    */
   @GetMapping("/personInfolastName")
-  public List<PersonInfoResponseDTO> getPersonInfoByLastName(@RequestParam String lastName) {
-    log.info("GET request received for person info with lastName: {}", lastName);
-    List<PersonInfoResponseDTO> result = personInfoService.findPersonsInfoByLastName(lastName);
-    log.info("Response: Found {} person(s) with lastName: {}", result.size(), lastName);
-    return result;
+  public ResponseEntity<?> getPersonInfoByLastName(@RequestParam String lastName,
+      @RequestParam(required = false) String firstName,
+      @RequestParam(defaultValue = "exact") String match,
+      @RequestParam(defaultValue = "50") int limit) {
+    log.debug("GET request received for person info with lastName: {} (firstName {}, match {})", lastName,
+        firstName, match);
+    if (limit <= 0) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("limit must be positive");
+    }
+    NameSearchIndex.Mode mode;
+    try {
+      mode = NameSearchIndex.Mode.valueOf(match.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      log.error("Response: Unknown name match mode: {}", match);
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("match must be one of exact, prefix, fuzzy");
+    }
+    List<PersonInfoResponseDTO> result = mode == NameSearchIndex.Mode.EXACT && firstName == null
+        ? personInfoService.findPersonsInfoByLastName(lastName)
+        : personInfoService.searchPersonsInfo(lastName, firstName, mode, limit);
+    log.debug("Response: Found {} person(s) with lastName: {}", result.size(), lastName);
+    return ResponseEntity.ok(result);
   }
 
   /**
@@ -51,9 +78,9 @@ public class PersonController {
    */
   @GetMapping("/persons")
   public List<PersonDTO> getAllPersons() {
-    log.info("GET request received for all persons");
+    log.debug("GET request received for all persons");
     List<PersonDTO> persons = personService.findAllPersons();
-    log.info("Response: Found {} persons in total", persons.size());
+    log.debug("Response: Found {} persons in total", persons.size());
     return persons;
   }
 
@@ -65,12 +92,12 @@ public class PersonController {
    */
   @PostMapping("/person")
   public ResponseEntity<String> createNewPerson(@RequestBody @Valid PersonDTO personDTO) {
-    log.info("POST request received to create person: {} {}", 
+    log.debug("POST request received to create person: {} {}", 
         personDTO.getFirstName(), personDTO.getLastName());
     
     boolean saved = personService.saveNewPerson(personDTO);
     if (saved) {
-      log.info("Response: Successfully created person: {} {}", 
+      log.debug("Response: Successfully created person: {} {}", 
           personDTO.getFirstName(), personDTO.getLastName());
       return ResponseEntity.status(HttpStatus.CREATED).body("New person created");
     } else {
@@ -88,12 +115,12 @@ public class PersonController {
    */
   @PutMapping("/person")
   public ResponseEntity<String> updatePerson(@RequestBody @Valid PersonDTO personDTO) {
-    log.info("PUT request received to update person: {} {}", 
+    log.debug("PUT request received to update person: {} {}", 
         personDTO.getFirstName(), personDTO.getLastName());
     
     boolean updated = personService.updatePerson(personDTO);
     if (updated) {
-      log.info("Response: Successfully updated person: {} {}", 
+      log.debug("Response: Successfully updated person: {} {}", 
           personDTO.getFirstName(), personDTO.getLastName());
       return ResponseEntity.ok("Person updated");
     } else {
@@ -111,12 +138,12 @@ public class PersonController {
    */
   @DeleteMapping("/person")
   public ResponseEntity<String> deletePerson(@RequestBody @Valid PersonDTO personDTO) {
-    log.info("DELETE request received for person: {} {}", 
+    log.debug("DELETE request received for person: {} {}", 
         personDTO.getFirstName(), personDTO.getLastName());
     
     boolean deleted = personService.deletePerson(personDTO);
     if (deleted) {
-      log.info("Response: Successfully deleted person: {} {}", 
+      log.debug("Response: Successfully deleted person: {} {}", 
           personDTO.getFirstName(), personDTO.getLastName());
       return ResponseEntity.ok("Person deleted");
     } else {
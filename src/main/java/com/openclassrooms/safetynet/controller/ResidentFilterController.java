@@ -0,0 +1,48 @@
+package com.openclassrooms.safetynet.controller;
+
+import com.openclassrooms.safetynet.service.ResidentFilterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Contrôleur REST pour le filtrage combiné des résidents.
+ * Permet de cibler une population (ville, caserne, tranche d'âge, foyer, indicateurs médicaux)
+ * lors de la planification d'une intervention.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+@Profile("!reactive")
+public class ResidentFilterController {
+
+  private final ResidentFilterService residentFilterService;
+
+  /**
+   * Filtre les résidents selon une expression combinant des critères par AND, OR et NOT.
+   *
+   * @param q l'expression de filtre, par exemple {@code city:Culver AND (age:child OR flag:allergy)}
+   * @param limit le nombre maximal de résidents retournés (1000 par défaut)
+   * @return ResponseEntity contenant le nombre de résidents retenus et les premiers d'entre eux,
+   *     ou une erreur 400 si l'expression est invalide
+   */
+  @GetMapping("/residents/filter")
+  public ResponseEntity<?> filterResidents(@RequestParam String q,
+      @RequestParam(defaultValue = "1000") int limit) {
+    log.debug("GET request received for residents matching '{}' (limit {})", q, limit);
+    if (limit < 0) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("limit must not be negative");
+    }
+    try {
+      return ResponseEntity.ok(residentFilterService.filterResidents(q, limit));
+    } catch (IllegalArgumentException e) {
+      log.error("Response: Invalid resident filter '{}': {}", q, e.getMessage());
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.openclassrooms.safetynet.controller;
+
+import com.openclassrooms.safetynet.dto.StationStatsDTO;
+import com.openclassrooms.safetynet.service.StationStatsService;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Contrôleur REST pour les statistiques démographiques par caserne.
+ * Conçu pour être interrogé régulièrement par les tableaux de bord de planification.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+@Profile("!reactive")
+public class StationStatsController {
+
+  private final StationStatsService stationStatsService;
+
+  /**
+   * Retourne les statistiques démographiques des casernes.
+   *
+   * @param stations les numéros de caserne (toutes les casernes qui desservent un foyer si absent)
+   * @return List<StationStatsDTO> contenant les statistiques de chaque caserne
+   */
+  @GetMapping("/stats/stations")
+  public List<StationStatsDTO> getStationStats(@RequestParam(required = false) List<Integer> stations) {
+    log.debug("GET request received for statistics of stations {}", stations);
+    List<StationStatsDTO> stats = stationStatsService.findStationStats(stations);
+    log.debug("Response: Found statistics for {} station(s)", stats.size());
+    return stats;
+  }
+}
@@ -0,0 +1,54 @@
+package com.openclassrooms.safetynet.controller.reactive;
+
+import com.openclassrooms.safetynet.dto.ChildAlertResponseDTO;
+import com.openclassrooms.safetynet.dto.PhoneAlertResponseDTO;
+import com.openclassrooms.safetynet.service.ChildAlertService;
+import com.openclassrooms.safetynet.service.PhoneAlertService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Variante réactive (WebFlux) du contrôleur des alertes d'urgence, active avec le profil {@code reactive}.
+ * Les recherches sont exécutées hors de la boucle d'événements de Netty.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+@Profile("reactive")
+public class ReactiveAlertController {
+
+  private final ChildAlertService childAlertService;
+  private final PhoneAlertService phoneAlertService;
+
+  /**
+   * Recherche les enfants vivant à une adresse donnée ainsi que les membres de leur foyer.
+   *
+   * @param address l'adresse à rechercher
+   * @return Mono<ChildAlertResponseDTO> contenant la liste des enfants et des membres de leur foyer
+   */
+  @GetMapping("/childAlert")
+  public Mono<ChildAlertResponseDTO> getChildAlertByAddress(@RequestParam String address) {
+    log.debug("GET request received for child alert at address: '{}'", address);
+    return Mono.fromCallable(() -> childAlertService.findChildrenAndFamilyByAddress(address))
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+
+  /**
+   * Recherche les numéros de téléphone des personnes couvertes par une caserne donnée.
+   *
+   * @param stationNumber le numéro de la caserne
+   * @return Mono<PhoneAlertResponseDTO> contenant la liste des numéros de téléphone
+   */
+  @GetMapping("/phoneAlert")
+  public Mono<PhoneAlertResponseDTO> getListOfPhoneNumberByAddress(@RequestParam int stationNumber) {
+    log.debug("GET request received for phone numbers covered by station: {}", stationNumber);
+    return Mono.fromCallable(() -> phoneAlertService.findPhoneNumberOfPeopleByFirestation(stationNumber))
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+}
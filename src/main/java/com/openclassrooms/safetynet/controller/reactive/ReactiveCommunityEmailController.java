@@ -0,0 +1,38 @@
+package com.openclassrooms.safetynet.controller.reactive;
+
+import com.openclassrooms.safetynet.dto.CommunityEmailDTO;
+import com.openclassrooms.safetynet.service.CommunityEmailService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Variante réactive (WebFlux) du contrôleur des emails communautaires, active avec le profil {@code reactive}.
+ * Les adresses sont émises au rythme de la demande du client (JSON ou {@code application/x-ndjson}).
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+@Profile("reactive")
+public class ReactiveCommunityEmailController {
+
+  private final CommunityEmailService communityEmailService;
+
+  /**
+   * Diffuse toutes les adresses email des habitants d'une ville donnée.
+   *
+   * @param city le nom de la ville
+   * @return Flux<CommunityEmailDTO> des adresses email des habitants
+   */
+  @GetMapping("/communityEmail")
+  public Flux<CommunityEmailDTO> findCommunityEmail(@RequestParam String city) {
+    log.debug("Streaming community email for city {}", city);
+    return Flux.fromStream(() -> communityEmailService.streamEmailByCity(city))
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+}
@@ -0,0 +1,37 @@
+package com.openclassrooms.safetynet.controller.reactive;
+
+import com.openclassrooms.safetynet.dto.FireResponseDTO;
+import com.openclassrooms.safetynet.service.FireService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Variante réactive (WebFlux) du contrôleur des informations d'incendie, active avec le profil {@code reactive}.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+@Profile("reactive")
+public class ReactiveFireController {
+
+  private final FireService fireService;
+
+  /**
+   * Récupère les informations d'incendie (numéro de station et liste des résidents) pour une adresse donnée.
+   *
+   * @param address l'adresse à interroger
+   * @return Mono<FireResponseDTO> contenant le numéro de station et la liste des personnes vivant à l'adresse
+   */
+  @GetMapping("/fire")
+  public Mono<FireResponseDTO> getFireInfoByAddress(@RequestParam String address) {
+    log.debug("Retrieving people covered by firestation address {}", address);
+    return Mono.fromCallable(() -> fireService.findResidentsByAddress(address))
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+}
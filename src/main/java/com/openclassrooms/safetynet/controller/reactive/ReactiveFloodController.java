@@ -0,0 +1,39 @@
+package com.openclassrooms.safetynet.controller.reactive;
+
+import com.openclassrooms.safetynet.dto.FloodResponseDTO;
+import com.openclassrooms.safetynet.service.FloodService;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Variante réactive (WebFlux) du contrôleur des alertes d'inondation, active avec le profil {@code reactive}.
+ * Les foyers sont émis un par un, au rythme de la demande du client (JSON ou {@code application/x-ndjson}).
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+@Profile("reactive")
+public class ReactiveFloodController {
+
+  private final FloodService floodService;
+
+  /**
+   * Diffuse la liste des foyers desservis par les casernes spécifiées.
+   *
+   * @param stations la liste des numéros de caserne
+   * @return Flux<FloodResponseDTO> des foyers par caserne
+   */
+  @GetMapping("/flood/stations")
+  public Flux<FloodResponseDTO> getFloodStations(@RequestParam List<Integer> stations) {
+    log.debug("Streaming flood information for stations {}", stations);
+    return Flux.fromStream(() -> floodService.streamHouseholdsByStationNumbers(stations))
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+}
@@ -0,0 +1,18 @@
+package com.openclassrooms.safetynet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO décrivant une étape d'accès aux données dans la réponse {@code ?explain=true}.
+ */
+@Data
+@AllArgsConstructor
+public class AccessStepDTO {
+  private String service;
+  private String method;
+  private String entity;
+  private String accessPath;
+  private long calls;
+  private long examined;
+}
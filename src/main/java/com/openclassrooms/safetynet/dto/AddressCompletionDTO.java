@@ -0,0 +1,15 @@
+package com.openclassrooms.safetynet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO pour la réponse de l'endpoint /address/autocomplete.
+ */
+@Data
+@AllArgsConstructor
+public class AddressCompletionDTO {
+  private String address;
+  private int stationNumber;
+  private int residents;
+}
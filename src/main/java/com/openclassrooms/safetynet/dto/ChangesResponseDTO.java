@@ -0,0 +1,20 @@
+package com.openclassrooms.safetynet.dto;
+
+import com.openclassrooms.safetynet.event.DataChangeEvent;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO pour la réponse de l'endpoint /changes.
+ * Lorsque {@code resyncRequired} vaut true, la liste des modifications est vide et le client
+ * doit recharger l'intégralité des données avant de reprendre à {@code currentVersion}.
+ */
+@Data
+@AllArgsConstructor
+public class ChangesResponseDTO {
+  private String epoch;
+  private long currentVersion;
+  private boolean resyncRequired;
+  private List<DataChangeEvent> changes;
+}
@@ -0,0 +1,15 @@
+package com.openclassrooms.safetynet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO pour les réponses des endpoints de consultation appelés avec {@code ?explain=true} :
+ * le résultat habituel accompagné du plan d'exécution constaté.
+ */
+@Data
+@AllArgsConstructor
+public class ExplainResponseDTO {
+  private Object result;
+  private QueryPlanDTO explain;
+}
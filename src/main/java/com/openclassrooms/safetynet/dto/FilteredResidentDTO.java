@@ -0,0 +1,19 @@
+package com.openclassrooms.safetynet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO représentant un résident retenu par l'endpoint /residents/filter.
+ */
+@Data
+@AllArgsConstructor
+public class FilteredResidentDTO {
+  private String firstName;
+  private String lastName;
+  private String address;
+  private String city;
+  private int stationNumber;
+  private String phoneNumber;
+  private int age;
+}
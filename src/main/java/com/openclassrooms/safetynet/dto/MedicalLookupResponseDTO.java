@@ -0,0 +1,21 @@
+package com.openclassrooms.safetynet.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO pour la réponse des endpoints /medication et /allergy.
+ */
+@Data
+@AllArgsConstructor
+public class MedicalLookupResponseDTO {
+  private String firstName;
+  private String lastName;
+  private String address;
+  private int stationNumber;
+  private String phoneNumber;
+  private int age;
+  private List<String> medications;
+  private List<String> allergies;
+}
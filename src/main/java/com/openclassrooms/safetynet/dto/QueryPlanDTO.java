@@ -0,0 +1,18 @@
+package com.openclassrooms.safetynet.dto;
+
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO du plan d'exécution constaté d'une requête : étapes d'accès, enregistrements examinés par type
+ * et nombre de résultats émis.
+ */
+@Data
+@AllArgsConstructor
+public class QueryPlanDTO {
+  private List<AccessStepDTO> accessPaths;
+  private Map<String, Long> examined;
+  private long emitted;
+}
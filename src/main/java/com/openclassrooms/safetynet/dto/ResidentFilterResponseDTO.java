@@ -0,0 +1,15 @@
+package com.openclassrooms.safetynet.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO pour la réponse de l'endpoint /residents/filter.
+ */
+@Data
+@AllArgsConstructor
+public class ResidentFilterResponseDTO {
+  private long count;
+  private List<FilteredResidentDTO> residents;
+}
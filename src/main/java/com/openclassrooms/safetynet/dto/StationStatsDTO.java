@@ -0,0 +1,21 @@
+package com.openclassrooms.safetynet.dto;
+
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO représentant les statistiques démographiques d'une caserne, pour l'endpoint /stats/stations.
+ */
+@Data
+@AllArgsConstructor
+public class StationStatsDTO {
+  private int stationNumber;
+  private long households;
+  private long residents;
+  private long adults;
+  private long children;
+  private Map<String, Long> ageHistogram;
+  private long withMedications;
+  private long withAllergies;
+}
@@ -0,0 +1,10 @@
+package com.openclassrooms.safetynet.event;
+
+/**
+ * Nature d'une modification des données.
+ */
+public enum ChangeOperation {
+  ADDED,
+  UPDATED,
+  DELETED
+}
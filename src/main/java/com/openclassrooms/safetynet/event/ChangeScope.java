@@ -0,0 +1,20 @@
+package com.openclassrooms.safetynet.event;
+
+import com.openclassrooms.safetynet.repository.AddressKey;
+import java.util.Set;
+
+/**
+ * Périmètre d'une modification : stations, clés d'adresse et villes (en minuscules) concernées.
+ * Il est calculé par le DataRepository au moment où la modification est enregistrée, sous le verrou
+ * d'écriture, de sorte qu'il reflète l'état des données de cette modification et non celui du moment
+ * où elle est diffusée.
+ *
+ * @param stations les numéros de station
+ * @param addresses les clés d'adresse
+ * @param cities les villes, en minuscules
+ */
+public record ChangeScope(Set<Integer> stations, Set<AddressKey> addresses, Set<String> cities) {
+
+  /** Périmètre vide. */
+  public static final ChangeScope EMPTY = new ChangeScope(Set.of(), Set.of(), Set.of());
+}
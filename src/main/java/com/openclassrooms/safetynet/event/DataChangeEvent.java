@@ -0,0 +1,38 @@
+package com.openclassrooms.safetynet.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Événement publié par le DataRepository pour chaque modification des données.
+ * {@code previous} est null pour un ajout, {@code current} est null pour une suppression.
+ * {@code version} croît strictement dans l'ordre des modifications.
+ * {@code scope} est le périmètre de la modification, calculé à son enregistrement ; il n'est pas sérialisé.
+ */
+@Data
+@AllArgsConstructor
+public class DataChangeEvent {
+  private EntityType entity;
+  private ChangeOperation operation;
+  private Object previous;
+  private Object current;
+  private long version;
+  private long timestamp;
+  @JsonIgnore
+  private ChangeScope scope;
+
+  public DataChangeEvent(EntityType entity, ChangeOperation operation, Object previous, Object current,
+      long version, long timestamp) {
+    this(entity, operation, previous, current, version, timestamp, ChangeScope.EMPTY);
+  }
+
+  /**
+   * Nom de l'événement, par exemple {@code person.added} ou {@code medical_record.updated}.
+   *
+   * @return le nom de l'événement en minuscules
+   */
+  public String getName() {
+    return entity.name().toLowerCase() + "." + operation.name().toLowerCase();
+  }
+}
@@ -0,0 +1,10 @@
+package com.openclassrooms.safetynet.event;
+
+/**
+ * Type d'entité concernée par une modification des données.
+ */
+public enum EntityType {
+  PERSON,
+  FIRESTATION,
+  MEDICAL_RECORD
+}
@@ -0,0 +1,32 @@
+package com.openclassrooms.safetynet.model;
+
+import java.util.Locale;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Médicament d'un dossier médical, décomposé en nom et dosage.
+ * Les dossiers stockent les médicaments sous la forme {@code nom:dosage} (ex. {@code aznol:350mg}).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Medication {
+    private String name;
+    private String dose;
+
+    /**
+     * Décompose une entrée {@code nom:dosage}. Le nom est normalisé en minuscules ;
+     * le dosage est vide si l'entrée n'en comporte pas.
+     *
+     * @param medication l'entrée du dossier médical
+     * @return le médicament décomposé
+     */
+    public static Medication parse(String medication) {
+        int separator = medication.indexOf(':');
+        String name = separator < 0 ? medication : medication.substring(0, separator);
+        String dose = separator < 0 ? "" : medication.substring(separator + 1).trim();
+        return new Medication(name.trim().toLowerCase(Locale.ROOT), dose);
+    }
+}
@@ -0,0 +1,126 @@
+package com.openclassrooms.safetynet.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.StringMapMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Journal d'accès structuré : un enregistrement clé/valeur par requête sur le logger {@code safetynet.access},
+ * rendu en JSON par la configuration log4j2.
+ * Les endpoints à fort volume configurés dans {@code safetynet.access-log.sampled-paths} ne sont journalisés
+ * qu'avec la probabilité {@code safetynet.access-log.sample-rate}, sauf en cas d'erreur ou de requête lente.
+ * Les paramètres de requête portent des données personnelles (noms, adresses) : seuls leurs noms sont
+ * journalisés, leurs valeurs sont masquées.
+ */
+@Component
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+  private static final Logger ACCESS_LOG = LogManager.getLogger("safetynet.access");
+
+  private final List<String> sampledPaths;
+  private final double sampleRate;
+  private final long slowThresholdMs;
+
+  public AccessLogFilter(
+      @Value("${safetynet.access-log.sampled-paths:}") List<String> sampledPaths,
+      @Value("${safetynet.access-log.sample-rate:1.0}") double sampleRate,
+      @Value("${safetynet.access-log.slow-threshold-ms:500}") long slowThresholdMs) {
+    this.sampledPaths = sampledPaths;
+    this.sampleRate = sampleRate;
+    this.slowThresholdMs = slowThresholdMs;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    if (!ACCESS_LOG.isInfoEnabled()) {
+      chain.doFilter(request, response);
+      return;
+    }
+
+    long start = System.nanoTime();
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      long durationMs = (System.nanoTime() - start) / 1_000_000;
+      int status = response.getStatus();
+      String path = request.getRequestURI();
+      if (shouldLog(path, status, durationMs)) {
+        StringMapMessage record = new StringMapMessage(6)
+            .with("method", request.getMethod())
+            .with("path", path)
+            .with("status", status)
+            .with("durationMs", durationMs)
+            .with("thread", Thread.currentThread().getName());
+        if (request.getQueryString() != null) {
+          record.with("query", redactQuery(request.getQueryString()));
+        }
+        ACCESS_LOG.info(record);
+      }
+    }
+  }
+
+  /**
+   * Indique si une requête doit être journalisée.
+   * Les erreurs et les requêtes lentes le sont toujours ; les chemins échantillonnés le sont
+   * avec la probabilité configurée ; les autres toujours.
+   *
+   * @param path le chemin de la requête
+   * @param status le statut HTTP de la réponse
+   * @param durationMs la durée de traitement en millisecondes
+   * @return true si la requête doit être journalisée
+   */
+  boolean shouldLog(String path, int status, long durationMs) {
+    if (status >= 400 || durationMs >= slowThresholdMs || !isSampled(path)) {
+      return true;
+    }
+    return ThreadLocalRandom.current().nextDouble() < sampleRate;
+  }
+
+  /**
+   * Masque les valeurs des paramètres d'une chaîne de requête, par exemple
+   * {@code lastName=Boyd&explain=true} devient {@code lastName=*&explain=*}.
+   *
+   * @param query la chaîne de requête brute
+   * @return la chaîne de requête dont seuls les noms de paramètres sont conservés
+   */
+  static String redactQuery(String query) {
+    StringBuilder redacted = new StringBuilder(query.length());
+    for (String parameter : query.split("&")) {
+      if (parameter.isEmpty()) {
+        continue;
+      }
+      if (redacted.length() > 0) {
+        redacted.append('&');
+      }
+      int separator = parameter.indexOf('=');
+      redacted.append(separator < 0 ? parameter : parameter.substring(0, separator + 1) + "*");
+    }
+    return redacted.toString();
+  }
+
+  private boolean isSampled(String path) {
+    for (String sampledPath : sampledPaths) {
+      if (!sampledPath.isEmpty() && path.startsWith(sampledPath)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,107 @@
+package com.openclassrooms.safetynet.monitoring;
+
+import com.openclassrooms.safetynet.dto.AccessStepDTO;
+import com.openclassrooms.safetynet.dto.QueryPlanDTO;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Relevé d'exécution d'une requête demandé avec {@code ?explain=true} :
+ * chemins d'accès utilisés, nombre d'enregistrements examinés par type et nombre de résultats émis.
+ * Comme {@link ServerTiming}, le relevé est attaché au thread de la requête et n'existe que s'il a été demandé.
+ */
+public final class QueryExplain {
+
+  /**
+   * Chemin d'accès aux données utilisé par une étape de la requête.
+   */
+  public enum AccessPath {
+    FULL_SCAN,
+    INDEX
+  }
+
+  private static final ThreadLocal<QueryExplain> CURRENT = new ThreadLocal<>();
+
+  private final Map<String, AccessStepDTO> steps = new LinkedHashMap<>();
+  private long emitted;
+
+  private QueryExplain() {
+  }
+
+  /**
+   * Active le relevé d'exécution pour le thread courant.
+   *
+   * @return le relevé créé
+   */
+  public static QueryExplain begin() {
+    QueryExplain explain = new QueryExplain();
+    CURRENT.set(explain);
+    return explain;
+  }
+
+  /**
+   * Désactive le relevé d'exécution pour le thread courant.
+   */
+  public static void end() {
+    CURRENT.remove();
+  }
+
+  /**
+   * Relevé actif sur le thread courant.
+   *
+   * @return le relevé, ou null si l'explication n'a pas été demandée
+   */
+  public static QueryExplain current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Enregistre un accès aux données. Les accès répétés d'une même étape sont cumulés.
+   *
+   * @param service le nom du service
+   * @param method le nom de la méthode
+   * @param entity le type d'enregistrement accédé
+   * @param accessPath le chemin d'accès utilisé
+   * @param examined le nombre d'enregistrements examinés
+   */
+  public static void recordAccess(String service, String method, String entity, AccessPath accessPath,
+      long examined) {
+    QueryExplain explain = CURRENT.get();
+    if (explain != null) {
+      AccessStepDTO step = explain.steps.computeIfAbsent(
+          service + '.' + method + '.' + entity + '.' + accessPath,
+          key -> new AccessStepDTO(service, method, entity, accessPath.name(), 0, 0));
+      step.setCalls(step.getCalls() + 1);
+      step.setExamined(step.getExamined() + examined);
+    }
+  }
+
+  /**
+   * Enregistre le nombre de résultats émis. Le service appelant termine après les services qu'il appelle,
+   * de sorte que la dernière valeur enregistrée est celle du service le plus externe.
+   *
+   * @param count le nombre de résultats émis
+   */
+  public static void recordEmitted(long count) {
+    QueryExplain explain = CURRENT.get();
+    if (explain != null) {
+      explain.emitted = count;
+    }
+  }
+
+  /**
+   * Plan d'exécution constaté.
+   *
+   * @return QueryPlanDTO avec les étapes, les totaux examinés par type et le nombre de résultats émis
+   */
+  public QueryPlanDTO toPlan() {
+    List<AccessStepDTO> accessPaths = List.copyOf(steps.values());
+    Map<String, Long> examined = accessPaths.stream()
+        .collect(Collectors.groupingBy(AccessStepDTO::getEntity, TreeMap::new,
+            Collectors.summingLong(AccessStepDTO::getExamined)));
+    return new QueryPlanDTO(accessPaths, examined, emitted);
+  }
+}
@@ -0,0 +1,38 @@
+package com.openclassrooms.safetynet.monitoring;
+
+import com.openclassrooms.safetynet.dto.ExplainResponseDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Enveloppe le résultat JSON d'une requête expliquée avec le plan d'exécution relevé par {@link QueryExplain}.
+ */
+@ControllerAdvice
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class QueryExplainAdvice implements ResponseBodyAdvice<Object> {
+
+  @Override
+  public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+    return QueryExplain.current() != null
+        && MappingJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+  }
+
+  @Override
+  public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+      Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+      ServerHttpResponse response) {
+    QueryExplain explain = QueryExplain.current();
+    if (explain == null) {
+      return body;
+    }
+    return new ExplainResponseDTO(body, explain.toPlan());
+  }
+}
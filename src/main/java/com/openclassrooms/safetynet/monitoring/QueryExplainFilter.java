@@ -0,0 +1,40 @@
+package com.openclassrooms.safetynet.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Active le relevé d'exécution pour les requêtes de consultation appelées avec {@code ?explain=true}.
+ * Le résultat est ensuite enveloppé avec son plan par {@link QueryExplainAdvice}.
+ */
+@Component
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class QueryExplainFilter extends OncePerRequestFilter {
+
+  public static final String PARAMETER = "explain";
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !HttpMethod.GET.matches(request.getMethod())
+        || !Boolean.parseBoolean(request.getParameter(PARAMETER));
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    QueryExplain.begin();
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      QueryExplain.end();
+    }
+  }
+}
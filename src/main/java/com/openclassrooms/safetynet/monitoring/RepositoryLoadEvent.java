@@ -0,0 +1,71 @@
+package com.openclassrooms.safetynet.monitoring;
+
+import java.io.File;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR émis au chargement du fichier JSON par le repository.
+ * Désactivé par défaut, voir {@code src/main/jfr/safetynet.jfc}.
+ */
+@Name("safetynet.RepositoryLoad")
+@Label("Repository Load")
+@Description("Loading of the JSON data file")
+@Category({"SafetyNet", "Repository"})
+@Enabled(false)
+@StackTrace(false)
+public class RepositoryLoadEvent extends Event {
+
+  @Label("File")
+  public String file;
+
+  @Label("Bytes Read")
+  @DataAmount
+  public long bytes;
+
+  @Label("Persons")
+  public int persons;
+
+  @Label("Firestations")
+  public int firestations;
+
+  @Label("Medical Records")
+  public int medicalRecords;
+
+  /**
+   * Démarre un événement.
+   *
+   * @return l'événement démarré
+   */
+  public static RepositoryLoadEvent start() {
+    RepositoryLoadEvent event = new RepositoryLoadEvent();
+    event.begin();
+    return event;
+  }
+
+  /**
+   * Termine l'événement et l'enregistre s'il dépasse le seuil configuré.
+   *
+   * @param file le chemin du fichier lu
+   * @param persons le nombre de personnes chargées
+   * @param firestations le nombre de casernes chargées
+   * @param medicalRecords le nombre de dossiers médicaux chargés
+   */
+  public void end(String file, int persons, int firestations, int medicalRecords) {
+    end();
+    if (shouldCommit()) {
+      this.file = file;
+      this.bytes = new File(file).length();
+      this.persons = persons;
+      this.firestations = firestations;
+      this.medicalRecords = medicalRecords;
+      commit();
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package com.openclassrooms.safetynet.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR émis pour chaque mutation du repository, attente du verrou d'écriture comprise.
+ * Désactivé par défaut, voir {@code src/main/jfr/safetynet.jfc}.
+ */
+@Name("safetynet.RepositoryMutation")
+@Label("Repository Mutation")
+@Description("Mutation of the in-memory data, including the wait for the write lock")
+@Category({"SafetyNet", "Repository"})
+@Enabled(false)
+@StackTrace(false)
+public class RepositoryMutationEvent extends Event {
+
+  @Label("Operation")
+  public String operation;
+
+  @Label("Changes")
+  public int changes;
+
+  @Label("Version")
+  public long version;
+
+  /**
+   * Démarre un événement.
+   *
+   * @return l'événement démarré
+   */
+  public static RepositoryMutationEvent start() {
+    RepositoryMutationEvent event = new RepositoryMutationEvent();
+    event.begin();
+    return event;
+  }
+
+  /**
+   * Termine l'événement et l'enregistre s'il dépasse le seuil configuré.
+   *
+   * @param operation le nom de la mutation
+   * @param changes le nombre de modifications effectuées
+   * @param version la version des données après la mutation
+   */
+  public void end(String operation, int changes, long version) {
+    end();
+    if (shouldCommit()) {
+      this.operation = operation;
+      this.changes = changes;
+      this.version = version;
+      commit();
+    }
+  }
+}
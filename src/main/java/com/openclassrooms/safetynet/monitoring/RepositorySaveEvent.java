@@ -0,0 +1,62 @@
+package com.openclassrooms.safetynet.monitoring;
+
+import java.io.File;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR émis à chaque écriture du fichier JSON, attente du verrou de fichier comprise.
+ * Désactivé par défaut, voir {@code src/main/jfr/safetynet.jfc}.
+ */
+@Name("safetynet.RepositorySave")
+@Label("Repository Save")
+@Description("Write of the JSON data file, including the wait for the file lock")
+@Category({"SafetyNet", "Repository"})
+@Enabled(false)
+@StackTrace(false)
+public class RepositorySaveEvent extends Event {
+
+  @Label("File")
+  public String file;
+
+  @Label("Bytes Written")
+  @DataAmount
+  public long bytes;
+
+  @Label("Version")
+  public long version;
+
+  /**
+   * Démarre un événement.
+   *
+   * @return l'événement démarré
+   */
+  public static RepositorySaveEvent start() {
+    RepositorySaveEvent event = new RepositorySaveEvent();
+    event.begin();
+    return event;
+  }
+
+  /**
+   * Termine l'événement et l'enregistre s'il dépasse le seuil configuré.
+   * La taille du fichier n'est lue que si l'événement est enregistré.
+   *
+   * @param file le chemin du fichier écrit
+   * @param version la version des données écrites
+   */
+  public void end(String file, long version) {
+    end();
+    if (shouldCommit()) {
+      this.file = file;
+      this.bytes = new File(file).length();
+      this.version = version;
+      commit();
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package com.openclassrooms.safetynet.monitoring;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Découpage du temps de traitement d'une requête en phases, restitué dans l'en-tête {@code Server-Timing}.
+ * Le relevé est attaché au thread de la requête et n'existe que si le client l'a demandé :
+ * en son absence, {@link #start()} et {@link #record(Phase, long)} se limitent à une lecture de ThreadLocal.
+ *
+ * <pre>
+ * long start = ServerTiming.start();
+ * ...
+ * ServerTiming.record(ServerTiming.Phase.LOOKUP, start);
+ * </pre>
+ */
+public final class ServerTiming {
+
+  /**
+   * Phases mesurées. Une même phase peut être relevée plusieurs fois : les durées sont cumulées.
+   */
+  public enum Phase {
+    RESOLVE("Station/address resolution"),
+    LOOKUP("Resident lookup"),
+    MEDICAL("Medical record join"),
+    DTO("DTO building"),
+    HANDLER("Controller and services"),
+    SERIALIZE("Response serialization"),
+    TOTAL("Total");
+
+    private final String description;
+
+    Phase(String description) {
+      this.description = description;
+    }
+  }
+
+  private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+  private final Map<Phase, Long> durations = new EnumMap<>(Phase.class);
+
+  private ServerTiming() {
+  }
+
+  /**
+   * Active le relevé des phases pour le thread courant.
+   *
+   * @return le relevé créé
+   */
+  public static ServerTiming begin() {
+    ServerTiming timing = new ServerTiming();
+    CURRENT.set(timing);
+    return timing;
+  }
+
+  /**
+   * Désactive le relevé des phases pour le thread courant.
+   */
+  public static void end() {
+    CURRENT.remove();
+  }
+
+  /**
+   * Indique si un relevé est actif sur le thread courant.
+   *
+   * @return true si les phases sont mesurées
+   */
+  public static boolean isActive() {
+    return CURRENT.get() != null;
+  }
+
+  /**
+   * Début d'une phase.
+   *
+   * @return l'instant courant en nanosecondes, ou 0 si aucun relevé n'est actif
+   */
+  public static long start() {
+    return CURRENT.get() == null ? 0L : System.nanoTime();
+  }
+
+  /**
+   * Ajoute au relevé courant le temps écoulé depuis {@code startNanos}.
+   *
+   * @param phase la phase mesurée
+   * @param startNanos la valeur retournée par {@link #start()}
+   */
+  public static void record(Phase phase, long startNanos) {
+    ServerTiming timing = CURRENT.get();
+    if (timing != null) {
+      timing.add(phase, System.nanoTime() - startNanos);
+    }
+  }
+
+  /**
+   * Cumule une durée sur une phase.
+   *
+   * @param phase la phase mesurée
+   * @param nanos la durée en nanosecondes
+   */
+  public void add(Phase phase, long nanos) {
+    durations.merge(phase, nanos, Long::sum);
+  }
+
+  /**
+   * Durée cumulée d'une phase.
+   *
+   * @param phase la phase
+   * @return la durée en nanosecondes, 0 si la phase n'a pas été relevée
+   */
+  public long getDuration(Phase phase) {
+    return durations.getOrDefault(phase, 0L);
+  }
+
+  /**
+   * Valeur de l'en-tête {@code Server-Timing}, par exemple
+   * {@code resolve;dur=0.042;desc="Station/address resolution", total;dur=1.310;desc="Total"}.
+   *
+   * @return les phases relevées, dans l'ordre de l'énumération
+   */
+  public String toHeaderValue() {
+    return durations.entrySet().stream()
+        .map(e -> String.format(Locale.ROOT, "%s;dur=%.3f;desc=\"%s\"",
+            e.getKey().name().toLowerCase(Locale.ROOT), e.getValue() / 1_000_000.0, e.getKey().description))
+        .collect(Collectors.joining(", "));
+  }
+}
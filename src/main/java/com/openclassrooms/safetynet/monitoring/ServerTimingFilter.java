@@ -0,0 +1,115 @@
+package com.openclassrooms.safetynet.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Ajoute l'en-tête {@code Server-Timing} aux réponses des requêtes qui le demandent
+ * via l'en-tête {@code X-Server-Timing: true}.
+ * Le corps de la réponse est mis en tampon afin de mesurer la sérialisation avant l'envoi des en-têtes ;
+ * les autres requêtes traversent le filtre sans aucun coût supplémentaire.
+ * Une réponse diffusée de manière asynchrone est mise en tampon jusqu'à la fin de son dispatch
+ * asynchrone, puis envoyée avec sa durée totale : la diffusion progressive est perdue pour ces seules
+ * requêtes de diagnostic.
+ */
+@Component
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+  public static final String REQUEST_HEADER = "X-Server-Timing";
+  public static final String RESPONSE_HEADER = "Server-Timing";
+
+  private static final String HANDLER_END_ATTRIBUTE = ServerTimingFilter.class.getName() + ".handlerEnd";
+  private static final String PENDING_ATTRIBUTE = ServerTimingFilter.class.getName() + ".pending";
+
+  private final boolean enabled;
+
+  public ServerTimingFilter(@Value("${safetynet.server-timing.enabled:true}") boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Réponse mise en tampon dont le traitement se poursuit de manière asynchrone.
+   */
+  private record PendingResponse(ServerTiming timing, ContentCachingResponseWrapper wrapper, long start) {
+  }
+
+  @Override
+  protected boolean shouldNotFilterAsyncDispatch() {
+    return false;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    if (isAsyncDispatch(request)) {
+      filterAsyncDispatch(request, response, chain);
+      return;
+    }
+    if (!enabled || !Boolean.parseBoolean(request.getHeader(REQUEST_HEADER))) {
+      chain.doFilter(request, response);
+      return;
+    }
+
+    ServerTiming timing = ServerTiming.begin();
+    ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+    long start = System.nanoTime();
+    try {
+      chain.doFilter(request, wrapper);
+    } finally {
+      ServerTiming.end();
+      long end = System.nanoTime();
+      if (request.getAttribute(HANDLER_END_ATTRIBUTE) instanceof Long handlerEnd) {
+        timing.add(ServerTiming.Phase.HANDLER, handlerEnd - start);
+        timing.add(ServerTiming.Phase.SERIALIZE, end - handlerEnd);
+      }
+      if (request.isAsyncStarted()) {
+        request.setAttribute(PENDING_ATTRIBUTE, new PendingResponse(timing, wrapper, start));
+      } else {
+        timing.add(ServerTiming.Phase.TOTAL, end - start);
+        wrapper.setHeader(RESPONSE_HEADER, timing.toHeaderValue());
+        wrapper.copyBodyToResponse();
+      }
+    }
+  }
+
+  /**
+   * Termine une réponse mise en tampon au premier dispatch, une fois son dispatch asynchrone achevé :
+   * le corps écrit entre-temps dans le tampon est alors envoyé avec l'en-tête.
+   */
+  private void filterAsyncDispatch(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    if (!(request.getAttribute(PENDING_ATTRIBUTE) instanceof PendingResponse pending)) {
+      chain.doFilter(request, response);
+      return;
+    }
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      if (!request.isAsyncStarted()) {
+        request.removeAttribute(PENDING_ATTRIBUTE);
+        pending.timing().add(ServerTiming.Phase.TOTAL, System.nanoTime() - pending.start());
+        pending.wrapper().setHeader(RESPONSE_HEADER, pending.timing().toHeaderValue());
+        pending.wrapper().copyBodyToResponse();
+      }
+    }
+  }
+
+  /**
+   * Marque la fin du traitement applicatif, juste avant la sérialisation du corps de la réponse.
+   *
+   * @param request la requête en cours
+   */
+  static void markHandlerEnd(HttpServletRequest request) {
+    request.setAttribute(HANDLER_END_ATTRIBUTE, System.nanoTime());
+  }
+}
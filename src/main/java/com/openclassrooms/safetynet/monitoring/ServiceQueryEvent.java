@@ -0,0 +1,122 @@
+package com.openclassrooms.safetynet.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR émis par les méthodes de consultation des services.
+ * Désactivé par défaut, voir {@code src/main/jfr/safetynet.jfc} : tant qu'il l'est, {@link #start()} et
+ * {@link #end} ne font qu'une vérification que le JIT élimine, sans horodatage ni formatage des paramètres.
+ *
+ * <pre>
+ * ServiceQueryEvent event = ServiceQueryEvent.start();
+ * ...
+ * event.end("FireService", "findResidentsByAddress", address, residents.size());
+ * </pre>
+ */
+@Name("safetynet.ServiceQuery")
+@Label("Service Query")
+@Description("Query method of a service, with the records scanned to produce its result")
+@Category({"SafetyNet", "Service"})
+@Enabled(false)
+@StackTrace(false)
+public class ServiceQueryEvent extends Event {
+
+  private static final ThreadLocal<long[]> SCANNED = new ThreadLocal<>();
+
+  @Label("Service")
+  public String service;
+
+  @Label("Method")
+  public String method;
+
+  @Label("Parameters")
+  public String parameters;
+
+  @Label("Result Size")
+  public int resultSize;
+
+  @Label("Rows Scanned")
+  public long rowsScanned;
+
+  private long[] scanned;
+  private long scannedAtStart;
+  private boolean outermost;
+
+  /**
+   * Démarre un événement. Lorsque l'événement est activé, les enregistrements parcourus
+   * sur le thread courant sont comptés jusqu'à {@link #end}, appels imbriqués compris.
+   *
+   * @return l'événement démarré
+   */
+  public static ServiceQueryEvent start() {
+    ServiceQueryEvent event = new ServiceQueryEvent();
+    if (event.isEnabled()) {
+      event.scanned = SCANNED.get();
+      if (event.scanned == null) {
+        event.scanned = new long[1];
+        event.outermost = true;
+        SCANNED.set(event.scanned);
+      }
+      event.scannedAtStart = event.scanned[0];
+      event.begin();
+    }
+    return event;
+  }
+
+  /**
+   * Ajoute des enregistrements parcourus aux événements en cours sur le thread courant.
+   *
+   * @param count le nombre d'enregistrements parcourus
+   */
+  public static void addScanned(long count) {
+    long[] scanned = SCANNED.get();
+    if (scanned != null) {
+      scanned[0] += count;
+    }
+  }
+
+  /**
+   * Termine l'événement et l'enregistre s'il dépasse le seuil configuré.
+   *
+   * @param service le nom du service
+   * @param method le nom de la méthode
+   * @param parameters le paramètre de la requête
+   * @param resultSize le nombre de résultats retournés
+   */
+  public void end(String service, String method, Object parameters, int resultSize) {
+    end(service, method, parameters, null, resultSize);
+  }
+
+  /**
+   * Termine l'événement d'une méthode à deux paramètres, formatés seulement si l'événement est enregistré.
+   *
+   * @param service le nom du service
+   * @param method le nom de la méthode
+   * @param first le premier paramètre de la requête
+   * @param second le second paramètre de la requête, ou null
+   * @param resultSize le nombre de résultats retournés
+   */
+  public void end(String service, String method, Object first, Object second, int resultSize) {
+    if (scanned == null) {
+      return;
+    }
+    if (outermost) {
+      SCANNED.remove();
+    }
+    end();
+    if (shouldCommit()) {
+      this.service = service;
+      this.method = method;
+      this.parameters = second == null ? String.valueOf(first) : first + ", " + second;
+      this.resultSize = resultSize;
+      this.rowsScanned = scanned[0] - scannedAtStart;
+      commit();
+    }
+  }
+}
@@ -0,0 +1,298 @@
+package com.openclassrooms.safetynet.repository;
+
+import com.openclassrooms.safetynet.model.Firestation;
+import com.openclassrooms.safetynet.model.Person;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Index d'autocomplétion des adresses des personnes et des casernes.
+ *
+ * <p>Les adresses sont normalisées (casse, ponctuation, espaces et abréviations usuelles des types de
+ * voie : {@code Street} devient {@code st}, {@code Avenue} devient {@code ave}...) puis rangées dans une
+ * table triée : une saisie partielle est complétée par simple parcours d'intervalle. Les adresses dont
+ * un mot suivant le numéro commence par la saisie sont proposées en second rang, de sorte que
+ * {@code culver} complète {@code 1509 Culver St}. Chaque proposition indique la caserne qui dessert
+ * l'adresse et le nombre de résidents qui y habitent.</p>
+ *
+ * <p>L'index est mis à jour par {@link DataRepository} sous son verrou d'écriture ; les lectures ne
+ * prennent aucun verrou.</p>
+ */
+public class AddressIndex {
+
+  private static final Pattern SEPARATORS = Pattern.compile("[\\s.,;#]+");
+
+  private static final Map<String, String> ABBREVIATIONS = Map.ofEntries(
+      Map.entry("street", "st"),
+      Map.entry("avenue", "ave"),
+      Map.entry("drive", "dr"),
+      Map.entry("road", "rd"),
+      Map.entry("boulevard", "blvd"),
+      Map.entry("circle", "cir"),
+      Map.entry("lane", "ln"),
+      Map.entry("court", "ct"),
+      Map.entry("place", "pl"),
+      Map.entry("terrace", "ter"),
+      Map.entry("parkway", "pkwy"),
+      Map.entry("highway", "hwy"),
+      Map.entry("square", "sq"),
+      Map.entry("north", "n"),
+      Map.entry("south", "s"),
+      Map.entry("east", "e"),
+      Map.entry("west", "w"));
+
+  /**
+   * Adresse proposée, avec la caserne qui la dessert (-1 si aucune) et le nombre de résidents.
+   */
+  @Data
+  @AllArgsConstructor
+  public static class Completion {
+    private String address;
+    private int stationNumber;
+    private int residents;
+  }
+
+  /**
+   * Adresse indexée : forme d'affichage, nombre de résidents et nombre total de références
+   * (personnes et casernes).
+   */
+  private record Entry(String address, int residents, int references) { }
+
+  private final NavigableMap<String, Entry> byAddress = new ConcurrentSkipListMap<>();
+  private final NavigableMap<String, NavigableSet<String>> byWord = new ConcurrentSkipListMap<>();
+  private final Map<String, List<Integer>> assignmentsByAddress = new HashMap<>();
+  private final Map<String, Integer> stationByAddress = new ConcurrentHashMap<>();
+
+  /**
+   * Normalise une adresse : minuscules, ponctuation et espaces superflus retirés, types de voie et
+   * points cardinaux abrégés.
+   *
+   * @param address l'adresse
+   * @return l'adresse normalisée
+   */
+  public static String normalize(String address) {
+    if (address == null) {
+      return "";
+    }
+    List<String> words = new ArrayList<>();
+    for (String word : SEPARATORS.split(address.trim().toLowerCase(Locale.ROOT))) {
+      if (!word.isEmpty()) {
+        words.add(ABBREVIATIONS.getOrDefault(word, word));
+      }
+    }
+    return String.join(" ", words);
+  }
+
+  /**
+   * Complète une saisie partielle. Les adresses commençant par la saisie viennent en premier, puis
+   * celles dont un mot commence par la saisie, chaque groupe par ordre alphabétique. Si le dernier mot
+   * saisi commence un type de voie ({@code stre}), son abréviation est aussi recherchée.
+   *
+   * @param query la saisie
+   * @param limit le nombre maximal de propositions
+   * @return les propositions, de la plus pertinente à la moins pertinente
+   */
+  public List<Completion> complete(String query, int limit) {
+    List<String> prefixes = prefixes(query);
+    Set<String> found = new LinkedHashSet<>();
+    for (String prefix : prefixes) {
+      for (String address : byAddress.subMap(prefix, true, prefix + Character.MAX_VALUE, false).keySet()) {
+        if (found.size() >= limit) {
+          break;
+        }
+        found.add(address);
+      }
+    }
+    for (String prefix : prefixes) {
+      for (NavigableSet<String> addresses : byWord.subMap(prefix, true, prefix + Character.MAX_VALUE, false)
+          .values()) {
+        if (found.size() >= limit) {
+          break;
+        }
+        for (String address : addresses) {
+          if (found.size() >= limit) {
+            break;
+          }
+          found.add(address);
+        }
+      }
+    }
+    List<Completion> completions = new ArrayList<>(found.size());
+    for (String address : found) {
+      Entry entry = byAddress.get(address);
+      if (entry != null) {
+        completions.add(new Completion(entry.address(), stationByAddress.getOrDefault(address, -1),
+            entry.residents()));
+      }
+    }
+    return completions;
+  }
+
+  /**
+   * Reconstruit l'index à partir des personnes et des casernes.
+   */
+  void rebuild(List<Person> persons, List<Firestation> firestations) {
+    byAddress.clear();
+    byWord.clear();
+    if (persons != null) {
+      persons.forEach(this::addPerson);
+    }
+    assignmentsByAddress.clear();
+    stationByAddress.clear();
+    if (firestations != null) {
+      for (Firestation firestation : firestations) {
+        add(firestation.getAddress(), 0);
+        assign(normalize(firestation.getAddress()), firestation.getStation());
+      }
+    }
+    assignmentsByAddress.forEach((address, stations) -> stationByAddress.put(address, stations.get(0)));
+  }
+
+  void addPerson(Person person) {
+    add(person.getAddress(), 1);
+  }
+
+  void removePerson(Person person) {
+    remove(person.getAddress(), 1);
+  }
+
+  /**
+   * Met à jour l'index après modification des casernes. Seules les adresses de {@code previous} et de
+   * {@code current} sont revues : une adresse dont la caserne desservante est retirée passe à la suivante
+   * de ses affectations, dans l'ordre des casernes.
+   *
+   * @param previous la caserne retirée ou remplacée, ou null
+   * @param current la caserne ajoutée ou modifiée, ou null
+   */
+  void firestationChanged(Firestation previous, Firestation current) {
+    if (current != null) {
+      add(current.getAddress(), 0);
+    }
+    if (previous != null) {
+      remove(previous.getAddress(), 0);
+    }
+    String previousAddress = previous == null ? null : normalize(previous.getAddress());
+    String currentAddress = current == null ? null : normalize(current.getAddress());
+    if (previousAddress != null && previousAddress.equals(currentAddress)) {
+      List<Integer> stations = assignmentsByAddress.get(currentAddress);
+      int position = stations == null ? -1 : stations.indexOf(previous.getStation());
+      if (position >= 0) {
+        stations.set(position, current.getStation());
+      } else {
+        assign(currentAddress, current.getStation());
+      }
+      restation(currentAddress);
+      return;
+    }
+    if (previousAddress != null) {
+      List<Integer> stations = assignmentsByAddress.get(previousAddress);
+      if (stations != null) {
+        stations.remove(Integer.valueOf(previous.getStation()));
+        if (stations.isEmpty()) {
+          assignmentsByAddress.remove(previousAddress);
+        }
+      }
+      restation(previousAddress);
+    }
+    if (currentAddress != null) {
+      assign(currentAddress, current.getStation());
+      restation(currentAddress);
+    }
+  }
+
+  private void assign(String address, int station) {
+    if (!address.isEmpty()) {
+      assignmentsByAddress.computeIfAbsent(address, key -> new ArrayList<>()).add(station);
+    }
+  }
+
+  /**
+   * Publie la caserne desservante d'une adresse : la première de ses affectations, ou aucune.
+   */
+  private void restation(String address) {
+    List<Integer> stations = assignmentsByAddress.get(address);
+    if (stations == null) {
+      stationByAddress.remove(address);
+    } else {
+      stationByAddress.put(address, stations.get(0));
+    }
+  }
+
+  private void add(String address, int residents) {
+    String key = normalize(address);
+    if (key.isEmpty()) {
+      return;
+    }
+    Entry entry = byAddress.get(key);
+    if (entry == null) {
+      byAddress.put(key, new Entry(address.trim(), residents, 1));
+      forEachWord(key, word -> byWord.computeIfAbsent(word, w -> new ConcurrentSkipListSet<>()).add(key));
+    } else {
+      byAddress.put(key, new Entry(entry.address(), entry.residents() + residents, entry.references() + 1));
+    }
+  }
+
+  private void remove(String address, int residents) {
+    String key = normalize(address);
+    Entry entry = byAddress.get(key);
+    if (entry == null) {
+      return;
+    }
+    if (entry.references() > 1) {
+      byAddress.put(key, new Entry(entry.address(), entry.residents() - residents, entry.references() - 1));
+      return;
+    }
+    byAddress.remove(key);
+    forEachWord(key, word -> byWord.computeIfPresent(word, (w, addresses) -> {
+      addresses.remove(key);
+      return addresses.isEmpty() ? null : addresses;
+    }));
+  }
+
+  /**
+   * Parcourt les suffixes de l'adresse normalisée qui commencent à un mot autre que le premier.
+   */
+  private static void forEachWord(String key, Consumer<String> action) {
+    for (int i = key.indexOf(' '); i >= 0; i = key.indexOf(' ', i + 1)) {
+      action.accept(key.substring(i + 1));
+    }
+  }
+
+  /**
+   * Formes normalisées de la saisie à rechercher : la saisie elle-même, et les variantes où le dernier
+   * mot, s'il commence un type de voie, est remplacé par son abréviation.
+   */
+  private static List<String> prefixes(String query) {
+    String normalized = normalize(query);
+    Set<String> prefixes = new LinkedHashSet<>();
+    if (normalized.isEmpty()) {
+      return List.of();
+    }
+    prefixes.add(normalized);
+    int lastSpace = normalized.lastIndexOf(' ');
+    String head = normalized.substring(0, lastSpace + 1);
+    String last = normalized.substring(lastSpace + 1);
+    if (last.length() >= 2) {
+      ABBREVIATIONS.forEach((word, abbreviation) -> {
+        if (word.startsWith(last) && !abbreviation.startsWith(last)) {
+          prefixes.add(head + abbreviation);
+        }
+      });
+    }
+    return new ArrayList<>(prefixes);
+  }
+}
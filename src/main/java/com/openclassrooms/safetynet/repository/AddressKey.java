@@ -0,0 +1,48 @@
+package com.openclassrooms.safetynet.repository;
+
+/**
+ * Clé d'adresse : forme normalisée d'une adresse ({@link AddressIndex#normalize}), critère d'identité
+ * des foyers et des affectations de casernes.
+ *
+ * <p>Deux adresses qui ne diffèrent que par la casse, la ponctuation, les espaces ou l'abréviation des
+ * types de voie ont la même clé. La clé est calculée une fois, à l'indexation ou à la réception d'une
+ * requête, et son code de hachage est précalculé.</p>
+ */
+public final class AddressKey {
+
+  private final String value;
+  private final int hash;
+
+  private AddressKey(String value) {
+    this.value = value;
+    this.hash = value.hashCode();
+  }
+
+  /**
+   * Construit la clé d'une adresse.
+   *
+   * @param address l'adresse, null équivalant à une chaîne vide
+   * @return la clé
+   */
+  public static AddressKey of(String address) {
+    return new AddressKey(AddressIndex.normalize(address));
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return this == other || other instanceof AddressKey key && hash == key.hash && value.equals(key.value);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  /**
+   * Retourne l'adresse normalisée.
+   */
+  @Override
+  public String toString() {
+    return value;
+  }
+}
@@ -0,0 +1,67 @@
+package com.openclassrooms.safetynet.repository;
+
+import com.openclassrooms.safetynet.model.MedicalRecord;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Calcul de l'âge et règle d'âge commune aux foyers, aux statistiques par caserne et aux tranches
+ * d'âge indexées.
+ *
+ * <p>L'âge d'un résident est calculé d'après la date de naissance de son dossier médical ;
+ * {@link DataRepository} le reporte sur la personne, où {@link Household}, {@link StationStatsIndex}
+ * et {@link ResidentBitmapIndex} le lisent tous. Un résident est un enfant jusqu'à
+ * {@value #CHILD_MAX_AGE} ans inclus, un adulte au-delà.</p>
+ */
+public final class Ages {
+
+  /** Âge maximal, inclus, d'un enfant. */
+  public static final int CHILD_MAX_AGE = 18;
+
+  private static final DateTimeFormatter BIRTHDATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+  private Ages() {
+  }
+
+  /**
+   * Calcule l'âge à une date à partir d'une date de naissance au format MM/dd/yyyy.
+   *
+   * @param birthdate la date de naissance
+   * @param today la date à laquelle l'âge est calculé
+   * @return l'âge en années
+   * @throws DateTimeParseException si la date de naissance n'est pas au format attendu
+   */
+  public static int between(String birthdate, LocalDate today) {
+    return Period.between(LocalDate.parse(birthdate, BIRTHDATE_FORMAT), today).getYears();
+  }
+
+  /**
+   * Calcule l'âge d'un résident à une date d'après son dossier médical.
+   *
+   * @param record le dossier médical, éventuellement null
+   * @param today la date à laquelle l'âge est calculé
+   * @return l'âge en années, ou -1 si le dossier est absent ou sa date de naissance invalide
+   */
+  public static int of(MedicalRecord record, LocalDate today) {
+    if (record == null || record.getBirthdate() == null) {
+      return -1;
+    }
+    try {
+      return between(record.getBirthdate(), today);
+    } catch (DateTimeParseException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Indique si un âge est celui d'un enfant.
+   *
+   * @param age l'âge en années
+   * @return true jusqu'à {@value #CHILD_MAX_AGE} ans inclus
+   */
+  public static boolean isChild(int age) {
+    return age <= CHILD_MAX_AGE;
+  }
+}
@@ -0,0 +1,269 @@
+package com.openclassrooms.safetynet.repository;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Liste immuable découpée en blocs d'au plus {@link #CHUNK_SIZE} éléments, dont les versions modifiées
+ * partagent les blocs inchangés.
+ *
+ * <p>Ajouter, remplacer ou retirer un élément ne copie que le bloc concerné et le tableau des blocs,
+ * soit de l'ordre de N / B + B références pour N éléments en blocs de B, au lieu de la liste entière.
+ * Les ajouts complètent le dernier bloc ; les retraits raccourcissent leur bloc, qui peut devenir vide.
+ * Lorsque les blocs sont en moyenne moins qu'à moitié pleins, la liste est recompactée en blocs pleins,
+ * ce qui reste amorti sur les retraits qui l'ont rendu nécessaire.</p>
+ *
+ * <p>L'accès par position cherche le bloc par dichotomie sur les positions de début des blocs ;
+ * le parcours lit les blocs dans l'ordre. Une instance n'est jamais modifiée et peut être lue
+ * sans verrou.</p>
+ *
+ * @param <T> le type des éléments
+ */
+final class ChunkedList<T> extends AbstractList<T> implements RandomAccess {
+
+  /** Nombre maximal d'éléments d'un bloc. */
+  static final int CHUNK_SIZE = 1024;
+
+  private static final ChunkedList<?> EMPTY = new ChunkedList<>(new Object[0][], new int[0], 0);
+
+  private final Object[][] chunks;
+  private final int[] starts;
+  private final int size;
+
+  private ChunkedList(Object[][] chunks, int[] starts, int size) {
+    this.chunks = chunks;
+    this.starts = starts;
+    this.size = size;
+  }
+
+  /**
+   * Retourne la liste vide.
+   *
+   * @return la liste vide
+   */
+  @SuppressWarnings("unchecked")
+  static <T> ChunkedList<T> empty() {
+    return (ChunkedList<T>) EMPTY;
+  }
+
+  /**
+   * Construit une liste à partir des éléments d'une collection, en blocs pleins.
+   *
+   * @param elements les éléments, null équivalant à une collection vide
+   * @return la liste
+   */
+  static <T> ChunkedList<T> of(Collection<? extends T> elements) {
+    if (elements == null || elements.isEmpty()) {
+      return empty();
+    }
+    Object[] all = elements.toArray();
+    int count = (all.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    Object[][] chunks = new Object[count][];
+    int[] starts = new int[count];
+    for (int c = 0; c < count; c++) {
+      starts[c] = c * CHUNK_SIZE;
+      chunks[c] = Arrays.copyOfRange(all, starts[c], Math.min(all.length, starts[c] + CHUNK_SIZE));
+    }
+    return new ChunkedList<>(chunks, starts, all.length);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T get(int index) {
+    Objects.checkIndex(index, size);
+    int chunk = chunkOf(index);
+    return (T) chunks[chunk][index - starts[chunk]];
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    return new Iterator<>() {
+      private int chunk;
+      private int offset;
+      private int returned;
+
+      @Override
+      public boolean hasNext() {
+        return returned < size;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public T next() {
+        if (returned >= size) {
+          throw new NoSuchElementException();
+        }
+        while (offset >= chunks[chunk].length) {
+          chunk++;
+          offset = 0;
+        }
+        returned++;
+        return (T) chunks[chunk][offset++];
+      }
+    };
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void forEach(Consumer<? super T> action) {
+    for (Object[] chunk : chunks) {
+      for (Object element : chunk) {
+        action.accept((T) element);
+      }
+    }
+  }
+
+  @Override
+  public Spliterator<T> spliterator() {
+    return Spliterators.spliterator(this, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+  }
+
+  /**
+   * Retourne une liste complétée par un élément.
+   *
+   * @param element l'élément à ajouter en fin de liste
+   * @return la nouvelle liste
+   */
+  ChunkedList<T> appended(T element) {
+    int last = chunks.length - 1;
+    if (last >= 0 && chunks[last].length < CHUNK_SIZE) {
+      Object[][] copy = chunks.clone();
+      copy[last] = Arrays.copyOf(chunks[last], chunks[last].length + 1);
+      copy[last][chunks[last].length] = element;
+      return new ChunkedList<>(copy, starts, size + 1);
+    }
+    Object[][] copy = Arrays.copyOf(chunks, chunks.length + 1);
+    copy[chunks.length] = new Object[] {element};
+    int[] copyStarts = Arrays.copyOf(starts, starts.length + 1);
+    copyStarts[starts.length] = size;
+    return new ChunkedList<>(copy, copyStarts, size + 1);
+  }
+
+  /**
+   * Retourne une liste où l'élément à une position est remplacé.
+   *
+   * @param index la position
+   * @param element le nouvel élément
+   * @return la nouvelle liste
+   */
+  ChunkedList<T> replaced(int index, T element) {
+    Objects.checkIndex(index, size);
+    int chunk = chunkOf(index);
+    Object[][] copy = chunks.clone();
+    copy[chunk] = chunks[chunk].clone();
+    copy[chunk][index - starts[chunk]] = element;
+    return new ChunkedList<>(copy, starts, size);
+  }
+
+  /**
+   * Retourne une liste privée de l'élément à une position.
+   *
+   * @param index la position
+   * @return la nouvelle liste, recompactée si ses blocs sont en moyenne moins qu'à moitié pleins
+   */
+  ChunkedList<T> removed(int index) {
+    Objects.checkIndex(index, size);
+    int chunk = chunkOf(index);
+    int offset = index - starts[chunk];
+    Object[] source = chunks[chunk];
+    Object[] shortened = new Object[source.length - 1];
+    System.arraycopy(source, 0, shortened, 0, offset);
+    System.arraycopy(source, offset + 1, shortened, offset, source.length - offset - 1);
+    Object[][] copy = chunks.clone();
+    copy[chunk] = shortened;
+    int[] copyStarts = starts.clone();
+    for (int c = chunk + 1; c < copyStarts.length; c++) {
+      copyStarts[c]--;
+    }
+    ChunkedList<T> result = new ChunkedList<>(copy, copyStarts, size - 1);
+    return result.isFragmented() ? of(result) : result;
+  }
+
+  /**
+   * Retourne le nombre de blocs. Il ne change pas lors d'un remplacement ni d'un retrait sans
+   * recompactage, et n'augmente que d'un bloc final lors d'un ajout.
+   *
+   * @return le nombre de blocs
+   */
+  int chunkCount() {
+    return chunks.length;
+  }
+
+  /**
+   * Retourne le numéro du bloc qui contient une position.
+   *
+   * @param index la position
+   * @return le numéro du bloc
+   */
+  int chunkAt(int index) {
+    Objects.checkIndex(index, size);
+    return chunkOf(index);
+  }
+
+  /**
+   * Cherche un élément par identité dans un bloc.
+   *
+   * @param chunk le numéro du bloc
+   * @param element l'instance recherchée
+   * @return la position de sa première occurrence dans le bloc, ou -1 si le bloc ne la contient pas
+   */
+  int indexIn(int chunk, Object element) {
+    Object[] elements = chunks[chunk];
+    for (int offset = 0; offset < elements.length; offset++) {
+      if (elements[offset] == element) {
+        return starts[chunk] + offset;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Parcourt les éléments dans l'ordre avec le numéro de leur bloc.
+   *
+   * @param action reçoit chaque élément et le numéro de son bloc
+   */
+  @SuppressWarnings("unchecked")
+  void forEachWithChunk(ObjIntConsumer<? super T> action) {
+    for (int chunk = 0; chunk < chunks.length; chunk++) {
+      for (Object element : chunks[chunk]) {
+        action.accept((T) element, chunk);
+      }
+    }
+  }
+
+  private boolean isFragmented() {
+    return chunks.length > 2 * (size / CHUNK_SIZE + 1);
+  }
+
+  /**
+   * Retourne le dernier bloc qui commence au plus tard à une position, c'est-à-dire le bloc qui la
+   * contient : un bloc vide commence à la même position que le suivant.
+   */
+  private int chunkOf(int index) {
+    int low = 0;
+    int high = starts.length - 1;
+    while (low < high) {
+      int middle = (low + high + 1) >>> 1;
+      if (starts[middle] <= index) {
+        low = middle;
+      } else {
+        high = middle - 1;
+      }
+    }
+    return low;
+  }
+}
@@ -0,0 +1,138 @@
+package com.openclassrooms.safetynet.repository;
+
+import com.openclassrooms.safetynet.dto.CommunityEmailDTO;
+import com.openclassrooms.safetynet.model.Person;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Adresses électroniques des résidents de chaque ville, sans doublon et dans l'ordre de première
+ * apparition.
+ *
+ * <p>Chaque adresse d'une ville est comptée autant de fois qu'elle est portée par un résident ; elle
+ * disparaît de la ville quand son dernier porteur est supprimé ou déménage. La liste complète d'une
+ * ville est construite à la première lecture puis conservée jusqu'à la modification suivante de cette
+ * ville ; le parcours paresseux lit directement l'ensemble courant.</p>
+ *
+ * <p>L'index est mis à jour par {@link DataRepository} sous son verrou d'écriture ; les lectures ne
+ * prennent aucun verrou.</p>
+ */
+public class CommunityEmailIndex {
+
+  private final Map<String, CityEmails> cities = new ConcurrentHashMap<>();
+
+  /**
+   * Retourne les adresses électroniques des résidents d'une ville.
+   *
+   * @param city la ville, insensible à la casse
+   * @return les adresses, sans doublon, dans l'ordre de première apparition ; vide si la ville est inconnue.
+   *     La liste est partagée entre les appels et ne doit pas être modifiée.
+   */
+  public List<CommunityEmailDTO> findEmails(String city) {
+    CityEmails emails = cities.get(normalize(city));
+    return emails == null ? List.of() : emails.list();
+  }
+
+  /**
+   * Parcourt paresseusement les adresses électroniques des résidents d'une ville, sans construire
+   * la liste complète.
+   *
+   * @param city la ville, insensible à la casse
+   * @return les adresses, sans doublon, dans l'ordre de première apparition
+   */
+  public Stream<CommunityEmailDTO> streamEmails(String city) {
+    CityEmails emails = cities.get(normalize(city));
+    return emails == null ? Stream.empty() : emails.bySequence.values().stream().map(CommunityEmailDTO::new);
+  }
+
+  /**
+   * Reconstruit l'index à partir de toutes les personnes.
+   */
+  void rebuild(List<Person> persons) {
+    cities.clear();
+    if (persons != null) {
+      persons.forEach(this::addPerson);
+    }
+  }
+
+  void addPerson(Person person) {
+    if (person.getEmail() != null) {
+      cities.computeIfAbsent(normalize(person.getCity()), c -> new CityEmails()).add(person.getEmail());
+    }
+  }
+
+  void removePerson(Person person) {
+    String city = normalize(person.getCity());
+    CityEmails emails = cities.get(city);
+    if (emails != null && person.getEmail() != null) {
+      emails.remove(person.getEmail());
+      if (emails.bySequence.isEmpty()) {
+        cities.remove(city);
+      }
+    }
+  }
+
+  private static String normalize(String city) {
+    return city == null ? "" : city.trim().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Adresses d'une ville : nombre de porteurs et rang de première apparition de chaque adresse,
+   * et liste complète conservée tant que la ville n'est pas modifiée.
+   */
+  private static final class CityEmails {
+
+    private final Map<String, long[]> entries = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, String> bySequence = new ConcurrentSkipListMap<>();
+    private long nextSequence;
+    private volatile long version;
+    private volatile Snapshot snapshot;
+
+    private record Snapshot(long version, List<CommunityEmailDTO> emails) { }
+
+    /**
+     * Retourne la liste complète, reconstruite seulement si la ville a changé depuis la dernière lecture.
+     */
+    List<CommunityEmailDTO> list() {
+      long current = version;
+      Snapshot cached = snapshot;
+      if (cached != null && cached.version() == current) {
+        return cached.emails();
+      }
+      List<CommunityEmailDTO> emails = bySequence.values().stream().map(CommunityEmailDTO::new).toList();
+      snapshot = new Snapshot(current, emails);
+      return emails;
+    }
+
+    /**
+     * Ajoute un porteur à une adresse. L'entrée vaut {@code [séquence, porteurs]}.
+     */
+    void add(String email) {
+      long[] entry = entries.get(email);
+      if (entry == null) {
+        long sequence = nextSequence++;
+        entries.put(email, new long[] {sequence, 1});
+        bySequence.put(sequence, email);
+        version++;
+      } else {
+        entry[1]++;
+      }
+    }
+
+    void remove(String email) {
+      long[] entry = entries.get(email);
+      if (entry == null) {
+        return;
+      }
+      if (--entry[1] == 0) {
+        entries.remove(email);
+        bySequence.remove(entry[0]);
+        version++;
+      }
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package com.openclassrooms.safetynet.repository;
+
+import java.util.Collection;
+
+/**
+ * Filtre de Bloom à compteurs : ensemble compact de clés qui répond « absente » avec certitude
+ * ou « peut-être présente » avec un taux de faux positifs borné.
+ *
+ * <p>Chaque clé incrémente {@code k} compteurs d'un octet, choisis par double hachage ; la retirer
+ * les décrémente, ce qui permet de suivre les suppressions sans reconstruction. Un compteur arrivé
+ * à sa valeur maximale n'est plus jamais décrémenté : le filtre peut alors répondre « peut-être »
+ * à tort, jamais « absente » à tort. Le filtre est dimensionné pour une capacité donnée ; au-delà,
+ * {@link #isFull()} signale qu'il doit être reconstruit plus grand.</p>
+ *
+ * <p>Les écritures sont faites par {@link DataRepository} sous son verrou d'écriture ; les lectures ne
+ * prennent aucun verrou.</p>
+ */
+public class CountingBloomFilter {
+
+  private static final int MIN_CAPACITY = 1024;
+  private static final int SATURATED = 0xFF;
+
+  private final byte[] counters;
+  private final int hashes;
+  private final int capacity;
+  private volatile int size;
+
+  /**
+   * Construit un filtre vide.
+   *
+   * @param capacity le nombre de clés prévu
+   * @param falsePositiveRate le taux de faux positifs visé à pleine capacité
+   */
+  public CountingBloomFilter(int capacity, double falsePositiveRate) {
+    this.capacity = Math.max(MIN_CAPACITY, capacity);
+    long bits = (long) Math.ceil(-this.capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    this.counters = new byte[(int) Math.min(Integer.MAX_VALUE - 8, bits)];
+    this.hashes = Math.max(1, (int) Math.round((double) counters.length / this.capacity * Math.log(2)));
+  }
+
+  /**
+   * Construit un filtre contenant des clés, dimensionné pour deux fois leur nombre.
+   *
+   * @param keys les clés
+   * @param falsePositiveRate le taux de faux positifs visé à pleine capacité
+   * @return le filtre
+   */
+  public static CountingBloomFilter of(Collection<String> keys, double falsePositiveRate) {
+    CountingBloomFilter filter = new CountingBloomFilter(2 * keys.size(), falsePositiveRate);
+    keys.forEach(filter::add);
+    return filter;
+  }
+
+  /**
+   * Indique si une clé peut être présente.
+   *
+   * @param key la clé
+   * @return false si la clé est absente avec certitude, true si elle peut être présente
+   */
+  public boolean mightContain(String key) {
+    if (size == 0) {
+      return false;
+    }
+    long hash = hash(key);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32) | 1;
+    for (int i = 0; i < hashes; i++) {
+      if (counters[index(h1, h2, i)] == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Retourne le taux de faux positifs attendu pour le nombre de clés actuel : {@code (1 - e^(-k·n/m))^k}.
+   *
+   * @return le taux estimé, entre 0 et 1
+   */
+  public double expectedFalsePositiveRate() {
+    return Math.pow(1 - Math.exp(-(double) hashes * size / counters.length), hashes);
+  }
+
+  /**
+   * Indique si le filtre a atteint sa capacité et doit être reconstruit plus grand.
+   *
+   * @return true si le nombre de clés dépasse la capacité
+   */
+  public boolean isFull() {
+    return size > capacity;
+  }
+
+  /**
+   * Retourne le nombre de clés ajoutées et non retirées, doublons compris.
+   *
+   * @return le nombre de clés
+   */
+  public int size() {
+    return size;
+  }
+
+  void add(String key) {
+    long hash = hash(key);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32) | 1;
+    for (int i = 0; i < hashes; i++) {
+      int index = index(h1, h2, i);
+      int counter = counters[index] & 0xFF;
+      if (counter < SATURATED) {
+        counters[index] = (byte) (counter + 1);
+      }
+    }
+    size++;
+  }
+
+  void remove(String key) {
+    long hash = hash(key);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32) | 1;
+    for (int i = 0; i < hashes; i++) {
+      int index = index(h1, h2, i);
+      int counter = counters[index] & 0xFF;
+      if (counter > 0 && counter < SATURATED) {
+        counters[index] = (byte) (counter - 1);
+      }
+    }
+    size--;
+  }
+
+  private int index(int h1, int h2, int i) {
+    return Math.floorMod(h1 + i * h2, counters.length);
+  }
+
+  /**
+   * Hachage FNV-1a sur 64 bits suivi du mélange final de MurmurHash3, dont les deux moitiés
+   * servent au double hachage (la seconde rendue impaire pour ne jamais être nulle).
+   */
+  private static long hash(String key) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < key.length(); i++) {
+      hash ^= key.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb93fe53a87ffL;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
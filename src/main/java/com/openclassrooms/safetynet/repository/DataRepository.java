@@ -2,25 +2,79 @@ package com.openclassrooms.safetynet.repository;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.openclassrooms.safetynet.dto.ChangesResponseDTO;
 import com.openclassrooms.safetynet.dto.DataWrapper;
+import com.openclassrooms.safetynet.event.ChangeOperation;
+import com.openclassrooms.safetynet.event.ChangeScope;
+import com.openclassrooms.safetynet.event.DataChangeEvent;
+import com.openclassrooms.safetynet.event.EntityType;
 import com.openclassrooms.safetynet.model.Firestation;
 import com.openclassrooms.safetynet.model.MedicalRecord;
 import com.openclassrooms.safetynet.model.Person;
+import com.openclassrooms.safetynet.monitoring.RepositoryLoadEvent;
+import com.openclassrooms.safetynet.monitoring.RepositoryMutationEvent;
+import com.openclassrooms.safetynet.monitoring.RepositorySaveEvent;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
 
 /**
  * Repository pour la gestion des données.
  * Charge les données depuis un fichier JSON et les stocke dans des listes.
  * Fournit des méthodes pour ajouter, mettre à jour et supprimer des données.
+ * Les mutations sont protégées par des verrous {@link ReentrantReadWriteLock} (et non {@code synchronized})
+ * afin de ne pas épingler les threads virtuels ; l'écriture du fichier passe par un exécuteur de persistance.
+ * Les listes exposées sont des instantanés immuables découpés en blocs ({@link ChunkedList}), remplacés
+ * à chaque mutation par une nouvelle version qui ne copie que le bloc modifié et partage les autres :
+ * les lectures ne prennent aucun verrou et ne voient jamais une liste en cours de modification.
+ * Un {@link MedicalIndex} (médicaments, allergies, personnes et dossiers par nom) est tenu à jour
+ * dans les mêmes sections critiques, ainsi qu'un {@link ResidentBitmapIndex} (ville, caserne, tranche d'âge,
+ * foyer et indicateurs médicaux) pour les filtres combinés et un {@link NameSearchIndex} pour la recherche
+ * des noms par préfixe ou tolérante aux fautes, un {@link AddressIndex} pour l'autocomplétion
+ * des adresses et un {@link CommunityEmailIndex} des adresses électroniques par ville.
+ * Les personnes et dossiers médicaux sont identifiés par leur {@link NameKey}, les casernes par l'{@link AddressKey}
+ * de leur adresse : ces clés sont calculées une fois à l'indexation, et les recherches par nom ou par adresse
+ * des mises à jour et suppressions passent par les index plutôt que par un parcours des listes.
+ * Un {@link HouseholdIndex} regroupe les résidents par foyer et rattache chaque foyer à ses casernes ;
+ * chacune de ses modifications met à jour les compteurs démographiques du {@link StationStatsIndex}.
+ * L'âge des personnes est calculé d'après leur dossier médical ({@link Ages}) à chaque écriture qui le
+ * concerne ; les foyers, les statistiques par caserne et l'index bitmap lisent tous cet âge.
+ * Des {@link CountingBloomFilter} des noms des personnes et des dossiers médicaux et des adresses des casernes
+ * permettent d'écarter sans parcours les créations dont la clé est certainement nouvelle.
+ * Chaque modification reçoit un numéro de version et son périmètre (stations, adresses, villes),
+ * est conservée dans un journal borné et est publiée sous forme de {@link DataChangeEvent}.
+ * Les événements sont publiés hors du verrou d'écriture, mais toujours dans l'ordre des versions : ils sont
+ * mis en file sous le verrou d'écriture, puis un seul écrivain à la fois vide la file.
+ * Le chargement, les sauvegardes et les mutations émettent des événements JFR, désactivés par défaut.
  */
 @Repository
 @Slf4j
@@ -28,25 +82,264 @@ import org.springframework.stereotype.Repository;
 @Setter
 public class DataRepository {
 
-  private final String filePath = "src/main/resources/Data.json";
+  private static final double FILTER_FALSE_POSITIVE_RATE = 0.01;
 
-  private List<Person> persons;
-  private List<Firestation> firestations;
-  private List<MedicalRecord> medicalRecords;
+  @Value("${safetynet.data.file:src/main/resources/Data.json}")
+  private String filePath = "src/main/resources/Data.json";
+
+  @Getter(AccessLevel.NONE)
+  private final PositionedList<Person> persons = new PositionedList<>();
+  @Getter(AccessLevel.NONE)
+  private final PositionedList<Firestation> firestations = new PositionedList<>();
+  @Getter(AccessLevel.NONE)
+  private final PositionedList<MedicalRecord> medicalRecords = new PositionedList<>();
+  private final MedicalIndex medicalIndex = new MedicalIndex();
+  private final ResidentBitmapIndex residentIndex = new ResidentBitmapIndex();
+  private final NameSearchIndex nameSearchIndex = new NameSearchIndex();
+  private final AddressIndex addressIndex = new AddressIndex();
+  private final CommunityEmailIndex communityEmailIndex = new CommunityEmailIndex();
+  private final StationStatsIndex stationStatsIndex = new StationStatsIndex(medicalIndex);
+  private final HouseholdIndex householdIndex = new HouseholdIndex(stationStatsIndex::householdChanged);
+
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private volatile CountingBloomFilter personFilter = new CountingBloomFilter(0, FILTER_FALSE_POSITIVE_RATE);
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private volatile CountingBloomFilter medicalRecordFilter = new CountingBloomFilter(0, FILTER_FALSE_POSITIVE_RATE);
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private volatile CountingBloomFilter firestationFilter = new CountingBloomFilter(0, FILTER_FALSE_POSITIVE_RATE);
+
+  @Getter(AccessLevel.NONE)
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  @Getter(AccessLevel.NONE)
+  private final ReentrantLock fileLock = new ReentrantLock();
+  @Getter(AccessLevel.NONE)
+  private final AtomicBoolean savePending = new AtomicBoolean();
+  @Getter(AccessLevel.NONE)
+  private Executor persistenceExecutor = Runnable::run;
+  @Getter(AccessLevel.NONE)
+  private ApplicationEventPublisher eventPublisher = event -> { };
+  @Getter(AccessLevel.NONE)
+  private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+  @Getter(AccessLevel.NONE)
+  private final Deque<DataChangeEvent> changeLog = new ArrayDeque<>();
+  @Getter(AccessLevel.NONE)
+  private final Queue<DataChangeEvent> unpublishedChanges = new ConcurrentLinkedQueue<>();
+  @Getter(AccessLevel.NONE)
+  private final ReentrantLock publishLock = new ReentrantLock();
+  @Value("${safetynet.changes.log-capacity:10000}")
+  @Setter(AccessLevel.NONE)
+  private int changeLogCapacity = 10000;
+  @Setter(AccessLevel.NONE)
+  private volatile long version;
+  @Setter(AccessLevel.NONE)
+  private volatile String epoch = UUID.randomUUID().toString();
+
+  /**
+   * Définit l'exécuteur utilisé pour écrire le fichier JSON.
+   * Par défaut l'écriture est synchrone dans le thread appelant ; en mode threads virtuels
+   * elle est déléguée à un exécuteur dédié et les sauvegardes rapprochées sont regroupées.
+   *
+   * @param persistenceExecutor l'exécuteur de persistance
+   */
+  @Autowired(required = false)
+  public void setPersistenceExecutor(@Qualifier("persistenceExecutor") Executor persistenceExecutor) {
+    this.persistenceExecutor = persistenceExecutor;
+  }
+
+  /**
+   * Définit le bus d'événements sur lequel les modifications sont publiées.
+   *
+   * @param eventPublisher le publieur d'événements de l'application
+   */
+  @Autowired(required = false)
+  public void setEventPublisher(ApplicationEventPublisher eventPublisher) {
+    this.eventPublisher = eventPublisher;
+  }
+
+  /**
+   * Définit le registre de métriques utilisé pour chronométrer l'écriture du fichier.
+   *
+   * @param meterRegistry le registre de métriques de l'application
+   */
+  @Autowired(required = false)
+  public void setMeterRegistry(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Modifie la capacité du journal des modifications et en évince aussitôt les entrées en excès.
+   *
+   * @param changeLogCapacity le nombre maximal de modifications conservées
+   */
+  void setChangeLogCapacity(int changeLogCapacity) {
+    lock.writeLock().lock();
+    try {
+      this.changeLogCapacity = changeLogCapacity;
+      while (changeLog.size() > changeLogCapacity) {
+        changeLog.removeFirst();
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Retourne l'instantané courant des personnes.
+   *
+   * @return les personnes, non modifiables
+   */
+  public List<Person> getPersons() {
+    return this.persons.list();
+  }
+
+  /**
+   * Retourne l'instantané courant des casernes.
+   *
+   * @return les casernes, non modifiables
+   */
+  public List<Firestation> getFirestations() {
+    return this.firestations.list();
+  }
+
+  /**
+   * Retourne l'instantané courant des dossiers médicaux.
+   *
+   * @return les dossiers médicaux, non modifiables
+   */
+  public List<MedicalRecord> getMedicalRecords() {
+    return this.medicalRecords.list();
+  }
+
+  /**
+   * Remplace la liste des personnes par un instantané non modifiable de la liste fournie.
+   *
+   * @param persons les personnes
+   */
+  public void setPersons(List<Person> persons) {
+    lock.writeLock().lock();
+    try {
+      this.persons.reset(persons);
+      personFilter = filterOf(this.persons.list(), DataRepository::personKey);
+      medicalIndex.rebuildPersons(this.persons.list());
+      assignAges(this.persons.list());
+      nameSearchIndex.rebuild(this.persons.list());
+      communityEmailIndex.rebuild(this.persons.list());
+      addressIndex.rebuild(this.persons.list(), this.firestations.list());
+      householdIndex.rebuild(this.persons.list(), this.firestations.list());
+      stationStatsIndex.rebuild(householdIndex);
+      residentIndex.rebuild(this.persons.list(), this.firestations.list(), medicalIndex);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Remplace la liste des casernes par un instantané non modifiable de la liste fournie.
+   *
+   * @param firestations les casernes de pompiers
+   */
+  public void setFirestations(List<Firestation> firestations) {
+    lock.writeLock().lock();
+    try {
+      this.firestations.reset(firestations);
+      firestationFilter = filterOf(this.firestations.list(), DataRepository::firestationKey);
+      addressIndex.rebuild(this.persons.list(), this.firestations.list());
+      householdIndex.rebuild(this.persons.list(), this.firestations.list());
+      stationStatsIndex.rebuild(householdIndex);
+      residentIndex.rebuild(this.persons.list(), this.firestations.list(), medicalIndex);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Remplace la liste des dossiers médicaux par un instantané non modifiable de la liste fournie.
+   *
+   * @param medicalRecords les dossiers médicaux
+   */
+  public void setMedicalRecords(List<MedicalRecord> medicalRecords) {
+    lock.writeLock().lock();
+    try {
+      this.medicalRecords.reset(medicalRecords);
+      medicalRecordFilter = filterOf(this.medicalRecords.list(), DataRepository::medicalRecordKey);
+      medicalIndex.rebuildMedicalRecords(this.medicalRecords.list());
+      assignAges(this.persons.list());
+      householdIndex.rebuild(this.persons.list(), this.firestations.list());
+      stationStatsIndex.rebuild(householdIndex);
+      residentIndex.rebuild(this.persons.list(), this.firestations.list(), medicalIndex);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Recalcule l'âge de toutes les personnes d'après leur dossier médical à une date donnée. Seules les
+   * personnes qui changent de tranche d'âge ({@link ResidentBitmapIndex.AgeBand}, dont les limites
+   * incluent celle entre enfants et adultes) voient leur foyer et leur entrée de l'index bitmap mis à
+   * jour ; pour les autres, seul l'âge affiché change.
+   *
+   * @param today la date à laquelle les âges sont calculés
+   * @return le nombre de personnes qui ont changé de tranche d'âge
+   */
+  public int refreshAges(LocalDate today) {
+    lock.writeLock().lock();
+    try {
+      List<Person> crossed = new ArrayList<>();
+      for (Person person : this.persons.list()) {
+        ResidentBitmapIndex.AgeBand before = ResidentBitmapIndex.AgeBand.of(person.getAge());
+        assignAge(person, today);
+        if (ResidentBitmapIndex.AgeBand.of(person.getAge()) != before) {
+          crossed.add(person);
+        }
+      }
+      householdIndex.membersChanged(crossed);
+      residentIndex.agesChanged(crossed);
+      return crossed.size();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
 
   /**
    * Charge les données depuis un fichier JSON et les stocke dans des listes.
    */
+  @Timed(value = "safetynet.repository.operation", histogram = true)
   public void loadData() {
+    RepositoryLoadEvent loadEvent = RepositoryLoadEvent.start();
     Gson gson = new Gson();
-    log.info("Loading data from file " + filePath);
+    log.info("Loading data from file {}", filePath);
 
     try (Reader reader = new FileReader(filePath)) {
       DataWrapper data = gson.fromJson(reader, DataWrapper.class);
 
-      this.persons = data.getPersons();
-      this.firestations = data.getFirestations();
-      this.medicalRecords = data.getMedicalRecords();
+      lock.writeLock().lock();
+      try {
+        this.persons.reset(data.getPersons());
+        this.firestations.reset(data.getFirestations());
+        this.medicalRecords.reset(data.getMedicalRecords());
+        personFilter = filterOf(this.persons.list(), DataRepository::personKey);
+        firestationFilter = filterOf(this.firestations.list(), DataRepository::firestationKey);
+        medicalRecordFilter = filterOf(this.medicalRecords.list(), DataRepository::medicalRecordKey);
+        medicalIndex.rebuildPersons(this.persons.list());
+        medicalIndex.rebuildMedicalRecords(this.medicalRecords.list());
+        assignAges(this.persons.list());
+        nameSearchIndex.rebuild(this.persons.list());
+        communityEmailIndex.rebuild(this.persons.list());
+        addressIndex.rebuild(this.persons.list(), this.firestations.list());
+        householdIndex.rebuild(this.persons.list(), this.firestations.list());
+        stationStatsIndex.rebuild(householdIndex);
+        residentIndex.rebuild(this.persons.list(), this.firestations.list(), medicalIndex);
+        this.changeLog.clear();
+        this.version = 0;
+        this.epoch = UUID.randomUUID().toString();
+      } finally {
+        lock.writeLock().unlock();
+      }
+      loadEvent.end(filePath, persons.list().size(), firestations.list().size(), medicalRecords.list().size());
       log.info("Data loaded successfully");
 
     } catch (IOException e) {
@@ -56,21 +349,172 @@ public class DataRepository {
   }
 
   /**
-   * Sauvegarde les données actuelles dans le fichier JSON.
+   * Planifie la sauvegarde des données actuelles dans le fichier JSON.
+   * Si une sauvegarde est déjà en attente, elle couvrira aussi cette modification.
    */
   private void saveData() {
-    Gson gson = new GsonBuilder().setPrettyPrinting().create();
-    DataWrapper data = new DataWrapper();
-    data.setPersons(this.persons);
-    data.setFirestations(this.firestations);
-    data.setMedicalRecords(this.medicalRecords);
-
-    try (Writer writer = new FileWriter(filePath)) {
-      gson.toJson(data, writer);
-      log.info("Data saved successfully to file");
-    } catch (IOException e) {
-      e.printStackTrace();
-      log.error("Error saving data", e);
+    if (savePending.compareAndSet(false, true)) {
+      persistenceExecutor.execute(this::writeData);
+    }
+  }
+
+  /**
+   * Sauvegarde un instantané cohérent des données actuelles dans le fichier JSON.
+   */
+  private void writeData() {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    RepositorySaveEvent saveEvent = RepositorySaveEvent.start();
+    long savedVersion;
+    fileLock.lock();
+    try {
+      savePending.set(false);
+      DataWrapper data = new DataWrapper();
+      lock.readLock().lock();
+      try {
+        savedVersion = this.version;
+        data.setPersons(this.persons.list());
+        data.setFirestations(this.firestations.list());
+        data.setMedicalRecords(this.medicalRecords.list());
+      } finally {
+        lock.readLock().unlock();
+      }
+
+      Gson gson = new GsonBuilder().setPrettyPrinting().create();
+      try (Writer writer = new FileWriter(filePath)) {
+        gson.toJson(data, writer);
+        log.info("Data saved successfully to file");
+      } catch (IOException e) {
+        e.printStackTrace();
+        log.error("Error saving data", e);
+      }
+    } finally {
+      fileLock.unlock();
+      sample.stop(meterRegistry.timer("safetynet.repository.save"));
+    }
+    saveEvent.end(filePath, savedVersion);
+  }
+
+  /**
+   * Attribue une nouvelle version à une modification, calcule son périmètre, l'ajoute au journal
+   * des modifications et la met en file de publication. Doit être appelée sous le verrou d'écriture, après
+   * la mise à jour des index ; les entrées les plus anciennes sont évincées au-delà de la capacité du journal.
+   */
+  private DataChangeEvent recordChange(EntityType entity, ChangeOperation operation, Object previous, Object current) {
+    DataChangeEvent change = new DataChangeEvent(entity, operation, previous, current, ++version,
+        System.currentTimeMillis(), scopeOf(previous, current));
+    changeLog.addLast(change);
+    unpublishedChanges.add(change);
+    while (changeLog.size() > changeLogCapacity) {
+      changeLog.removeFirst();
+    }
+    return change;
+  }
+
+  /**
+   * Détermine les stations, adresses et villes concernées par une modification, d'après les index
+   * tels qu'ils sont au moment de la modification.
+   *
+   * @param previous l'entité avant modification, ou null
+   * @param current l'entité après modification, ou null
+   * @return le périmètre de la modification
+   */
+  private ChangeScope scopeOf(Object previous, Object current) {
+    ChangeScope scope = new ChangeScope(new HashSet<>(), new HashSet<>(), new HashSet<>());
+    for (Object entity : new Object[] {previous, current}) {
+      if (entity instanceof Person person) {
+        addHousehold(scope, person.getAddress(), person.getCity());
+      } else if (entity instanceof Firestation firestation) {
+        AddressKey key = AddressKey.of(firestation.getAddress());
+        scope.stations().add(firestation.getStation());
+        scope.addresses().add(key);
+        Household household = householdIndex.find(key);
+        if (household != null) {
+          household.getMembers().forEach(member -> addCity(scope, member.getCity()));
+        }
+      } else if (entity instanceof MedicalRecord medicalRecord) {
+        medicalIndex.findPersons(NameKey.of(medicalRecord))
+            .forEach(person -> addHousehold(scope, person.getAddress(), person.getCity()));
+      }
+    }
+    return scope;
+  }
+
+  private void addHousehold(ChangeScope scope, String address, String city) {
+    if (address != null) {
+      AddressKey key = AddressKey.of(address);
+      scope.addresses().add(key);
+      householdIndex.findFirestations(key).forEach(f -> scope.stations().add(f.getStation()));
+    }
+    addCity(scope, city);
+  }
+
+  private static void addCity(ChangeScope scope, String city) {
+    if (city != null) {
+      scope.cities().add(city.toLowerCase());
+    }
+  }
+
+  /**
+   * Sauvegarde et publie les modifications effectuées, après libération du verrou d'écriture.
+   * Au retour, les modifications de l'appelant ont été publiées, par lui-même ou par un écrivain concurrent.
+   *
+   * @param operation le nom de la mutation
+   * @param mutation l'événement JFR démarré au début de la mutation
+   * @param changes les modifications effectuées
+   * @return true si au moins une modification a été effectuée
+   */
+  private boolean commit(String operation, RepositoryMutationEvent mutation, List<DataChangeEvent> changes) {
+    mutation.end(operation, changes.size(), version);
+    if (changes.isEmpty()) {
+      return false;
+    }
+    saveData();
+    publishChanges();
+    return true;
+  }
+
+  /**
+   * Publie les modifications en attente dans l'ordre de leurs versions. La file est remplie sous le
+   * verrou d'écriture, donc dans l'ordre des versions, et n'est vidée que par un écrivain à la fois :
+   * deux écrivains concurrents ne peuvent pas publier leurs versions dans le désordre.
+   */
+  private void publishChanges() {
+    publishLock.lock();
+    try {
+      DataChangeEvent change;
+      while ((change = unpublishedChanges.poll()) != null) {
+        eventPublisher.publishEvent(change);
+      }
+    } finally {
+      publishLock.unlock();
+    }
+  }
+
+  /**
+   * Récupère les modifications postérieures à une version donnée.
+   * Une version n'a de sens que dans son époque : si le client n'indique pas d'époque ou une époque
+   * différente de l'époque courante (après un redémarrage par exemple), ou si le journal a été tronqué
+   * au-delà de cette version, le client doit se resynchroniser entièrement.
+   *
+   * @param since la dernière version connue du client
+   * @param clientEpoch l'époque connue du client, ou null s'il n'en connaît aucune
+   * @return ChangesResponseDTO contenant les modifications ou l'indication de resynchronisation
+   */
+  public ChangesResponseDTO getChangesSince(long since, String clientEpoch) {
+    lock.readLock().lock();
+    try {
+      long oldestRetained = changeLog.isEmpty() ? version + 1 : changeLog.peekFirst().getVersion();
+      boolean resyncRequired = since < oldestRetained - 1 || since > version
+          || !epoch.equals(clientEpoch);
+      if (resyncRequired) {
+        return new ChangesResponseDTO(epoch, version, true, List.of());
+      }
+      List<DataChangeEvent> changes = changeLog.stream()
+          .filter(c -> c.getVersion() > since)
+          .toList();
+      return new ChangesResponseDTO(epoch, version, false, changes);
+    } finally {
+      lock.readLock().unlock();
     }
   }
 
@@ -79,9 +523,25 @@ public class DataRepository {
    *
    * @param firestation la caserne de pompiers à ajouter
    */
+  @Timed(value = "safetynet.repository.operation", histogram = true)
   public void addFirestation(Firestation firestation) {
-    this.firestations.add(firestation);
-    saveData();
+    RepositoryMutationEvent mutation = RepositoryMutationEvent.start();
+    List<DataChangeEvent> changes = new ArrayList<>();
+    lock.writeLock().lock();
+    try {
+      this.firestations.append(firestation);
+      firestationFilter.add(firestationKey(firestation));
+      if (firestationFilter.isFull()) {
+        firestationFilter = filterOf(this.firestations.list(), DataRepository::firestationKey);
+      }
+      addressIndex.firestationChanged(null, firestation);
+      householdIndex.firestationChanged(null, firestation);
+      residentIndex.firestationChanged(null, firestation);
+      changes.add(recordChange(EntityType.FIRESTATION, ChangeOperation.ADDED, null, firestation));
+    } finally {
+      lock.writeLock().unlock();
+    }
+    commit("addFirestation", mutation, changes);
   }
 
   /**
@@ -89,14 +549,27 @@ public class DataRepository {
    *
    * @param firestation la caserne de pompiers à mettre à jour
    */
+  @Timed(value = "safetynet.repository.operation", histogram = true)
   public void setFirestation(Firestation firestation) {
-    for (int i = 0; i < firestations.size(); i++) {
-      if (this.firestations.get(i).getAddress().equalsIgnoreCase(firestation.getAddress())) {
-        this.firestations.set(i, firestation);
-        saveData();
-        break;
+    RepositoryMutationEvent mutation = RepositoryMutationEvent.start();
+    List<DataChangeEvent> changes = new ArrayList<>();
+    lock.writeLock().lock();
+    try {
+      List<Firestation> assigned = householdIndex.findFirestations(AddressKey.of(firestation.getAddress()));
+      int index = this.firestations.firstIndexOf(assigned);
+      if (index >= 0) {
+        Firestation previous = this.firestations.replace(index, firestation);
+        firestationFilter.add(firestationKey(firestation));
+        firestationFilter.remove(firestationKey(previous));
+        addressIndex.firestationChanged(previous, firestation);
+        householdIndex.firestationChanged(previous, firestation);
+        residentIndex.firestationChanged(previous, firestation);
+        changes.add(recordChange(EntityType.FIRESTATION, ChangeOperation.UPDATED, previous, firestation));
       }
+    } finally {
+      lock.writeLock().unlock();
     }
+    commit("setFirestation", mutation, changes);
   }
 
   /**
@@ -104,11 +577,25 @@ public class DataRepository {
    *
    * @param address l'adresse de la caserne à supprimer
    */
+  @Timed(value = "safetynet.repository.operation", histogram = true)
   public void deleteFirestationByAddress(String address) {
-    boolean removed = firestations.removeIf(f -> f.getAddress().equalsIgnoreCase(address));
-    if (removed) {
-      saveData();
+    RepositoryMutationEvent mutation = RepositoryMutationEvent.start();
+    List<DataChangeEvent> changes = new ArrayList<>();
+    lock.writeLock().lock();
+    try {
+      List<Firestation> removed = new ArrayList<>();
+      this.firestations.removeAll(householdIndex.findFirestations(AddressKey.of(address)), removed);
+      if (!removed.isEmpty()) {
+        removed.forEach(f -> firestationFilter.remove(firestationKey(f)));
+        removed.forEach(f -> addressIndex.firestationChanged(f, null));
+        removed.forEach(f -> householdIndex.firestationChanged(f, null));
+        removed.forEach(f -> residentIndex.firestationChanged(f, null));
+      }
+      removed.forEach(f -> changes.add(recordChange(EntityType.FIRESTATION, ChangeOperation.DELETED, f, null)));
+    } finally {
+      lock.writeLock().unlock();
     }
+    commit("deleteFirestationByAddress", mutation, changes);
   }
 
   /**
@@ -116,11 +603,25 @@ public class DataRepository {
    *
    * @param stationNumber le numéro de station de la caserne à supprimer
    */
+  @Timed(value = "safetynet.repository.operation", histogram = true)
   public void deleteFirestationByStation(int stationNumber) {
-    boolean removed = firestations.removeIf(f -> f.getStation() == stationNumber);
-    if (removed) {
-      saveData();
+    RepositoryMutationEvent mutation = RepositoryMutationEvent.start();
+    List<DataChangeEvent> changes = new ArrayList<>();
+    lock.writeLock().lock();
+    try {
+      List<Firestation> removed = new ArrayList<>();
+      this.firestations.removeAll(householdIndex.findFirestations(stationNumber), removed);
+      if (!removed.isEmpty()) {
+        removed.forEach(f -> firestationFilter.remove(firestationKey(f)));
+        removed.forEach(f -> addressIndex.firestationChanged(f, null));
+        removed.forEach(f -> householdIndex.firestationChanged(f, null));
+        removed.forEach(f -> residentIndex.firestationChanged(f, null));
+      }
+      removed.forEach(f -> changes.add(recordChange(EntityType.FIRESTATION, ChangeOperation.DELETED, f, null)));
+    } finally {
+      lock.writeLock().unlock();
     }
+    commit("deleteFirestationByStation", mutation, changes);
   }
 
   /**
@@ -129,7 +630,7 @@ public class DataRepository {
    * @return List<Firestation> contenant toutes les casernes de pompiers
    */
   public List<Firestation> getAllFirestations() {
-    return this.firestations;
+    return this.firestations.list();
   }
 
   /**
@@ -138,12 +639,29 @@ public class DataRepository {
    * @param newPerson la personne à ajouter
    * @return true si l'ajout est réussi, false sinon
    */
+  @Timed(value = "safetynet.repository.operation", histogram = true)
   public boolean addPerson(Person newPerson) {
-    boolean added = this.persons.add(newPerson);
-    if (added) {
-      saveData();
+    RepositoryMutationEvent mutation = RepositoryMutationEvent.start();
+    List<DataChangeEvent> changes = new ArrayList<>();
+    lock.writeLock().lock();
+    try {
+      this.persons.append(newPerson);
+      personFilter.add(personKey(newPerson));
+      if (personFilter.isFull()) {
+        personFilter = filterOf(this.persons.list(), DataRepository::personKey);
+      }
+      medicalIndex.addPerson(newPerson);
+      assignAge(newPerson, LocalDate.now());
+      nameSearchIndex.addPerson(newPerson);
+      addressIndex.addPerson(newPerson);
+      communityEmailIndex.addPerson(newPerson);
+      householdIndex.addPerson(newPerson);
+      residentIndex.addPerson(newPerson, medicalIndex);
+      changes.add(recordChange(EntityType.PERSON, ChangeOperation.ADDED, null, newPerson));
+    } finally {
+      lock.writeLock().unlock();
     }
-    return added;
+    return commit("addPerson", mutation, changes);
   }
 
   /**
@@ -152,17 +670,35 @@ public class DataRepository {
    * @param updatedPerson la personne à mettre à jour
    * @return true si la mise à jour est réussie, false sinon
    */
+  @Timed(value = "safetynet.repository.operation", histogram = true)
   public boolean setPerson(Person updatedPerson) {
-    for (int i = 0; i < persons.size(); i++) {
-      Person existingPerson = this.persons.get(i);
-      if (existingPerson.getFirstName().equalsIgnoreCase(updatedPerson.getFirstName())
-          && existingPerson.getLastName().equalsIgnoreCase(updatedPerson.getLastName())) {
-        this.persons.set(i, updatedPerson);
-        saveData();
-        return true;
+    RepositoryMutationEvent mutation = RepositoryMutationEvent.start();
+    List<DataChangeEvent> changes = new ArrayList<>();
+    lock.writeLock().lock();
+    try {
+      List<Person> named = medicalIndex.findPersons(NameKey.of(updatedPerson));
+      int index = this.persons.firstIndexOf(named);
+      if (index >= 0) {
+        Person existingPerson = this.persons.replace(index, updatedPerson);
+        personFilter.add(personKey(updatedPerson));
+        personFilter.remove(personKey(existingPerson));
+        medicalIndex.addPerson(updatedPerson);
+        medicalIndex.removePerson(existingPerson);
+        assignAge(updatedPerson, LocalDate.now());
+        nameSearchIndex.addPerson(updatedPerson);
+        nameSearchIndex.removePerson(existingPerson);
+        addressIndex.addPerson(updatedPerson);
+        addressIndex.removePerson(existingPerson);
+        communityEmailIndex.addPerson(updatedPerson);
+        communityEmailIndex.removePerson(existingPerson);
+        householdIndex.replacePerson(existingPerson, updatedPerson);
+        residentIndex.replacePerson(existingPerson, updatedPerson, medicalIndex);
+        changes.add(recordChange(EntityType.PERSON, ChangeOperation.UPDATED, existingPerson, updatedPerson));
       }
+    } finally {
+      lock.writeLock().unlock();
     }
-    return false;
+    return commit("setPerson", mutation, changes);
   }
 
   /**
@@ -171,13 +707,26 @@ public class DataRepository {
    * @param existPerson la personne à supprimer
    * @return true si la suppression est réussie, false sinon
    */
+  @Timed(value = "safetynet.repository.operation", histogram = true)
   public boolean deletePerson(Person existPerson) {
-    boolean removed = this.persons.removeIf(p -> p.getFirstName().equalsIgnoreCase(existPerson.getFirstName())
-        && p.getLastName().equalsIgnoreCase(existPerson.getLastName()));
-    if (removed) {
-      saveData();
+    RepositoryMutationEvent mutation = RepositoryMutationEvent.start();
+    List<DataChangeEvent> changes = new ArrayList<>();
+    lock.writeLock().lock();
+    try {
+      List<Person> removed = new ArrayList<>();
+      this.persons.removeAll(medicalIndex.findPersons(NameKey.of(existPerson)), removed);
+      removed.forEach(p -> personFilter.remove(personKey(p)));
+      removed.forEach(medicalIndex::removePerson);
+      removed.forEach(nameSearchIndex::removePerson);
+      removed.forEach(addressIndex::removePerson);
+      removed.forEach(communityEmailIndex::removePerson);
+      removed.forEach(householdIndex::removePerson);
+      removed.forEach(residentIndex::removePerson);
+      removed.forEach(p -> changes.add(recordChange(EntityType.PERSON, ChangeOperation.DELETED, p, null)));
+    } finally {
+      lock.writeLock().unlock();
     }
-    return removed;
+    return commit("deletePerson", mutation, changes);
   }
 
   /**
@@ -186,12 +735,24 @@ public class DataRepository {
    * @param newMedicalRecord le dossier médical à ajouter
    * @return true si l'ajout est réussi, false sinon
    */
+  @Timed(value = "safetynet.repository.operation", histogram = true)
   public boolean addMedicalRecord(MedicalRecord newMedicalRecord) {
-    boolean added = this.medicalRecords.add(newMedicalRecord);
-    if (added) {
-      saveData();
+    RepositoryMutationEvent mutation = RepositoryMutationEvent.start();
+    List<DataChangeEvent> changes = new ArrayList<>();
+    lock.writeLock().lock();
+    try {
+      this.medicalRecords.append(newMedicalRecord);
+      medicalRecordFilter.add(medicalRecordKey(newMedicalRecord));
+      if (medicalRecordFilter.isFull()) {
+        medicalRecordFilter = filterOf(this.medicalRecords.list(), DataRepository::medicalRecordKey);
+      }
+      medicalIndex.addMedicalRecord(newMedicalRecord);
+      medicalRecordsChanged(NameKey.of(newMedicalRecord));
+      changes.add(recordChange(EntityType.MEDICAL_RECORD, ChangeOperation.ADDED, null, newMedicalRecord));
+    } finally {
+      lock.writeLock().unlock();
     }
-    return added;
+    return commit("addMedicalRecord", mutation, changes);
   }
 
   /**
@@ -200,17 +761,27 @@ public class DataRepository {
    * @param updatedRecord le dossier médical à mettre à jour
    * @return true si la mise à jour est réussie, false sinon
    */
+  @Timed(value = "safetynet.repository.operation", histogram = true)
   public boolean setMedicalRecord(MedicalRecord updatedRecord) {
-    for (int i = 0; i < this.medicalRecords.size(); i++) {
-      MedicalRecord existingMedicalRecord = this.medicalRecords.get(i);
-      if (existingMedicalRecord.getFirstName().equalsIgnoreCase(updatedRecord.getFirstName()) &&
-          existingMedicalRecord.getLastName().equalsIgnoreCase(updatedRecord.getLastName())) {
-        this.medicalRecords.set(i, updatedRecord);
-        saveData();
-        return true;
+    RepositoryMutationEvent mutation = RepositoryMutationEvent.start();
+    List<DataChangeEvent> changes = new ArrayList<>();
+    lock.writeLock().lock();
+    try {
+      List<MedicalRecord> named = medicalIndex.findMedicalRecords(NameKey.of(updatedRecord));
+      int index = this.medicalRecords.firstIndexOf(named);
+      if (index >= 0) {
+        MedicalRecord existingMedicalRecord = this.medicalRecords.replace(index, updatedRecord);
+        medicalRecordFilter.add(medicalRecordKey(updatedRecord));
+        medicalRecordFilter.remove(medicalRecordKey(existingMedicalRecord));
+        medicalIndex.addMedicalRecord(updatedRecord);
+        medicalIndex.removeMedicalRecord(existingMedicalRecord);
+        medicalRecordsChanged(NameKey.of(updatedRecord));
+        changes.add(recordChange(EntityType.MEDICAL_RECORD, ChangeOperation.UPDATED, existingMedicalRecord, updatedRecord));
       }
+    } finally {
+      lock.writeLock().unlock();
     }
-    return false;
+    return commit("setMedicalRecord", mutation, changes);
   }
 
   /**
@@ -219,12 +790,146 @@ public class DataRepository {
    * @param existMedicalRecord le dossier médical à supprimer
    * @return true si la suppression est réussie, false sinon
    */
+  @Timed(value = "safetynet.repository.operation", histogram = true)
   public boolean deleteMedicalRecord(MedicalRecord existMedicalRecord) {
-    boolean removed = this.medicalRecords.removeIf(mr -> mr.getFirstName().equalsIgnoreCase(existMedicalRecord.getFirstName())
-        && mr.getLastName().equalsIgnoreCase(existMedicalRecord.getLastName()));
-    if (removed) {
-      saveData();
+    RepositoryMutationEvent mutation = RepositoryMutationEvent.start();
+    List<DataChangeEvent> changes = new ArrayList<>();
+    lock.writeLock().lock();
+    try {
+      List<MedicalRecord> removed = new ArrayList<>();
+      this.medicalRecords.removeAll(medicalIndex.findMedicalRecords(NameKey.of(existMedicalRecord)), removed);
+      removed.forEach(mr -> medicalRecordFilter.remove(medicalRecordKey(mr)));
+      removed.forEach(medicalIndex::removeMedicalRecord);
+      removed.forEach(mr -> medicalRecordsChanged(NameKey.of(mr)));
+      removed.forEach(mr -> changes.add(recordChange(EntityType.MEDICAL_RECORD, ChangeOperation.DELETED, mr, null)));
+    } finally {
+      lock.writeLock().unlock();
+    }
+    return commit("deleteMedicalRecord", mutation, changes);
+  }
+
+  /**
+   * Recalcule l'âge des personnes d'un nom après modification de leurs dossiers médicaux, puis met à jour
+   * leurs foyers (et par eux les statistiques par caserne) et l'index bitmap. Doit être appelée sous
+   * le verrou d'écriture, après la mise à jour de l'index médical.
+   */
+  private void medicalRecordsChanged(NameKey name) {
+    List<Person> named = medicalIndex.findPersons(name);
+    LocalDate today = LocalDate.now();
+    named.forEach(person -> assignAge(person, today));
+    householdIndex.membersChanged(named);
+    residentIndex.medicalRecordsChanged(name, medicalIndex);
+  }
+
+  private void assignAges(List<Person> persons) {
+    LocalDate today = LocalDate.now();
+    persons.forEach(person -> assignAge(person, today));
+  }
+
+  /**
+   * Reporte sur une personne l'âge calculé d'après le premier dossier médical de son nom : c'est le seul
+   * âge lu par les foyers, les statistiques par caserne et l'index bitmap. Sans dossier exploitable,
+   * l'âge de la personne est conservé. Doit être appelée sous le verrou d'écriture.
+   */
+  private void assignAge(Person person, LocalDate today) {
+    List<MedicalRecord> records = medicalIndex.findMedicalRecords(NameKey.of(person));
+    int age = Ages.of(records.isEmpty() ? null : records.get(0), today);
+    if (age >= 0) {
+      person.setAge(age);
     }
-    return removed;
+  }
+
+  /**
+   * Retourne les personnes portant un nom.
+   *
+   * @param name la clé de nom
+   * @return les personnes, dans l'ordre d'ajout ; vide si aucune
+   */
+  public List<Person> findPersons(NameKey name) {
+    return medicalIndex.findPersons(name);
+  }
+
+  /**
+   * Retourne les dossiers médicaux d'un nom.
+   *
+   * @param name la clé de nom
+   * @return les dossiers, dans l'ordre d'ajout ; vide si aucun
+   */
+  public List<MedicalRecord> findMedicalRecords(NameKey name) {
+    return medicalIndex.findMedicalRecords(name);
+  }
+
+  /**
+   * Retourne les affectations de casernes d'une adresse.
+   *
+   * @param address la clé d'adresse
+   * @return les affectations, dans l'ordre de la liste des casernes ; vide si aucune
+   */
+  public List<Firestation> findFirestations(AddressKey address) {
+    return householdIndex.findFirestations(address);
+  }
+
+  /**
+   * Indique si une personne de ce nom peut exister. Une réponse négative est certaine et dispense
+   * de rechercher la personne ; une réponse positive doit être confirmée.
+   *
+   * @param firstName le prénom
+   * @param lastName le nom
+   * @return false si aucune personne ne porte ce nom, à la casse près
+   */
+  public boolean mightContainPerson(String firstName, String lastName) {
+    return personFilter.mightContain(NameKey.of(firstName, lastName).toString());
+  }
+
+  /**
+   * Indique si un dossier médical de ce nom peut exister. Une réponse négative est certaine.
+   *
+   * @param firstName le prénom
+   * @param lastName le nom
+   * @return false si aucun dossier ne porte ce nom, à la casse près
+   */
+  public boolean mightContainMedicalRecord(String firstName, String lastName) {
+    return medicalRecordFilter.mightContain(NameKey.of(firstName, lastName).toString());
+  }
+
+  /**
+   * Indique si une caserne peut être affectée à cette adresse. Une réponse négative est certaine.
+   *
+   * @param address l'adresse
+   * @return false si aucune caserne n'est affectée à cette adresse, comparée sous forme normalisée
+   */
+  public boolean mightContainFirestation(String address) {
+    return firestationFilter.mightContain(AddressKey.of(address).toString());
+  }
+
+  /**
+   * Retourne le taux de faux positifs attendu du filtre de présence d'un type d'entité.
+   *
+   * @param entity le type d'entité
+   * @return le taux estimé pour le nombre de clés actuel, entre 0 et 1
+   */
+  public double expectedFalsePositiveRate(EntityType entity) {
+    return switch (entity) {
+      case PERSON -> personFilter.expectedFalsePositiveRate();
+      case FIRESTATION -> firestationFilter.expectedFalsePositiveRate();
+      case MEDICAL_RECORD -> medicalRecordFilter.expectedFalsePositiveRate();
+    };
+  }
+
+  private static String personKey(Person person) {
+    return NameKey.of(person).toString();
+  }
+
+  private static String medicalRecordKey(MedicalRecord medicalRecord) {
+    return NameKey.of(medicalRecord).toString();
+  }
+
+  private static String firestationKey(Firestation firestation) {
+    return AddressKey.of(firestation.getAddress()).toString();
+  }
+
+  private static <T> CountingBloomFilter filterOf(List<T> list, Function<T, String> key) {
+    return CountingBloomFilter.of(list == null ? List.of() : list.stream().map(key).toList(),
+        FILTER_FALSE_POSITIVE_RATE);
   }
 }
@@ -0,0 +1,106 @@
+package com.openclassrooms.safetynet.repository;
+
+import com.openclassrooms.safetynet.model.Person;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Foyer : ensemble des résidents d'une même adresse et casernes qui la desservent.
+ *
+ * <p>L'adresse, la ville et le code postal sont portés une seule fois par le foyer ; les résidents
+ * dont les valeurs sont identiques partagent les mêmes chaînes. Les membres sont répartis dès la
+ * construction entre enfants et adultes selon {@link Ages}, et les adultes regroupés par nom de famille. Un foyer est
+ * immuable : toute modification de ses membres, de leur âge ou de ses casernes le remplace dans
+ * {@link HouseholdIndex}.</p>
+ */
+@Getter
+public class Household {
+
+  private final AddressKey key;
+  private final String address;
+  private final String city;
+  private final String zip;
+  private final List<Person> members;
+  private final List<Integer> stations;
+  private final List<Person> children;
+  private final List<Person> adults;
+  @Getter(AccessLevel.NONE)
+  private final Map<String, List<Person>> adultsByLastName;
+
+  /**
+   * Construit un foyer et répartit ses membres selon leur âge.
+   *
+   * @param key la clé d'adresse
+   * @param address l'adresse d'affichage
+   * @param city la ville, ou null pour un foyer sans résident
+   * @param zip le code postal, ou null pour un foyer sans résident
+   * @param members les résidents, dans l'ordre de la liste des personnes
+   * @param stations les casernes affectées à l'adresse, dans l'ordre des affectations
+   */
+  public Household(AddressKey key, String address, String city, String zip, List<Person> members,
+      List<Integer> stations) {
+    this.key = key;
+    this.address = address;
+    this.city = city;
+    this.zip = zip;
+    this.members = members;
+    this.stations = stations;
+    List<Person> childMembers = new ArrayList<>();
+    List<Person> adultMembers = new ArrayList<>();
+    Map<String, List<Person>> byLastName = new LinkedHashMap<>();
+    for (Person member : members) {
+      if (Ages.isChild(member.getAge())) {
+        childMembers.add(member);
+      } else {
+        adultMembers.add(member);
+        byLastName.computeIfAbsent(member.getLastName(), name -> new ArrayList<>()).add(member);
+      }
+    }
+    byLastName.replaceAll((name, family) -> Collections.unmodifiableList(family));
+    this.children = Collections.unmodifiableList(childMembers);
+    this.adults = Collections.unmodifiableList(adultMembers);
+    this.adultsByLastName = Collections.unmodifiableMap(byLastName);
+  }
+
+  /**
+   * Retourne la caserne principale du foyer, c'est-à-dire la première affectation de son adresse.
+   *
+   * @return le numéro de la caserne, ou -1 si l'adresse n'est desservie par aucune caserne
+   */
+  public int getStationNumber() {
+    return stations.isEmpty() ? -1 : stations.get(0);
+  }
+
+  /**
+   * Retourne le nombre d'enfants (18 ans ou moins) du foyer.
+   *
+   * @return le nombre d'enfants
+   */
+  public int getChildCount() {
+    return children.size();
+  }
+
+  /**
+   * Retourne le nombre d'adultes (plus de 18 ans) du foyer.
+   *
+   * @return le nombre d'adultes
+   */
+  public int getAdultCount() {
+    return adults.size();
+  }
+
+  /**
+   * Retourne les adultes du foyer portant un nom de famille donné.
+   *
+   * @param lastName le nom de famille, comparé exactement
+   * @return les adultes de ce nom, dans l'ordre des membres
+   */
+  public List<Person> getAdultsByLastName(String lastName) {
+    return adultsByLastName.getOrDefault(lastName, List.of());
+  }
+}
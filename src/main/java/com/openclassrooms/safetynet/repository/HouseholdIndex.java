@@ -0,0 +1,361 @@
+package com.openclassrooms.safetynet.repository;
+
+import com.openclassrooms.safetynet.model.Firestation;
+import com.openclassrooms.safetynet.model.Person;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Foyers des résidents, indexés par clé d'adresse ({@link AddressKey}).
+ *
+ * <p>Chaque foyer regroupe les personnes d'une même adresse, dans l'ordre de la liste des personnes,
+ * et les casernes affectées à cette adresse, dans l'ordre de la liste des casernes. Une adresse
+ * desservie par une caserne mais sans résident forme un foyer vide. Les requêtes par adresse ou par
+ * caserne sont ainsi des lectures directes, sans parcours des personnes. Les affectations de casernes
+ * sont aussi retrouvées par adresse, ce qui sert de critère d'identité aux modifications de casernes.</p>
+ *
+ * <p>L'index est mis à jour par {@link DataRepository} sous son verrou d'écriture ; les lectures ne
+ * prennent aucun verrou et voient toujours un foyer complet.</p>
+ */
+public class HouseholdIndex {
+
+  private final Map<AddressKey, Household> households = new ConcurrentHashMap<>();
+  private final Map<AddressKey, List<Integer>> stationsByKey = new ConcurrentHashMap<>();
+  private final Map<AddressKey, List<Firestation>> firestationsByKey = new ConcurrentHashMap<>();
+  private final Map<Integer, List<AddressKey>> keysByStation = new ConcurrentHashMap<>();
+  private final BiConsumer<AddressKey, Household> listener;
+
+  public HouseholdIndex() {
+    this((key, household) -> { });
+  }
+
+  /**
+   * @param listener prévenu de chaque foyer modifié ou retiré (null dans ce cas), sous le verrou d'écriture
+   */
+  public HouseholdIndex(BiConsumer<AddressKey, Household> listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Retourne le foyer d'une adresse.
+   *
+   * @param address l'adresse, comparée sous forme normalisée
+   * @return le foyer, ou null si aucun résident ni aucune caserne n'est rattaché à cette adresse
+   */
+  public Household find(String address) {
+    return find(AddressKey.of(address));
+  }
+
+  /**
+   * Retourne le foyer d'une clé d'adresse.
+   *
+   * @param key la clé d'adresse
+   * @return le foyer, ou null si aucun résident ni aucune caserne n'est rattaché à cette adresse
+   */
+  public Household find(AddressKey key) {
+    return households.get(key);
+  }
+
+  /**
+   * Retourne les affectations de casernes d'une adresse.
+   *
+   * @param key la clé d'adresse
+   * @return les affectations, dans l'ordre de la liste des casernes ; vide si aucune
+   */
+  public List<Firestation> findFirestations(AddressKey key) {
+    return firestationsByKey.getOrDefault(key, List.of());
+  }
+
+  /**
+   * Retourne les foyers desservis par une caserne, dans l'ordre des affectations.
+   *
+   * @param stationNumber le numéro de la caserne
+   * @return les foyers desservis, éventuellement vides de résidents
+   */
+  public List<Household> findByStation(int stationNumber) {
+    List<Household> found = new ArrayList<>();
+    for (AddressKey key : keysByStation.getOrDefault(stationNumber, List.of())) {
+      Household household = households.get(key);
+      if (household != null) {
+        found.add(household);
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Retourne les affectations d'une caserne.
+   *
+   * @param stationNumber le numéro de la caserne
+   * @return les affectations de ce numéro, regroupées par adresse
+   */
+  List<Firestation> findFirestations(int stationNumber) {
+    List<Firestation> found = new ArrayList<>();
+    for (AddressKey key : keysByStation.getOrDefault(stationNumber, List.of())) {
+      for (Firestation firestation : firestationsByKey.getOrDefault(key, List.of())) {
+        if (firestation.getStation() == stationNumber) {
+          found.add(firestation);
+        }
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Retourne tous les foyers, sans ordre particulier.
+   *
+   * @return les foyers
+   */
+  public Collection<Household> all() {
+    return Collections.unmodifiableCollection(households.values());
+  }
+
+  /**
+   * Reconstruit l'index à partir des personnes et des casernes. L'écouteur n'est pas prévenu.
+   */
+  void rebuild(List<Person> persons, List<Firestation> firestations) {
+    households.clear();
+    attach(firestations);
+    Map<AddressKey, List<Person>> membersByKey = new LinkedHashMap<>();
+    if (persons != null) {
+      for (Person person : persons) {
+        membersByKey.computeIfAbsent(AddressKey.of(person.getAddress()), key -> new ArrayList<>())
+            .add(person);
+      }
+    }
+    membersByKey.forEach((key, members) -> {
+      Person first = members.get(0);
+      members.forEach(member -> share(member, first.getAddress(), first.getCity(), first.getZip()));
+      households.put(key, household(key, members));
+    });
+    stationsByKey.keySet().stream()
+        .filter(key -> !households.containsKey(key))
+        .forEach(key -> households.put(key, household(key, List.of())));
+  }
+
+  void addPerson(Person person) {
+    AddressKey key = AddressKey.of(person.getAddress());
+    Household household = households.get(key);
+    List<Person> members = new ArrayList<>();
+    if (household != null) {
+      members.addAll(household.getMembers());
+      share(person, household.getAddress(), household.getCity(), household.getZip());
+    }
+    members.add(person);
+    store(key, members);
+  }
+
+  void removePerson(Person person) {
+    AddressKey key = AddressKey.of(person.getAddress());
+    Household household = households.get(key);
+    if (household == null) {
+      return;
+    }
+    List<Person> members = new ArrayList<>(household.getMembers());
+    int index = indexOf(members, person);
+    if (index >= 0) {
+      members.remove(index);
+      store(key, members);
+    }
+  }
+
+  /**
+   * Remplace une personne par sa version modifiée. Si l'adresse ne change pas, la personne garde sa
+   * place dans le foyer ; sinon elle quitte l'ancien foyer et rejoint le nouveau.
+   *
+   * @param previous la personne remplacée
+   * @param current la personne modifiée
+   */
+  void replacePerson(Person previous, Person current) {
+    AddressKey key = AddressKey.of(current.getAddress());
+    Household household = households.get(key);
+    int index = household == null || !key.equals(AddressKey.of(previous.getAddress()))
+        ? -1 : indexOf(household.getMembers(), previous);
+    if (index < 0) {
+      addPerson(current);
+      removePerson(previous);
+      return;
+    }
+    List<Person> members = new ArrayList<>(household.getMembers());
+    share(current, household.getAddress(), household.getCity(), household.getZip());
+    members.set(index, current);
+    store(key, members);
+  }
+
+  /**
+   * Rattache de nouveau aux casernes les foyers de l'adresse d'une caserne ajoutée, modifiée ou
+   * supprimée. Seuls les foyers dont la liste des casernes change sont reconstruits et signalés à
+   * l'écouteur.
+   *
+   * @param previous la caserne avant modification, ou null pour un ajout
+   * @param current la caserne après modification, ou null pour une suppression
+   */
+  void firestationChanged(Firestation previous, Firestation current) {
+    AddressKey previousKey = previous == null ? null : AddressKey.of(previous.getAddress());
+    AddressKey currentKey = current == null ? null : AddressKey.of(current.getAddress());
+    if (previousKey != null && previousKey.equals(currentKey)) {
+      List<Firestation> assignments = new ArrayList<>(findFirestations(currentKey));
+      int index = indexOf(assignments, previous);
+      if (index >= 0) {
+        assignments.set(index, current);
+      } else {
+        assignments.add(current);
+      }
+      reassign(currentKey, assignments);
+      return;
+    }
+    if (previousKey != null) {
+      List<Firestation> assignments = new ArrayList<>(findFirestations(previousKey));
+      int index = indexOf(assignments, previous);
+      if (index >= 0) {
+        assignments.remove(index);
+        reassign(previousKey, assignments);
+      }
+    }
+    if (currentKey != null) {
+      List<Firestation> assignments = new ArrayList<>(findFirestations(currentKey));
+      assignments.add(current);
+      reassign(currentKey, assignments);
+    }
+  }
+
+  /**
+   * Reconstruit les foyers de personnes dont l'âge a été recalculé en place, pour les répartir de
+   * nouveau entre enfants et adultes et en prévenir l'écouteur.
+   *
+   * @param persons les personnes concernées
+   */
+  void membersChanged(Collection<Person> persons) {
+    Set<AddressKey> keys = new HashSet<>();
+    for (Person person : persons) {
+      AddressKey key = AddressKey.of(person.getAddress());
+      Household household = households.get(key);
+      if (household != null && keys.add(key)) {
+        store(key, household.getMembers());
+      }
+    }
+  }
+
+  /**
+   * Calcule les casernes et les affectations de chaque adresse, et les adresses de chaque caserne.
+   */
+  private void attach(List<Firestation> firestations) {
+    Map<AddressKey, List<Integer>> stations = new LinkedHashMap<>();
+    Map<AddressKey, List<Firestation>> assignments = new LinkedHashMap<>();
+    Map<Integer, List<AddressKey>> keys = new LinkedHashMap<>();
+    if (firestations != null) {
+      for (Firestation firestation : firestations) {
+        AddressKey key = AddressKey.of(firestation.getAddress());
+        assignments.computeIfAbsent(key, k -> new ArrayList<>()).add(firestation);
+        List<Integer> keyStations = stations.computeIfAbsent(key, k -> new ArrayList<>());
+        if (!keyStations.contains(firestation.getStation())) {
+          keyStations.add(firestation.getStation());
+          keys.computeIfAbsent(firestation.getStation(), s -> new ArrayList<>()).add(key);
+        }
+      }
+    }
+    stationsByKey.clear();
+    firestationsByKey.clear();
+    keysByStation.clear();
+    stations.forEach((key, keyStations) -> stationsByKey.put(key, List.copyOf(keyStations)));
+    assignments.forEach((key, keyAssignments) -> firestationsByKey.put(key, List.copyOf(keyAssignments)));
+    keys.forEach((station, stationKeys) -> keysByStation.put(station, List.copyOf(stationKeys)));
+  }
+
+  /**
+   * Remplace les affectations d'une adresse, met à jour les adresses des casernes gagnées ou perdues
+   * et reconstruit le foyer si ses casernes ont changé.
+   */
+  private void reassign(AddressKey key, List<Firestation> assignments) {
+    List<Integer> before = stationsByKey.getOrDefault(key, List.of());
+    List<Integer> after = assignments.stream().map(Firestation::getStation).distinct().toList();
+    if (assignments.isEmpty()) {
+      firestationsByKey.remove(key);
+      stationsByKey.remove(key);
+    } else {
+      firestationsByKey.put(key, List.copyOf(assignments));
+      stationsByKey.put(key, after);
+    }
+    if (before.equals(after)) {
+      return;
+    }
+    before.stream().filter(station -> !after.contains(station)).forEach(station ->
+        keysByStation.computeIfPresent(station, (s, keys) -> {
+          List<AddressKey> remaining = new ArrayList<>(keys);
+          remaining.remove(key);
+          return remaining.isEmpty() ? null : List.copyOf(remaining);
+        }));
+    after.stream().filter(station -> !before.contains(station)).forEach(station ->
+        keysByStation.merge(station, List.of(key), (keys, added) -> {
+          List<AddressKey> extended = new ArrayList<>(keys);
+          extended.addAll(added);
+          return List.copyOf(extended);
+        }));
+    Household household = households.get(key);
+    store(key, household == null ? List.of() : household.getMembers());
+  }
+
+  /**
+   * Publie le foyer d'une adresse, ou le retire s'il n'a plus ni résident ni caserne, et en prévient
+   * l'écouteur.
+   */
+  private void store(AddressKey key, List<Person> members) {
+    Household household = household(key, members);
+    if (household != null) {
+      households.put(key, household);
+      listener.accept(key, household);
+    } else if (households.remove(key) != null) {
+      listener.accept(key, null);
+    }
+  }
+
+  /**
+   * Construit le foyer d'une adresse, ou retourne null s'il n'a ni résident ni caserne.
+   */
+  private Household household(AddressKey key, List<Person> members) {
+    List<Integer> stations = stationsByKey.getOrDefault(key, List.of());
+    if (members.isEmpty()) {
+      return stations.isEmpty() ? null
+          : new Household(key, firestationsByKey.get(key).get(0).getAddress(), null, null, List.of(), stations);
+    }
+    Person first = members.get(0);
+    return new Household(key, first.getAddress(), first.getCity(), first.getZip(),
+        Collections.unmodifiableList(new ArrayList<>(members)), stations);
+  }
+
+  /**
+   * Fait partager à une personne les chaînes de son foyer lorsqu'elles sont identiques aux siennes,
+   * de sorte que l'adresse, la ville et le code postal ne sont conservés qu'une fois par foyer.
+   */
+  private static void share(Person person, String address, String city, String zip) {
+    if (address != null && address.equals(person.getAddress())) {
+      person.setAddress(address);
+    }
+    if (city != null && city.equals(person.getCity())) {
+      person.setCity(city);
+    }
+    if (zip != null && zip.equals(person.getZip())) {
+      person.setZip(zip);
+    }
+  }
+
+  /**
+   * Position d'un élément dans une liste : la même instance de préférence, sinon un élément égal.
+   */
+  private static <T> int indexOf(List<T> elements, T element) {
+    for (int i = 0; i < elements.size(); i++) {
+      if (elements.get(i) == element) {
+        return i;
+      }
+    }
+    return elements.indexOf(element);
+  }
+}
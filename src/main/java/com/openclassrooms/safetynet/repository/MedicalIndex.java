@@ -0,0 +1,220 @@
+package com.openclassrooms.safetynet.repository;
+
+import com.openclassrooms.safetynet.model.Medication;
+import com.openclassrooms.safetynet.model.MedicalRecord;
+import com.openclassrooms.safetynet.model.Person;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Index inversé des dossiers médicaux : nom de médicament ou allergie vers les résidents concernés,
+ * et accès direct aux personnes et dossiers par nom.
+ *
+ * <p>Les résidents sont identifiés par leur clé de nom ({@link NameKey}), qui est
+ * aussi le critère de rapprochement entre personnes et dossiers médicaux. L'index est mis à jour par
+ * {@link DataRepository} sous son verrou d'écriture ; les lectures ne prennent aucun verrou et voient
+ * chaque entrée dans un état complet.</p>
+ */
+public class MedicalIndex {
+
+  private final Map<NameKey, List<Person>> personsByName = new ConcurrentHashMap<>();
+  private final Map<NameKey, List<MedicalRecord>> recordsByName = new ConcurrentHashMap<>();
+  private final Map<String, Set<NameKey>> namesByMedication = new ConcurrentHashMap<>();
+  private final Map<String, Set<NameKey>> namesByAllergy = new ConcurrentHashMap<>();
+
+  /**
+   * Retourne les clés de nom des résidents dont un dossier mentionne le médicament.
+   *
+   * @param medication le nom du médicament, sans dosage, insensible à la casse
+   * @return une vue non modifiable des clés de nom, sans ordre défini, vide si aucune
+   */
+  public Set<NameKey> findNamesByMedication(String medication) {
+    return Collections.unmodifiableSet(namesByMedication.getOrDefault(normalize(medication), Set.of()));
+  }
+
+  /**
+   * Retourne les clés de nom des résidents dont un dossier mentionne l'allergie.
+   *
+   * @param allergy l'allergie, insensible à la casse
+   * @return une vue non modifiable des clés de nom, sans ordre défini, vide si aucune
+   */
+  public Set<NameKey> findNamesByAllergy(String allergy) {
+    return Collections.unmodifiableSet(namesByAllergy.getOrDefault(normalize(allergy), Set.of()));
+  }
+
+  /**
+   * Retourne les personnes portant un nom donné.
+   *
+   * @param nameKey la clé de nom
+   * @return les personnes, vide si aucune
+   */
+  public List<Person> findPersons(NameKey nameKey) {
+    return personsByName.getOrDefault(nameKey, List.of());
+  }
+
+  /**
+   * Retourne les dossiers médicaux d'un nom donné.
+   *
+   * @param nameKey la clé de nom
+   * @return les dossiers, vide si aucun
+   */
+  public List<MedicalRecord> findMedicalRecords(NameKey nameKey) {
+    return recordsByName.getOrDefault(nameKey, List.of());
+  }
+
+  /**
+   * Retourne le premier dossier d'un nom qui mentionne un médicament.
+   *
+   * @param nameKey la clé de nom
+   * @param medication le nom du médicament, sans dosage, insensible à la casse
+   * @return le dossier, ou null si aucun dossier de ce nom ne mentionne le médicament
+   */
+  public MedicalRecord findMedicalRecordWithMedication(NameKey nameKey, String medication) {
+    return findMedicalRecordWith(nameKey, MedicalRecord::getMedications, true, normalize(medication));
+  }
+
+  /**
+   * Retourne le premier dossier d'un nom qui mentionne une allergie.
+   *
+   * @param nameKey la clé de nom
+   * @param allergy l'allergie, insensible à la casse
+   * @return le dossier, ou null si aucun dossier de ce nom ne mentionne l'allergie
+   */
+  public MedicalRecord findMedicalRecordWithAllergy(NameKey nameKey, String allergy) {
+    return findMedicalRecordWith(nameKey, MedicalRecord::getAllergies, false, normalize(allergy));
+  }
+
+  /**
+   * Reconstruit l'index des personnes.
+   *
+   * @param persons toutes les personnes
+   */
+  void rebuildPersons(List<Person> persons) {
+    personsByName.clear();
+    if (persons != null) {
+      persons.forEach(this::addPerson);
+    }
+  }
+
+  /**
+   * Reconstruit l'index des dossiers médicaux et les index inversés.
+   *
+   * @param medicalRecords tous les dossiers médicaux
+   */
+  void rebuildMedicalRecords(List<MedicalRecord> medicalRecords) {
+    recordsByName.clear();
+    namesByMedication.clear();
+    namesByAllergy.clear();
+    if (medicalRecords != null) {
+      medicalRecords.forEach(this::addMedicalRecord);
+    }
+  }
+
+  void addPerson(Person person) {
+    personsByName.merge(NameKey.of(person), List.of(person), MedicalIndex::concat);
+  }
+
+  void removePerson(Person person) {
+    personsByName.computeIfPresent(NameKey.of(person), (key, persons) -> without(persons, person));
+  }
+
+  void addMedicalRecord(MedicalRecord medicalRecord) {
+    NameKey key = NameKey.of(medicalRecord);
+    List<MedicalRecord> previous = findMedicalRecords(key);
+    List<MedicalRecord> current = concat(previous, List.of(medicalRecord));
+    recordsByName.put(key, current);
+    reindex(key, previous, current);
+  }
+
+  void removeMedicalRecord(MedicalRecord medicalRecord) {
+    NameKey key = NameKey.of(medicalRecord);
+    List<MedicalRecord> previous = findMedicalRecords(key);
+    List<MedicalRecord> current = without(previous, medicalRecord);
+    if (current == null) {
+      recordsByName.remove(key);
+    } else {
+      recordsByName.put(key, current);
+    }
+    reindex(key, previous, current == null ? List.of() : current);
+  }
+
+  /**
+   * Met à jour les index inversés d'un nom après modification de ses dossiers.
+   * Les entrées sont ajoutées avant d'être retirées, de sorte qu'un médicament conservé
+   * reste visible pendant toute la mise à jour.
+   */
+  private void reindex(NameKey key, List<MedicalRecord> previous, List<MedicalRecord> current) {
+    update(namesByMedication, key, terms(previous, MedicalRecord::getMedications, true),
+        terms(current, MedicalRecord::getMedications, true));
+    update(namesByAllergy, key, terms(previous, MedicalRecord::getAllergies, false),
+        terms(current, MedicalRecord::getAllergies, false));
+  }
+
+  private static void update(Map<String, Set<NameKey>> index, NameKey key, Set<String> previous, Set<String> current) {
+    for (String term : current) {
+      if (!previous.contains(term)) {
+        index.computeIfAbsent(term, t -> ConcurrentHashMap.newKeySet()).add(key);
+      }
+    }
+    for (String term : previous) {
+      if (!current.contains(term)) {
+        index.computeIfPresent(term, (t, keys) -> {
+          keys.remove(key);
+          return keys.isEmpty() ? null : keys;
+        });
+      }
+    }
+  }
+
+  private MedicalRecord findMedicalRecordWith(NameKey key, Function<MedicalRecord, List<String>> values,
+      boolean medication, String term) {
+    for (MedicalRecord record : findMedicalRecords(key)) {
+      if (terms(List.of(record), values, medication).contains(term)) {
+        return record;
+      }
+    }
+    return null;
+  }
+
+  private static Set<String> terms(List<MedicalRecord> records, Function<MedicalRecord, List<String>> values,
+      boolean medication) {
+    Set<String> terms = new HashSet<>();
+    for (MedicalRecord record : records) {
+      List<String> entries = values.apply(record);
+      if (entries != null) {
+        for (String entry : entries) {
+          terms.add(medication ? Medication.parse(entry).getName() : normalize(entry));
+        }
+      }
+    }
+    return terms;
+  }
+
+  private static String normalize(String term) {
+    return term.trim().toLowerCase(Locale.ROOT);
+  }
+
+  private static <T> List<T> concat(List<T> first, List<T> second) {
+    List<T> all = new ArrayList<>(first);
+    all.addAll(second);
+    return List.copyOf(all);
+  }
+
+  /**
+   * Retire une occurrence d'un élément d'une liste.
+   *
+   * @return la nouvelle liste, ou null si elle est vide
+   */
+  private static <T> List<T> without(List<T> list, T element) {
+    List<T> remaining = new ArrayList<>(list);
+    remaining.remove(element);
+    return remaining.isEmpty() ? null : List.copyOf(remaining);
+  }
+}
@@ -0,0 +1,101 @@
+package com.openclassrooms.safetynet.repository;
+
+import com.openclassrooms.safetynet.model.MedicalRecord;
+import com.openclassrooms.safetynet.model.Person;
+import java.util.Comparator;
+
+/**
+ * Clé de nom d'un résident : prénom et nom repliés à la casse, critère d'identité des personnes et
+ * des dossiers médicaux.
+ *
+ * <p>Le repli suit {@link String#equalsIgnoreCase} : deux noms égaux à la casse près ont la même clé.
+ * Le prénom et le nom sont conservés séparément, si bien que des concaténations identiques
+ * ({@code Ann Eboyd}, {@code Anne Boyd}) donnent des clés distinctes. La clé est calculée une fois,
+ * à l'indexation ou à la réception d'une requête, et son code de hachage est précalculé : les index
+ * la comparent sans replier de nouveau les chaînes.</p>
+ */
+public final class NameKey implements Comparable<NameKey> {
+
+  private static final Comparator<NameKey> ORDER = Comparator.comparing((NameKey key) -> key.firstName)
+      .thenComparing(key -> key.lastName);
+
+  private final String firstName;
+  private final String lastName;
+  private final int hash;
+
+  private NameKey(String firstName, String lastName) {
+    this.firstName = firstName;
+    this.lastName = lastName;
+    this.hash = 31 * firstName.hashCode() + lastName.hashCode();
+  }
+
+  /**
+   * Construit la clé d'un nom.
+   *
+   * @param firstName le prénom, null équivalant à une chaîne vide
+   * @param lastName le nom, null équivalant à une chaîne vide
+   * @return la clé
+   */
+  public static NameKey of(String firstName, String lastName) {
+    return new NameKey(fold(firstName), fold(lastName));
+  }
+
+  /**
+   * Construit la clé de nom d'une personne.
+   *
+   * @param person la personne
+   * @return la clé
+   */
+  public static NameKey of(Person person) {
+    return of(person.getFirstName(), person.getLastName());
+  }
+
+  /**
+   * Construit la clé de nom d'un dossier médical.
+   *
+   * @param medicalRecord le dossier médical
+   * @return la clé
+   */
+  public static NameKey of(MedicalRecord medicalRecord) {
+    return of(medicalRecord.getFirstName(), medicalRecord.getLastName());
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return this == other || other instanceof NameKey key && hash == key.hash
+        && firstName.equals(key.firstName) && lastName.equals(key.lastName);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public int compareTo(NameKey other) {
+    return ORDER.compare(this, other);
+  }
+
+  /**
+   * Retourne la forme repliée {@code prénom|nom}, utilisée comme clé des filtres de présence et dans
+   * les journaux.
+   */
+  @Override
+  public String toString() {
+    return firstName + '|' + lastName;
+  }
+
+  /**
+   * Replie la casse caractère par caractère comme {@link String#equalsIgnoreCase}.
+   */
+  static String fold(String value) {
+    if (value == null) {
+      return "";
+    }
+    StringBuilder folded = new StringBuilder(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      folded.append(Character.toLowerCase(Character.toUpperCase(value.charAt(i))));
+    }
+    return folded.toString();
+  }
+}
@@ -0,0 +1,385 @@
+package com.openclassrooms.safetynet.repository;
+
+import com.openclassrooms.safetynet.model.Person;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Index de recherche approximative des noms et prénoms des résidents.
+ *
+ * <p>Pour chaque champ, les termes distincts (normalisés : casse et accents ignorés) sont tenus dans
+ * une table triée, ce qui donne la recherche par préfixe par simple parcours d'intervalle, et dans un
+ * index de trigrammes qui fournit les candidats de la recherche tolérante aux fautes. Les saisies trop
+ * courtes pour que les trigrammes bornent les candidats passent par un index des variantes par
+ * suppression des termes courts. Les candidats sont vérifiés par distance d'édition bornée (insertion, suppression, substitution et inversion de
+ * deux lettres). Chaque terme renvoie aux clés de nom ({@link NameKey}) des résidents
+ * qui le portent.</p>
+ *
+ * <p>L'index est mis à jour par {@link DataRepository} sous son verrou d'écriture ; les lectures ne
+ * prennent aucun verrou.</p>
+ */
+public class NameSearchIndex {
+
+  private static final int GRAM = 3;
+  private static final int MAX_DELETIONS = 2;
+  private static final int SHORT_TERM_LENGTH = 9;
+
+  /**
+   * Champs indexés.
+   */
+  public enum Field {
+    FIRST_NAME,
+    LAST_NAME
+  }
+
+  /**
+   * Modes de recherche.
+   */
+  public enum Mode {
+    /** Terme identique, à la casse et aux accents près. */
+    EXACT,
+    /** Termes commençant par la saisie, les plus courts d'abord. */
+    PREFIX,
+    /** Termes à distance d'édition bornée de la saisie, les plus proches d'abord. */
+    FUZZY
+  }
+
+  /**
+   * Terme trouvé, avec son rang (0 pour une correspondance exacte) et les clés de nom qui le portent.
+   */
+  @Data
+  @AllArgsConstructor
+  public static class Match {
+    private String term;
+    private int rank;
+    private Set<NameKey> nameKeys;
+  }
+
+  private final Map<Field, TermIndex> fields = new EnumMap<>(Field.class);
+
+  public NameSearchIndex() {
+    for (Field field : Field.values()) {
+      fields.put(field, new TermIndex());
+    }
+  }
+
+  /**
+   * Distance d'édition maximale tolérée par défaut pour une saisie : une faute jusqu'à 4 caractères,
+   * deux au-delà.
+   *
+   * @param query la saisie
+   * @return la distance maximale
+   */
+  public static int defaultMaxDistance(String query) {
+    return normalize(query).length() <= 4 ? 1 : 2;
+  }
+
+  /**
+   * Recherche les termes d'un champ correspondant à la saisie, classés par rang puis par ordre alphabétique.
+   *
+   * @param field le champ interrogé
+   * @param query la saisie
+   * @param mode le mode de recherche
+   * @param maxDistance la distance d'édition maximale, utilisée en mode {@link Mode#FUZZY}
+   * @return les termes trouvés, du plus pertinent au moins pertinent
+   */
+  public List<Match> search(Field field, String query, Mode mode, int maxDistance) {
+    return search(field, query, mode, maxDistance, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Recherche les termes d'un champ correspondant à la saisie, classés par rang puis par ordre alphabétique,
+   * en s'arrêtant au premier terme qui porte le total des clés de nom à {@code limit}. Les termes sont
+   * d'abord regroupés par rang sans copier leurs clés : seules celles des termes retournés sont copiées.
+   *
+   * @param field le champ interrogé
+   * @param query la saisie
+   * @param mode le mode de recherche
+   * @param maxDistance la distance d'édition maximale, utilisée en mode {@link Mode#FUZZY}
+   * @param limit le nombre de clés de nom au-delà duquel les termes moins pertinents sont ignorés
+   * @return les termes trouvés, du plus pertinent au moins pertinent
+   */
+  public List<Match> search(Field field, String query, Mode mode, int maxDistance, int limit) {
+    String normalized = normalize(query);
+    TermIndex index = fields.get(field);
+    List<Match> matches = new ArrayList<>();
+    if (normalized.isEmpty() || limit <= 0) {
+      return matches;
+    }
+    NavigableMap<Integer, List<String>> termsByRank = new TreeMap<>();
+    switch (mode) {
+      case EXACT -> {
+        if (index.keysByTerm.containsKey(normalized)) {
+          termsByRank.put(0, List.of(normalized));
+        }
+      }
+      case PREFIX -> {
+        for (String term : index.keysByTerm.subMap(normalized, true, normalized + Character.MAX_VALUE, false)
+            .keySet()) {
+          termsByRank.computeIfAbsent(term.length() - normalized.length(), rank -> new ArrayList<>()).add(term);
+        }
+      }
+      case FUZZY -> {
+        for (String term : index.candidates(normalized, maxDistance)) {
+          int distance = distance(normalized, term, maxDistance);
+          if (distance <= maxDistance) {
+            termsByRank.computeIfAbsent(distance, rank -> new ArrayList<>()).add(term);
+          }
+        }
+        termsByRank.values().forEach(Collections::sort);
+      }
+    }
+    int keyCount = 0;
+    for (Map.Entry<Integer, List<String>> rank : termsByRank.entrySet()) {
+      for (String term : rank.getValue()) {
+        Map<NameKey, Integer> keys = index.keysByTerm.get(term);
+        if (keys == null) {
+          continue;
+        }
+        Match match = new Match(term, rank.getKey(), Set.copyOf(keys.keySet()));
+        matches.add(match);
+        keyCount += match.getNameKeys().size();
+        if (keyCount >= limit) {
+          return matches;
+        }
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * Reconstruit l'index à partir de toutes les personnes.
+   */
+  void rebuild(List<Person> persons) {
+    fields.values().forEach(TermIndex::clear);
+    if (persons != null) {
+      persons.forEach(this::addPerson);
+    }
+  }
+
+  void addPerson(Person person) {
+    NameKey key = NameKey.of(person);
+    fields.get(Field.FIRST_NAME).add(normalize(person.getFirstName()), key);
+    fields.get(Field.LAST_NAME).add(normalize(person.getLastName()), key);
+  }
+
+  void removePerson(Person person) {
+    NameKey key = NameKey.of(person);
+    fields.get(Field.FIRST_NAME).remove(normalize(person.getFirstName()), key);
+    fields.get(Field.LAST_NAME).remove(normalize(person.getLastName()), key);
+  }
+
+  /**
+   * Normalise un nom : minuscules, sans accents ni espaces superflus.
+   *
+   * @param name le nom
+   * @return le terme normalisé
+   */
+  static String normalize(String name) {
+    if (name == null) {
+      return "";
+    }
+    return Normalizer.normalize(name, Normalizer.Form.NFD)
+        .replaceAll("\\p{M}", "")
+        .trim()
+        .toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Distance d'édition entre deux termes, inversions de deux lettres adjacentes comprises.
+   * Le calcul s'arrête dès que la borne est dépassée.
+   *
+   * @return la distance, ou {@code max + 1} si elle dépasse la borne
+   */
+  static int distance(String a, String b, int max) {
+    if (Math.abs(a.length() - b.length()) > max) {
+      return max + 1;
+    }
+    int[] previous2 = new int[b.length() + 1];
+    int[] previous = new int[b.length() + 1];
+    int[] current = new int[b.length() + 1];
+    for (int j = 0; j <= b.length(); j++) {
+      previous[j] = j;
+    }
+    for (int i = 1; i <= a.length(); i++) {
+      current[0] = i;
+      int rowMin = i;
+      for (int j = 1; j <= b.length(); j++) {
+        int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+        int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+        if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+          value = Math.min(value, previous2[j - 2] + 1);
+        }
+        current[j] = value;
+        rowMin = Math.min(rowMin, value);
+      }
+      if (rowMin > max) {
+        return max + 1;
+      }
+      int[] recycled = previous2;
+      previous2 = previous;
+      previous = current;
+      current = recycled;
+    }
+    return Math.min(previous[b.length()], max + 1);
+  }
+
+  /**
+   * Variantes d'un terme obtenues en supprimant au plus {@code max} lettres, le terme compris.
+   */
+  private static Set<String> deletions(String term, int max) {
+    Set<String> variants = new HashSet<>();
+    variants.add(term);
+    Set<String> frontier = variants;
+    for (int round = 0; round < max; round++) {
+      Set<String> next = new HashSet<>();
+      for (String variant : frontier) {
+        for (int i = 0; i < variant.length(); i++) {
+          next.add(variant.substring(0, i) + variant.substring(i + 1));
+        }
+      }
+      next.removeAll(variants);
+      variants.addAll(next);
+      frontier = next;
+    }
+    return variants;
+  }
+
+  private static Set<String> grams(String term) {
+    String padded = "$$" + term + "$";
+    Set<String> grams = new HashSet<>();
+    for (int i = 0; i + GRAM <= padded.length(); i++) {
+      grams.add(padded.substring(i, i + GRAM));
+    }
+    return grams;
+  }
+
+  /**
+   * Termes distincts d'un champ, leur index de trigrammes et l'index des variantes par suppression
+   * des termes d'au plus {@value #SHORT_TERM_LENGTH} lettres.
+   */
+  private static final class TermIndex {
+
+    private final NavigableMap<String, Map<NameKey, Integer>> keysByTerm = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<String>> termsByGram = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> shortTermsByDeletion = new ConcurrentHashMap<>();
+
+    void clear() {
+      keysByTerm.clear();
+      termsByGram.clear();
+      shortTermsByDeletion.clear();
+    }
+
+    void add(String term, NameKey key) {
+      Map<NameKey, Integer> keys = keysByTerm.get(term);
+      if (keys == null) {
+        keys = new ConcurrentHashMap<>();
+        keysByTerm.put(term, keys);
+        for (String gram : grams(term)) {
+          termsByGram.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(term);
+        }
+        if (term.length() <= SHORT_TERM_LENGTH) {
+          for (String variant : deletions(term, MAX_DELETIONS)) {
+            shortTermsByDeletion.computeIfAbsent(variant, v -> ConcurrentHashMap.newKeySet()).add(term);
+          }
+        }
+      }
+      keys.merge(key, 1, Integer::sum);
+    }
+
+    void remove(String term, NameKey key) {
+      Map<NameKey, Integer> keys = keysByTerm.get(term);
+      if (keys == null) {
+        return;
+      }
+      keys.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+      if (keys.isEmpty()) {
+        keysByTerm.remove(term);
+        for (String gram : grams(term)) {
+          termsByGram.computeIfPresent(gram, (g, terms) -> {
+            terms.remove(term);
+            return terms.isEmpty() ? null : terms;
+          });
+        }
+        if (term.length() <= SHORT_TERM_LENGTH) {
+          for (String variant : deletions(term, MAX_DELETIONS)) {
+            shortTermsByDeletion.computeIfPresent(variant, (v, terms) -> {
+              terms.remove(term);
+              return terms.isEmpty() ? null : terms;
+            });
+          }
+        }
+      }
+    }
+
+    /**
+     * Termes susceptibles d'être à distance au plus {@code maxDistance} de la saisie. Une opération
+     * d'édition, inversion comprise, détruit au plus quatre trigrammes : un terme proche partage donc au
+     * moins {@code |trigrammes| - 4 × maxDistance} trigrammes avec la saisie. Un tel terme figure
+     * forcément dans l'une des listes des {@code |trigrammes| - requis + 1} trigrammes les plus rares :
+     * seules celles-ci sont parcourues, les trigrammes fréquents ne servant qu'à compléter le décompte.
+     *
+     * <p>Lorsque ce nombre requis est nul (saisies d'au plus 7 lettres à distance 2), les candidats
+     * viennent de l'index des variantes par suppression : chaque substitution, insertion ou inversion
+     * se ramène à la suppression d'une lettre de part et d'autre, de sorte qu'un terme proche partage
+     * avec la saisie une variante à au plus {@code maxDistance} suppressions de chaque côté. Seules les
+     * distances au-delà de {@value #MAX_DELETIONS} retombent sur le parcours des termes de longueur
+     * compatible.</p>
+     */
+    Collection<String> candidates(String query, int maxDistance) {
+      Set<String> queryGrams = grams(query);
+      int required = queryGrams.size() - (GRAM + 1) * maxDistance;
+      if (required <= 0 && maxDistance <= MAX_DELETIONS && query.length() + maxDistance <= SHORT_TERM_LENGTH) {
+        Set<String> candidates = new HashSet<>();
+        for (String variant : deletions(query, maxDistance)) {
+          for (String term : shortTermsByDeletion.getOrDefault(variant, Set.of())) {
+            if (Math.abs(term.length() - query.length()) <= maxDistance) {
+              candidates.add(term);
+            }
+          }
+        }
+        return candidates;
+      }
+      if (required <= 0) {
+        return keysByTerm.keySet().stream()
+            .filter(term -> Math.abs(term.length() - query.length()) <= maxDistance)
+            .toList();
+      }
+      List<Set<String>> postings = queryGrams.stream()
+          .map(gram -> termsByGram.getOrDefault(gram, Set.of()))
+          .sorted(Comparator.comparingInt(Set::size))
+          .toList();
+      int generators = postings.size() - required + 1;
+      Map<String, Integer> shared = new HashMap<>();
+      for (Set<String> terms : postings.subList(0, generators)) {
+        for (String term : terms) {
+          if (Math.abs(term.length() - query.length()) <= maxDistance) {
+            shared.merge(term, 1, Integer::sum);
+          }
+        }
+      }
+      List<Set<String>> frequent = postings.subList(generators, postings.size());
+      return shared.entrySet().stream()
+          .filter(entry -> entry.getValue()
+              + frequent.stream().filter(terms -> terms.contains(entry.getKey())).count() >= required)
+          .map(Map.Entry::getKey)
+          .toList();
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package com.openclassrooms.safetynet.repository;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Liste publiée sous forme de {@link ChunkedList}, dont l'écrivain retrouve la position d'un élément
+ * sans parcourir la liste.
+ *
+ * <p>L'écrivain tient le numéro du bloc de chaque instance. Ces numéros ne changent ni lors d'un
+ * ajout, qui complète le dernier bloc ou en ajoute un, ni lors d'un remplacement ou d'un retrait, qui
+ * ne modifient que leur bloc ; ils ne sont recalculés que lorsqu'un retrait recompacte la liste, ce qui
+ * reste amorti sur les retraits qui l'ont provoqué. La position d'un élément se déduit de son bloc par
+ * une recherche limitée à {@link ChunkedList#CHUNK_SIZE} éléments.</p>
+ *
+ * <p>Les éléments sont identifiés par identité et supposés distincts. Les écritures se font sous le
+ * verrou d'écriture de {@link DataRepository} ; la liste publiée se lit sans verrou.</p>
+ *
+ * @param <T> le type des éléments
+ */
+final class PositionedList<T> {
+
+  private volatile ChunkedList<T> list = ChunkedList.empty();
+  private final Map<T, Integer> chunkByElement = new IdentityHashMap<>();
+
+  /**
+   * Retourne l'instantané courant.
+   *
+   * @return la liste, non modifiable
+   */
+  ChunkedList<T> list() {
+    return list;
+  }
+
+  /**
+   * Remplace tous les éléments.
+   *
+   * @param elements les nouveaux éléments, null équivalant à une liste vide
+   */
+  void reset(List<T> elements) {
+    list = ChunkedList.of(elements);
+    reindex();
+  }
+
+  /**
+   * Ajoute un élément en fin de liste.
+   *
+   * @param element l'élément
+   */
+  void append(T element) {
+    list = list.appended(element);
+    chunkByElement.put(element, list.chunkCount() - 1);
+  }
+
+  /**
+   * Retourne la position de la première instance fournie dans l'ordre de la liste.
+   *
+   * @param candidates les instances recherchées, trouvées par un index
+   * @return la position, ou -1 si aucune ne figure dans la liste
+   */
+  int firstIndexOf(Collection<T> candidates) {
+    int first = -1;
+    for (T candidate : candidates) {
+      int index = indexOf(candidate);
+      if (index >= 0 && (first < 0 || index < first)) {
+        first = index;
+      }
+    }
+    return first;
+  }
+
+  /**
+   * Retourne la position d'une instance.
+   *
+   * @param element l'instance recherchée
+   * @return la position, ou -1 si elle ne figure pas dans la liste
+   */
+  int indexOf(T element) {
+    Integer chunk = chunkByElement.get(element);
+    return chunk == null ? -1 : list.indexIn(chunk, element);
+  }
+
+  /**
+   * Remplace l'élément à une position.
+   *
+   * @param index la position
+   * @param element le nouvel élément
+   * @return l'élément remplacé
+   */
+  T replace(int index, T element) {
+    T previous = list.get(index);
+    int chunk = list.chunkAt(index);
+    list = list.replaced(index, element);
+    chunkByElement.remove(previous);
+    chunkByElement.put(element, chunk);
+    return previous;
+  }
+
+  /**
+   * Retire l'élément à une position.
+   *
+   * @param index la position
+   * @return l'élément retiré
+   */
+  T remove(int index) {
+    T previous = list.get(index);
+    int chunks = list.chunkCount();
+    list = list.removed(index);
+    chunkByElement.remove(previous);
+    if (list.chunkCount() != chunks) {
+      reindex();
+    }
+    return previous;
+  }
+
+  /**
+   * Retire des instances, trouvées par un index.
+   *
+   * @param candidates les instances à retirer
+   * @param removed reçoit les instances retirées, dans l'ordre de la liste
+   */
+  void removeAll(Collection<T> candidates, List<T> removed) {
+    int[] indexes = candidates.stream().mapToInt(this::indexOf).filter(index -> index >= 0)
+        .distinct().sorted().toArray();
+    for (int index : indexes) {
+      removed.add(list.get(index));
+    }
+    for (int i = indexes.length - 1; i >= 0; i--) {
+      remove(indexes[i]);
+    }
+  }
+
+  private void reindex() {
+    chunkByElement.clear();
+    list.forEachWithChunk(chunkByElement::put);
+  }
+}
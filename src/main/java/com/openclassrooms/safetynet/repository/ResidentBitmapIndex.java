@@ -0,0 +1,598 @@
+package com.openclassrooms.safetynet.repository;
+
+import com.openclassrooms.safetynet.model.Firestation;
+import com.openclassrooms.safetynet.model.MedicalRecord;
+import com.openclassrooms.safetynet.model.Person;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * Index bitmap des résidents par ville, caserne, tranche d'âge, adresse (foyer) et indicateur médical.
+ *
+ * <p>Chaque personne reçoit à son insertion un ordinal dense, qu'elle conserve lorsqu'elle est modifiée ;
+ * l'ordinal d'une personne supprimée est réattribué à la prochaine insertion, de sorte que le nombre
+ * d'ordinaux reste borné par le nombre maximal de résidents. Chaque valeur d'une dimension est associée
+ * au bitmap compressé ({@link RoaringBitmap}) des ordinaux concernés. Les filtres combinés s'évaluent
+ * par opérations ET/OU sur ces bitmaps, sans parcourir les personnes.</p>
+ *
+ * <p>L'index est mis à jour par {@link DataRepository} sous son verrou d'écriture, qui modifie les bitmaps
+ * en place. Les lecteurs reçoivent des copies jamais modifiées, refaites seulement pour les bitmaps
+ * modifiés depuis la copie précédente. La tranche d'âge est celle de l'âge de la personne, calculé par
+ * {@link DataRepository} d'après son dossier médical ({@link Ages}).</p>
+ *
+ * <p>Une requête qui lit plusieurs bitmaps puis les personnes de leurs ordinaux doit passer par
+ * {@link #read} : elle voit alors un seul état de l'index, jamais une écriture à moitié appliquée ni un
+ * ordinal réattribué entre l'évaluation des bitmaps et la lecture des personnes. Chaque écriture
+ * incrémente un compteur avant et après sa modification ; une lecture qui observe un compteur différent
+ * à la fin est recommencée, puis exécutée sous le verrou de l'écrivain après quelques tentatives.</p>
+ */
+public class ResidentBitmapIndex {
+
+  /**
+   * Dimensions indexées.
+   */
+  public enum Dimension {
+    CITY,
+    STATION,
+    AGE,
+    ADDRESS,
+    FLAG
+  }
+
+  /**
+   * Tranches d'âge indexées. Les alias {@code child}, {@code adult} et {@code senior} regroupent
+   * plusieurs tranches ; la limite entre enfants et adultes est celle de {@link Ages}.
+   */
+  public enum AgeBand {
+    INFANT("0-4", 0),
+    CHILD("5-11", 5),
+    TEEN("12-18", 12),
+    YOUNG_ADULT("19-39", Ages.CHILD_MAX_AGE + 1),
+    ADULT("40-64", 40),
+    SENIOR("65+", 65);
+
+    private final String label;
+    private final int from;
+
+    AgeBand(String label, int from) {
+      this.label = label;
+      this.from = from;
+    }
+
+    public String getLabel() {
+      return label;
+    }
+
+    static AgeBand of(int age) {
+      AgeBand band = INFANT;
+      for (AgeBand candidate : values()) {
+        if (age >= candidate.from) {
+          band = candidate;
+        }
+      }
+      return band;
+    }
+  }
+
+  /**
+   * Indicateurs médicaux indexés.
+   */
+  public static final String FLAG_MEDICATION = "medication";
+  public static final String FLAG_ALLERGY = "allergy";
+
+  private static final int OPTIMISTIC_READS = 4;
+
+  private static final Map<String, List<AgeBand>> AGE_ALIASES = Map.of(
+      "child", List.of(AgeBand.INFANT, AgeBand.CHILD, AgeBand.TEEN),
+      "adult", List.of(AgeBand.YOUNG_ADULT, AgeBand.ADULT, AgeBand.SENIOR),
+      "senior", List.of(AgeBand.SENIOR));
+
+  private final Map<Dimension, Map<Object, Entry>> bitmaps = new EnumMap<>(Dimension.class);
+  private final Entry live = new Entry();
+  private final ReentrantLock lock = new ReentrantLock();
+  private volatile long stamp;
+  private final Map<NameKey, RoaringBitmap> ordinalsByName = new HashMap<>();
+  private final Map<Integer, Integer> ageBandByOrdinal = new HashMap<>();
+  private final Map<AddressKey, List<Integer>> assignmentsByAddress = new HashMap<>();
+  private final Map<AddressKey, Integer> stationByAddress = new ConcurrentHashMap<>();
+  private final RoaringBitmap free = new RoaringBitmap();
+  private volatile Person[] residents = new Person[16];
+  private volatile int size;
+
+  /**
+   * Bitmap d'une valeur. L'écrivain le modifie en place sous {@link #lock} ; les lecteurs en reçoivent
+   * une copie figée, refaite à la première lecture qui suit une modification. Une rafale d'écritures
+   * entre deux lectures ne coûte ainsi qu'une copie, au lieu d'une copie par écriture.
+   */
+  private static final class Entry {
+    private final RoaringBitmap bitmap = new RoaringBitmap();
+    private volatile RoaringBitmap published;
+
+    private void add(int ordinal) {
+      if (bitmap.checkedAdd(ordinal)) {
+        published = null;
+      }
+    }
+
+    private void remove(int ordinal) {
+      if (bitmap.checkedRemove(ordinal)) {
+        published = null;
+      }
+    }
+  }
+
+  public ResidentBitmapIndex() {
+    for (Dimension dimension : Dimension.values()) {
+      bitmaps.put(dimension, new ConcurrentHashMap<>());
+    }
+  }
+
+  /**
+   * Exécute une requête sur un état cohérent de l'index. La requête peut être exécutée plusieurs fois :
+   * elle ne doit pas avoir d'effet de bord hors de son résultat. Une exception levée pendant qu'une
+   * écriture croisait la requête est ignorée et la requête recommencée.
+   *
+   * @param query la requête, qui lit les bitmaps, les personnes et les casernes de l'index
+   * @return le résultat de la dernière exécution, dont aucune écriture n'a croisé le déroulement
+   */
+  public <T> T read(Function<ResidentBitmapIndex, T> query) {
+    for (int attempt = 0; attempt < OPTIMISTIC_READS; attempt++) {
+      long before = stamp;
+      if ((before & 1) == 0) {
+        try {
+          T result = query.apply(this);
+          if (stamp == before) {
+            return result;
+          }
+        } catch (RuntimeException e) {
+          if (stamp == before) {
+            throw e;
+          }
+        }
+      }
+      Thread.onSpinWait();
+    }
+    lock.lock();
+    try {
+      return query.apply(this);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Retourne le bitmap des résidents ayant une valeur donnée dans une dimension.
+   * Les villes sont insensibles à la casse et les adresses comparées sous forme normalisée
+   * ({@link AddressKey}) ; les tranches d'âge acceptent un libellé
+   * ({@code 0-4}) ou un alias ({@code child}).
+   *
+   * @param dimension la dimension
+   * @param value la valeur recherchée
+   * @return le bitmap des ordinaux, à ne pas modifier ; vide si aucune correspondance
+   * @throws IllegalArgumentException si la valeur n'est pas valide pour la dimension
+   */
+  public RoaringBitmap bitmap(Dimension dimension, String value) {
+    Map<Object, Entry> values = bitmaps.get(dimension);
+    return switch (dimension) {
+      case STATION -> view(values.get(parseStation(value)));
+      case AGE -> {
+        String band = value.toLowerCase(Locale.ROOT);
+        if (AGE_ALIASES.containsKey(band)) {
+          yield RoaringBitmap.or(AGE_ALIASES.get(band).stream()
+              .map(b -> view(values.get(b)))
+              .iterator());
+        }
+        AgeBand ageBand = Arrays.stream(AgeBand.values())
+            .filter(b -> b.getLabel().equals(band))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Unknown age band: " + value));
+        yield view(values.get(ageBand));
+      }
+      case ADDRESS -> view(values.get(AddressKey.of(value)));
+      default -> view(values.get(normalize(value)));
+    };
+  }
+
+  /**
+   * Retourne le bitmap de tous les résidents indexés.
+   *
+   * @return le bitmap des ordinaux vivants, à ne pas modifier
+   */
+  public RoaringBitmap all() {
+    return view(live);
+  }
+
+  /**
+   * Retourne la personne associée à un ordinal.
+   *
+   * @param ordinal l'ordinal
+   * @return la personne, ou null si elle a été supprimée ; l'ordinal peut avoir été réattribué depuis
+   *     l'évaluation d'un bitmap, sauf dans une requête {@link #read}
+   */
+  public Person resident(int ordinal) {
+    int visible = size;
+    Person[] current = residents;
+    return ordinal < visible ? current[ordinal] : null;
+  }
+
+  /**
+   * Retourne le numéro de caserne qui dessert une adresse.
+   *
+   * @param address l'adresse
+   * @return le numéro de caserne, ou -1 si l'adresse n'est pas desservie
+   */
+  public int stationOf(String address) {
+    return stationOf(AddressKey.of(address));
+  }
+
+  private int stationOf(AddressKey address) {
+    return stationByAddress.getOrDefault(address, -1);
+  }
+
+  /**
+   * Retourne le nombre d'ordinaux attribués, vivants ou libres.
+   */
+  int ordinalCount() {
+    return size;
+  }
+
+  /**
+   * Reconstruit l'index à partir des données complètes.
+   */
+  void rebuild(List<Person> persons, List<Firestation> firestations, MedicalIndex medicalIndex) {
+    beginWrite();
+    try {
+      bitmaps.values().forEach(Map::clear);
+      live.bitmap.clear();
+      live.published = null;
+      ordinalsByName.clear();
+      ageBandByOrdinal.clear();
+      assignmentsByAddress.clear();
+      stationByAddress.clear();
+      free.clear();
+      if (firestations != null) {
+        firestations.forEach(firestation -> assign(AddressKey.of(firestation.getAddress()), firestation.getStation()));
+      }
+      assignmentsByAddress.forEach((address, stations) -> stationByAddress.put(address, stations.get(0)));
+      residents = new Person[Math.max(16, persons == null ? 0 : persons.size())];
+      size = 0;
+      if (persons != null) {
+        persons.forEach(person -> index(nextOrdinal(), person, medicalIndex));
+      }
+    } finally {
+      endWrite();
+    }
+  }
+
+  /**
+   * Indexe une personne ajoutée, sous le premier ordinal libéré s'il y en a un.
+   */
+  void addPerson(Person person, MedicalIndex medicalIndex) {
+    beginWrite();
+    try {
+      index(nextOrdinal(), person, medicalIndex);
+    } finally {
+      endWrite();
+    }
+  }
+
+  /**
+   * Réindexe une personne modifiée sous l'ordinal de sa version précédente.
+   */
+  void replacePerson(Person previous, Person current, MedicalIndex medicalIndex) {
+    beginWrite();
+    try {
+      int ordinal = ordinalOf(previous);
+      if (ordinal < 0) {
+        index(nextOrdinal(), current, medicalIndex);
+        return;
+      }
+      unindex(ordinal, previous);
+      index(ordinal, current, medicalIndex);
+    } finally {
+      endWrite();
+    }
+  }
+
+  /**
+   * Retire une personne de l'index et libère son ordinal pour la prochaine insertion.
+   */
+  void removePerson(Person person) {
+    beginWrite();
+    try {
+      int ordinal = ordinalOf(person);
+      if (ordinal < 0) {
+        return;
+      }
+      unindex(ordinal, person);
+      live.remove(ordinal);
+      residents[ordinal] = null;
+      free.add(ordinal);
+    } finally {
+      endWrite();
+    }
+  }
+
+  /**
+   * Réindexe la tranche d'âge et les indicateurs médicaux des résidents d'un nom après modification de
+   * ses dossiers et recalcul de leur âge.
+   */
+  void medicalRecordsChanged(NameKey nameKey, MedicalIndex medicalIndex) {
+    beginWrite();
+    try {
+      RoaringBitmap named = ordinalsByName.get(nameKey);
+      if (named == null) {
+        return;
+      }
+      List<MedicalRecord> records = medicalIndex.findMedicalRecords(nameKey);
+      named.forEach((int ordinal) -> {
+        clearMedical(ordinal);
+        indexMedical(ordinal, residents[ordinal], records);
+      });
+    } finally {
+      endWrite();
+    }
+  }
+
+  /**
+   * Réindexe la tranche d'âge de personnes dont l'âge a été recalculé en place.
+   */
+  void agesChanged(Collection<Person> persons) {
+    beginWrite();
+    try {
+      for (Person person : persons) {
+        int ordinal = ordinalOf(person);
+        if (ordinal >= 0) {
+          clearAge(ordinal);
+          indexAge(ordinal, person);
+        }
+      }
+    } finally {
+      endWrite();
+    }
+  }
+
+  /**
+   * Met à jour les bitmaps par caserne après l'ajout, la modification ou la suppression d'une caserne.
+   * Seuls les résidents des adresses dont la caserne desservante change sont déplacés.
+   *
+   * @param previous la caserne avant modification, ou null pour un ajout
+   * @param current la caserne après modification, ou null pour une suppression
+   */
+  void firestationChanged(Firestation previous, Firestation current) {
+    beginWrite();
+    try {
+      AddressKey previousAddress = previous == null ? null : AddressKey.of(previous.getAddress());
+      AddressKey currentAddress = current == null ? null : AddressKey.of(current.getAddress());
+      if (previousAddress != null && previousAddress.equals(currentAddress)) {
+        List<Integer> stations = assignmentsByAddress.get(currentAddress);
+        int position = stations == null ? -1 : stations.indexOf(previous.getStation());
+        if (position >= 0) {
+          stations.set(position, current.getStation());
+        } else {
+          assign(currentAddress, current.getStation());
+        }
+        restation(currentAddress);
+        return;
+      }
+      if (previousAddress != null) {
+        List<Integer> stations = assignmentsByAddress.get(previousAddress);
+        if (stations != null) {
+          stations.remove(Integer.valueOf(previous.getStation()));
+          if (stations.isEmpty()) {
+            assignmentsByAddress.remove(previousAddress);
+          }
+        }
+        restation(previousAddress);
+      }
+      if (currentAddress != null) {
+        assign(currentAddress, current.getStation());
+        restation(currentAddress);
+      }
+    } finally {
+      endWrite();
+    }
+  }
+
+  /**
+   * Prend le verrou de l'écrivain et rend le compteur impair : les lectures en cours seront recommencées.
+   */
+  private void beginWrite() {
+    lock.lock();
+    stamp++;
+  }
+
+  /**
+   * Rend le compteur pair puis libère le verrou de l'écrivain.
+   */
+  private void endWrite() {
+    stamp++;
+    lock.unlock();
+  }
+
+  private void assign(AddressKey address, int station) {
+    assignmentsByAddress.computeIfAbsent(address, key -> new ArrayList<>()).add(station);
+  }
+
+  /**
+   * Déplace les résidents d'une adresse vers sa caserne desservante si elle a changé.
+   */
+  private void restation(AddressKey address) {
+    List<Integer> stations = assignmentsByAddress.get(address);
+    int before = stationOf(address);
+    int after = stations == null ? -1 : stations.get(0);
+    if (before == after) {
+      return;
+    }
+    if (after < 0) {
+      stationByAddress.remove(address);
+    } else {
+      stationByAddress.put(address, after);
+    }
+    Entry residentsAt = bitmaps.get(Dimension.ADDRESS).get(address);
+    if (residentsAt == null) {
+      return;
+    }
+    residentsAt.bitmap.forEach((int ordinal) -> {
+      if (before >= 0) {
+        remove(Dimension.STATION, before, ordinal);
+      }
+      if (after >= 0) {
+        add(Dimension.STATION, after, ordinal);
+      }
+    });
+  }
+
+  private int nextOrdinal() {
+    if (!free.isEmpty()) {
+      int ordinal = free.first();
+      free.remove(ordinal);
+      return ordinal;
+    }
+    int ordinal = size;
+    if (ordinal == residents.length) {
+      residents = Arrays.copyOf(residents, residents.length * 2);
+    }
+    size = ordinal + 1;
+    return ordinal;
+  }
+
+  private void index(int ordinal, Person person, MedicalIndex medicalIndex) {
+    residents[ordinal] = person;
+    NameKey name = NameKey.of(person);
+    ordinalsByName.computeIfAbsent(name, key -> new RoaringBitmap()).add(ordinal);
+    add(Dimension.CITY, normalize(person.getCity()), ordinal);
+    AddressKey address = AddressKey.of(person.getAddress());
+    add(Dimension.ADDRESS, address, ordinal);
+    int station = stationOf(address);
+    if (station >= 0) {
+      add(Dimension.STATION, station, ordinal);
+    }
+    indexMedical(ordinal, person, medicalIndex.findMedicalRecords(name));
+    live.add(ordinal);
+  }
+
+  private void unindex(int ordinal, Person person) {
+    NameKey name = NameKey.of(person);
+    RoaringBitmap named = ordinalsByName.get(name);
+    if (named != null) {
+      named.remove(ordinal);
+      if (named.isEmpty()) {
+        ordinalsByName.remove(name);
+      }
+    }
+    remove(Dimension.CITY, normalize(person.getCity()), ordinal);
+    AddressKey address = AddressKey.of(person.getAddress());
+    remove(Dimension.ADDRESS, address, ordinal);
+    remove(Dimension.STATION, stationOf(address), ordinal);
+    clearMedical(ordinal);
+  }
+
+  private void indexAge(int ordinal, Person person) {
+    AgeBand band = AgeBand.of(person.getAge());
+    add(Dimension.AGE, band, ordinal);
+    ageBandByOrdinal.put(ordinal, band.ordinal());
+  }
+
+  private void clearAge(int ordinal) {
+    Integer band = ageBandByOrdinal.remove(ordinal);
+    if (band != null) {
+      remove(Dimension.AGE, AgeBand.values()[band], ordinal);
+    }
+  }
+
+  private void indexMedical(int ordinal, Person person, List<MedicalRecord> records) {
+    indexAge(ordinal, person);
+    if (records.isEmpty()) {
+      return;
+    }
+    MedicalRecord record = records.get(0);
+    if (record.getMedications() != null && !record.getMedications().isEmpty()) {
+      add(Dimension.FLAG, FLAG_MEDICATION, ordinal);
+    }
+    if (record.getAllergies() != null && !record.getAllergies().isEmpty()) {
+      add(Dimension.FLAG, FLAG_ALLERGY, ordinal);
+    }
+  }
+
+  private void clearMedical(int ordinal) {
+    clearAge(ordinal);
+    remove(Dimension.FLAG, FLAG_MEDICATION, ordinal);
+    remove(Dimension.FLAG, FLAG_ALLERGY, ordinal);
+  }
+
+  private int ordinalOf(Person person) {
+    RoaringBitmap named = ordinalsByName.get(NameKey.of(person));
+    if (named != null) {
+      IntIterator ordinals = named.getIntIterator();
+      while (ordinals.hasNext()) {
+        int ordinal = ordinals.next();
+        if (person.equals(residents[ordinal])) {
+          return ordinal;
+        }
+      }
+    }
+    return -1;
+  }
+
+  private void add(Dimension dimension, Object value, int ordinal) {
+    bitmaps.get(dimension).computeIfAbsent(value, key -> new Entry()).add(ordinal);
+  }
+
+  private void remove(Dimension dimension, Object value, int ordinal) {
+    Map<Object, Entry> values = bitmaps.get(dimension);
+    Entry entry = values.get(value);
+    if (entry != null) {
+      entry.remove(ordinal);
+      if (entry.bitmap.isEmpty()) {
+        values.remove(value);
+      }
+    }
+  }
+
+  /**
+   * Retourne la copie publiée d'un bitmap, refaite sous le verrou de l'écrivain si elle est périmée.
+   */
+  private RoaringBitmap view(Entry entry) {
+    if (entry == null) {
+      return new RoaringBitmap();
+    }
+    RoaringBitmap published = entry.published;
+    if (published == null) {
+      lock.lock();
+      try {
+        published = entry.published;
+        if (published == null) {
+          published = entry.bitmap.clone();
+          entry.published = published;
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+    return published;
+  }
+
+  private static Integer parseStation(String value) {
+    try {
+      return Integer.valueOf(value.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid station number: " + value);
+    }
+  }
+
+  private static String normalize(String value) {
+    return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,165 @@
+package com.openclassrooms.safetynet.repository;
+
+import com.openclassrooms.safetynet.model.MedicalRecord;
+import com.openclassrooms.safetynet.model.Person;
+import com.openclassrooms.safetynet.repository.ResidentBitmapIndex.AgeBand;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Statistiques démographiques de chaque caserne, tenues sous forme de compteurs.
+ *
+ * <p>Chaque foyer habité apporte à chacune de ses casernes une contribution : un foyer, ses résidents,
+ * ses adultes et ses enfants (selon {@link Ages}), la répartition de ses résidents par tranche d'âge
+ * ({@link AgeBand}) et le nombre de résidents ayant des médicaments ou des allergies. Quand un foyer
+ * change (membres, âges, casernes ou dossiers médicaux de ses membres), {@link HouseholdIndex} le
+ * signale et seule sa contribution est retirée puis ajoutée de nouveau : aucune modification ne parcourt toutes les personnes.</p>
+ *
+ * <p>L'index est mis à jour par {@link DataRepository} sous son verrou d'écriture, au fil des
+ * modifications de {@link HouseholdIndex} ; les lectures ne prennent aucun verrou et voient toujours
+ * les compteurs complets d'une caserne.</p>
+ */
+public class StationStatsIndex {
+
+  /**
+   * Compteurs d'une caserne, ou contribution d'un foyer.
+   *
+   * @param households le nombre de foyers
+   * @param residents le nombre de résidents
+   * @param adults le nombre de résidents de plus de 18 ans
+   * @param children le nombre de résidents de 18 ans ou moins
+   * @param ageHistogram le nombre de résidents par tranche d'âge, indexé par {@link AgeBand#ordinal()}
+   * @param withMedications le nombre de résidents ayant au moins un médicament
+   * @param withAllergies le nombre de résidents ayant au moins une allergie
+   */
+  public record Counters(long households, long residents, long adults, long children, long[] ageHistogram,
+      long withMedications, long withAllergies) {
+
+    static final Counters EMPTY = new Counters(0, 0, 0, 0, new long[AgeBand.values().length], 0, 0);
+
+    /**
+     * Retourne le nombre de résidents d'une tranche d'âge.
+     *
+     * @param band la tranche d'âge
+     * @return le nombre de résidents
+     */
+    public long residentsIn(AgeBand band) {
+      return ageHistogram[band.ordinal()];
+    }
+
+    Counters plus(Counters other, int sign) {
+      long[] histogram = new long[ageHistogram.length];
+      for (int i = 0; i < histogram.length; i++) {
+        histogram[i] = ageHistogram[i] + sign * other.ageHistogram[i];
+      }
+      return new Counters(households + sign * other.households, residents + sign * other.residents,
+          adults + sign * other.adults, children + sign * other.children, histogram,
+          withMedications + sign * other.withMedications, withAllergies + sign * other.withAllergies);
+    }
+
+    boolean isEmpty() {
+      return households == 0 && residents == 0;
+    }
+  }
+
+  /**
+   * Contribution d'un foyer : ses casernes et ses compteurs.
+   */
+  private record Contribution(List<Integer> stations, Counters counters) { }
+
+  private final MedicalIndex medicalIndex;
+  private final Map<Integer, Counters> byStation = new ConcurrentSkipListMap<>();
+  private final Map<AddressKey, Contribution> contributions = new ConcurrentHashMap<>();
+
+  /**
+   * @param medicalIndex l'index des dossiers médicaux, consulté pour les indicateurs médicaux
+   */
+  public StationStatsIndex(MedicalIndex medicalIndex) {
+    this.medicalIndex = medicalIndex;
+  }
+
+  /**
+   * Retourne les compteurs d'une caserne.
+   *
+   * @param stationNumber le numéro de la caserne
+   * @return les compteurs, nuls si la caserne ne dessert aucun foyer
+   */
+  public Counters find(int stationNumber) {
+    return byStation.getOrDefault(stationNumber, Counters.EMPTY);
+  }
+
+  /**
+   * Retourne les compteurs de toutes les casernes qui desservent au moins un foyer.
+   *
+   * @return les compteurs, par numéro de caserne croissant
+   */
+  public SortedMap<Integer, Counters> all() {
+    return new TreeMap<>(byStation);
+  }
+
+  /**
+   * Recalcule tous les compteurs à partir des foyers.
+   */
+  void rebuild(HouseholdIndex householdIndex) {
+    byStation.clear();
+    contributions.clear();
+    householdIndex.all().forEach(household -> householdChanged(household.getKey(), household));
+  }
+
+  /**
+   * Remplace la contribution d'un foyer.
+   *
+   * @param key la clé d'adresse du foyer
+   * @param household le foyer après modification, ou null s'il a disparu
+   */
+  void householdChanged(AddressKey key, Household household) {
+    Contribution previous = household == null ? contributions.remove(key)
+        : contributions.put(key, contribution(household));
+    if (previous != null) {
+      previous.stations().forEach(station -> apply(station, previous.counters(), -1));
+    }
+    if (household != null) {
+      Contribution current = contributions.get(key);
+      current.stations().forEach(station -> apply(station, current.counters(), 1));
+    }
+  }
+
+  private void apply(int station, Counters counters, int sign) {
+    Counters updated = byStation.getOrDefault(station, Counters.EMPTY).plus(counters, sign);
+    if (updated.isEmpty()) {
+      byStation.remove(station);
+    } else {
+      byStation.put(station, updated);
+    }
+  }
+
+  private Contribution contribution(Household household) {
+    long adults = 0;
+    long medications = 0;
+    long allergies = 0;
+    long[] histogram = new long[AgeBand.values().length];
+    for (Person member : household.getMembers()) {
+      if (!Ages.isChild(member.getAge())) {
+        adults++;
+      }
+      histogram[AgeBand.of(member.getAge()).ordinal()]++;
+      List<MedicalRecord> records = medicalIndex.findMedicalRecords(NameKey.of(member));
+      if (!records.isEmpty()) {
+        MedicalRecord record = records.get(0);
+        if (record.getMedications() != null && !record.getMedications().isEmpty()) {
+          medications++;
+        }
+        if (record.getAllergies() != null && !record.getAllergies().isEmpty()) {
+          allergies++;
+        }
+      }
+    }
+    int residents = household.getMembers().size();
+    return new Contribution(residents == 0 ? List.of() : household.getStations(),
+        new Counters(1, residents, adults, residents - adults, histogram, medications, allergies));
+  }
+}
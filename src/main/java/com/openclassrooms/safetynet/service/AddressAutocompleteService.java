@@ -0,0 +1,45 @@
+package com.openclassrooms.safetynet.service;
+
+import com.openclassrooms.safetynet.dto.AddressCompletionDTO;
+import com.openclassrooms.safetynet.monitoring.ServiceQueryEvent;
+import com.openclassrooms.safetynet.repository.AddressIndex;
+import com.openclassrooms.safetynet.repository.DataRepository;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service d'autocomplétion des adresses pour les consoles de régulation.
+ * Les propositions sont lues dans l'{@link AddressIndex} du repository, sans parcourir les personnes
+ * ni les casernes, et renvoient l'adresse telle qu'enregistrée, à transmettre à /fire ou /childAlert.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AddressAutocompleteService {
+
+  private static final String SERVICE = "AddressAutocompleteService";
+
+  private final DataRepository dataRepository;
+
+  /**
+   * Complète une adresse saisie partiellement.
+   *
+   * @param query la saisie, éventuellement abrégée ou écrite en toutes lettres ({@code Street} ou {@code St})
+   * @param limit le nombre maximal de propositions
+   * @return List<AddressCompletionDTO> contenant les adresses proposées, la caserne qui les dessert
+   *     et leur nombre de résidents
+   */
+  public List<AddressCompletionDTO> completeAddress(String query, int limit) {
+    ServiceQueryEvent event = ServiceQueryEvent.start();
+    List<AddressCompletionDTO> completions = dataRepository.getAddressIndex().complete(query, limit).stream()
+        .map(c -> new AddressCompletionDTO(c.getAddress(), c.getStationNumber(), c.getResidents()))
+        .toList();
+    ScanMetrics.recordIndexed(SERVICE, "completeAddress", ScanMetrics.PERSON, completions.size());
+    ScanMetrics.recordEmitted(SERVICE, "completeAddress", completions.size());
+    log.debug("Found {} completions for '{}'", completions.size(), query);
+    event.end(SERVICE, "completeAddress", query, completions.size());
+    return completions;
+  }
+}
@@ -0,0 +1,32 @@
+package com.openclassrooms.safetynet.service;
+
+import com.openclassrooms.safetynet.repository.DataRepository;
+import java.time.LocalDate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service de recalcul quotidien des âges.
+ * Les âges sont calculés d'après les dossiers médicaux à chaque écriture ; sans ce recalcul, un résident
+ * dont c'est l'anniversaire garderait jusqu'au prochain chargement sa tranche d'âge et sa catégorie
+ * enfant ou adulte de la veille.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AgeRolloverService {
+
+  private final DataRepository dataRepository;
+
+  /**
+   * Recalcule l'âge de tous les résidents pour la date du jour et met à jour les foyers de ceux
+   * qui changent de tranche d'âge.
+   */
+  @Scheduled(cron = "${safetynet.ages.rollover-cron:0 5 0 * * *}")
+  public void rollOverAges() {
+    int crossed = dataRepository.refreshAges(LocalDate.now());
+    log.info("Ages refreshed, {} residents changed age band", crossed);
+  }
+}
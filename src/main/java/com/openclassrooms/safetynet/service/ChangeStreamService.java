@@ -0,0 +1,165 @@
+package com.openclassrooms.safetynet.service;
+
+import com.openclassrooms.safetynet.event.ChangeScope;
+import com.openclassrooms.safetynet.event.DataChangeEvent;
+import com.openclassrooms.safetynet.repository.AddressKey;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Service de diffusion en temps réel (Server-Sent Events) des modifications de données.
+ * Chaque {@link DataChangeEvent} publié par le DataRepository est transmis aux abonnés
+ * dont le filtre (numéro de station, adresse ou ville) est concerné par la modification,
+ * d'après le périmètre calculé par le DataRepository à l'enregistrement de la modification.
+ * Chaque abonné dispose d'une file bornée, vidée par son propre thread virtuel : un client lent
+ * ne retarde que lui-même, et il est déconnecté dès que sa file est pleine (il peut alors
+ * se resynchroniser par l'endpoint /changes).
+ */
+@Service
+@Slf4j
+@Profile("!reactive")
+public class ChangeStreamService {
+
+  private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+  private final ExecutorService sender = Executors.newThreadPerTaskExecutor(
+      Thread.ofVirtual().name("change-stream-", 0).factory());
+
+  @Value("${safetynet.changes.sse-timeout-ms:1800000}")
+  private long emitterTimeout;
+
+  @Value("${safetynet.changes.sse-queue-capacity:256}")
+  private int queueCapacity = 256;
+
+  /**
+   * Enregistre un nouvel abonné. Sans aucun filtre, l'abonné reçoit toutes les modifications.
+   *
+   * @param stationNumber le numéro de station à suivre (optionnel)
+   * @param address l'adresse à suivre (optionnel)
+   * @param city la ville à suivre (optionnel)
+   * @return SseEmitter le flux d'événements de l'abonné
+   */
+  public SseEmitter subscribe(Integer stationNumber, String address, String city) {
+    SseEmitter emitter = new SseEmitter(emitterTimeout);
+    AddressKey addressKey = address == null ? null : AddressKey.of(address);
+    Subscription subscription = register(new Subscription(emitter, stationNumber, addressKey, city, queueCapacity));
+    emitter.onCompletion(() -> subscriptions.remove(subscription));
+    emitter.onTimeout(() -> subscriptions.remove(subscription));
+    emitter.onError(e -> subscriptions.remove(subscription));
+    log.debug("New change stream subscriber: station={}, address='{}', city='{}' ({} active)",
+        stationNumber, address, city, subscriptions.size());
+    return emitter;
+  }
+
+  Subscription register(Subscription subscription) {
+    subscriptions.add(subscription);
+    return subscription;
+  }
+
+  /**
+   * Reçoit les modifications publiées par le DataRepository et les place dans la file de chaque
+   * abonné concerné, sans jamais attendre un client : l'envoi est fait par le thread de l'abonné.
+   *
+   * @param event la modification publiée
+   */
+  @EventListener
+  public void onDataChange(DataChangeEvent event) {
+    for (Subscription subscription : subscriptions) {
+      if (subscription.matches(event.getScope())) {
+        enqueue(subscription, event);
+      }
+    }
+  }
+
+  /**
+   * Ajoute une modification à la file d'un abonné et démarre son envoi si aucun n'est en cours.
+   * Un abonné dont la file est pleine est déconnecté.
+   *
+   * @param subscription l'abonné
+   * @param event la modification
+   */
+  void enqueue(Subscription subscription, DataChangeEvent event) {
+    if (!subscription.pending().offer(event)) {
+      log.warn("Disconnecting slow change stream subscriber: {} pending events", subscription.pending().size());
+      subscriptions.remove(subscription);
+      sender.execute(() -> subscription.emitter().complete());
+      return;
+    }
+    if (subscription.draining().compareAndSet(false, true)) {
+      sender.execute(() -> drain(subscription));
+    }
+  }
+
+  /**
+   * Envoie à un abonné les modifications de sa file, dans l'ordre. Un seul envoi est en cours
+   * à la fois par abonné.
+   *
+   * @param subscription l'abonné
+   */
+  void drain(Subscription subscription) {
+    do {
+      DataChangeEvent event;
+      while ((event = subscription.pending().poll()) != null) {
+        try {
+          subscription.emitter().send(SseEmitter.event()
+              .name(event.getName())
+              .data(event));
+        } catch (IOException | IllegalStateException e) {
+          log.debug("Removing disconnected change stream subscriber: {}", e.getMessage());
+          subscriptions.remove(subscription);
+          subscription.pending().clear();
+          return;
+        }
+      }
+      subscription.draining().set(false);
+    } while (!subscription.pending().isEmpty() && subscription.draining().compareAndSet(false, true));
+  }
+
+  /**
+   * Nombre d'abonnés actuellement connectés.
+   *
+   * @return le nombre d'abonnés
+   */
+  public int getSubscriberCount() {
+    return subscriptions.size();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    sender.shutdownNow();
+    subscriptions.forEach(s -> s.emitter().complete());
+  }
+
+  /**
+   * Abonné au flux de modifications avec ses filtres optionnels, sa file de modifications en attente
+   * d'envoi et l'indicateur d'envoi en cours.
+   */
+  record Subscription(SseEmitter emitter, Integer stationNumber, AddressKey address, String city,
+      BlockingQueue<DataChangeEvent> pending, AtomicBoolean draining) {
+
+    Subscription(SseEmitter emitter, Integer stationNumber, AddressKey address, String city, int capacity) {
+      this(emitter, stationNumber, address, city, new ArrayBlockingQueue<>(capacity), new AtomicBoolean());
+    }
+
+    boolean matches(ChangeScope scope) {
+      if (stationNumber == null && address == null && city == null) {
+        return true;
+      }
+      return (stationNumber != null && scope.stations().contains(stationNumber))
+          || (address != null && scope.addresses().contains(address))
+          || (city != null && scope.cities().contains(city.toLowerCase()));
+    }
+  }
+}
@@ -2,7 +2,11 @@ package com.openclassrooms.safetynet.service;
 
 import com.openclassrooms.safetynet.dto.ChildAlertResponseDTO;
 import com.openclassrooms.safetynet.model.Person;
+import com.openclassrooms.safetynet.monitoring.ServiceQueryEvent;
 import com.openclassrooms.safetynet.repository.DataRepository;
+import com.openclassrooms.safetynet.repository.Household;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -23,31 +27,44 @@ public class ChildAlertService {
   /**
    * Retourne la liste des enfants (âgés de 18 ans ou moins) vivant à l'adresse donnée,
    * ainsi que la liste des membres adultes de leurs familles résidant à la même adresse.
+   * Les enfants et les adultes de chaque nom de famille sont lus directement dans le foyer de l'adresse ;
+   * une adresse sans enfant est écartée dès la lecture du foyer. Les membres adultes sont regroupés
+   * par nom de famille, dans l'ordre d'apparition des enfants.
    *
    * @param address l'adresse à rechercher
    * @return ChildAlertResponseDTO contenant la liste des enfants et des membres adultes
    */
   public ChildAlertResponseDTO findChildrenAndFamilyByAddress(String address) {
-    List<Person> persons = dataRepository.getPersons();
-
-    List<Person> childrenByAddress = persons.stream()
-        .filter(p -> p.getAddress().equalsIgnoreCase(address) && p.getAge() <= 18)
-        .collect(Collectors.toList());
+    ServiceQueryEvent event = ServiceQueryEvent.start();
+    Household household = dataRepository.getHouseholdIndex().find(address);
+    if (household == null || household.getChildCount() == 0) {
+      log.debug("No child at address: '{}'", address);
+      ScanMetrics.recordIndexed("ChildAlertService", "findChildrenAndFamilyByAddress", ScanMetrics.PERSON, 0);
+      ScanMetrics.recordEmitted("ChildAlertService", "findChildrenAndFamilyByAddress", 0);
+      event.end("ChildAlertService", "findChildrenAndFamilyByAddress", address, 0);
+      return new ChildAlertResponseDTO(List.of(), List.of());
+    }
 
+    List<Person> childrenByAddress = household.getChildren();
     log.debug("Found {} children at address: '{}'", childrenByAddress.size(), address);
 
     Set<String> lastNamesOfChildren = childrenByAddress.stream()
         .map(Person::getLastName)
-        .collect(Collectors.toSet());
+        .collect(Collectors.toCollection(LinkedHashSet::new));
 
     log.debug("Found {} unique family names among children", lastNamesOfChildren.size());
 
-    List<Person> familyMembers = persons.stream()
-        .filter(p -> p.getAddress().equalsIgnoreCase(address) && lastNamesOfChildren.contains(p.getLastName()) && p.getAge() > 18)
-        .collect(Collectors.toList());
+    List<Person> familyMembers = new ArrayList<>();
+    lastNamesOfChildren.forEach(lastName -> familyMembers.addAll(household.getAdultsByLastName(lastName)));
+    ScanMetrics.recordIndexed("ChildAlertService", "findChildrenAndFamilyByAddress", ScanMetrics.PERSON,
+        childrenByAddress.size() + familyMembers.size());
 
     log.debug("Found {} adult family members at address: '{}'", familyMembers.size(), address);
+    ScanMetrics.recordEmitted("ChildAlertService", "findChildrenAndFamilyByAddress",
+        childrenByAddress.size() + familyMembers.size());
+    event.end("ChildAlertService", "findChildrenAndFamilyByAddress", address,
+        childrenByAddress.size() + familyMembers.size());
 
-    return new ChildAlertResponseDTO(childrenByAddress, familyMembers);
+    return new ChildAlertResponseDTO(new ArrayList<>(childrenByAddress), familyMembers);
   }
 }
@@ -1,14 +1,18 @@
 package com.openclassrooms.safetynet.service;
 
 import com.openclassrooms.safetynet.dto.CommunityEmailDTO;
+import com.openclassrooms.safetynet.monitoring.ServiceQueryEvent;
+import com.openclassrooms.safetynet.repository.CommunityEmailIndex;
 import com.openclassrooms.safetynet.repository.DataRepository;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 /**
  * Service pour la gestion des adresses électroniques des personnes résidant dans une ville spécifique.
+ * Les adresses sont lues dans le {@link CommunityEmailIndex} du repository, tenu à jour à chaque
+ * modification des personnes : aucune personne n'est parcourue et chaque adresse n'apparaît qu'une fois.
  */
 @Service
 @RequiredArgsConstructor
@@ -16,15 +20,28 @@ public class CommunityEmailService {
   private final DataRepository dataRepository;
 
   /**
-   * Récupère les adresses électroniques des personnes résidant dans une ville spécifique.
+   * Récupère les adresses électroniques des personnes résidant dans une ville spécifique,
+   * sans doublon et dans l'ordre de première apparition.
    *
    * @param city la ville à rechercher
    * @return List<CommunityEmailDTO> contenant les adresses électroniques des personnes
    */
   public List<CommunityEmailDTO> findEmailByCity(String city) {
-    return dataRepository.getPersons().stream()
-        .filter(p -> p.getCity().equalsIgnoreCase(city))
-        .map(p -> new CommunityEmailDTO(p.getEmail())
-        ).collect(Collectors.toList());
+    ServiceQueryEvent event = ServiceQueryEvent.start();
+    List<CommunityEmailDTO> emails = dataRepository.getCommunityEmailIndex().findEmails(city);
+    ScanMetrics.recordIndexed("CommunityEmailService", "findEmailByCity", ScanMetrics.PERSON, emails.size());
+    ScanMetrics.recordEmitted("CommunityEmailService", "findEmailByCity", emails.size());
+    event.end("CommunityEmailService", "findEmailByCity", city, emails.size());
+    return emails;
+  }
+
+  /**
+   * Variante paresseuse de {@link #findEmailByCity(String)}, consommée au rythme du client.
+   *
+   * @param city la ville à rechercher
+   * @return Stream<CommunityEmailDTO> des adresses électroniques des personnes
+   */
+  public Stream<CommunityEmailDTO> streamEmailByCity(String city) {
+    return dataRepository.getCommunityEmailIndex().streamEmails(city);
   }
 }
@@ -0,0 +1,36 @@
+package com.openclassrooms.safetynet.service;
+
+import com.openclassrooms.safetynet.dto.ChangesResponseDTO;
+import com.openclassrooms.safetynet.repository.DataRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service de synchronisation incrémentale.
+ * Permet aux systèmes en aval de ne récupérer que les modifications postérieures à leur dernière version connue.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeltaSyncService {
+
+  private final DataRepository dataRepository;
+
+  /**
+   * Récupère les ajouts, mises à jour et suppressions postérieurs à une version donnée.
+   *
+   * @param since la dernière version connue du client
+   * @param epoch l'époque des données connue du client ; absente, elle impose une resynchronisation
+   * @return ChangesResponseDTO contenant les modifications ou l'indication de resynchronisation
+   */
+  public ChangesResponseDTO findChangesSince(long since, String epoch) {
+    ChangesResponseDTO response = dataRepository.getChangesSince(since, epoch);
+    if (response.isResyncRequired()) {
+      log.debug("Resync required for version {} (current version {})", since, response.getCurrentVersion());
+    } else {
+      log.debug("Found {} changes since version {}", response.getChanges().size(), since);
+    }
+    return response;
+  }
+}
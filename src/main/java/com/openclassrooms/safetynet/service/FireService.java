@@ -2,7 +2,13 @@ package com.openclassrooms.safetynet.service;
 
 import com.openclassrooms.safetynet.dto.FireResponseDTO;
 import com.openclassrooms.safetynet.dto.ResidentDTO;
+import com.openclassrooms.safetynet.model.Person;
+import com.openclassrooms.safetynet.monitoring.ServerTiming;
+import com.openclassrooms.safetynet.monitoring.ServerTiming.Phase;
+import com.openclassrooms.safetynet.monitoring.ServiceQueryEvent;
 import com.openclassrooms.safetynet.repository.DataRepository;
+import com.openclassrooms.safetynet.repository.Household;
+import com.openclassrooms.safetynet.repository.HouseholdIndex;
 import java.util.List;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
@@ -20,7 +26,6 @@ import org.springframework.stereotype.Service;
 public class FireService {
 
   private final DataRepository dataRepository;
-  private final FirestationService firestationService;
   private final MedicalRecordService medicalRecordService;
 
   /**
@@ -28,28 +33,57 @@ public class FireService {
    * ainsi que le numéro de la caserne de pompiers qui couvre cette adresse.
    * Pour chaque résident, inclut le prénom, nom, numéro de téléphone,
    * âge, médicaments et allergies.
+   * Le foyer de l'adresse et sa caserne sont lus directement dans le {@link HouseholdIndex}.
    *
    * @param address l'adresse à rechercher
    * @return FireResponseDTO contenant le numéro de la caserne et la liste des résidents
    */
   public FireResponseDTO findResidentsByAddress(String address) {
-    int stationNumber = firestationService.getStationNumberByAddress(address);
+    ServiceQueryEvent event = ServiceQueryEvent.start();
+    long start = ServerTiming.start();
+    Household household = dataRepository.getHouseholdIndex().find(address);
+    int stationNumber = household == null ? -1 : household.getStationNumber();
+    ServerTiming.record(Phase.RESOLVE, start);
     log.debug("Found station {} for address: '{}'", stationNumber, address);
 
-    List<ResidentDTO> residents = dataRepository.getPersons().stream()
-        .filter(p -> p.getAddress().equalsIgnoreCase(address))
-        .map(p -> new ResidentDTO(
-                p.getFirstName(),
-                p.getLastName(),
-                p.getPhone(),
-                p.getAge(),
-                medicalRecordService.findMedicationsByName(p.getFirstName(), p.getLastName()),
-                medicalRecordService.findAllergiesByName(p.getFirstName(), p.getLastName())
-            )
-        ).collect(Collectors.toList());
+    start = ServerTiming.start();
+    List<Person> personsAtAddress = household == null ? List.of() : household.getMembers();
+    ScanMetrics.recordIndexed("FireService", "findResidentsByAddress", ScanMetrics.PERSON, personsAtAddress.size());
+    ServerTiming.record(Phase.LOOKUP, start);
+
+    List<ResidentDTO> residents = personsAtAddress.stream()
+        .map(this::toResident)
+        .collect(Collectors.toList());
 
     log.debug("Found {} residents at address: '{}'", residents.size(), address);
+    ScanMetrics.recordEmitted("FireService", "findResidentsByAddress", residents.size());
+    event.end("FireService", "findResidentsByAddress", address, residents.size());
 
     return new FireResponseDTO(stationNumber, residents);
   }
+
+  /**
+   * Construit la fiche d'un résident en y joignant ses médicaments et allergies.
+   *
+   * @param p la personne
+   * @return ResidentDTO de la personne
+   */
+  private ResidentDTO toResident(Person p) {
+    long start = ServerTiming.start();
+    List<String> medications = medicalRecordService.findMedicationsByName(p.getFirstName(), p.getLastName());
+    List<String> allergies = medicalRecordService.findAllergiesByName(p.getFirstName(), p.getLastName());
+    ServerTiming.record(Phase.MEDICAL, start);
+
+    start = ServerTiming.start();
+    ResidentDTO resident = new ResidentDTO(
+        p.getFirstName(),
+        p.getLastName(),
+        p.getPhone(),
+        p.getAge(),
+        medications,
+        allergies
+    );
+    ServerTiming.record(Phase.DTO, start);
+    return resident;
+  }
 }
@@ -3,9 +3,13 @@ package com.openclassrooms.safetynet.service;
 import com.openclassrooms.safetynet.dto.FirestationResponseDTO;
 import com.openclassrooms.safetynet.model.Firestation;
 import com.openclassrooms.safetynet.model.Person;
+import com.openclassrooms.safetynet.monitoring.ServiceQueryEvent;
+import com.openclassrooms.safetynet.repository.AddressKey;
 import com.openclassrooms.safetynet.repository.DataRepository;
+import com.openclassrooms.safetynet.repository.Household;
+import com.openclassrooms.safetynet.repository.StationStatsIndex;
+import com.openclassrooms.safetynet.repository.StationStatsIndex.Counters;
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,57 +25,76 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class FirestationService {
 
+  private static final String SERVICE = "FirestationService";
+
   private final DataRepository dataRepository;
 
   /**
    * Recherche la liste des personnes couvertes par une caserne donnée.
-   * Calcule également le nombre d'adultes et d'enfants dans la zone.
+   * Retourne également le nombre d'adultes et d'enfants dans la zone, lus dans les compteurs
+   * du {@link StationStatsIndex}.
    *
    * @param stationNumber le numéro de la caserne
    * @return FirestationResponseDTO contenant la liste des personnes et les statistiques démographiques
    */
   public FirestationResponseDTO getPeopleByStation(int stationNumber) {
-    List<Person> persons = dataRepository.getPersons();
-    List<Firestation> firestations = dataRepository.getFirestations();
-
-    Set<String> addresses = firestations.stream()
-        .filter(f -> f.getStation() == stationNumber)
-        .map(Firestation::getAddress)
-        .collect(Collectors.toSet());
+    ServiceQueryEvent event = ServiceQueryEvent.start();
+    List<Household> households = dataRepository.getHouseholdIndex().findByStation(stationNumber);
+    ScanMetrics.recordIndexed(SERVICE, "getPeopleByStation", ScanMetrics.FIRESTATION, households.size());
 
-    log.debug("Found {} addresses covered by station {}", addresses.size(), stationNumber);
+    log.debug("Found {} addresses covered by station {}", households.size(), stationNumber);
 
-    List<Person> peopleCoveredByStation = persons.stream()
-        .filter(p -> addresses.contains(p.getAddress()))
+    List<Person> peopleCoveredByStation = households.stream()
+        .flatMap(h -> h.getMembers().stream())
         .collect(Collectors.toList());
+    ScanMetrics.recordIndexed(SERVICE, "getPeopleByStation", ScanMetrics.PERSON, peopleCoveredByStation.size());
 
-    long adultsCount = peopleCoveredByStation.stream().filter(p -> p.getAge() >= 18).count();
-    long childsCount = peopleCoveredByStation.size() - adultsCount;
+    Counters counters = dataRepository.getStationStatsIndex().find(stationNumber);
+    long adultsCount = counters.adults();
+    long childsCount = counters.children();
+    ScanMetrics.recordEmitted(SERVICE, "getPeopleByStation", peopleCoveredByStation.size());
+    event.end(SERVICE, "getPeopleByStation", stationNumber, peopleCoveredByStation.size());
 
     return new FirestationResponseDTO(peopleCoveredByStation, adultsCount, childsCount);
   }
 
   /**
    * Ajoute une nouvelle caserne avec une adresse et un numéro de station.
-   * Vérifie si l'adresse n'existe pas déjà avant l'ajout.
+   * Vérifie si l'adresse n'existe pas déjà avant l'ajout ; la recherche est évitée lorsque le filtre
+   * de présence du repository garantit que l'adresse est nouvelle.
    *
    * @param address l'adresse de la nouvelle caserne
    * @param stationNumber le numéro de la station
    * @return true si l'ajout est réussi, false si l'adresse existe déjà
    */
   public boolean addFirestation(String address, int stationNumber) {
-    List<Firestation> firestations = dataRepository.getFirestations();
-
-    if (firestations.stream()
-        .anyMatch(f -> f.getAddress().equalsIgnoreCase(address))) {
+    if (!dataRepository.mightContainFirestation(address)) {
+      ScanMetrics.recordDuplicateCheck(SERVICE, "addFirestation", ScanMetrics.FIRESTATION, ScanMetrics.NEGATIVE);
+    } else if (addressExists(address, "addFirestation")) {
+      ScanMetrics.recordDuplicateCheck(SERVICE, "addFirestation", ScanMetrics.FIRESTATION, ScanMetrics.DUPLICATE);
       log.debug("Failed to add firestation - address already exists: '{}'", address);
       return false;
     } else {
-      Firestation newFirestation = new Firestation(address, stationNumber);
-      dataRepository.addFirestation(newFirestation);
-      log.debug("Successfully added new firestation: address='{}', station={}", address, stationNumber);
-      return true;
+      ScanMetrics.recordDuplicateCheck(SERVICE, "addFirestation", ScanMetrics.FIRESTATION,
+          ScanMetrics.FALSE_POSITIVE);
     }
+    Firestation newFirestation = new Firestation(address, stationNumber);
+    dataRepository.addFirestation(newFirestation);
+    log.debug("Successfully added new firestation: address='{}', station={}", address, stationNumber);
+    return true;
+  }
+
+  /**
+   * Indique si une caserne est déjà affectée à une adresse, par l'index des affectations.
+   *
+   * @param address l'adresse recherchée, comparée sous forme normalisée
+   * @param method le nom de la méthode appelante, pour les métriques d'index
+   * @return true si l'adresse est déjà affectée
+   */
+  private boolean addressExists(String address, String method) {
+    List<Firestation> firestations = dataRepository.findFirestations(AddressKey.of(address));
+    ScanMetrics.recordIndexed(SERVICE, method, ScanMetrics.FIRESTATION, firestations.size());
+    return !firestations.isEmpty();
   }
 
   /**
@@ -83,9 +106,7 @@ public class FirestationService {
    * @return true si la mise à jour est réussie, false si l'adresse n'existe pas
    */
   public boolean setFirestation(String address, int stationNumber) {
-    List<Firestation> firestations = dataRepository.getFirestations();
-
-    if (firestations.stream().anyMatch(f -> f.getAddress().equalsIgnoreCase(address))) {
+    if (addressExists(address, "setFirestation")) {
       dataRepository.setFirestation(new Firestation(address, stationNumber));
       log.debug("Successfully updated firestation: address='{}', new station={}", address, stationNumber);
       return true;
@@ -103,9 +124,7 @@ public class FirestationService {
    * @return true si la suppression est réussie, false si l'adresse n'existe pas
    */
   public boolean deleteFirestationByAddress(String address) {
-    List<Firestation> firestations = dataRepository.getFirestations();
-    if (firestations.stream()
-        .anyMatch(f -> f.getAddress().equalsIgnoreCase(address))) {
+    if (addressExists(address, "deleteFirestationByAddress")) {
       dataRepository.deleteFirestationByAddress(address);
       log.debug("Successfully deleted firestation by address: '{}'", address);
       return true;
@@ -124,6 +143,7 @@ public class FirestationService {
    */
   public boolean deleteFirestationByStation(int stationNumber) {
     List<Firestation> firestations = dataRepository.getFirestations();
+    ScanMetrics.recordScanned(SERVICE, "deleteFirestationByStation", ScanMetrics.FIRESTATION, firestations.size());
     if (firestations.stream()
         .anyMatch(f -> f.getStation() == stationNumber)) {
       dataRepository.deleteFirestationByStation(stationNumber);
@@ -142,8 +162,11 @@ public class FirestationService {
    * @return le numéro de station, ou -1 si l'adresse n'est pas trouvée
    */
   public int getStationNumberByAddress(String address) {
-    int stationNumber = dataRepository.getAllFirestations().stream()
-        .filter(f -> f.getAddress().equalsIgnoreCase(address))
+    ServiceQueryEvent event = ServiceQueryEvent.start();
+    List<Firestation> firestations = dataRepository.findFirestations(AddressKey.of(address));
+    ScanMetrics.recordIndexed(SERVICE, "getStationNumberByAddress", ScanMetrics.FIRESTATION, firestations.size());
+
+    int stationNumber = firestations.stream()
         .map(Firestation::getStation)
         .findFirst()
         .orElse(-1);
@@ -153,7 +176,8 @@ public class FirestationService {
     } else {
       log.debug("No station found for address: '{}'", address);
     }
-    
+    event.end(SERVICE, "getStationNumberByAddress", address, stationNumber != -1 ? 1 : 0);
+
     return stationNumber;
   }
 
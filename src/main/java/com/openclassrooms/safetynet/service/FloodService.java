@@ -2,12 +2,20 @@ package com.openclassrooms.safetynet.service;
 
 import com.openclassrooms.safetynet.dto.FloodResponseDTO;
 import com.openclassrooms.safetynet.dto.ResidentDTO;
-import com.openclassrooms.safetynet.model.Firestation;
+import com.openclassrooms.safetynet.model.Person;
+import com.openclassrooms.safetynet.monitoring.ServerTiming;
+import com.openclassrooms.safetynet.monitoring.ServerTiming.Phase;
+import com.openclassrooms.safetynet.monitoring.ServiceQueryEvent;
+import com.openclassrooms.safetynet.repository.AddressKey;
 import com.openclassrooms.safetynet.repository.DataRepository;
+import com.openclassrooms.safetynet.repository.Household;
+import com.openclassrooms.safetynet.repository.HouseholdIndex;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -41,41 +49,83 @@ public class FloodService {
    * @return List<FloodResponseDTO> contenant les informations des foyers par caserne
    */
   public List<FloodResponseDTO> findHouseholdsByStationNumbers(List<Integer> stationNumbers) {
-    Map<String, Integer> addressStationMap = dataRepository.getFirestations().stream()
-        .filter(f -> stationNumbers.contains(f.getStation()))
-        .collect(Collectors.toMap(
-            Firestation::getAddress,
-            Firestation::getStation,
-            (existing, replacement) -> existing
-        ));
+    ServiceQueryEvent event = ServiceQueryEvent.start();
+    List<FloodResponseDTO> response = streamHouseholdsByStationNumbers(stationNumbers)
+        .collect(Collectors.toList());
 
-    log.debug("Found {} addresses covered by stations: {}", addressStationMap.size(), stationNumbers);
+    log.debug("Processed {} total households for flood alert", response.size());
+    ScanMetrics.recordEmitted("FloodService", "findHouseholdsByStationNumbers", response.size());
+    event.end("FloodService", "findHouseholdsByStationNumbers", stationNumbers, response.size());
+    return response;
+  }
 
-    List<String> addresses = new ArrayList<>(addressStationMap.keySet());
+  /**
+   * Variante paresseuse de {@link #findHouseholdsByStationNumbers(List)}.
+   * Les foyers couverts sont lus immédiatement dans le {@link HouseholdIndex}, mais la fiche de chaque foyer
+   * n'est construite qu'au moment où elle est consommée, ce qui permet une diffusion en flux avec contre-pression.
+   * Un foyer desservi par plusieurs des casernes demandées n'apparaît qu'une fois, sous sa première affectation.
+   *
+   * @param stationNumbers la liste des numéros de caserne à rechercher
+   * @return Stream<FloodResponseDTO> des foyers par caserne
+   */
+  public Stream<FloodResponseDTO> streamHouseholdsByStationNumbers(List<Integer> stationNumbers) {
+    long start = ServerTiming.start();
+    HouseholdIndex householdIndex = dataRepository.getHouseholdIndex();
+    Map<AddressKey, Household> households = new LinkedHashMap<>();
+    for (Integer stationNumber : stationNumbers) {
+      householdIndex.findByStation(stationNumber).forEach(h -> households.putIfAbsent(h.getKey(), h));
+    }
+    ScanMetrics.recordIndexed("FloodService", "findHouseholdsByStationNumbers", ScanMetrics.FIRESTATION,
+        households.size());
+    ServerTiming.record(Phase.RESOLVE, start);
 
-    List<FloodResponseDTO> response = addresses.stream()
-        .map(address -> {
-          List<ResidentDTO> residents = dataRepository.getPersons().stream()
-              .filter(p -> p.getAddress().equalsIgnoreCase(address))
-              .map(p -> new ResidentDTO(
-                      p.getFirstName(),
-                      p.getLastName(),
-                      p.getPhone(),
-                      p.getAge(),
-                      medicalRecordService.findMedicationsByName(p.getFirstName(), p.getLastName()),
-                      medicalRecordService.findAllergiesByName(p.getFirstName(), p.getLastName())
-                  )
-              ).collect(Collectors.toList());
+    log.debug("Found {} addresses covered by stations: {}", households.size(), stationNumbers);
 
-          int stationNumber = addressStationMap.get(address);
-          log.debug("Found {} residents at address: '{}' (station {})", 
-              residents.size(), address, stationNumber);
+    return new ArrayList<>(households.values()).stream()
+        .map(household -> {
+          long lookupStart = ServerTiming.start();
+          List<Person> personsAtAddress = household.getMembers();
+          ScanMetrics.recordIndexed("FloodService", "findHouseholdsByStationNumbers", ScanMetrics.PERSON,
+              personsAtAddress.size());
+          ServerTiming.record(Phase.LOOKUP, lookupStart);
 
-          return new FloodResponseDTO(stationNumber, address, residents);
-        })
-        .collect(Collectors.toList());
+          List<ResidentDTO> residents = personsAtAddress.stream()
+              .map(this::toResident)
+              .collect(Collectors.toList());
 
-    log.debug("Processed {} total households for flood alert", response.size());
-    return response;
+          int stationNumber = household.getStations().stream()
+              .filter(stationNumbers::contains)
+              .findFirst()
+              .orElse(household.getStationNumber());
+          log.debug("Found {} residents at address: '{}' (station {})",
+              residents.size(), household.getAddress(), stationNumber);
+
+          return new FloodResponseDTO(stationNumber, household.getAddress(), residents);
+        });
+  }
+
+  /**
+   * Construit la fiche d'un résident en y joignant ses médicaments et allergies.
+   *
+   * @param p la personne
+   * @return ResidentDTO de la personne
+   */
+  private ResidentDTO toResident(Person p) {
+    long start = ServerTiming.start();
+    List<String> medications = medicalRecordService.findMedicationsByName(p.getFirstName(), p.getLastName());
+    List<String> allergies = medicalRecordService.findAllergiesByName(p.getFirstName(), p.getLastName());
+    ServerTiming.record(Phase.MEDICAL, start);
+
+    start = ServerTiming.start();
+    ResidentDTO resident = new ResidentDTO(
+        p.getFirstName(),
+        p.getLastName(),
+        p.getPhone(),
+        p.getAge(),
+        medications,
+        allergies
+    );
+    ServerTiming.record(Phase.DTO, start);
+    return resident;
   }
 }
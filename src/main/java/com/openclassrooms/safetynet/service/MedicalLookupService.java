@@ -0,0 +1,126 @@
+package com.openclassrooms.safetynet.service;
+
+import com.openclassrooms.safetynet.dto.MedicalLookupResponseDTO;
+import com.openclassrooms.safetynet.model.MedicalRecord;
+import com.openclassrooms.safetynet.model.Person;
+import com.openclassrooms.safetynet.monitoring.ServiceQueryEvent;
+import com.openclassrooms.safetynet.repository.AddressKey;
+import com.openclassrooms.safetynet.repository.DataRepository;
+import com.openclassrooms.safetynet.repository.Household;
+import com.openclassrooms.safetynet.repository.HouseholdIndex;
+import com.openclassrooms.safetynet.repository.MedicalIndex;
+import com.openclassrooms.safetynet.repository.NameKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service de recherche des résidents par médicament ou par allergie.
+ * Les résidents concernés sont lus dans l'index inversé {@link MedicalIndex} du repository,
+ * sans parcourir les dossiers médicaux : le coût dépend du nombre de résidents trouvés.
+ * Les casernes de chaque résident sont lues dans son foyer ({@link HouseholdIndex}), sans parcourir
+ * la table des casernes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MedicalLookupService {
+
+  private static final String SERVICE = "MedicalLookupService";
+
+  private final DataRepository dataRepository;
+
+  /**
+   * Recherche les résidents traités par un médicament, éventuellement limités à certaines casernes
+   * ou à une adresse.
+   *
+   * @param medication le nom du médicament, sans dosage, insensible à la casse
+   * @param stations les numéros de caserne à retenir (optionnel)
+   * @param address l'adresse à retenir (optionnelle)
+   * @return List<MedicalLookupResponseDTO> contenant les résidents trouvés
+   */
+  public List<MedicalLookupResponseDTO> findResidentsByMedication(String medication, List<Integer> stations,
+      String address) {
+    ServiceQueryEvent event = ServiceQueryEvent.start();
+    MedicalIndex index = dataRepository.getMedicalIndex();
+    Set<NameKey> names = index.findNamesByMedication(medication);
+    List<MedicalLookupResponseDTO> residents = findResidents("findResidentsByMedication", names,
+        name -> index.findMedicalRecordWithMedication(name, medication), stations, address);
+    log.debug("Found {} residents taking '{}'", residents.size(), medication);
+    event.end(SERVICE, "findResidentsByMedication", medication, residents.size());
+    return residents;
+  }
+
+  /**
+   * Recherche les résidents présentant une allergie, éventuellement limités à certaines casernes
+   * ou à une adresse.
+   *
+   * @param allergy l'allergie, insensible à la casse
+   * @param stations les numéros de caserne à retenir (optionnel)
+   * @param address l'adresse à retenir (optionnelle)
+   * @return List<MedicalLookupResponseDTO> contenant les résidents trouvés
+   */
+  public List<MedicalLookupResponseDTO> findResidentsByAllergy(String allergy, List<Integer> stations,
+      String address) {
+    ServiceQueryEvent event = ServiceQueryEvent.start();
+    MedicalIndex index = dataRepository.getMedicalIndex();
+    Set<NameKey> names = index.findNamesByAllergy(allergy);
+    List<MedicalLookupResponseDTO> residents = findResidents("findResidentsByAllergy", names,
+        name -> index.findMedicalRecordWithAllergy(name, allergy), stations, address);
+    log.debug("Found {} residents allergic to '{}'", residents.size(), allergy);
+    event.end(SERVICE, "findResidentsByAllergy", allergy, residents.size());
+    return residents;
+  }
+
+  /**
+   * Construit la réponse pour les résidents d'une liste de noms, filtrés par caserne et par adresse.
+   * Les noms sont parcourus dans l'ordre des clés de nom, de sorte que l'ordre de la réponse ne dépend
+   * pas de celui de l'index.
+   * Le dossier retenu pour chaque nom est celui qui mentionne le terme recherché ; le numéro de caserne
+   * est la caserne principale du foyer, et le filtre par caserne retient un résident dont le foyer est
+   * desservi par l'une des casernes demandées.
+   */
+  private List<MedicalLookupResponseDTO> findResidents(String method, Set<NameKey> names,
+      Function<NameKey, MedicalRecord> recordOf, List<Integer> stations, String address) {
+    MedicalIndex index = dataRepository.getMedicalIndex();
+    HouseholdIndex households = dataRepository.getHouseholdIndex();
+    ScanMetrics.recordIndexed(SERVICE, method, ScanMetrics.MEDICAL_RECORD, names.size());
+    AddressKey addressKey = address == null ? null : AddressKey.of(address);
+
+    List<MedicalLookupResponseDTO> residents = new ArrayList<>();
+    long persons = 0;
+    for (NameKey name : names.stream().sorted().toList()) {
+      MedicalRecord record = recordOf.apply(name);
+      if (record == null) {
+        continue;
+      }
+      for (Person person : index.findPersons(name)) {
+        persons++;
+        AddressKey personAddress = AddressKey.of(person.getAddress());
+        Household household = households.find(personAddress);
+        List<Integer> personStations = household == null ? List.of() : household.getStations();
+        int stationNumber = household == null ? -1 : household.getStationNumber();
+        if ((addressKey == null || personAddress.equals(addressKey))
+            && (stations == null || stations.isEmpty() || personStations.stream().anyMatch(stations::contains))) {
+          residents.add(new MedicalLookupResponseDTO(
+              person.getFirstName(),
+              person.getLastName(),
+              person.getAddress(),
+              stationNumber,
+              person.getPhone(),
+              person.getAge(),
+              record.getMedications(),
+              record.getAllergies()
+          ));
+        }
+      }
+    }
+    ScanMetrics.recordIndexed(SERVICE, method, ScanMetrics.PERSON, persons);
+    ScanMetrics.recordEmitted(SERVICE, method, residents.size());
+    return residents;
+  }
+}
@@ -2,7 +2,9 @@ package com.openclassrooms.safetynet.service;
 
 import com.openclassrooms.safetynet.dto.MedicalRecordResponseDTO;
 import com.openclassrooms.safetynet.model.MedicalRecord;
+import com.openclassrooms.safetynet.monitoring.ServiceQueryEvent;
 import com.openclassrooms.safetynet.repository.DataRepository;
+import com.openclassrooms.safetynet.repository.NameKey;
 import java.util.List;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
@@ -19,6 +21,8 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class MedicalRecordService {
 
+  private static final String SERVICE = "MedicalRecordService";
+
   private final DataRepository dataRepository;
 
   /**
@@ -31,9 +35,11 @@ public class MedicalRecordService {
    */
   public List<MedicalRecordResponseDTO> findMedicalRecordsByName(String firstName,
       String lastName) {
-    List<MedicalRecordResponseDTO> records = dataRepository.getMedicalRecords().stream()
-        .filter(mr -> mr.getFirstName().equalsIgnoreCase(firstName) && mr.getLastName()
-            .equalsIgnoreCase(lastName))
+    ServiceQueryEvent event = ServiceQueryEvent.start();
+    List<MedicalRecord> medicalRecords = dataRepository.findMedicalRecords(NameKey.of(firstName, lastName));
+    ScanMetrics.recordIndexed(SERVICE, "findMedicalRecordsByName", ScanMetrics.MEDICAL_RECORD, medicalRecords.size());
+
+    List<MedicalRecordResponseDTO> records = medicalRecords.stream()
         .map(mr -> new MedicalRecordResponseDTO(
             mr.getFirstName(),
             mr.getLastName(),
@@ -44,6 +50,7 @@ public class MedicalRecordService {
         .collect(Collectors.toList());
 
     log.debug("Found {} medical records for person: '{}' '{}'", records.size(), firstName, lastName);
+    event.end(SERVICE, "findMedicalRecordsByName", firstName, lastName, records.size());
     return records;
   }
 
@@ -56,9 +63,10 @@ public class MedicalRecordService {
    * @return Une liste de médicaments prescrits
    */
   public List<String> findMedicationsByName(String firstName, String lastName) {
-    List<String> medications = dataRepository.getMedicalRecords().stream()
-        .filter(r -> r.getFirstName().equalsIgnoreCase(firstName) && r.getLastName()
-            .equalsIgnoreCase(lastName))
+    List<MedicalRecord> medicalRecords = dataRepository.findMedicalRecords(NameKey.of(firstName, lastName));
+    ScanMetrics.recordIndexed(SERVICE, "findMedicationsByName", ScanMetrics.MEDICAL_RECORD, medicalRecords.size());
+
+    List<String> medications = medicalRecords.stream()
         .flatMap(r -> r.getMedications().stream())
         .collect(Collectors.toList());
 
@@ -75,9 +83,10 @@ public class MedicalRecordService {
    * @return Une liste d'allergies connues
    */
   public List<String> findAllergiesByName(String firstName, String lastName) {
-    List<String> allergies = dataRepository.getMedicalRecords().stream()
-        .filter(r -> r.getFirstName().equalsIgnoreCase(firstName) && r.getLastName()
-            .equalsIgnoreCase(lastName))
+    List<MedicalRecord> medicalRecords = dataRepository.findMedicalRecords(NameKey.of(firstName, lastName));
+    ScanMetrics.recordIndexed(SERVICE, "findAllergiesByName", ScanMetrics.MEDICAL_RECORD, medicalRecords.size());
+
+    List<String> allergies = medicalRecords.stream()
         .flatMap(r -> r.getAllergies().stream())
         .collect(Collectors.toList());
 
@@ -107,13 +116,23 @@ public class MedicalRecordService {
 
   /**
    * Crée un nouveau dossier médical si aucun dossier existant ne correspond au prénom et nom donnés
-   * (comparaison insensible à la casse).
+   * (comparaison insensible à la casse). La recherche est évitée lorsque le filtre de présence
+   * du repository garantit que le nom est nouveau.
    *
    * @param medicalRecordDTO Les données du nouveau dossier médical
    * @return {@code true} si la création a réussi, {@code false} si un dossier existe déjà
    */
   public boolean createNewMedicalRecord(MedicalRecordResponseDTO medicalRecordDTO) {
-    boolean existingRecord = existMedicalRecord(medicalRecordDTO);
+    boolean existingRecord;
+    if (!dataRepository.mightContainMedicalRecord(medicalRecordDTO.getFirstName(), medicalRecordDTO.getLastName())) {
+      ScanMetrics.recordDuplicateCheck(SERVICE, "createNewMedicalRecord", ScanMetrics.MEDICAL_RECORD,
+          ScanMetrics.NEGATIVE);
+      existingRecord = false;
+    } else {
+      existingRecord = existMedicalRecord(medicalRecordDTO);
+      ScanMetrics.recordDuplicateCheck(SERVICE, "createNewMedicalRecord", ScanMetrics.MEDICAL_RECORD,
+          existingRecord ? ScanMetrics.DUPLICATE : ScanMetrics.FALSE_POSITIVE);
+    }
 
     if(!existingRecord) {
       MedicalRecord newRecord = new MedicalRecord(
@@ -173,9 +192,11 @@ public class MedicalRecordService {
    * @return {@code true} si un dossier correspondant existe, {@code false} sinon
    */
   private boolean existMedicalRecord(MedicalRecordResponseDTO medicalRecordDTO) {
-    return dataRepository.getMedicalRecords().stream()
-        .anyMatch(mr -> mr.getFirstName().equalsIgnoreCase(medicalRecordDTO.getFirstName()) &&
-            mr.getLastName().equalsIgnoreCase(medicalRecordDTO.getLastName()));
+    List<MedicalRecord> medicalRecords = dataRepository.findMedicalRecords(
+        NameKey.of(medicalRecordDTO.getFirstName(), medicalRecordDTO.getLastName()));
+    ScanMetrics.recordIndexed(SERVICE, "existMedicalRecord", ScanMetrics.MEDICAL_RECORD, medicalRecords.size());
+
+    return !medicalRecords.isEmpty();
   }
 
   /**
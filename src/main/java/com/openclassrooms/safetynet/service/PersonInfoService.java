@@ -1,15 +1,28 @@
 package com.openclassrooms.safetynet.service;
 
 import com.openclassrooms.safetynet.dto.PersonInfoResponseDTO;
+import com.openclassrooms.safetynet.model.MedicalRecord;
 import com.openclassrooms.safetynet.model.Person;
+import com.openclassrooms.safetynet.monitoring.ServiceQueryEvent;
 import com.openclassrooms.safetynet.repository.DataRepository;
+import com.openclassrooms.safetynet.repository.MedicalIndex;
+import com.openclassrooms.safetynet.repository.NameKey;
+import com.openclassrooms.safetynet.repository.NameSearchIndex;
+import com.openclassrooms.safetynet.repository.NameSearchIndex.Field;
+import com.openclassrooms.safetynet.repository.NameSearchIndex.Match;
+import com.openclassrooms.safetynet.repository.NameSearchIndex.Mode;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 /**
  * Service pour la gestion des informations personnelles des personnes.
+ * La recherche par préfixe ou tolérante aux fautes passe par le {@link NameSearchIndex} du repository.
  */
 @Service
 @RequiredArgsConstructor
@@ -26,8 +39,10 @@ public class PersonInfoService {
    * @return List<PersonInfoResponseDTO> contenant les informations des personnes trouvées
    */
   public List<PersonInfoResponseDTO> findPersonsInfoByLastName(String lastName) {
+    ServiceQueryEvent event = ServiceQueryEvent.start();
     List<Person> persons = dataRepository.getPersons();
-    return persons.stream()
+    ScanMetrics.recordScanned("PersonInfoService", "findPersonsInfoByLastName", ScanMetrics.PERSON, persons.size());
+    List<PersonInfoResponseDTO> personsInfo = persons.stream()
         .filter(p -> p.getLastName().equalsIgnoreCase(lastName))
         .map(p -> {
           return new PersonInfoResponseDTO(
@@ -40,5 +55,82 @@ public class PersonInfoService {
           );
         })
         .collect(Collectors.toList());
+    ScanMetrics.recordEmitted("PersonInfoService", "findPersonsInfoByLastName", personsInfo.size());
+    event.end("PersonInfoService", "findPersonsInfoByLastName", lastName, personsInfo.size());
+    return personsInfo;
+  }
+
+  /**
+   * Recherche les informations personnelles des personnes dont le nom de famille, et éventuellement
+   * le prénom, correspondent à la saisie selon le mode demandé. Les résultats sont classés du plus
+   * pertinent au moins pertinent : correspondance exacte, puis préfixes les plus courts ou noms
+   * les plus proches.
+   *
+   * @param lastName le nom de famille saisi
+   * @param firstName le prénom saisi (optionnel)
+   * @param mode le mode de recherche
+   * @param limit le nombre maximal de personnes retournées
+   * @return List<PersonInfoResponseDTO> contenant les informations des personnes trouvées, classées
+   */
+  public List<PersonInfoResponseDTO> searchPersonsInfo(String lastName, String firstName, Mode mode, int limit) {
+    ServiceQueryEvent event = ServiceQueryEvent.start();
+    NameSearchIndex index = dataRepository.getNameSearchIndex();
+    boolean lastNameOnly = firstName == null || firstName.isBlank();
+    // sans prénom, les premiers noms couvrant la limite suffisent ; avec, tous sont croisés avec les prénoms
+    List<Match> lastNames = index.search(Field.LAST_NAME, lastName, mode, NameSearchIndex.defaultMaxDistance(lastName),
+        lastNameOnly ? limit : Integer.MAX_VALUE);
+
+    // rang combiné de chaque clé de nom retenue, dans l'ordre de pertinence
+    List<Map.Entry<NameKey, Integer>> ranked = new ArrayList<>();
+    if (lastNameOnly) {
+      for (Match match : lastNames) {
+        match.getNameKeys().stream().sorted().forEach(key -> ranked.add(Map.entry(key, match.getRank())));
+        if (ranked.size() >= limit) {
+          break;
+        }
+      }
+    } else {
+      Map<NameKey, Integer> firstNameRanks = new HashMap<>();
+      for (Match match : index.search(Field.FIRST_NAME, firstName, mode,
+          NameSearchIndex.defaultMaxDistance(firstName))) {
+        match.getNameKeys().forEach(key -> firstNameRanks.putIfAbsent(key, match.getRank()));
+      }
+      for (Match match : lastNames) {
+        for (NameKey key : match.getNameKeys()) {
+          Integer firstNameRank = firstNameRanks.get(key);
+          if (firstNameRank != null) {
+            ranked.add(Map.entry(key, match.getRank() + firstNameRank));
+          }
+        }
+      }
+      ranked.sort(Map.Entry.<NameKey, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+    }
+    ScanMetrics.recordIndexed("PersonInfoService", "searchPersonsInfo", ScanMetrics.PERSON, ranked.size());
+
+    MedicalIndex medicalIndex = dataRepository.getMedicalIndex();
+    List<PersonInfoResponseDTO> personsInfo = new ArrayList<>();
+    for (Map.Entry<NameKey, Integer> entry : ranked) {
+      List<MedicalRecord> records = medicalIndex.findMedicalRecords(entry.getKey());
+      List<String> medications = records.stream()
+          .map(MedicalRecord::getMedications).filter(Objects::nonNull).flatMap(List::stream).toList();
+      List<String> allergies = records.stream()
+          .map(MedicalRecord::getAllergies).filter(Objects::nonNull).flatMap(List::stream).toList();
+      for (Person p : medicalIndex.findPersons(entry.getKey())) {
+        if (personsInfo.size() >= limit) {
+          break;
+        }
+        personsInfo.add(new PersonInfoResponseDTO(
+            p.getLastName(),
+            p.getAddress(),
+            p.getAge(),
+            p.getEmail(),
+            medications,
+            allergies
+        ));
+      }
+    }
+    ScanMetrics.recordEmitted("PersonInfoService", "searchPersonsInfo", personsInfo.size());
+    event.end("PersonInfoService", "searchPersonsInfo", lastName, mode, personsInfo.size());
+    return personsInfo;
   }
 }
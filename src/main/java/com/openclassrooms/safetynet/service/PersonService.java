@@ -1,15 +1,12 @@
 package com.openclassrooms.safetynet.service;
 
 import com.openclassrooms.safetynet.dto.PersonDTO;
-import com.openclassrooms.safetynet.model.MedicalRecord;
 import com.openclassrooms.safetynet.model.Person;
+import com.openclassrooms.safetynet.repository.Ages;
 import com.openclassrooms.safetynet.repository.DataRepository;
+import com.openclassrooms.safetynet.repository.NameKey;
 import java.time.LocalDate;
-import java.time.Period;
-import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,7 +15,8 @@ import org.springframework.stereotype.Service;
 /**
  * Service pour la gestion des personnes.
  * Gère les opérations CRUD sur les personnes et fournit des fonctionnalités
- * pour le calcul de l'âge et la gestion des informations personnelles.
+ * pour le calcul de l'âge et la gestion des informations personnelles. L'âge des personnes enregistrées
+ * est tenu par {@link DataRepository} d'après leur dossier médical.
  */
 @Service
 @RequiredArgsConstructor
@@ -34,48 +32,29 @@ public class PersonService {
    * @return l'âge calculé en années
    */
   public int calculateAge(String birthdate) {
-    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
-    LocalDate birthDate = LocalDate.parse(birthdate, formatter);
-    return Period.between(birthDate, LocalDate.now()).getYears();
-  }
-
-  /**
-   * Assigne l'âge à chaque personne de la liste en utilisant les dossiers médicaux correspondants.
-   * Utilise une map pour optimiser la recherche des dossiers médicaux.
-   *
-   * @param persons la liste des personnes à mettre à jour
-   * @param medicalRecords la liste des dossiers médicaux
-   */
-  public void assignAgesToPersons(List<Person> persons, List<MedicalRecord> medicalRecords) {
-    Map<String, MedicalRecord> medicalRecordsMap = new HashMap<>();
-    for (MedicalRecord medicalRecord : medicalRecords) {
-      String key = medicalRecord.getFirstName() + medicalRecord.getLastName();
-      medicalRecordsMap.put(key, medicalRecord);
-    }
-
-    for (Person person : persons) {
-      String key = person.getFirstName() + person.getLastName();
-      MedicalRecord medicalRecord = medicalRecordsMap.get(key);
-      if (medicalRecord != null) {
-        int age = calculateAge(medicalRecord.getBirthdate());
-        person.setAge(age);
-        log.debug("Age set to {}", age);
-      }
-    }
+    return Ages.between(birthdate, LocalDate.now());
   }
 
   /**
    * Sauvegarde une nouvelle personne si elle n'existe pas déjà.
-   * Vérifie l'existence de la personne avant l'ajout pour éviter les doublons.
+   * Vérifie l'existence de la personne avant l'ajout pour éviter les doublons ; la recherche est évitée
+   * lorsque le filtre de présence du repository garantit que le nom est nouveau.
    *
    * @param dto les informations de la personne à sauvegarder
    * @return true si la sauvegarde est réussie, false si la personne existe déjà
    */
   public boolean saveNewPerson(PersonDTO dto) {
+    if (!dataRepository.mightContainPerson(dto.getFirstName(), dto.getLastName())) {
+      ScanMetrics.recordDuplicateCheck("PersonService", "saveNewPerson", ScanMetrics.PERSON, ScanMetrics.NEGATIVE);
+      return dataRepository.addPerson(mapDtoToPerson(dto));
+    }
     if (!personExists(dto)) {
+      ScanMetrics.recordDuplicateCheck("PersonService", "saveNewPerson", ScanMetrics.PERSON,
+          ScanMetrics.FALSE_POSITIVE);
       Person person = mapDtoToPerson(dto);
       return dataRepository.addPerson(person);
     } else {
+      ScanMetrics.recordDuplicateCheck("PersonService", "saveNewPerson", ScanMetrics.PERSON, ScanMetrics.DUPLICATE);
       log.error("Person already exists");
       return false;
     }
@@ -136,16 +115,17 @@ public class PersonService {
   }
 
   /**
-   * Vérifie si une personne existe dans la base selon son prénom et nom.
+   * Vérifie si une personne existe dans la base selon son prénom et nom, par l'index des noms.
    * La comparaison est insensible à la casse.
    *
    * @param dto les informations de la personne à vérifier
    * @return true si la personne existe, false sinon
    */
   private boolean personExists(PersonDTO dto) {
-    return dataRepository.getPersons().stream()
-        .anyMatch(p -> p.getFirstName().equalsIgnoreCase(dto.getFirstName()) &&
-            p.getLastName().equalsIgnoreCase(dto.getLastName()));
+    List<Person> persons = dataRepository.findPersons(NameKey.of(dto.getFirstName(), dto.getLastName()));
+    ScanMetrics.recordIndexed("PersonService", "personExists", ScanMetrics.PERSON, persons.size());
+
+    return !persons.isEmpty();
   }
 
   /**
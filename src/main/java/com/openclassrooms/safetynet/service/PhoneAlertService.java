@@ -2,6 +2,7 @@ package com.openclassrooms.safetynet.service;
 
 import com.openclassrooms.safetynet.dto.PhoneAlertResponseDTO;
 import com.openclassrooms.safetynet.model.Person;
+import com.openclassrooms.safetynet.monitoring.ServiceQueryEvent;
 import java.util.List;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
@@ -24,6 +25,7 @@ public class PhoneAlertService {
    * @return PhoneAlertResponseDTO contenant la liste des numéros de téléphone
    */
   public PhoneAlertResponseDTO findPhoneNumberOfPeopleByFirestation(int stationNumber) {
+    ServiceQueryEvent event = ServiceQueryEvent.start();
     List<Person> persons = firestationService.getPeopleByStation(stationNumber).getPersons();
     log.debug("Retrieved {} people covered by station {}", persons.size(), stationNumber);
 
@@ -33,6 +35,8 @@ public class PhoneAlertService {
         .collect(Collectors.toList());
 
     log.debug("Found {} unique phone numbers for station {}", phoneNumber.size(), stationNumber);
+    ScanMetrics.recordEmitted("PhoneAlertService", "findPhoneNumberOfPeopleByFirestation", phoneNumber.size());
+    event.end("PhoneAlertService", "findPhoneNumberOfPeopleByFirestation", stationNumber, phoneNumber.size());
 
     return new PhoneAlertResponseDTO(phoneNumber);
   }
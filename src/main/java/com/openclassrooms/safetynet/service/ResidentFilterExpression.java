@@ -0,0 +1,167 @@
+package com.openclassrooms.safetynet.service;
+
+import com.openclassrooms.safetynet.repository.ResidentBitmapIndex;
+import com.openclassrooms.safetynet.repository.ResidentBitmapIndex.Dimension;
+import java.util.Locale;
+import java.util.Map;
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * Analyse et évalue une expression de filtre sur l'index bitmap des résidents.
+ *
+ * <pre>
+ * expression := terme (OR terme)*
+ * terme      := facteur (AND facteur)*
+ * facteur    := NOT facteur | '(' expression ')' | critère
+ * critère    := dimension ':' valeur
+ * </pre>
+ *
+ * <p>Dimensions : {@code city}, {@code station}, {@code age} (tranche {@code 0-4}, {@code 5-11},
+ * {@code 12-18}, {@code 19-39}, {@code 40-64}, {@code 65+} ou alias {@code child}, {@code adult},
+ * {@code senior}), {@code address} (ou {@code household}) et {@code flag} ({@code medication},
+ * {@code allergy}). Les mots-clés sont insensibles à la casse ; une valeur contenant des espaces
+ * s'écrit entre guillemets : {@code address:"1509 Culver St"}.</p>
+ */
+class ResidentFilterExpression {
+
+  private static final Map<String, Dimension> DIMENSIONS = Map.of(
+      "city", Dimension.CITY,
+      "station", Dimension.STATION,
+      "age", Dimension.AGE,
+      "address", Dimension.ADDRESS,
+      "household", Dimension.ADDRESS,
+      "flag", Dimension.FLAG);
+
+  private final String expression;
+  private final ResidentBitmapIndex index;
+  private int position;
+
+  private ResidentFilterExpression(String expression, ResidentBitmapIndex index) {
+    this.expression = expression;
+    this.index = index;
+  }
+
+  /**
+   * Évalue une expression de filtre.
+   *
+   * @param expression l'expression
+   * @param index l'index bitmap des résidents
+   * @return le bitmap des ordinaux retenus
+   * @throws IllegalArgumentException si l'expression est invalide
+   */
+  static RoaringBitmap evaluate(String expression, ResidentBitmapIndex index) {
+    if (expression == null || expression.isBlank()) {
+      throw new IllegalArgumentException("Empty filter expression");
+    }
+    ResidentFilterExpression parser = new ResidentFilterExpression(expression, index);
+    RoaringBitmap result = parser.or();
+    parser.skipSpaces();
+    if (parser.position < expression.length()) {
+      throw parser.error("Unexpected '" + expression.charAt(parser.position) + "'");
+    }
+    return result;
+  }
+
+  private RoaringBitmap or() {
+    RoaringBitmap result = and();
+    while (keyword("OR")) {
+      result = RoaringBitmap.or(result, and());
+    }
+    return result;
+  }
+
+  private RoaringBitmap and() {
+    RoaringBitmap result = factor();
+    while (keyword("AND")) {
+      result = RoaringBitmap.and(result, factor());
+    }
+    return result;
+  }
+
+  private RoaringBitmap factor() {
+    if (keyword("NOT")) {
+      return RoaringBitmap.andNot(index.all(), factor());
+    }
+    skipSpaces();
+    if (peek() == '(') {
+      position++;
+      RoaringBitmap result = or();
+      skipSpaces();
+      if (peek() != ')') {
+        throw error("Missing ')'");
+      }
+      position++;
+      return result;
+    }
+    return criterion();
+  }
+
+  private RoaringBitmap criterion() {
+    int start = position;
+    while (position < expression.length() && Character.isLetter(expression.charAt(position))) {
+      position++;
+    }
+    String name = expression.substring(start, position).toLowerCase(Locale.ROOT);
+    Dimension dimension = DIMENSIONS.get(name);
+    if (dimension == null) {
+      position = start;
+      throw error(name.isEmpty() ? "Expected a criterion" : "Unknown dimension '" + name + "'");
+    }
+    if (peek() != ':') {
+      throw error("Expected ':' after '" + name + "'");
+    }
+    position++;
+    String value = value();
+    if (value.isEmpty()) {
+      throw error("Missing value for '" + name + "'");
+    }
+    return index.bitmap(dimension, value);
+  }
+
+  private String value() {
+    if (peek() == '"') {
+      int end = expression.indexOf('"', position + 1);
+      if (end < 0) {
+        throw error("Unterminated quoted value");
+      }
+      String value = expression.substring(position + 1, end);
+      position = end + 1;
+      return value;
+    }
+    int start = position;
+    while (position < expression.length() && !Character.isWhitespace(expression.charAt(position))
+        && expression.charAt(position) != '(' && expression.charAt(position) != ')') {
+      position++;
+    }
+    return expression.substring(start, position);
+  }
+
+  /**
+   * Consomme un mot-clé s'il suit, délimité par un espace ou une parenthèse.
+   */
+  private boolean keyword(String keyword) {
+    skipSpaces();
+    int end = position + keyword.length();
+    if (expression.regionMatches(true, position, keyword, 0, keyword.length())
+        && (end == expression.length() || Character.isWhitespace(expression.charAt(end))
+        || expression.charAt(end) == '(')) {
+      position = end;
+      return true;
+    }
+    return false;
+  }
+
+  private void skipSpaces() {
+    while (position < expression.length() && Character.isWhitespace(expression.charAt(position))) {
+      position++;
+    }
+  }
+
+  private char peek() {
+    return position < expression.length() ? expression.charAt(position) : '\0';
+  }
+
+  private IllegalArgumentException error(String message) {
+    return new IllegalArgumentException(message + " at position " + position + " in filter '" + expression + "'");
+  }
+}
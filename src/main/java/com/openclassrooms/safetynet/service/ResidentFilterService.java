@@ -0,0 +1,72 @@
+package com.openclassrooms.safetynet.service;
+
+import com.openclassrooms.safetynet.dto.FilteredResidentDTO;
+import com.openclassrooms.safetynet.dto.ResidentFilterResponseDTO;
+import com.openclassrooms.safetynet.model.Person;
+import com.openclassrooms.safetynet.monitoring.ServiceQueryEvent;
+import com.openclassrooms.safetynet.repository.DataRepository;
+import com.openclassrooms.safetynet.repository.ResidentBitmapIndex;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service de filtrage combiné des résidents (ville, caserne, tranche d'âge, foyer, indicateurs médicaux).
+ * L'expression est évaluée par opérations ET/OU sur les bitmaps de {@link ResidentBitmapIndex} :
+ * le comptage ne parcourt aucune personne, seuls les résidents retournés sont lus.
+ * L'évaluation et la lecture des résidents se font sur un même état de l'index ({@link ResidentBitmapIndex#read}).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResidentFilterService {
+
+  private static final String SERVICE = "ResidentFilterService";
+
+  private final DataRepository dataRepository;
+
+  /**
+   * Filtre les résidents selon une expression combinant des critères par AND, OR et NOT,
+   * par exemple {@code city:Culver AND station:3 AND (age:0-4 OR flag:allergy)}.
+   *
+   * @param expression l'expression de filtre
+   * @param limit le nombre maximal de résidents retournés
+   * @return ResidentFilterResponseDTO contenant le nombre total de résidents retenus et les premiers d'entre eux
+   * @throws IllegalArgumentException si l'expression est invalide
+   */
+  public ResidentFilterResponseDTO filterResidents(String expression, int limit) {
+    ServiceQueryEvent event = ServiceQueryEvent.start();
+    ResidentFilterResponseDTO response = dataRepository.getResidentIndex().read(index -> {
+      RoaringBitmap matches = ResidentFilterExpression.evaluate(expression, index);
+      long count = matches.getLongCardinality();
+      List<FilteredResidentDTO> residents = new ArrayList<>(Math.min(limit, (int) Math.min(count, Integer.MAX_VALUE)));
+      IntIterator ordinals = matches.getIntIterator();
+      while (ordinals.hasNext() && residents.size() < limit) {
+        Person person = index.resident(ordinals.next());
+        if (person != null) {
+          residents.add(new FilteredResidentDTO(
+              person.getFirstName(),
+              person.getLastName(),
+              person.getAddress(),
+              person.getCity(),
+              index.stationOf(person.getAddress()),
+              person.getPhone(),
+              person.getAge()
+          ));
+        }
+      }
+      return new ResidentFilterResponseDTO(count, residents);
+    });
+    long count = response.getCount();
+    List<FilteredResidentDTO> residents = response.getResidents();
+    ScanMetrics.recordIndexed(SERVICE, "filterResidents", ScanMetrics.PERSON, count);
+    ScanMetrics.recordEmitted(SERVICE, "filterResidents", residents.size());
+    log.debug("Filter '{}' matched {} residents", expression, count);
+    event.end(SERVICE, "filterResidents", expression, residents.size());
+    return response;
+  }
+}
@@ -0,0 +1,86 @@
+package com.openclassrooms.safetynet.service;
+
+import com.openclassrooms.safetynet.monitoring.QueryExplain;
+import com.openclassrooms.safetynet.monitoring.QueryExplain.AccessPath;
+import com.openclassrooms.safetynet.monitoring.ServiceQueryEvent;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Compteurs du nombre d'enregistrements parcourus et émis par les méthodes des services.
+ * Permet d'identifier les requêtes dont le coût croît linéairement avec le volume de données,
+ * et de les distinguer de celles servies par un index.
+ * Les mêmes valeurs alimentent le relevé {@link QueryExplain} des requêtes appelées avec {@code ?explain=true}
+ * et les événements JFR {@link ServiceQueryEvent}.
+ */
+final class ScanMetrics {
+
+  static final String SCANNED = "safetynet.service.records.scanned";
+  static final String EMITTED = "safetynet.service.records.emitted";
+  static final String INDEXED = "safetynet.service.records.indexed";
+  static final String FILTERED = "safetynet.service.duplicate.checks";
+  static final String PERSON = "person";
+  static final String FIRESTATION = "firestation";
+  static final String MEDICAL_RECORD = "medical_record";
+  /** La clé est absente du filtre de présence : la recherche a été évitée. */
+  static final String NEGATIVE = "negative";
+  /** Le filtre a répondu « peut-être » mais la recherche n'a trouvé aucun doublon. */
+  static final String FALSE_POSITIVE = "false_positive";
+  /** Le filtre a répondu « peut-être » et la recherche a trouvé un doublon. */
+  static final String DUPLICATE = "duplicate";
+
+  private ScanMetrics() {
+  }
+
+  /**
+   * Ajoute le nombre d'enregistrements parcourus intégralement par un appel de service.
+   *
+   * @param service le nom du service
+   * @param method le nom de la méthode
+   * @param entity le type d'enregistrement parcouru
+   * @param count le nombre d'enregistrements parcourus
+   */
+  static void recordScanned(String service, String method, String entity, long count) {
+    Metrics.counter(SCANNED, "service", service, "method", method, "entity", entity).increment(count);
+    QueryExplain.recordAccess(service, method, entity, AccessPath.FULL_SCAN, count);
+    ServiceQueryEvent.addScanned(count);
+  }
+
+  /**
+   * Ajoute le nombre d'entrées lues dans un index par un appel de service.
+   *
+   * @param service le nom du service
+   * @param method le nom de la méthode
+   * @param entity le type d'enregistrement indexé
+   * @param count le nombre d'entrées lues
+   */
+  static void recordIndexed(String service, String method, String entity, long count) {
+    Metrics.counter(INDEXED, "service", service, "method", method, "entity", entity).increment(count);
+    QueryExplain.recordAccess(service, method, entity, AccessPath.INDEX, count);
+  }
+
+  /**
+   * Ajoute le nombre de résultats retournés par un appel de service.
+   *
+   * @param service le nom du service
+   * @param method le nom de la méthode
+   * @param count le nombre de résultats émis
+   */
+  static void recordEmitted(String service, String method, long count) {
+    Metrics.counter(EMITTED, "service", service, "method", method).increment(count);
+    QueryExplain.recordEmitted(count);
+  }
+
+  /**
+   * Compte l'issue d'un contrôle de doublon passé par un filtre de présence. Le taux de faux positifs
+   * observé vaut {@code false_positive / (false_positive + negative)}.
+   *
+   * @param service le nom du service
+   * @param method le nom de la méthode
+   * @param entity le type d'enregistrement contrôlé
+   * @param outcome {@link #NEGATIVE}, {@link #FALSE_POSITIVE} ou {@link #DUPLICATE}
+   */
+  static void recordDuplicateCheck(String service, String method, String entity, String outcome) {
+    Metrics.counter(FILTERED, "service", service, "method", method, "entity", entity, "outcome", outcome)
+        .increment();
+  }
+}
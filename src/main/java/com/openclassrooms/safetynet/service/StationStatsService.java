@@ -0,0 +1,63 @@
+package com.openclassrooms.safetynet.service;
+
+import com.openclassrooms.safetynet.dto.StationStatsDTO;
+import com.openclassrooms.safetynet.monitoring.ServiceQueryEvent;
+import com.openclassrooms.safetynet.repository.DataRepository;
+import com.openclassrooms.safetynet.repository.ResidentBitmapIndex.AgeBand;
+import com.openclassrooms.safetynet.repository.StationStatsIndex;
+import com.openclassrooms.safetynet.repository.StationStatsIndex.Counters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service des statistiques démographiques par caserne, destiné aux tableaux de bord de planification.
+ * Les valeurs sont lues dans les compteurs du {@link StationStatsIndex}, tenus à jour à chaque
+ * modification : une consultation ne parcourt ni les personnes ni les dossiers médicaux.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StationStatsService {
+
+  private static final String SERVICE = "StationStatsService";
+
+  private final DataRepository dataRepository;
+
+  /**
+   * Retourne les statistiques des casernes demandées, ou de toutes les casernes qui desservent
+   * au moins un foyer habité.
+   *
+   * @param stationNumbers les numéros de caserne, ou null ou vide pour toutes les casernes
+   * @return List<StationStatsDTO> contenant, par caserne, les foyers, résidents, adultes et enfants,
+   *     la répartition par tranche d'âge et le nombre de résidents avec médicaments ou allergies
+   */
+  public List<StationStatsDTO> findStationStats(List<Integer> stationNumbers) {
+    ServiceQueryEvent event = ServiceQueryEvent.start();
+    StationStatsIndex index = dataRepository.getStationStatsIndex();
+    List<StationStatsDTO> stats = new ArrayList<>();
+    if (stationNumbers == null || stationNumbers.isEmpty()) {
+      index.all().forEach((station, counters) -> stats.add(toDto(station, counters)));
+    } else {
+      stationNumbers.stream().distinct().forEach(station -> stats.add(toDto(station, index.find(station))));
+    }
+    ScanMetrics.recordIndexed(SERVICE, "findStationStats", ScanMetrics.FIRESTATION, stats.size());
+    ScanMetrics.recordEmitted(SERVICE, "findStationStats", stats.size());
+    log.debug("Found statistics for {} stations", stats.size());
+    event.end(SERVICE, "findStationStats", stationNumbers, stats.size());
+    return stats;
+  }
+
+  private static StationStatsDTO toDto(int stationNumber, Counters counters) {
+    Map<String, Long> histogram = new LinkedHashMap<>();
+    for (AgeBand band : AgeBand.values()) {
+      histogram.put(band.getLabel(), counters.residentsIn(band));
+    }
+    return new StationStatsDTO(stationNumber, counters.households(), counters.residents(), counters.adults(),
+        counters.children(), histogram, counters.withMedications(), counters.withAllergies());
+  }
+}
@@ -0,0 +1,160 @@
+package com.openclassrooms.safetynet.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.safetynet.controller.CommunityEmailController;
+import com.openclassrooms.safetynet.controller.FloodController;
+import com.openclassrooms.safetynet.controller.PersonController;
+import com.openclassrooms.safetynet.dto.CommunityEmailDTO;
+import com.openclassrooms.safetynet.dto.PersonDTO;
+import com.openclassrooms.safetynet.service.CommunityEmailService;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.method.HandlerMethod;
+
+public class AdmissionControlInterceptorTest {
+
+  private AdmissionControlInterceptor interceptor;
+
+  @BeforeEach
+  void setUp() {
+    interceptor = new AdmissionControlInterceptor(2, 0, 2, 1, 1);
+  }
+
+  @Test
+  void resolvePriority_shouldUseControllerAnnotation() throws Exception {
+    // given
+    HandlerMethod handler = new HandlerMethod(new FloodController(null),
+        FloodController.class.getMethod("getFloodStations", List.class));
+
+    // when
+    PriorityClass result = interceptor.resolvePriority(new MockHttpServletRequest("GET", "/flood/stations"), handler);
+
+    // then
+    assertThat(result).isEqualTo(PriorityClass.EMERGENCY);
+  }
+
+  @Test
+  void resolvePriority_shouldFallBackToHttpMethod() throws Exception {
+    // given
+    HandlerMethod handler = new HandlerMethod(new PersonController(null, null),
+        PersonController.class.getMethod("createNewPerson", PersonDTO.class));
+
+    // when
+    PriorityClass result = interceptor.resolvePriority(new MockHttpServletRequest("POST", "/person"), handler);
+
+    // then
+    assertThat(result).isEqualTo(PriorityClass.BULK);
+  }
+
+  @Test
+  void preHandle_shouldRejectWhenClassIsFull() throws Exception {
+    // given
+    MockHttpServletRequest first = new MockHttpServletRequest("DELETE", "/person");
+    MockHttpServletRequest second = new MockHttpServletRequest("DELETE", "/person");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    // when
+    boolean firstAdmitted = interceptor.preHandle(first, new MockHttpServletResponse(), new Object());
+    boolean secondAdmitted = interceptor.preHandle(second, response, new Object());
+
+    // then
+    assertThat(firstAdmitted).isTrue();
+    assertThat(secondAdmitted).isFalse();
+    assertThat(response.getStatus()).isEqualTo(503);
+  }
+
+  @Test
+  void preHandle_shouldRejectStandardRequestWithoutWaiting() throws Exception {
+    // given
+    interceptor = new AdmissionControlInterceptor(1, 10_000, 1, 1, 1);
+    interceptor.preHandle(new MockHttpServletRequest("GET", "/person"), new MockHttpServletResponse(), new Object());
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    // when
+    long start = System.nanoTime();
+    boolean admitted = interceptor.preHandle(new MockHttpServletRequest("GET", "/person"), response, new Object());
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+    // then
+    assertThat(admitted).isFalse();
+    assertThat(response.getStatus()).isEqualTo(503);
+    assertThat(elapsedMillis).isLessThan(1_000);
+  }
+
+  @Test
+  void preHandle_shouldShedBulkWritesUnderEmergencyLoad() throws Exception {
+    // given
+    HandlerMethod emergencyHandler = new HandlerMethod(new FloodController(null),
+        FloodController.class.getMethod("getFloodStations", List.class));
+    interceptor.preHandle(new MockHttpServletRequest("GET", "/flood/stations"),
+        new MockHttpServletResponse(), emergencyHandler);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    // when
+    boolean admitted = interceptor.preHandle(new MockHttpServletRequest("POST", "/person"), response, new Object());
+
+    // then
+    assertThat(admitted).isFalse();
+    assertThat(response.getStatus()).isEqualTo(503);
+  }
+
+  @Test
+  void afterCompletion_shouldReleasePermit() throws Exception {
+    // given
+    MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/person");
+    interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+
+    // when
+    interceptor.afterCompletion(request, new MockHttpServletResponse(), new Object(), null);
+    boolean admitted = interceptor.preHandle(new MockHttpServletRequest("PUT", "/person"),
+        new MockHttpServletResponse(), new Object());
+
+    // then
+    assertThat(admitted).isTrue();
+  }
+
+  @Test
+  void streamedRequest_shouldHoldOnePermitUntilAsyncDispatchCompletes() throws Exception {
+    // given
+    CommunityEmailService communityEmailService = mock(CommunityEmailService.class);
+    when(communityEmailService.streamEmailByCity("Culver"))
+        .thenAnswer(invocation -> Stream.of(new CommunityEmailDTO("jaboyd@email.com")));
+    MockMvc mockMvc = MockMvcBuilders
+        .standaloneSetup(new CommunityEmailController(communityEmailService, new ObjectMapper()))
+        .addInterceptors(interceptor)
+        .build();
+    int initialPermits = interceptor.availablePermits(PriorityClass.STANDARD);
+
+    // when
+    for (int i = 0; i < 3; i++) {
+      MvcResult result = mockMvc.perform(get("/communityEmail").param("city", "Culver")
+              .accept(MediaType.APPLICATION_NDJSON))
+          .andExpect(request().asyncStarted())
+          .andReturn();
+      assertThat(interceptor.availablePermits(PriorityClass.STANDARD)).isEqualTo(initialPermits - 1);
+      mockMvc.perform(asyncDispatch(result))
+          .andExpect(status().isOk())
+          .andExpect(content().string("{\"email\":\"jaboyd@email.com\"}\n"));
+    }
+
+    // then
+    assertThat(interceptor.availablePermits(PriorityClass.STANDARD)).isEqualTo(initialPermits);
+  }
+}
@@ -0,0 +1,30 @@
+package com.openclassrooms.safetynet.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.openclassrooms.safetynet.controller.reactive.ReactiveAlertController;
+import java.util.Collection;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.bind.annotation.RestController;
+
+@SpringBootTest
+@ActiveProfiles("reactive")
+public class ReactiveConfigTest {
+
+  @Autowired
+  private ApplicationContext context;
+
+  @Test
+  void reactiveProfile_shouldOnlyRegisterReactiveControllers() {
+    // when
+    Collection<Object> controllers = context.getBeansWithAnnotation(RestController.class).values();
+
+    // then
+    assertThat(controllers).isNotEmpty().allSatisfy(controller ->
+        assertThat(controller.getClass().getPackageName()).isEqualTo(ReactiveAlertController.class.getPackageName()));
+  }
+}
@@ -0,0 +1,44 @@
+package com.openclassrooms.safetynet.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.openclassrooms.safetynet.dto.AddressCompletionDTO;
+import com.openclassrooms.safetynet.service.AddressAutocompleteService;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(AddressController.class)
+public class AddressControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private AddressAutocompleteService addressAutocompleteService;
+
+  @Test
+  void completeAddress_shouldReturnCompletionsWithStation() throws Exception {
+    // when
+    when(addressAutocompleteService.completeAddress("1509 culver", 10))
+        .thenReturn(List.of(new AddressCompletionDTO("1509 Culver St", 3, 5)));
+
+    // then
+    mockMvc.perform(get("/address/autocomplete").param("q", "1509 culver"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].address").value("1509 Culver St"))
+        .andExpect(jsonPath("$[0].stationNumber").value(3));
+  }
+
+  @Test
+  void completeAddress_whenQueryMissing_shouldReturnBadRequest() throws Exception {
+    mockMvc.perform(get("/address/autocomplete"))
+        .andExpect(status().isBadRequest());
+  }
+}
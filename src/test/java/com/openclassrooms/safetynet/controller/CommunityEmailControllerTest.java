@@ -0,0 +1,64 @@
+package com.openclassrooms.safetynet.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.openclassrooms.safetynet.dto.CommunityEmailDTO;
+import com.openclassrooms.safetynet.service.CommunityEmailService;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@WebMvcTest(CommunityEmailController.class)
+public class CommunityEmailControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private CommunityEmailService communityEmailService;
+
+  @Test
+  void findCommunityEmail_shouldReturnJsonList() throws Exception {
+    // when
+    when(communityEmailService.findEmailByCity("Culver")).thenReturn(List.of(
+        new CommunityEmailDTO("jaboyd@email.com"),
+        new CommunityEmailDTO("drk@email.com")));
+
+    // then
+    mockMvc.perform(get("/communityEmail").param("city", "Culver"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[1].email").value("drk@email.com"));
+  }
+
+  @Test
+  void streamCommunityEmail_shouldWriteOneEmailPerLine() throws Exception {
+    // given
+    when(communityEmailService.streamEmailByCity("Culver")).thenReturn(Stream.of(
+        new CommunityEmailDTO("jaboyd@email.com"),
+        new CommunityEmailDTO("drk@email.com")));
+
+    // when
+    MvcResult result = mockMvc.perform(get("/communityEmail").param("city", "Culver")
+            .accept(MediaType.APPLICATION_NDJSON))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    // then
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().string("{\"email\":\"jaboyd@email.com\"}\n{\"email\":\"drk@email.com\"}\n"));
+  }
+}
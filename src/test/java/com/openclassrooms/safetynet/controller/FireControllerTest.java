@@ -1,7 +1,9 @@
 package com.openclassrooms.safetynet.controller;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -80,4 +82,61 @@ public class FireControllerTest {
         .andExpect(jsonPath("$.residents").isArray())
         .andExpect(jsonPath("$.residents.length()").value(0));
   }
+
+  @Test
+  void getFireInfoByAddress_whenTimingRequested_shouldReturnServerTimingHeader() throws Exception {
+    // given
+    String inputAddress = "1509 Culver St";
+    FireResponseDTO dto = new FireResponseDTO(2, List.of());
+
+    // when
+    when(firestationService.getStationNumberByAddress(inputAddress)).thenReturn(2);
+    when(fireService.findResidentsByAddress(inputAddress)).thenReturn(dto);
+
+    // then
+    mockMvc.perform(get("/fire")
+            .param("address", inputAddress)
+            .header("X-Server-Timing", "true"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Server-Timing", containsString("resolve;dur=")))
+        .andExpect(header().string("Server-Timing", containsString("serialize;dur=")))
+        .andExpect(header().string("Server-Timing", containsString("total;dur=")))
+        .andExpect(jsonPath("$.stationNumber").value(2));
+  }
+
+  @Test
+  void getFireInfoByAddress_whenTimingNotRequested_shouldNotReturnServerTimingHeader() throws Exception {
+    // given
+    String inputAddress = "1509 Culver St";
+    FireResponseDTO dto = new FireResponseDTO(2, List.of());
+
+    // when
+    when(firestationService.getStationNumberByAddress(inputAddress)).thenReturn(2);
+    when(fireService.findResidentsByAddress(inputAddress)).thenReturn(dto);
+
+    // then
+    mockMvc.perform(get("/fire").param("address", inputAddress))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist("Server-Timing"));
+  }
+
+  @Test
+  void getFireInfoByAddress_whenExplainRequested_shouldReturnResultWithPlan() throws Exception {
+    // given
+    String inputAddress = "1509 Culver St";
+    FireResponseDTO dto = new FireResponseDTO(2, List.of());
+
+    // when
+    when(firestationService.getStationNumberByAddress(inputAddress)).thenReturn(2);
+    when(fireService.findResidentsByAddress(inputAddress)).thenReturn(dto);
+
+    // then
+    mockMvc.perform(get("/fire")
+            .param("address", inputAddress)
+            .param("explain", "true"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.result.stationNumber").value(2))
+        .andExpect(jsonPath("$.explain.accessPaths").isArray())
+        .andExpect(jsonPath("$.explain.emitted").value(0));
+  }
 }
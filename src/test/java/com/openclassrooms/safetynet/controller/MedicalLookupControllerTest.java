@@ -0,0 +1,51 @@
+package com.openclassrooms.safetynet.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.openclassrooms.safetynet.dto.MedicalLookupResponseDTO;
+import com.openclassrooms.safetynet.service.MedicalLookupService;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(MedicalLookupController.class)
+public class MedicalLookupControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private MedicalLookupService medicalLookupService;
+
+  @Test
+  void getResidentsByMedication_shouldPassStationsFilter() throws Exception {
+    // given
+    MedicalLookupResponseDTO resident = new MedicalLookupResponseDTO("John", "Boyd", "1509 Culver St", 3,
+        "841-874-6512", 41, List.of("aznol:350mg"), List.of());
+
+    // when
+    when(medicalLookupService.findResidentsByMedication("aznol", List.of(1, 2, 3), null))
+        .thenReturn(List.of(resident));
+
+    // then
+    mockMvc.perform(get("/medication")
+            .param("name", "aznol")
+            .param("stations", "1,2,3"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].stationNumber").value(3))
+        .andExpect(jsonPath("$[0].medications[0]").value("aznol:350mg"));
+  }
+
+  @Test
+  void getResidentsByAllergy_whenNameMissing_shouldReturnBadRequest() throws Exception {
+    mockMvc.perform(get("/allergy"))
+        .andExpect(status().isBadRequest());
+  }
+}
@@ -2,15 +2,20 @@ package com.openclassrooms.safetynet.controller;
 
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.google.gson.Gson;
 import com.openclassrooms.safetynet.dto.PersonDTO;
+import com.openclassrooms.safetynet.dto.PersonInfoResponseDTO;
+import com.openclassrooms.safetynet.repository.NameSearchIndex;
 import com.openclassrooms.safetynet.service.PersonInfoService;
 import com.openclassrooms.safetynet.service.PersonService;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -156,4 +161,40 @@ public class PersonControllerTest {
         .andExpect(status().isConflict())
         .andExpect(content().string("Delete person failed"));
   }
+
+  @Test
+  void getPersonInfoByLastName_whenFuzzy_shouldSearchIndex() throws Exception {
+    // given
+    PersonInfoResponseDTO boyd = new PersonInfoResponseDTO("Boyd", "1509 Culver St", 41, "jaboyd@email.com",
+        List.of(), List.of());
+
+    // when
+    when(personInfoService.searchPersonsInfo("Byod", null, NameSearchIndex.Mode.FUZZY, 10))
+        .thenReturn(List.of(boyd));
+
+    // then
+    mockMvc.perform(get("/personInfolastName")
+            .param("lastName", "Byod")
+            .param("match", "fuzzy")
+            .param("limit", "10"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].lastName").value("Boyd"));
+  }
+
+  @Test
+  void getPersonInfoByLastName_whenModeUnknown_shouldReturnBadRequest() throws Exception {
+    mockMvc.perform(get("/personInfolastName")
+            .param("lastName", "Boyd")
+            .param("match", "phonetic"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void getPersonInfoByLastName_whenLimitNotPositive_shouldReturnBadRequest() throws Exception {
+    mockMvc.perform(get("/personInfolastName")
+            .param("lastName", "Boyd")
+            .param("match", "prefix")
+            .param("limit", "0"))
+        .andExpect(status().isBadRequest());
+  }
 }
@@ -0,0 +1,56 @@
+package com.openclassrooms.safetynet.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.openclassrooms.safetynet.dto.FilteredResidentDTO;
+import com.openclassrooms.safetynet.dto.ResidentFilterResponseDTO;
+import com.openclassrooms.safetynet.service.ResidentFilterService;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(ResidentFilterController.class)
+public class ResidentFilterControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private ResidentFilterService residentFilterService;
+
+  @Test
+  void filterResidents_shouldReturnCountAndResidents() throws Exception {
+    // given
+    FilteredResidentDTO resident = new FilteredResidentDTO("Roger", "Boyd", "1509 Culver St", "Culver", 3,
+        "841-874-6512", 3);
+
+    // when
+    when(residentFilterService.filterResidents("city:Culver AND age:0-4", 1000))
+        .thenReturn(new ResidentFilterResponseDTO(1, List.of(resident)));
+
+    // then
+    mockMvc.perform(get("/residents/filter").param("q", "city:Culver AND age:0-4"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.count").value(1))
+        .andExpect(jsonPath("$.residents[0].firstName").value("Roger"));
+  }
+
+  @Test
+  void filterResidents_whenExpressionInvalid_shouldReturnBadRequest() throws Exception {
+    // when
+    when(residentFilterService.filterResidents("zip:97451", 1000))
+        .thenThrow(new IllegalArgumentException("Unknown dimension 'zip'"));
+
+    // then
+    mockMvc.perform(get("/residents/filter").param("q", "zip:97451"))
+        .andExpect(status().isBadRequest())
+        .andExpect(content().string("Unknown dimension 'zip'"));
+  }
+}
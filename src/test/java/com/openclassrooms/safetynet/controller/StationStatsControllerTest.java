@@ -0,0 +1,41 @@
+package com.openclassrooms.safetynet.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.openclassrooms.safetynet.dto.StationStatsDTO;
+import com.openclassrooms.safetynet.service.StationStatsService;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(StationStatsController.class)
+public class StationStatsControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private StationStatsService stationStatsService;
+
+  @Test
+  void getStationStats_shouldReturnCountersOfRequestedStations() throws Exception {
+    // when
+    when(stationStatsService.findStationStats(List.of(3)))
+        .thenReturn(List.of(new StationStatsDTO(3, 4, 11, 8, 3, Map.of("5-11", 2L), 6, 5)));
+
+    // then
+    mockMvc.perform(get("/stats/stations").param("stations", "3"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].stationNumber").value(3))
+        .andExpect(jsonPath("$[0].households").value(4))
+        .andExpect(jsonPath("$[0].children").value(3))
+        .andExpect(jsonPath("$[0].ageHistogram['5-11']").value(2));
+  }
+}
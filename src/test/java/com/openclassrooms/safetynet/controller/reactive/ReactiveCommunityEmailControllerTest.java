@@ -0,0 +1,47 @@
+package com.openclassrooms.safetynet.controller.reactive;
+
+import static org.mockito.Mockito.when;
+
+import com.openclassrooms.safetynet.dto.CommunityEmailDTO;
+import com.openclassrooms.safetynet.service.CommunityEmailService;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveCommunityEmailControllerTest {
+
+  @Mock
+  private CommunityEmailService communityEmailService;
+
+  private WebTestClient webTestClient;
+
+  @BeforeEach
+  void setUp() {
+    webTestClient = WebTestClient.bindToController(new ReactiveCommunityEmailController(communityEmailService)).build();
+  }
+
+  @Test
+  void findCommunityEmail_shouldStreamEmails() {
+    // given
+    when(communityEmailService.streamEmailByCity("Culver")).thenReturn(Stream.of(
+        new CommunityEmailDTO("jaboyd@email.com"),
+        new CommunityEmailDTO("drk@email.com")
+    ));
+
+    // then
+    webTestClient.get().uri("/communityEmail?city=Culver")
+        .accept(MediaType.APPLICATION_JSON)
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.length()").isEqualTo(2)
+        .jsonPath("$[0].email").isEqualTo("jaboyd@email.com")
+        .jsonPath("$[1].email").isEqualTo("drk@email.com");
+  }
+}
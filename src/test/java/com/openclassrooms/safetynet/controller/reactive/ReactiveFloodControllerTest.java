@@ -0,0 +1,68 @@
+package com.openclassrooms.safetynet.controller.reactive;
+
+import static org.mockito.Mockito.when;
+
+import com.openclassrooms.safetynet.dto.FloodResponseDTO;
+import com.openclassrooms.safetynet.dto.ResidentDTO;
+import com.openclassrooms.safetynet.service.FloodService;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveFloodControllerTest {
+
+  @Mock
+  private FloodService floodService;
+
+  private WebTestClient webTestClient;
+
+  @BeforeEach
+  void setUp() {
+    webTestClient = WebTestClient.bindToController(new ReactiveFloodController(floodService)).build();
+  }
+
+  @Test
+  void getFloodStations_shouldStreamHouseholdsAsJsonArray() {
+    // given
+    when(floodService.streamHouseholdsByStationNumbers(List.of(1, 2))).thenReturn(Stream.of(
+        new FloodResponseDTO(1, "644 Gershwin Cir", List.of(new ResidentDTO("Peter", "Duncan", null, 24, List.of(), List.of()))),
+        new FloodResponseDTO(2, "29 15th St", List.of())
+    ));
+
+    // then
+    webTestClient.get().uri("/flood/stations?stations=1,2")
+        .accept(MediaType.APPLICATION_JSON)
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.length()").isEqualTo(2)
+        .jsonPath("$[0].address").isEqualTo("644 Gershwin Cir")
+        .jsonPath("$[0].residents[0].firstName").isEqualTo("Peter")
+        .jsonPath("$[1].stationNumber").isEqualTo(2);
+  }
+
+  @Test
+  void getFloodStations_shouldStreamHouseholdsAsNdjson() {
+    // given
+    when(floodService.streamHouseholdsByStationNumbers(List.of(3))).thenReturn(Stream.of(
+        new FloodResponseDTO(3, "1509 Culver St", List.of()),
+        new FloodResponseDTO(3, "834 Binoc Ave", List.of())
+    ));
+
+    // then
+    webTestClient.get().uri("/flood/stations?stations=3")
+        .accept(MediaType.APPLICATION_NDJSON)
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+        .expectBodyList(FloodResponseDTO.class)
+        .hasSize(2);
+  }
+}
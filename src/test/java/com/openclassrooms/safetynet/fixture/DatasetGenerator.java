@@ -0,0 +1,297 @@
+package com.openclassrooms.safetynet.fixture;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import com.openclassrooms.safetynet.dto.DataWrapper;
+import com.openclassrooms.safetynet.model.Firestation;
+import com.openclassrooms.safetynet.model.MedicalRecord;
+import com.openclassrooms.safetynet.model.Person;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import lombok.Data;
+
+/**
+ * Générateur de fichiers Data.json synthétiques pour les tests de charge et de montée en volume.
+ * Le fichier respecte exactement le schéma de {@link DataWrapper}, clé {@code medicalrecords} comprise.
+ *
+ * <p>Chaque résident est entièrement déterminé par son index et la graine : le fichier est écrit en flux,
+ * personnes puis casernes puis dossiers médicaux, sans jamais conserver les données en mémoire,
+ * ce qui permet de produire des fichiers de plusieurs millions de résidents.</p>
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.openclassrooms.safetynet.fixture.DatasetGenerator \
+ *   -Dexec.args="--residents=10000000 --stations=500 --cities=40 --output=target/data-10m.json"
+ * </pre>
+ */
+public class DatasetGenerator {
+
+  private static final DateTimeFormatter BIRTHDATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+  private static final String[] FIRST_NAMES = {"John", "Jacob", "Tenley", "Roger", "Felicia", "Jonanathan",
+      "Tessa", "Peter", "Foster", "Tony", "Lily", "Sophia", "Warren", "Zach", "Reginold", "Jamie", "Ron",
+      "Allison", "Brian", "Shawna", "Kendrik", "Clive", "Eric"};
+  private static final String[] LAST_NAMES = {"Boyd", "Carman", "Cooper", "Peters", "Stelzer", "Walker",
+      "Shepard", "Marrack", "Duncan", "Ferguson", "Zemicks", "Cadigan", "Larsen", "Hanley", "Quinn"};
+  private static final String[] STREETS = {"Culver St", "Buckminster Dr", "Binoc Ave", "Gershwin St",
+      "Wall St", "Bradley Dr", "Ash St", "Harbor Rd", "Forest Ave", "Lake Blvd"};
+  private static final String[] CITIES = {"Culver", "Springfield", "Riverside", "Fairview", "Madison",
+      "Georgetown", "Clinton", "Arlington", "Salem", "Franklin"};
+
+  /**
+   * Paramètres du jeu de données. Les proportions d'enfants et de seniors définissent la distribution
+   * des âges : enfants de 0 à 18 ans, adultes de 19 à 64 ans, seniors de 65 à 99 ans.
+   */
+  @Data
+  public static class Options {
+    private int residents = 1000;
+    private int residentsPerHousehold = 4;
+    private int householdsPerAddress = 1;
+    private int stations = 10;
+    private int cities = 5;
+    private double childRatio = 0.22;
+    private double seniorRatio = 0.17;
+    private List<String> medications = List.of("aznol:350mg", "hydrapermazol:100mg", "pharmacol:5000mg",
+        "terazine:10mg", "noznazol:250mg", "tetracyclaz:650mg", "thradox:700mg", "dodoxadin:30mg");
+    private List<String> allergies = List.of("nillacilan", "peanut", "shellfish", "xilliathal");
+    private int maxMedications = 3;
+    private int maxAllergies = 2;
+    private long seed = 42;
+  }
+
+  private final Options options;
+  private final LocalDate today = LocalDate.now();
+
+  public DatasetGenerator(Options options) {
+    this.options = options;
+  }
+
+  /**
+   * Écrit le jeu de données en flux dans un fichier au format Data.json.
+   *
+   * @param file le fichier à écrire
+   * @throws IOException en cas d'erreur d'écriture
+   */
+  public void write(Path file) throws IOException {
+    Gson gson = new Gson();
+    try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        JsonWriter writer = new JsonWriter(out)) {
+      writer.setIndent("  ");
+      writer.beginObject();
+
+      writer.name("persons").beginArray();
+      for (int i = 0; i < options.getResidents(); i++) {
+        gson.toJson(person(i), Person.class, writer);
+      }
+      writer.endArray();
+
+      writer.name("firestations").beginArray();
+      for (int a = 0; a < getAddressCount(); a++) {
+        gson.toJson(firestation(a), Firestation.class, writer);
+      }
+      writer.endArray();
+
+      writer.name("medicalrecords").beginArray();
+      for (int i = 0; i < options.getResidents(); i++) {
+        gson.toJson(medicalRecord(i), MedicalRecord.class, writer);
+      }
+      writer.endArray();
+
+      writer.endObject();
+    }
+  }
+
+  /**
+   * Construit le jeu de données en mémoire, pour les volumes compatibles avec le tas.
+   *
+   * @return DataWrapper contenant les personnes, casernes et dossiers médicaux
+   */
+  public DataWrapper generate() {
+    List<Person> persons = new ArrayList<>(options.getResidents());
+    List<MedicalRecord> medicalRecords = new ArrayList<>(options.getResidents());
+    for (int i = 0; i < options.getResidents(); i++) {
+      persons.add(person(i));
+      medicalRecords.add(medicalRecord(i));
+    }
+    List<Firestation> firestations = new ArrayList<>(getAddressCount());
+    for (int a = 0; a < getAddressCount(); a++) {
+      firestations.add(firestation(a));
+    }
+
+    DataWrapper data = new DataWrapper();
+    data.setPersons(persons);
+    data.setFirestations(firestations);
+    data.setMedicalRecords(medicalRecords);
+    return data;
+  }
+
+  /**
+   * Résident d'index donné, avec son âge déjà calculé.
+   *
+   * @param index l'index du résident
+   * @return la personne
+   */
+  public Person person(int index) {
+    int household = index / options.getResidentsPerHousehold();
+    int address = household / options.getHouseholdsPerAddress();
+    String firstName = firstName(index);
+    String lastName = lastName(household);
+    return new Person(firstName, lastName, address(address), city(address), zip(address),
+        String.format(Locale.ROOT, "841-%03d-%04d", household / 10_000 % 1000, household % 10_000),
+        (firstName + "." + lastName).toLowerCase(Locale.ROOT) + "@email.com",
+        age(index));
+  }
+
+  /**
+   * Dossier médical du résident d'index donné.
+   *
+   * @param index l'index du résident
+   * @return le dossier médical
+   */
+  public MedicalRecord medicalRecord(int index) {
+    SplittableRandom random = random(index, 1);
+    LocalDate birthdate = today.minusYears(age(index)).minusDays(1 + random.nextInt(364));
+    return new MedicalRecord(firstName(index), lastName(index / options.getResidentsPerHousehold()),
+        birthdate.format(BIRTHDATE_FORMAT),
+        pick(random, options.getMedications(), options.getMaxMedications()),
+        pick(random, options.getAllergies(), options.getMaxAllergies()));
+  }
+
+  /**
+   * Caserne desservant l'adresse d'index donné. Les adresses sont réparties par blocs contigus
+   * entre les casernes.
+   *
+   * @param address l'index de l'adresse
+   * @return la caserne
+   */
+  public Firestation firestation(int address) {
+    int station = (int) ((long) address * options.getStations() / getAddressCount()) + 1;
+    return new Firestation(address(address), station);
+  }
+
+  public int getHouseholdCount() {
+    return Math.ceilDiv(options.getResidents(), options.getResidentsPerHousehold());
+  }
+
+  public int getAddressCount() {
+    return Math.ceilDiv(getHouseholdCount(), options.getHouseholdsPerAddress());
+  }
+
+  /**
+   * Adresse d'index donné, par exemple {@code 12 Culver St}. Les adresses sont toutes distinctes.
+   *
+   * @param address l'index de l'adresse
+   * @return l'adresse
+   */
+  public String address(int address) {
+    return (address / STREETS.length + 1) + " " + STREETS[address % STREETS.length];
+  }
+
+  /**
+   * Ville de l'adresse d'index donné.
+   *
+   * @param address l'index de l'adresse
+   * @return la ville
+   */
+  public String city(int address) {
+    return indexed(CITIES, address % options.getCities());
+  }
+
+  /**
+   * Nom de famille du foyer d'index donné, distinct pour chaque foyer.
+   *
+   * @param household l'index du foyer
+   * @return le nom de famille
+   */
+  public String lastName(int household) {
+    return indexed(LAST_NAMES, household);
+  }
+
+  private String firstName(int index) {
+    return FIRST_NAMES[(index % options.getResidentsPerHousehold()
+        + index / options.getResidentsPerHousehold()) % FIRST_NAMES.length];
+  }
+
+  private String zip(int address) {
+    return String.valueOf(97451 + address % options.getCities());
+  }
+
+  private int age(int index) {
+    double draw = random(index, 0).nextDouble();
+    SplittableRandom random = random(index, 2);
+    if (draw < options.getChildRatio()) {
+      return random.nextInt(19);
+    } else if (draw < options.getChildRatio() + options.getSeniorRatio()) {
+      return 65 + random.nextInt(35);
+    }
+    return 19 + random.nextInt(46);
+  }
+
+  private SplittableRandom random(int index, int stream) {
+    return new SplittableRandom(options.getSeed() * 31 + index * 4L + stream);
+  }
+
+  private static String indexed(String[] vocabulary, int index) {
+    String name = vocabulary[index % vocabulary.length];
+    int round = index / vocabulary.length;
+    return round == 0 ? name : name + "-" + round;
+  }
+
+  private static List<String> pick(SplittableRandom random, List<String> vocabulary, int max) {
+    int count = vocabulary.isEmpty() ? 0 : random.nextInt(max + 1);
+    List<String> values = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      String value = vocabulary.get(random.nextInt(vocabulary.size()));
+      if (!values.contains(value)) {
+        values.add(value);
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Point d'entrée en ligne de commande. Les options sont passées sous la forme {@code --nom=valeur},
+   * les vocabulaires séparés par des virgules, et {@code --output} désigne le fichier à écrire.
+   *
+   * @param args les options
+   * @throws IOException en cas d'erreur d'écriture
+   */
+  public static void main(String[] args) throws IOException {
+    Options options = new Options();
+    Path output = Path.of("target/Data-generated.json");
+    for (String arg : args) {
+      String[] option = arg.replaceFirst("^--", "").split("=", 2);
+      String value = option.length > 1 ? option[1] : "";
+      switch (option[0]) {
+        case "residents" -> options.setResidents(Integer.parseInt(value));
+        case "residents-per-household" -> options.setResidentsPerHousehold(Integer.parseInt(value));
+        case "households-per-address" -> options.setHouseholdsPerAddress(Integer.parseInt(value));
+        case "stations" -> options.setStations(Integer.parseInt(value));
+        case "cities" -> options.setCities(Integer.parseInt(value));
+        case "child-ratio" -> options.setChildRatio(Double.parseDouble(value));
+        case "senior-ratio" -> options.setSeniorRatio(Double.parseDouble(value));
+        case "medications" -> options.setMedications(List.of(value.split(",")));
+        case "allergies" -> options.setAllergies(List.of(value.split(",")));
+        case "max-medications" -> options.setMaxMedications(Integer.parseInt(value));
+        case "max-allergies" -> options.setMaxAllergies(Integer.parseInt(value));
+        case "seed" -> options.setSeed(Long.parseLong(value));
+        case "output" -> output = Path.of(value);
+        default -> throw new IllegalArgumentException("Unknown option: " + arg);
+      }
+    }
+
+    long start = System.nanoTime();
+    new DatasetGenerator(options).write(output);
+    System.out.printf("Wrote %d residents to %s in %d ms%n", options.getResidents(), output,
+        (System.nanoTime() - start) / 1_000_000);
+  }
+}
@@ -0,0 +1,70 @@
+package com.openclassrooms.safetynet.fixture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.gson.Gson;
+import com.openclassrooms.safetynet.dto.DataWrapper;
+import com.openclassrooms.safetynet.model.MedicalRecord;
+import com.openclassrooms.safetynet.model.Person;
+import com.openclassrooms.safetynet.service.PersonService;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DatasetGeneratorTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void write_shouldProduceDataWrapperFileMatchingInMemoryDataset() throws Exception {
+    // given
+    DatasetGenerator.Options options = new DatasetGenerator.Options();
+    options.setResidents(1000);
+    options.setHouseholdsPerAddress(2);
+    options.setStations(7);
+    DatasetGenerator generator = new DatasetGenerator(options);
+    Path file = tempDir.resolve("Data.json");
+
+    // when
+    generator.write(file);
+    DataWrapper data;
+    try (Reader reader = Files.newBufferedReader(file)) {
+      data = new Gson().fromJson(reader, DataWrapper.class);
+    }
+
+    // then
+    assertThat(Files.readString(file)).contains("\"medicalrecords\"");
+    assertThat(data.getPersons()).hasSize(1000);
+    assertThat(data.getMedicalRecords()).hasSize(1000);
+    assertThat(data.getFirestations()).hasSize(125);
+    assertThat(data.getFirestations()).extracting("station").containsOnly(1, 2, 3, 4, 5, 6, 7);
+    assertThat(data.getPersons()).isEqualTo(generator.generate().getPersons());
+  }
+
+  @Test
+  void generate_shouldGiveEachPersonAMatchingMedicalRecordAndConsistentAge() {
+    // given
+    DatasetGenerator.Options options = new DatasetGenerator.Options();
+    options.setResidents(2000);
+    PersonService personService = new PersonService(null);
+
+    // when
+    DataWrapper data = new DatasetGenerator(options).generate();
+
+    // then
+    assertThat(data.getPersons()).extracting(p -> p.getFirstName() + " " + p.getLastName())
+        .doesNotHaveDuplicates();
+    for (int i = 0; i < data.getPersons().size(); i++) {
+      Person person = data.getPersons().get(i);
+      MedicalRecord record = data.getMedicalRecords().get(i);
+      assertThat(record.getFirstName()).isEqualTo(person.getFirstName());
+      assertThat(record.getLastName()).isEqualTo(person.getLastName());
+      assertThat(personService.calculateAge(record.getBirthdate())).isEqualTo(person.getAge());
+    }
+    long children = data.getPersons().stream().filter(p -> p.getAge() <= 18).count();
+    assertThat(children).isBetween(340L, 540L);
+  }
+}
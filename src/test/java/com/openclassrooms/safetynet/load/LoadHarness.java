@@ -0,0 +1,392 @@
+package com.openclassrooms.safetynet.load;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.openclassrooms.safetynet.fixture.DatasetGenerator;
+import com.openclassrooms.safetynet.model.MedicalRecord;
+import com.openclassrooms.safetynet.model.Person;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import lombok.Data;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Injecteur de charge HTTP en boucle fermée : chaque client virtuel enchaîne des requêtes tirées
+ * selon un mélange pondéré de lectures et d'écritures sur tous les contrôleurs.
+ * Les latences sont enregistrées par opération dans des histogrammes HdrHistogram ;
+ * le rapport donne le débit et les percentiles de chaque opération.
+ *
+ * <p>Les clients sont des threads virtuels, ce qui permet de simuler des milliers de connexions
+ * simultanées pour comparer les modes d'exécution du serveur.</p>
+ */
+public class LoadHarness {
+
+  private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+  /**
+   * Paramètres de la charge. Le mélange associe à chaque opération un poids relatif ;
+   * une opération de poids nul n'est jamais exécutée.
+   */
+  @Data
+  public static class Options {
+    private int clients = 64;
+    private int warmupSeconds = 5;
+    private int durationSeconds = 30;
+    private Map<String, Integer> mix = defaultMix();
+
+    /**
+     * Applique un mélange sous la forme {@code fire:20,flood:10,addPerson:5}.
+     *
+     * @param mix le mélange à appliquer aux opérations citées
+     */
+    public void applyMix(String mix) {
+      for (String entry : mix.split(",")) {
+        String[] weight = entry.trim().split(":");
+        if (!this.mix.containsKey(weight[0])) {
+          throw new IllegalArgumentException("Unknown operation: " + weight[0]);
+        }
+        this.mix.put(weight[0], Integer.parseInt(weight[1]));
+      }
+    }
+
+    private static Map<String, Integer> defaultMix() {
+      Map<String, Integer> mix = new LinkedHashMap<>();
+      mix.put("firestation", 10);
+      mix.put("fire", 20);
+      mix.put("flood", 10);
+      mix.put("childAlert", 10);
+      mix.put("phoneAlert", 10);
+      mix.put("personInfo", 10);
+      mix.put("communityEmail", 2);
+      mix.put("addPerson", 5);
+      mix.put("updatePerson", 5);
+      mix.put("deletePerson", 4);
+      mix.put("updateMedicalRecord", 5);
+      mix.put("addFirestation", 2);
+      mix.put("updateFirestation", 2);
+      mix.put("deleteFirestation", 2);
+      return mix;
+    }
+  }
+
+  /**
+   * Résultat d'une opération sur la période mesurée. Les erreurs regroupent les réponses 5xx
+   * (hors 503) et les échecs d'entrée/sortie ; les 503 du contrôle d'admission sont comptés à part.
+   */
+  @Data
+  public static class OperationReport {
+    private long requests;
+    private long errors;
+    private long shed;
+    private long clientErrors;
+    private double throughput;
+    private double meanMs;
+    private double p50Ms;
+    private double p90Ms;
+    private double p99Ms;
+    private double p999Ms;
+    private double maxMs;
+  }
+
+  /**
+   * Rapport complet d'une exécution, sérialisé en JSON.
+   */
+  @Data
+  public static class Report {
+    private Options options;
+    private int residents;
+    private double durationSeconds;
+    private long requests;
+    private long errors;
+    private double throughput;
+    private Map<String, OperationReport> operations = new LinkedHashMap<>();
+  }
+
+  private record Operation(String name, int weight, Supplier<HttpRequest> request) {
+  }
+
+  private static final class Stats {
+    private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+  }
+
+  private final URI baseUri;
+  private final DatasetGenerator generator;
+  private final int residents;
+  private final int stations;
+  private final int cities;
+  private final Options options;
+  private final Gson gson = new Gson();
+  private final List<Operation> operations = new ArrayList<>();
+  private final int totalWeight;
+  private final AtomicLong sequence = new AtomicLong();
+  private final Queue<Person> addedPersons = new ConcurrentLinkedQueue<>();
+  private final Queue<String> addedAddresses = new ConcurrentLinkedQueue<>();
+
+  public LoadHarness(URI baseUri, DatasetGenerator generator, DatasetGenerator.Options dataset, Options options) {
+    this.baseUri = baseUri;
+    this.generator = generator;
+    this.residents = dataset.getResidents();
+    this.stations = dataset.getStations();
+    this.cities = dataset.getCities();
+    this.options = options;
+
+    register("firestation", () -> get("/firestation?stationNumber=" + randomStation()));
+    register("fire", () -> get("/fire?address=" + encode(generator.address(randomAddress()))));
+    register("flood", () -> get("/flood/stations?stations=" + randomStation() + "," + randomStation()));
+    register("childAlert", () -> get("/childAlert?address=" + encode(generator.address(randomAddress()))));
+    register("phoneAlert", () -> get("/phoneAlert?stationNumber=" + randomStation()));
+    register("personInfo", () -> get("/personInfolastName?lastName="
+        + encode(generator.lastName(random().nextInt(generator.getHouseholdCount())))));
+    register("communityEmail", () -> get("/communityEmail?city=" + encode(generator.city(random().nextInt(cities)))));
+    register("addPerson", this::addPerson);
+    register("updatePerson", this::updatePerson);
+    register("deletePerson", this::deletePerson);
+    register("updateMedicalRecord", this::updateMedicalRecord);
+    register("addFirestation", this::addFirestation);
+    register("updateFirestation", () -> send("PUT", "/firestation?address="
+        + encode(generator.address(randomAddress())) + "&stationNumber=" + randomStation(), null));
+    register("deleteFirestation", this::deleteFirestation);
+    this.totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+  }
+
+  /**
+   * Exécute la phase de chauffe puis la phase mesurée.
+   *
+   * @return le rapport de la phase mesurée
+   * @throws InterruptedException si le thread est interrompu
+   */
+  public Report run() throws InterruptedException {
+    ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+    HttpClient httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(10))
+        .executor(clients)
+        .build();
+    try (clients) {
+      runPhase(httpClient, clients, options.getWarmupSeconds());
+      long start = System.nanoTime();
+      Map<String, Stats> stats = runPhase(httpClient, clients, options.getDurationSeconds());
+      return report(stats, (System.nanoTime() - start) / 1e9);
+    } finally {
+      httpClient.close();
+    }
+  }
+
+  private Map<String, Stats> runPhase(HttpClient httpClient, ExecutorService clients, int seconds)
+      throws InterruptedException {
+    Map<String, Stats> stats = new LinkedHashMap<>();
+    operations.forEach(operation -> stats.put(operation.name(), new Stats()));
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+    List<Future<?>> running = new ArrayList<>();
+    for (int c = 0; c < options.getClients(); c++) {
+      running.add(clients.submit(() -> {
+        while (System.nanoTime() < deadline) {
+          Operation operation = pick();
+          HttpRequest request = operation.request().get();
+          if (request != null) {
+            execute(httpClient, request, stats.get(operation.name()));
+          }
+        }
+      }));
+    }
+    for (Future<?> client : running) {
+      try {
+        client.get();
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("Load client failed", e.getCause());
+      }
+    }
+    return stats;
+  }
+
+  private void execute(HttpClient httpClient, HttpRequest request, Stats stats) {
+    long start = System.nanoTime();
+    try {
+      HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+      stats.latencies.recordValue(Math.min(MAX_LATENCY_MICROS, (System.nanoTime() - start) / 1000));
+      int status = response.statusCode();
+      if (status == 503) {
+        stats.shed.increment();
+      } else if (status >= 500) {
+        stats.errors.increment();
+      } else if (status >= 400) {
+        stats.clientErrors.increment();
+      }
+    } catch (IOException e) {
+      stats.errors.increment();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private Report report(Map<String, Stats> stats, double seconds) {
+    Report report = new Report();
+    report.setOptions(options);
+    report.setResidents(residents);
+    report.setDurationSeconds(seconds);
+    stats.forEach((name, s) -> {
+      Histogram h = s.latencies;
+      OperationReport operation = new OperationReport();
+      operation.setRequests(h.getTotalCount());
+      operation.setErrors(s.errors.sum());
+      operation.setShed(s.shed.sum());
+      operation.setClientErrors(s.clientErrors.sum());
+      operation.setThroughput(h.getTotalCount() / seconds);
+      operation.setMeanMs(h.getMean() / 1000.0);
+      operation.setP50Ms(h.getValueAtPercentile(50) / 1000.0);
+      operation.setP90Ms(h.getValueAtPercentile(90) / 1000.0);
+      operation.setP99Ms(h.getValueAtPercentile(99) / 1000.0);
+      operation.setP999Ms(h.getValueAtPercentile(99.9) / 1000.0);
+      operation.setMaxMs(h.getMaxValue() / 1000.0);
+      report.getOperations().put(name, operation);
+      report.setRequests(report.getRequests() + operation.getRequests());
+      report.setErrors(report.getErrors() + operation.getErrors());
+    });
+    report.setThroughput(report.getRequests() / seconds);
+    return report;
+  }
+
+  /**
+   * Écrit le rapport au format JSON.
+   *
+   * @param report le rapport
+   * @param file le fichier à écrire
+   * @throws IOException en cas d'erreur d'écriture
+   */
+  public static void write(Report report, Path file) throws IOException {
+    Files.createDirectories(file.toAbsolutePath().getParent());
+    try (Writer writer = Files.newBufferedWriter(file)) {
+      new GsonBuilder().setPrettyPrinting().create().toJson(report, writer);
+    }
+  }
+
+  /**
+   * Met en forme le rapport sous forme de tableau lisible.
+   *
+   * @param report le rapport
+   * @return le tableau
+   */
+  public static String format(Report report) {
+    StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+        "%d clients, %d residents, %.1f s: %d requests, %.1f req/s, %d errors%n",
+        report.getOptions().getClients(), report.getResidents(), report.getDurationSeconds(),
+        report.getRequests(), report.getThroughput(), report.getErrors()));
+    table.append(String.format(Locale.ROOT, "%-22s %9s %10s %9s %9s %9s %9s %7s %7s%n",
+        "operation", "requests", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors", "shed"));
+    report.getOperations().forEach((name, o) -> table.append(String.format(Locale.ROOT,
+        "%-22s %9d %10.1f %9.2f %9.2f %9.2f %9.2f %7d %7d%n", name, o.getRequests(), o.getThroughput(),
+        o.getP50Ms(), o.getP99Ms(), o.getP999Ms(), o.getMaxMs(), o.getErrors(), o.getShed())));
+    return table.toString();
+  }
+
+  private void register(String name, Supplier<HttpRequest> request) {
+    operations.add(new Operation(name, options.getMix().getOrDefault(name, 0), request));
+  }
+
+  private Operation pick() {
+    int draw = random().nextInt(totalWeight);
+    for (Operation operation : operations) {
+      draw -= operation.weight();
+      if (draw < 0) {
+        return operation;
+      }
+    }
+    throw new IllegalStateException("Empty operation mix");
+  }
+
+  private HttpRequest addPerson() {
+    long n = sequence.incrementAndGet();
+    int address = randomAddress();
+    Person person = new Person("Load" + n, "Client", generator.address(address), generator.city(address),
+        "97451", "841-874-0000", "load" + n + "@email.com", 0);
+    addedPersons.add(person);
+    return send("POST", "/person", gson.toJson(person));
+  }
+
+  private HttpRequest updatePerson() {
+    Person person = generator.person(random().nextInt(residents));
+    person.setPhone(String.format(Locale.ROOT, "841-874-%04d", random().nextInt(10_000)));
+    return send("PUT", "/person", gson.toJson(person));
+  }
+
+  private HttpRequest deletePerson() {
+    Person person = addedPersons.poll();
+    return person == null ? null : send("DELETE", "/person", gson.toJson(person));
+  }
+
+  private HttpRequest updateMedicalRecord() {
+    MedicalRecord record = generator.medicalRecord(random().nextInt(residents));
+    return send("PUT", "/medicalRecord", gson.toJson(record));
+  }
+
+  private HttpRequest addFirestation() {
+    String address = "Load " + sequence.incrementAndGet() + " St";
+    addedAddresses.add(address);
+    return send("POST", "/firestation?address=" + encode(address) + "&stationNumber=" + randomStation(), null);
+  }
+
+  private HttpRequest deleteFirestation() {
+    String address = addedAddresses.poll();
+    return address == null ? null : send("DELETE", "/firestation?address=" + encode(address), null);
+  }
+
+  private HttpRequest get(String path) {
+    return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(Duration.ofSeconds(30)).GET().build();
+  }
+
+  private HttpRequest send(String method, String path, String json) {
+    HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(Duration.ofSeconds(30));
+    if (json == null) {
+      return builder.method(method, HttpRequest.BodyPublishers.noBody()).build();
+    }
+    return builder.header("Content-Type", "application/json")
+        .method(method, HttpRequest.BodyPublishers.ofString(json))
+        .build();
+  }
+
+  private int randomAddress() {
+    return random().nextInt(generator.getAddressCount());
+  }
+
+  private int randomStation() {
+    return random().nextInt(stations) + 1;
+  }
+
+  private static ThreadLocalRandom random() {
+    return ThreadLocalRandom.current();
+  }
+
+  private static String encode(String value) {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,82 @@
+package com.openclassrooms.safetynet.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.openclassrooms.safetynet.fixture.DatasetGenerator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Test de charge HTTP de bout en bout : démarre l'application sur un jeu de données synthétique
+ * puis exécute {@link LoadHarness} contre le serveur embarqué.
+ *
+ * <p>Paramètres (propriétés système) : {@code load.residents}, {@code load.clients},
+ * {@code load.warmup-seconds}, {@code load.duration-seconds}, {@code load.mix}
+ * (ex. {@code fire:50,addPerson:0}), {@code load.max-error-rate} et {@code load.report}.
+ * Le mode threads virtuels du serveur se compare avec {@code -Dspring.threads.virtual.enabled=true},
+ * ou dans les deux modes à la suite avec le profil Maven {@code load-threads}.</p>
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "logging.level.safetynet.access=warn")
+class LoadTestIT {
+
+  private static final Path DATA_FILE = Path.of("target", "load", "Data.json");
+
+  private static final DatasetGenerator.Options DATASET = dataset();
+
+  private static final DatasetGenerator GENERATOR = new DatasetGenerator(DATASET);
+
+  @LocalServerPort
+  private int port;
+
+  @DynamicPropertySource
+  static void dataFile(DynamicPropertyRegistry registry) {
+    try {
+      Files.createDirectories(DATA_FILE.getParent());
+      GENERATOR.write(DATA_FILE);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    registry.add("safetynet.data.file", () -> DATA_FILE.toString());
+  }
+
+  @Test
+  void mixedWorkload_shouldStayWithinErrorBudget() throws Exception {
+    // given
+    LoadHarness.Options options = new LoadHarness.Options();
+    options.setClients(Integer.getInteger("load.clients", options.getClients()));
+    options.setWarmupSeconds(Integer.getInteger("load.warmup-seconds", options.getWarmupSeconds()));
+    options.setDurationSeconds(Integer.getInteger("load.duration-seconds", options.getDurationSeconds()));
+    String mix = System.getProperty("load.mix");
+    if (mix != null) {
+      options.applyMix(mix);
+    }
+    double maxErrorRate = Double.parseDouble(System.getProperty("load.max-error-rate", "0.001"));
+    LoadHarness harness = new LoadHarness(URI.create("http://localhost:" + port), GENERATOR, DATASET, options);
+
+    // when
+    LoadHarness.Report report = harness.run();
+
+    // then
+    LoadHarness.write(report, Path.of(System.getProperty("load.report", "target/load-report.json")));
+    log.warn("Load report\n{}", LoadHarness.format(report));
+    assertThat(report.getRequests()).isPositive();
+    assertThat((double) report.getErrors() / report.getRequests()).isLessThanOrEqualTo(maxErrorRate);
+  }
+
+  private static DatasetGenerator.Options dataset() {
+    DatasetGenerator.Options options = new DatasetGenerator.Options();
+    options.setResidents(Integer.getInteger("load.residents", 100_000));
+    return options;
+  }
+}
@@ -0,0 +1,17 @@
+package com.openclassrooms.safetynet.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+public class AccessLogFilterTest {
+
+  @Test
+  void redactQuery_shouldKeepParameterNamesOnly() {
+    // when
+    String result = AccessLogFilter.redactQuery("firstName=John&lastName=Boyd&&address=1509%20Culver%20St&explain");
+
+    // then
+    assertThat(result).isEqualTo("firstName=*&lastName=*&address=*&explain");
+  }
+}
@@ -0,0 +1,46 @@
+package com.openclassrooms.safetynet.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.openclassrooms.safetynet.dto.QueryPlanDTO;
+import com.openclassrooms.safetynet.monitoring.QueryExplain.AccessPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class QueryExplainTest {
+
+  @AfterEach
+  void tearDown() {
+    QueryExplain.end();
+  }
+
+  @Test
+  void toPlan_shouldAggregateRepeatedAccessesAndKeepOutermostEmittedCount() {
+    // given
+    QueryExplain explain = QueryExplain.begin();
+
+    // when
+    QueryExplain.recordAccess("FloodService", "find", "person", AccessPath.FULL_SCAN, 23);
+    QueryExplain.recordAccess("FloodService", "find", "person", AccessPath.FULL_SCAN, 23);
+    QueryExplain.recordAccess("MedicalRecordService", "find", "medical_record", AccessPath.FULL_SCAN, 23);
+    QueryExplain.recordEmitted(5);
+    QueryExplain.recordEmitted(2);
+    QueryPlanDTO plan = explain.toPlan();
+
+    // then
+    assertThat(plan.getAccessPaths()).hasSize(2);
+    assertThat(plan.getAccessPaths().get(0).getCalls()).isEqualTo(2);
+    assertThat(plan.getAccessPaths().get(0).getAccessPath()).isEqualTo("FULL_SCAN");
+    assertThat(plan.getExamined()).containsEntry("person", 46L).containsEntry("medical_record", 23L);
+    assertThat(plan.getEmitted()).isEqualTo(2);
+  }
+
+  @Test
+  void recordAccess_whenNotActive_shouldDoNothing() {
+    // when
+    QueryExplain.recordAccess("FireService", "find", "person", AccessPath.FULL_SCAN, 23);
+
+    // then
+    assertThat(QueryExplain.current()).isNull();
+  }
+}
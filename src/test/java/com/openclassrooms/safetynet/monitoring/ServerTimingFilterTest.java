@@ -0,0 +1,72 @@
+package com.openclassrooms.safetynet.monitoring;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.safetynet.controller.CommunityEmailController;
+import com.openclassrooms.safetynet.dto.CommunityEmailDTO;
+import com.openclassrooms.safetynet.service.CommunityEmailService;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+public class ServerTimingFilterTest {
+
+  private CommunityEmailService communityEmailService;
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    communityEmailService = mock(CommunityEmailService.class);
+    mockMvc = MockMvcBuilders
+        .standaloneSetup(new CommunityEmailController(communityEmailService, new ObjectMapper()))
+        .addFilters(new ServerTimingFilter(true))
+        .build();
+  }
+
+  @Test
+  void plainResponse_shouldCarryBodyAndServerTiming() throws Exception {
+    // given
+    when(communityEmailService.findEmailByCity("Culver")).thenReturn(List.of(new CommunityEmailDTO("drk@email.com")));
+
+    // when / then
+    mockMvc.perform(get("/communityEmail").param("city", "Culver").header(ServerTimingFilter.REQUEST_HEADER, "true"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(ServerTimingFilter.RESPONSE_HEADER, Matchers.containsString("total;dur=")))
+        .andExpect(content().json("[{\"email\":\"drk@email.com\"}]"));
+  }
+
+  @Test
+  void streamedResponse_shouldBeSentAfterAsyncDispatchWithServerTiming() throws Exception {
+    // given
+    when(communityEmailService.streamEmailByCity("Culver")).thenReturn(Stream.of(
+        new CommunityEmailDTO("jaboyd@email.com"),
+        new CommunityEmailDTO("drk@email.com")));
+
+    // when
+    MvcResult result = mockMvc.perform(get("/communityEmail").param("city", "Culver")
+            .header(ServerTimingFilter.REQUEST_HEADER, "true")
+            .accept(MediaType.APPLICATION_NDJSON))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    // then
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(header().string(ServerTimingFilter.RESPONSE_HEADER, Matchers.containsString("total;dur=")))
+        .andExpect(content().string("{\"email\":\"jaboyd@email.com\"}\n{\"email\":\"drk@email.com\"}\n"));
+  }
+}
@@ -0,0 +1,59 @@
+package com.openclassrooms.safetynet.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+public class ServiceQueryEventTest {
+
+  @Test
+  void end_whenEnabled_shouldCommitEventWithNestedRowsScanned() throws Exception {
+    // given
+    List<RecordedEvent> events;
+    try (Recording recording = new Recording()) {
+      recording.enable("safetynet.ServiceQuery").withoutThreshold();
+      recording.start();
+
+      // when
+      ServiceQueryEvent outer = ServiceQueryEvent.start();
+      ServiceQueryEvent.addScanned(13);
+      ServiceQueryEvent inner = ServiceQueryEvent.start();
+      ServiceQueryEvent.addScanned(23);
+      inner.end("MedicalRecordService", "findMedicalRecordsByName", "John", "Boyd", 1);
+      outer.end("FireService", "findResidentsByAddress", "1509 Culver St", 5);
+
+      recording.stop();
+      Path file = Files.createTempFile("service-query", ".jfr");
+      recording.dump(file);
+      events = RecordingFile.readAllEvents(file);
+      Files.delete(file);
+    }
+
+    // then
+    assertThat(events).hasSize(2);
+    assertThat(events.get(0).getString("method")).isEqualTo("findMedicalRecordsByName");
+    assertThat(events.get(0).getString("parameters")).isEqualTo("John, Boyd");
+    assertThat(events.get(0).getLong("rowsScanned")).isEqualTo(23);
+    assertThat(events.get(1).getString("parameters")).isEqualTo("1509 Culver St");
+    assertThat(events.get(1).getInt("resultSize")).isEqualTo(5);
+    assertThat(events.get(1).getLong("rowsScanned")).isEqualTo(36);
+  }
+
+  @Test
+  void end_whenDisabled_shouldNotTrackRowsScanned() {
+    // when
+    ServiceQueryEvent event = ServiceQueryEvent.start();
+    ServiceQueryEvent.addScanned(23);
+    event.end("FireService", "findResidentsByAddress", "1509 Culver St", 5);
+
+    // then
+    assertThat(event.isEnabled()).isFalse();
+    assertThat(event.rowsScanned).isZero();
+  }
+}
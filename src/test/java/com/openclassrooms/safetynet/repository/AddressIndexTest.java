@@ -0,0 +1,99 @@
+package com.openclassrooms.safetynet.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.openclassrooms.safetynet.model.Firestation;
+import com.openclassrooms.safetynet.model.Person;
+import com.openclassrooms.safetynet.repository.AddressIndex.Completion;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AddressIndexTest {
+
+  private DataRepository dataRepository;
+
+  @BeforeEach
+  void setUp() {
+    dataRepository = new DataRepository();
+    dataRepository.setPersistenceExecutor(task -> { });
+    dataRepository.setPersons(new ArrayList<>(List.of(
+        person("John", "1509 Culver St"),
+        person("Jacob", "1509 Culver St"),
+        person("Tessa", "834 Binoc Ave"),
+        person("Peter", "15 Culver Avenue"))));
+    dataRepository.setFirestations(new ArrayList<>(List.of(
+        new Firestation("1509 Culver St", 3),
+        new Firestation("834 Binoc Ave", 2),
+        new Firestation("951 LoneTree Rd", 2))));
+  }
+
+  @Test
+  void normalize_shouldIgnoreCaseSpacesAndSuffixForms() {
+    assertThat(AddressIndex.normalize("  1509   Culver  Street. ")).isEqualTo("1509 culver st");
+    assertThat(AddressIndex.normalize("834 BINOC Avenue")).isEqualTo(AddressIndex.normalize("834 Binoc Ave"));
+  }
+
+  @Test
+  void complete_shouldReturnAddressesWithStationAndResidents() {
+    // when
+    List<Completion> completions = dataRepository.getAddressIndex().complete("15", 10);
+
+    // then
+    assertThat(completions).extracting(Completion::getAddress).containsExactly("15 Culver Avenue", "1509 Culver St");
+    assertThat(completions.get(0).getStationNumber()).isEqualTo(-1);
+    assertThat(completions.get(1).getStationNumber()).isEqualTo(3);
+    assertThat(completions.get(1).getResidents()).isEqualTo(2);
+  }
+
+  @Test
+  void complete_shouldMatchSpelledOutAndPartialSuffixes() {
+    // when
+    AddressIndex index = dataRepository.getAddressIndex();
+
+    // then
+    assertThat(index.complete("1509 culver street", 10)).extracting(Completion::getAddress)
+        .containsExactly("1509 Culver St");
+    assertThat(index.complete("1509 Culver Stre", 10)).extracting(Completion::getAddress)
+        .containsExactly("1509 Culver St");
+    assertThat(index.complete("culver", 10)).extracting(Completion::getAddress)
+        .containsExactly("15 Culver Avenue", "1509 Culver St");
+    assertThat(index.complete("lonetree", 10)).extracting(Completion::getAddress)
+        .containsExactly("951 LoneTree Rd");
+    assertThat(index.complete("culver", 1)).hasSize(1);
+  }
+
+  @Test
+  void writes_shouldMaintainIndex() {
+    // when
+    dataRepository.deletePerson(person("Peter", "15 Culver Avenue"));
+    dataRepository.setFirestation(new Firestation("1509 Culver St", 4));
+    dataRepository.deleteFirestationByAddress("951 LoneTree Rd");
+    AddressIndex index = dataRepository.getAddressIndex();
+
+    // then
+    assertThat(index.complete("15", 10)).extracting(Completion::getAddress).containsExactly("1509 Culver St");
+    assertThat(index.complete("15", 10).get(0).getStationNumber()).isEqualTo(4);
+    assertThat(index.complete("951", 10)).isEmpty();
+  }
+
+  @Test
+  void deleteFirestation_shouldFallBackToNextStationOfAddress() {
+    // given
+    dataRepository.addFirestation(new Firestation("1509 Culver St", 5));
+    AddressIndex index = dataRepository.getAddressIndex();
+    assertThat(index.complete("1509", 10).get(0).getStationNumber()).isEqualTo(3);
+
+    // when
+    dataRepository.deleteFirestationByStation(3);
+
+    // then
+    assertThat(index.complete("1509", 10).get(0).getStationNumber()).isEqualTo(5);
+    assertThat(index.complete("834", 10).get(0).getStationNumber()).isEqualTo(2);
+  }
+
+  private static Person person(String firstName, String address) {
+    return new Person(firstName, "Boyd", address, "Culver", "97451", "841-874-6512", "jaboyd@email.com", 0);
+  }
+}
@@ -0,0 +1,53 @@
+package com.openclassrooms.safetynet.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class ChunkedListTest {
+
+  @Test
+  void writes_shouldMatchArrayListAndLeavePreviousVersionUnchanged() {
+    // given
+    List<Integer> expected = new ArrayList<>(IntStream.range(0, 3000).boxed().toList());
+    ChunkedList<Integer> list = ChunkedList.of(expected);
+    ChunkedList<Integer> original = list;
+
+    // when
+    for (int i = 0; i < 500; i++) {
+      list = list.appended(10_000 + i);
+      expected.add(10_000 + i);
+      list = list.replaced(i * 5, -i);
+      expected.set(i * 5, -i);
+      list = list.removed(i * 3);
+      expected.remove(i * 3);
+    }
+
+    ChunkedList<Integer> result = list;
+
+    // then
+    assertThat(result).containsExactlyElementsOf(expected);
+    assertThat(result.stream().toList()).isEqualTo(expected);
+    assertThat(IntStream.range(0, expected.size()).allMatch(i -> result.get(i).equals(expected.get(i)))).isTrue();
+    assertThat(original).hasSize(3000).startsWith(0, 1, 2);
+  }
+
+  @Test
+  void removed_shouldKeepIndexingAcrossEmptiedChunks() {
+    // given
+    ChunkedList<Integer> list = ChunkedList.of(IntStream.range(0, 3 * ChunkedList.CHUNK_SIZE).boxed().toList());
+
+    // when
+    for (int i = 0; i < ChunkedList.CHUNK_SIZE; i++) {
+      list = list.removed(ChunkedList.CHUNK_SIZE);
+    }
+
+    // then
+    assertThat(list).hasSize(2 * ChunkedList.CHUNK_SIZE);
+    assertThat(list.get(ChunkedList.CHUNK_SIZE - 1)).isEqualTo(ChunkedList.CHUNK_SIZE - 1);
+    assertThat(list.get(ChunkedList.CHUNK_SIZE)).isEqualTo(2 * ChunkedList.CHUNK_SIZE);
+  }
+}
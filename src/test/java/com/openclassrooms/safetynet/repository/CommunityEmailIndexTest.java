@@ -0,0 +1,60 @@
+package com.openclassrooms.safetynet.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.openclassrooms.safetynet.dto.CommunityEmailDTO;
+import com.openclassrooms.safetynet.model.Person;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CommunityEmailIndexTest {
+
+  private DataRepository dataRepository;
+
+  @BeforeEach
+  void setUp() {
+    dataRepository = new DataRepository();
+    dataRepository.setPersistenceExecutor(task -> { });
+    dataRepository.setPersons(new ArrayList<>(List.of(
+        person("John", "Culver", "jaboyd@email.com"),
+        person("Jacob", "Culver", "drk@email.com"),
+        person("Tenley", "Culver", "jaboyd@email.com"),
+        person("Peter", "Pasadena", "jpeter@email.com"))));
+  }
+
+  @Test
+  void findEmails_shouldDeduplicateInInsertionOrder() {
+    // when
+    List<CommunityEmailDTO> emails = dataRepository.getCommunityEmailIndex().findEmails("CULVER");
+
+    // then
+    assertThat(emails).extracting(CommunityEmailDTO::getEmail).containsExactly("jaboyd@email.com", "drk@email.com");
+    assertThat(dataRepository.getCommunityEmailIndex().findEmails("Culver")).isSameAs(emails);
+  }
+
+  @Test
+  void personWrites_shouldMaintainEmailsAcrossCityMoves() {
+    // when
+    dataRepository.deletePerson(person("John", "Culver", "jaboyd@email.com"));
+    dataRepository.setPerson(person("Jacob", "Pasadena", "drk@email.com"));
+    CommunityEmailIndex index = dataRepository.getCommunityEmailIndex();
+
+    // then
+    assertThat(index.findEmails("Culver")).extracting(CommunityEmailDTO::getEmail)
+        .containsExactly("jaboyd@email.com");
+    assertThat(index.streamEmails("Pasadena").map(CommunityEmailDTO::getEmail))
+        .containsExactly("jpeter@email.com", "drk@email.com");
+
+    // when
+    dataRepository.deletePerson(person("Tenley", "Culver", "jaboyd@email.com"));
+
+    // then
+    assertThat(index.findEmails("Culver")).isEmpty();
+  }
+
+  private static Person person(String firstName, String city, String email) {
+    return new Person(firstName, "Boyd", "1509 Culver St", city, "97451", "841-874-6512", email, 0);
+  }
+}
@@ -0,0 +1,69 @@
+package com.openclassrooms.safetynet.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.openclassrooms.safetynet.event.EntityType;
+import com.openclassrooms.safetynet.model.Firestation;
+import com.openclassrooms.safetynet.model.Person;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class CountingBloomFilterTest {
+
+  @Test
+  void mightContain_shouldNeverMissAddedKeysAndForgetRemovedOnes() {
+    // given
+    CountingBloomFilter filter = new CountingBloomFilter(1000, 0.01);
+    IntStream.range(0, 1000).forEach(i -> filter.add("key" + i));
+
+    // when
+    IntStream.range(0, 500).forEach(i -> filter.remove("key" + i));
+
+    // then
+    assertThat(IntStream.range(500, 1000).allMatch(i -> filter.mightContain("key" + i))).isTrue();
+    long falsePositives = IntStream.range(0, 10_000).filter(i -> filter.mightContain("other" + i)).count();
+    assertThat(falsePositives).isLessThan(100);
+    assertThat(filter.size()).isEqualTo(500);
+    assertThat(filter.expectedFalsePositiveRate()).isLessThan(0.01);
+  }
+
+  @Test
+  void isFull_shouldReportCapacityOverflow() {
+    // given
+    CountingBloomFilter filter = new CountingBloomFilter(0, 0.01);
+
+    // when
+    IntStream.rangeClosed(0, 1024).forEach(i -> filter.add("key" + i));
+
+    // then
+    assertThat(filter.isFull()).isTrue();
+  }
+
+  @Test
+  void dataRepository_shouldKeepFiltersInSyncWithWrites() {
+    // given
+    DataRepository dataRepository = new DataRepository();
+    dataRepository.setPersistenceExecutor(task -> { });
+    dataRepository.setPersons(new ArrayList<>(List.of(
+        new Person("John", "Boyd", "1509 Culver St", "Culver", "97451", null, null, 41))));
+    dataRepository.setFirestations(new ArrayList<>(List.of(new Firestation("1509 Culver St", 3))));
+    dataRepository.setMedicalRecords(new ArrayList<>());
+
+    // when
+    dataRepository.addPerson(new Person("Jacob", "Boyd", "1509 Culver St", "Culver", "97451", null, null, 36));
+    IntStream.range(0, 2000).forEach(i ->
+        dataRepository.addPerson(new Person("Bulk" + i, "Boyd", "1 Main St", "Culver", "97451", null, null, 30)));
+    dataRepository.deletePerson(new Person("John", "Boyd", null, null, null, null, null, 0));
+    dataRepository.deleteFirestationByAddress("1509 Culver St");
+
+    // then
+    assertThat(dataRepository.mightContainPerson("JACOB", "boyd")).isTrue();
+    assertThat(dataRepository.mightContainPerson("bulk1999", "Boyd")).isTrue();
+    assertThat(dataRepository.mightContainPerson("John", "Boyd")).isFalse();
+    assertThat(dataRepository.mightContainFirestation("1509 culver st")).isFalse();
+    assertThat(dataRepository.mightContainMedicalRecord("Jacob", "Boyd")).isFalse();
+    assertThat(dataRepository.expectedFalsePositiveRate(EntityType.PERSON)).isBetween(0.0, 0.01);
+  }
+}
@@ -0,0 +1,342 @@
+package com.openclassrooms.safetynet.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.gson.Gson;
+import com.openclassrooms.safetynet.dto.ChangesResponseDTO;
+import com.openclassrooms.safetynet.dto.DataWrapper;
+import com.openclassrooms.safetynet.event.DataChangeEvent;
+import com.openclassrooms.safetynet.fixture.DatasetGenerator;
+import com.openclassrooms.safetynet.model.Firestation;
+import com.openclassrooms.safetynet.model.Medication;
+import com.openclassrooms.safetynet.model.MedicalRecord;
+import com.openclassrooms.safetynet.model.Person;
+import com.openclassrooms.safetynet.service.ChildAlertService;
+import com.openclassrooms.safetynet.service.CommunityEmailService;
+import com.openclassrooms.safetynet.service.FireService;
+import com.openclassrooms.safetynet.service.FirestationService;
+import com.openclassrooms.safetynet.service.FloodService;
+import com.openclassrooms.safetynet.service.MedicalRecordService;
+import com.openclassrooms.safetynet.service.PersonInfoService;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * Test de charge concurrente du repository : plusieurs threads entrelacent ajouts de personnes,
+ * mises à jour de dossiers médicaux, ajouts et suppressions de casernes et requêtes des services.
+ *
+ * <p>Chaque thread ne modifie que ses propres données, ce qui permet de vérifier après coup
+ * qu'aucune mise à jour n'a été perdue, que le journal des modifications est cohérent avec les listes
+ * et que le fichier persisté correspond à l'état en mémoire. Le débit est journalisé pour chaque
+ * nombre de threads. Toute structure dérivée des listes doit ajouter ses vérifications à
+ * {@link #assertConsistent}.</p>
+ */
+@Slf4j
+public class DataRepositoryConcurrencyTest {
+
+  private static final int RESIDENTS = 2000;
+  private static final int OPERATIONS_PER_THREAD = 300;
+  private static final int FIRST_OWNED_STATION = 1000;
+
+  @TempDir
+  private Path tempDir;
+
+  private DataRepository dataRepository;
+  private ExecutorService persistenceExecutor;
+  private DatasetGenerator generator;
+
+  private FirestationService firestationService;
+  private FireService fireService;
+  private FloodService floodService;
+  private PersonInfoService personInfoService;
+  private ChildAlertService childAlertService;
+  private CommunityEmailService communityEmailService;
+
+  private final Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+  private final Queue<Person> expectedPersons = new ConcurrentLinkedQueue<>();
+  private final Queue<MedicalRecord> generatedMedicalRecords = new ConcurrentLinkedQueue<>();
+  private final Map<String, MedicalRecord> expectedMedicalRecords = new ConcurrentHashMap<>();
+  private final Map<Integer, Set<String>> expectedOwnedAddresses = new ConcurrentHashMap<>();
+  private final AtomicLong changes = new AtomicLong();
+  private final Queue<Long> publishedVersions = new ConcurrentLinkedQueue<>();
+
+  @ParameterizedTest(name = "{0} threads")
+  @ValueSource(ints = {1, 2, 4, 8, 16})
+  void mixedReadsAndWrites_shouldKeepRepositoryConsistent(int threads) throws Exception {
+    // given
+    setUp();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService workers = Executors.newFixedThreadPool(threads);
+    List<Future<?>> running = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      int thread = t;
+      running.add(workers.submit(() -> {
+        start.await();
+        work(thread);
+        return null;
+      }));
+    }
+
+    // when
+    long begin = System.nanoTime();
+    start.countDown();
+    for (Future<?> worker : running) {
+      worker.get(2, TimeUnit.MINUTES);
+    }
+    double seconds = (System.nanoTime() - begin) / 1e9;
+    workers.shutdown();
+    persistenceExecutor.shutdown();
+    assertThat(persistenceExecutor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+    log.info("{} threads: {} operations in {} ms, {} ops/s", threads, threads * OPERATIONS_PER_THREAD,
+        Math.round(seconds * 1000), Math.round(threads * OPERATIONS_PER_THREAD / seconds));
+
+    // then
+    assertThat(failures).isEmpty();
+    assertConsistent();
+  }
+
+  private void setUp() {
+    DatasetGenerator.Options options = new DatasetGenerator.Options();
+    options.setResidents(RESIDENTS);
+    generator = new DatasetGenerator(options);
+    DataWrapper data = generator.generate();
+
+    persistenceExecutor = Executors.newSingleThreadExecutor();
+    dataRepository = new DataRepository();
+    dataRepository.setFilePath(tempDir.resolve("Data.json").toString());
+    dataRepository.setPersistenceExecutor(persistenceExecutor);
+    dataRepository.setChangeLogCapacity(Integer.MAX_VALUE);
+    dataRepository.setEventPublisher(event -> publishedVersions.add(((DataChangeEvent) event).getVersion()));
+    dataRepository.setPersons(data.getPersons());
+    dataRepository.setFirestations(data.getFirestations());
+    dataRepository.setMedicalRecords(data.getMedicalRecords());
+    expectedPersons.addAll(data.getPersons());
+    generatedMedicalRecords.addAll(data.getMedicalRecords());
+
+    MedicalRecordService medicalRecordService = new MedicalRecordService(dataRepository);
+    firestationService = new FirestationService(dataRepository);
+    fireService = new FireService(dataRepository, medicalRecordService);
+    floodService = new FloodService(dataRepository, medicalRecordService);
+    personInfoService = new PersonInfoService(dataRepository, medicalRecordService);
+    childAlertService = new ChildAlertService(dataRepository);
+    communityEmailService = new CommunityEmailService(dataRepository);
+  }
+
+  /**
+   * Boucle d'un thread : un tiers d'écritures sur ses propres données, le reste en lectures.
+   */
+  private void work(int thread) {
+    SplittableRandom random = new SplittableRandom(thread);
+    int station = FIRST_OWNED_STATION + thread;
+    Set<String> ownedAddresses = new HashSet<>();
+    List<Person> ownedPersons = new ArrayList<>();
+    try {
+      for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+        switch (random.nextInt(9)) {
+          case 0 -> {
+            Person person = new Person("Stress" + thread, "Person" + i, generator.address(random.nextInt(10)),
+                generator.city(0), "97451", "841-874-0000", "stress@email.com", 30);
+            MedicalRecord record = new MedicalRecord(person.getFirstName(), person.getLastName(), "01/01/1990",
+                List.of(), List.of());
+            assertThat(dataRepository.addPerson(person)).isTrue();
+            assertThat(dataRepository.addMedicalRecord(record)).isTrue();
+            changes.addAndGet(2);
+            ownedPersons.add(person);
+            expectedPersons.add(person);
+            expectedMedicalRecords.put(key(record.getFirstName(), record.getLastName()), record);
+          }
+          case 1 -> {
+            if (!ownedPersons.isEmpty()) {
+              Person person = ownedPersons.get(random.nextInt(ownedPersons.size()));
+              MedicalRecord record = new MedicalRecord(person.getFirstName(), person.getLastName(), "01/01/1990",
+                  List.of("iteration:" + i), List.of());
+              assertThat(dataRepository.setMedicalRecord(record)).isTrue();
+              changes.incrementAndGet();
+              expectedMedicalRecords.put(key(record.getFirstName(), record.getLastName()), record);
+            }
+          }
+          case 2 -> {
+            String address = station + " Stress St " + i;
+            dataRepository.addFirestation(new Firestation(address, station));
+            changes.incrementAndGet();
+            ownedAddresses.add(address);
+            if (ownedAddresses.size() > 5) {
+              dataRepository.deleteFirestationByStation(station);
+              changes.addAndGet(ownedAddresses.size());
+              ownedAddresses.clear();
+            }
+          }
+          case 3 -> fireService.findResidentsByAddress(generator.address(random.nextInt(generator.getAddressCount())));
+          case 4 -> floodService.findHouseholdsByStationNumbers(List.of(1 + random.nextInt(10), station));
+          case 5 -> firestationService.getPeopleByStation(1 + random.nextInt(10));
+          case 6 -> personInfoService.findPersonsInfoByLastName(
+              generator.lastName(random.nextInt(generator.getHouseholdCount())));
+          case 7 -> childAlertService.findChildrenAndFamilyByAddress(
+              generator.address(random.nextInt(generator.getAddressCount())));
+          default -> communityEmailService.findEmailByCity(generator.city(random.nextInt(5)));
+        }
+      }
+    } catch (Throwable e) {
+      failures.add(e);
+    }
+    expectedOwnedAddresses.put(station, ownedAddresses);
+  }
+
+  /**
+   * Vérifie les invariants une fois tous les threads terminés.
+   */
+  private void assertConsistent() throws Exception {
+    // aucune mise à jour perdue
+    assertThat(dataRepository.getPersons()).containsExactlyInAnyOrderElementsOf(expectedPersons);
+    List<MedicalRecord> medicalRecords = new ArrayList<>(generatedMedicalRecords);
+    medicalRecords.addAll(expectedMedicalRecords.values());
+    assertThat(dataRepository.getMedicalRecords()).containsExactlyInAnyOrderElementsOf(medicalRecords);
+    Map<Integer, Set<String>> ownedAddresses = dataRepository.getFirestations().stream()
+        .filter(f -> f.getStation() >= FIRST_OWNED_STATION)
+        .collect(Collectors.groupingBy(Firestation::getStation,
+            Collectors.mapping(Firestation::getAddress, Collectors.toSet())));
+    expectedOwnedAddresses.forEach((station, addresses) ->
+        assertThat(ownedAddresses.getOrDefault(station, Set.of())).isEqualTo(addresses));
+
+    // journal des modifications cohérent avec les listes
+    ChangesResponseDTO log = dataRepository.getChangesSince(0, dataRepository.getEpoch());
+    assertThat(log.isResyncRequired()).isFalse();
+    assertThat(log.getCurrentVersion()).isEqualTo(changes.get());
+    long expectedVersion = 0;
+    for (DataChangeEvent change : log.getChanges()) {
+      assertThat(change.getVersion()).isEqualTo(++expectedVersion);
+    }
+
+    // événements publiés une seule fois, dans l'ordre des versions
+    assertThat(publishedVersions).containsExactlyElementsOf(
+        log.getChanges().stream().map(DataChangeEvent::getVersion).toList());
+
+    // index médical cohérent avec les listes
+    MedicalIndex rebuilt = new MedicalIndex();
+    rebuilt.rebuildPersons(dataRepository.getPersons());
+    rebuilt.rebuildMedicalRecords(dataRepository.getMedicalRecords());
+    MedicalIndex live = dataRepository.getMedicalIndex();
+    for (MedicalRecord record : dataRepository.getMedicalRecords()) {
+      NameKey name = NameKey.of(record.getFirstName(), record.getLastName());
+      assertThat(live.findMedicalRecords(name)).containsExactlyInAnyOrderElementsOf(rebuilt.findMedicalRecords(name));
+      record.getMedications().stream().map(m -> Medication.parse(m).getName()).forEach(medication ->
+          assertThat(live.findNamesByMedication(medication)).isEqualTo(rebuilt.findNamesByMedication(medication)));
+      record.getAllergies().forEach(allergy ->
+          assertThat(live.findNamesByAllergy(allergy)).isEqualTo(rebuilt.findNamesByAllergy(allergy)));
+    }
+    for (Person person : dataRepository.getPersons()) {
+      NameKey name = NameKey.of(person.getFirstName(), person.getLastName());
+      assertThat(live.findPersons(name)).containsExactlyInAnyOrderElementsOf(rebuilt.findPersons(name));
+    }
+
+    // index bitmap cohérent avec les listes
+    ResidentBitmapIndex rebuiltResidents = new ResidentBitmapIndex();
+    rebuiltResidents.rebuild(dataRepository.getPersons(), dataRepository.getFirestations(), rebuilt);
+    ResidentBitmapIndex liveResidents = dataRepository.getResidentIndex();
+    assertThat(residents(liveResidents, liveResidents.all()))
+        .containsExactlyInAnyOrderElementsOf(dataRepository.getPersons());
+    Map<ResidentBitmapIndex.Dimension, Set<String>> values = Map.of(
+        ResidentBitmapIndex.Dimension.CITY,
+        dataRepository.getPersons().stream().map(Person::getCity).collect(Collectors.toSet()),
+        ResidentBitmapIndex.Dimension.STATION,
+        dataRepository.getFirestations().stream().map(f -> String.valueOf(f.getStation())).collect(Collectors.toSet()),
+        ResidentBitmapIndex.Dimension.AGE,
+        Set.of("0-4", "5-11", "12-18", "19-39", "40-64", "65+"),
+        ResidentBitmapIndex.Dimension.FLAG,
+        Set.of(ResidentBitmapIndex.FLAG_MEDICATION, ResidentBitmapIndex.FLAG_ALLERGY));
+    values.forEach((dimension, dimensionValues) -> dimensionValues.forEach(value ->
+        assertThat(residents(liveResidents, liveResidents.bitmap(dimension, value)))
+            .as("%s:%s", dimension, value)
+            .containsExactlyInAnyOrderElementsOf(residents(rebuiltResidents, rebuiltResidents.bitmap(dimension, value)))));
+
+    // index de recherche des noms cohérent avec les listes
+    NameSearchIndex rebuiltNames = new NameSearchIndex();
+    rebuiltNames.rebuild(dataRepository.getPersons());
+    NameSearchIndex liveNames = dataRepository.getNameSearchIndex();
+    for (Person person : dataRepository.getPersons()) {
+      assertThat(liveNames.search(NameSearchIndex.Field.LAST_NAME, person.getLastName(), NameSearchIndex.Mode.EXACT, 0))
+          .isEqualTo(rebuiltNames.search(NameSearchIndex.Field.LAST_NAME, person.getLastName(),
+              NameSearchIndex.Mode.EXACT, 0));
+    }
+
+    // index d'autocomplétion des adresses cohérent avec les listes
+    AddressIndex rebuiltAddresses = new AddressIndex();
+    rebuiltAddresses.rebuild(dataRepository.getPersons(), dataRepository.getFirestations());
+    AddressIndex liveAddresses = dataRepository.getAddressIndex();
+    Set<String> addresses = new HashSet<>();
+    dataRepository.getPersons().forEach(person -> addresses.add(person.getAddress()));
+    dataRepository.getFirestations().forEach(firestation -> addresses.add(firestation.getAddress()));
+    for (String address : addresses) {
+      assertThat(liveAddresses.complete(address, 1)).isEqualTo(rebuiltAddresses.complete(address, 1));
+    }
+
+    // adresses électroniques par ville cohérentes avec les listes
+    CommunityEmailIndex rebuiltEmails = new CommunityEmailIndex();
+    rebuiltEmails.rebuild(dataRepository.getPersons());
+    dataRepository.getPersons().stream().map(Person::getCity).distinct().forEach(city ->
+        assertThat(dataRepository.getCommunityEmailIndex().findEmails(city))
+            .containsExactlyInAnyOrderElementsOf(rebuiltEmails.findEmails(city)));
+
+    // foyers cohérents avec les listes
+    HouseholdIndex rebuiltHouseholds = new HouseholdIndex();
+    rebuiltHouseholds.rebuild(dataRepository.getPersons(), dataRepository.getFirestations());
+    HouseholdIndex liveHouseholds = dataRepository.getHouseholdIndex();
+    assertThat(liveHouseholds.all()).hasSameSizeAs(rebuiltHouseholds.all());
+    for (Household household : rebuiltHouseholds.all()) {
+      Household liveHousehold = liveHouseholds.find(household.getKey());
+      assertThat(liveHousehold).as(household.getKey().toString()).isNotNull();
+      assertThat(liveHousehold.getMembers()).containsExactlyInAnyOrderElementsOf(household.getMembers());
+      assertThat(liveHousehold.getStations()).isEqualTo(household.getStations());
+    }
+
+    // compteurs par caserne cohérents avec les foyers
+    StationStatsIndex rebuiltStats = new StationStatsIndex(dataRepository.getMedicalIndex());
+    rebuiltStats.rebuild(rebuiltHouseholds);
+    SortedMap<Integer, StationStatsIndex.Counters> liveStats = dataRepository.getStationStatsIndex().all();
+    assertThat(liveStats.keySet()).isEqualTo(rebuiltStats.all().keySet());
+    rebuiltStats.all().forEach((station, counters) ->
+        assertThat(liveStats.get(station)).as("station %d", station).usingRecursiveComparison().isEqualTo(counters));
+
+    // fichier persisté identique à la mémoire
+    DataWrapper persisted;
+    try (Reader reader = Files.newBufferedReader(Path.of(dataRepository.getFilePath()))) {
+      persisted = new Gson().fromJson(reader, DataWrapper.class);
+    }
+    assertThat(persisted.getPersons()).containsExactlyElementsOf(dataRepository.getPersons());
+    assertThat(persisted.getFirestations()).containsExactlyElementsOf(dataRepository.getFirestations());
+    assertThat(persisted.getMedicalRecords()).containsExactlyElementsOf(dataRepository.getMedicalRecords());
+  }
+
+  private static List<Person> residents(ResidentBitmapIndex index, RoaringBitmap ordinals) {
+    List<Person> residents = new ArrayList<>();
+    ordinals.forEach((int ordinal) -> residents.add(index.resident(ordinal)));
+    return residents;
+  }
+
+  private static String key(String firstName, String lastName) {
+    return firstName + "|" + lastName;
+  }
+}
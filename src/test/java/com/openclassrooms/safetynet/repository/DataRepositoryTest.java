@@ -2,11 +2,19 @@ package com.openclassrooms.safetynet.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.openclassrooms.safetynet.dto.ChangesResponseDTO;
+import com.openclassrooms.safetynet.event.ChangeOperation;
+import com.openclassrooms.safetynet.event.ChangeScope;
+import com.openclassrooms.safetynet.event.DataChangeEvent;
+import com.openclassrooms.safetynet.event.EntityType;
 import com.openclassrooms.safetynet.model.Firestation;
 import com.openclassrooms.safetynet.model.MedicalRecord;
 import com.openclassrooms.safetynet.model.Person;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -260,4 +268,141 @@ public class DataRepositoryTest {
     assertThat(dataRepository.getMedicalRecords()).hasSize(0);
   }
 
-}
\ No newline at end of file
+  @Test
+  void mutations_shouldCoalescePendingSaves() {
+    // given
+    List<Runnable> scheduledSaves = new ArrayList<>();
+    Executor capturingExecutor = scheduledSaves::add;
+    dataRepository.setPersistenceExecutor(capturingExecutor);
+
+    // when
+    dataRepository.addFirestation(new Firestation("123 Paul St", 1));
+    dataRepository.addFirestation(new Firestation("533 Roland St", 4));
+    dataRepository.deleteFirestationByStation(4);
+
+    // then
+    assertThat(scheduledSaves).hasSize(1);
+    assertThat(dataRepository.getAllFirestations()).hasSize(1);
+  }
+
+  @Test
+  void setPerson_shouldPublishChangeEventWithPreviousValue() {
+    // given
+    List<Object> events = new ArrayList<>();
+    dataRepository.setEventPublisher(events::add);
+    dataRepository.setPersistenceExecutor(task -> { });
+    Person personExist = new Person("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512","jaboyd@email.com", 41);
+    dataRepository.addPerson(personExist);
+    Person inputPerson = new Person("John", "Boyd", "533 Roland St", "Culver", "97451", "841-874-6512","jaboyd@email.com", 41);
+
+    // when
+    dataRepository.setPerson(inputPerson);
+
+    // then
+    assertThat(events).hasSize(2);
+    DataChangeEvent event = (DataChangeEvent) events.get(1);
+    assertThat(event.getEntity()).isEqualTo(EntityType.PERSON);
+    assertThat(event.getOperation()).isEqualTo(ChangeOperation.UPDATED);
+    assertThat(event.getPrevious()).isEqualTo(personExist);
+    assertThat(event.getCurrent()).isEqualTo(inputPerson);
+  }
+
+  @Test
+  void changeEvents_shouldCarryScopeResolvedWhenRecorded() {
+    // given
+    List<Object> events = new ArrayList<>();
+    dataRepository.setEventPublisher(events::add);
+    dataRepository.setPersistenceExecutor(task -> { });
+    dataRepository.addFirestation(new Firestation("1509 Culver St", 3));
+    dataRepository.addPerson(new Person("John", "Boyd", "1509 Culver St", "Culver", "97451", null, null, 41));
+
+    // when
+    dataRepository.addMedicalRecord(new MedicalRecord("JOHN", "boyd", "03/06/1984", List.of(), List.of()));
+    dataRepository.setFirestation(new Firestation("1509 Culver St", 4));
+    dataRepository.setPerson(new Person("John", "Boyd", "29 15th St", "Culver", "97451", null, null, 41));
+
+    // then
+    ChangeScope recordScope = ((DataChangeEvent) events.get(2)).getScope();
+    assertThat(recordScope.stations()).containsExactly(3);
+    assertThat(recordScope.addresses()).containsExactly(AddressKey.of("1509 culver st"));
+    assertThat(recordScope.cities()).containsExactly("culver");
+    ChangeScope remapScope = ((DataChangeEvent) events.get(3)).getScope();
+    assertThat(remapScope.stations()).containsExactlyInAnyOrder(3, 4);
+    assertThat(remapScope.cities()).containsExactly("culver");
+    ChangeScope moveScope = ((DataChangeEvent) events.get(4)).getScope();
+    assertThat(moveScope.stations()).containsExactly(4);
+    assertThat(moveScope.addresses()).containsExactlyInAnyOrder(AddressKey.of("1509 Culver St"),
+        AddressKey.of("29 15th St"));
+  }
+
+  @Test
+  void medicalRecordWrites_shouldDriveAgesOfEveryIndex() {
+    // given
+    String tenYearsAgo = LocalDate.now().minusYears(10).format(DateTimeFormatter.ofPattern("MM/dd/yyyy"));
+    Person ann = new Person("Ann", "Eboyd", "1509 Culver St", "Culver", "97451", null, null, 0);
+    Person anne = new Person("ANNE", "boyd", "1509 Culver St", "Culver", "97451", null, null, 0);
+    dataRepository.setPersons(new ArrayList<>(List.of(ann, anne)));
+    dataRepository.addFirestation(new Firestation("1509 Culver St", 3));
+    dataRepository.setMedicalRecords(new ArrayList<>(List.of(
+        new MedicalRecord("Anne", "Boyd", "01/01/2000", List.of(), List.of()),
+        new MedicalRecord("Ann", "Eboyd", "01/01/1980", List.of(), List.of()))));
+
+    // when
+    dataRepository.setMedicalRecord(new MedicalRecord("Anne", "Boyd", tenYearsAgo, List.of(), List.of()));
+
+    // then
+    assertThat(ann.getAge()).isEqualTo(Ages.between("01/01/1980", LocalDate.now()));
+    assertThat(anne.getAge()).isEqualTo(10);
+    assertThat(dataRepository.getHouseholdIndex().find("1509 Culver St").getChildren()).containsExactly(anne);
+    assertThat(dataRepository.getStationStatsIndex().find(3).children()).isEqualTo(1);
+    ResidentBitmapIndex residents = dataRepository.getResidentIndex();
+    int[] children = residents.bitmap(ResidentBitmapIndex.Dimension.AGE, "child").toArray();
+    assertThat(children).hasSize(1);
+    assertThat(residents.resident(children[0])).isSameAs(anne);
+  }
+
+  @Test
+  void getChangesSince_shouldReturnOnlyNewerChanges() {
+    // given
+    dataRepository.setPersistenceExecutor(task -> { });
+    dataRepository.addFirestation(new Firestation("123 Paul St", 1));
+    long knownVersion = dataRepository.getVersion();
+    dataRepository.setFirestation(new Firestation("123 Paul St", 2));
+    dataRepository.deleteFirestationByAddress("123 Paul St");
+
+    // when
+    ChangesResponseDTO result = dataRepository.getChangesSince(knownVersion, dataRepository.getEpoch());
+
+    // then
+    assertThat(result.isResyncRequired()).isFalse();
+    assertThat(result.getCurrentVersion()).isEqualTo(knownVersion + 2);
+    assertThat(result.getChanges()).extracting(DataChangeEvent::getOperation)
+        .containsExactly(ChangeOperation.UPDATED, ChangeOperation.DELETED);
+  }
+
+  @Test
+  void getChangesSince_shouldRequireResync_whenLogTruncated() {
+    // given
+    dataRepository.setPersistenceExecutor(task -> { });
+    dataRepository.setChangeLogCapacity(2);
+    dataRepository.addFirestation(new Firestation("123 Paul St", 1));
+    dataRepository.addFirestation(new Firestation("533 Roland St", 4));
+    dataRepository.addFirestation(new Firestation("29 15th St", 2));
+
+    // when
+    ChangesResponseDTO truncated = dataRepository.getChangesSince(0, dataRepository.getEpoch());
+    ChangesResponseDTO retained = dataRepository.getChangesSince(1, dataRepository.getEpoch());
+    ChangesResponseDTO otherEpoch = dataRepository.getChangesSince(1, "previous-run");
+    ChangesResponseDTO noEpoch = dataRepository.getChangesSince(1, null);
+
+    // then
+    assertThat(truncated.isResyncRequired()).isTrue();
+    assertThat(truncated.getChanges()).isEmpty();
+    assertThat(retained.isResyncRequired()).isFalse();
+    assertThat(retained.getChanges()).hasSize(2);
+    assertThat(otherEpoch.isResyncRequired()).isTrue();
+    assertThat(noEpoch.isResyncRequired()).isTrue();
+    assertThat(noEpoch.getEpoch()).isEqualTo(dataRepository.getEpoch());
+  }
+
+}
@@ -0,0 +1,122 @@
+package com.openclassrooms.safetynet.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.openclassrooms.safetynet.model.Firestation;
+import com.openclassrooms.safetynet.model.MedicalRecord;
+import com.openclassrooms.safetynet.model.Person;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class HouseholdIndexTest {
+
+  private DataRepository dataRepository;
+
+  @BeforeEach
+  void setUp() {
+    dataRepository = new DataRepository();
+    dataRepository.setPersistenceExecutor(task -> { });
+    dataRepository.setPersons(new ArrayList<>(List.of(
+        person("John", "1509 Culver St", 41),
+        person("Roger", "1509 Culver Street", 8),
+        person("Tessa", "834 Binoc Ave", 13))));
+    dataRepository.setFirestations(new ArrayList<>(List.of(
+        new Firestation("1509 Culver St", 3),
+        new Firestation("834 Binoc Ave", 2),
+        new Firestation("951 LoneTree Rd", 2))));
+  }
+
+  @Test
+  void find_shouldGroupMembersByNormalizedAddress() {
+    // when
+    Household household = dataRepository.getHouseholdIndex().find("1509 CULVER ST.");
+
+    // then
+    assertThat(household.getAddress()).isEqualTo("1509 Culver St");
+    assertThat(household.getMembers()).extracting(Person::getFirstName).containsExactly("John", "Roger");
+    assertThat(household.getStationNumber()).isEqualTo(3);
+    assertThat(household.getChildCount()).isEqualTo(1);
+    assertThat(household.getAdultCount()).isEqualTo(1);
+    assertThat(household.getMembers().get(0).getCity()).isSameAs(household.getMembers().get(1).getCity());
+  }
+
+  @Test
+  void findByStation_shouldIncludeHouseholdsWithoutResidents() {
+    // when
+    List<Household> households = dataRepository.getHouseholdIndex().findByStation(2);
+
+    // then
+    assertThat(households).extracting(Household::getAddress).containsExactly("834 Binoc Ave", "951 LoneTree Rd");
+    assertThat(households.get(1).getMembers()).isEmpty();
+    assertThat(households.get(1).getStationNumber()).isEqualTo(2);
+  }
+
+  @Test
+  void writes_shouldMoveMembersAndStations() {
+    // when
+    dataRepository.setPerson(person("Tessa", "951 LoneTree Rd", 13));
+    dataRepository.addPerson(person("Peter", "1509 Culver St", 30));
+    dataRepository.deletePerson(person("John", "1509 Culver St", 41));
+    dataRepository.deleteFirestationByAddress("834 Binoc Ave");
+    dataRepository.setFirestation(new Firestation("1509 Culver St", 1));
+    HouseholdIndex index = dataRepository.getHouseholdIndex();
+
+    // then
+    assertThat(index.find("834 Binoc Ave")).isNull();
+    assertThat(index.find("951 LoneTree Rd").getMembers()).extracting(Person::getFirstName).containsExactly("Tessa");
+    assertThat(index.find("1509 Culver St").getMembers()).extracting(Person::getFirstName)
+        .containsExactly("Roger", "Peter");
+    assertThat(index.findByStation(3)).isEmpty();
+    assertThat(index.findByStation(1)).extracting(Household::getKey).containsExactly(AddressKey.of("1509 Culver St"));
+  }
+
+  @Test
+  void firestationChanged_shouldRestoreOnlyHouseholdsWhoseStationsChanged() {
+    // given
+    List<AddressKey> notified = new ArrayList<>();
+    HouseholdIndex index = new HouseholdIndex((key, household) -> notified.add(key));
+    Firestation culver = new Firestation("1509 Culver St", 3);
+    index.rebuild(dataRepository.getPersons(), List.of(culver, new Firestation("834 Binoc Ave", 2)));
+
+    // when
+    index.firestationChanged(null, new Firestation("1509 Culver St", 3));
+    index.firestationChanged(culver, new Firestation("1509 Culver St", 1));
+
+    // then
+    assertThat(notified).containsExactly(AddressKey.of("1509 Culver St"));
+    assertThat(index.find("1509 Culver St").getStations()).containsExactly(1, 3);
+    assertThat(index.findByStation(1)).extracting(Household::getKey).containsExactly(AddressKey.of("1509 Culver St"));
+    assertThat(index.findByStation(2)).extracting(Household::getAddress).containsExactly("834 Binoc Ave");
+  }
+
+  @Test
+  void refreshAges_shouldSplitMembersAgainOnBirthday() {
+    // given
+    LocalDate birthday = LocalDate.now().plusDays(1);
+    dataRepository.addMedicalRecord(new MedicalRecord("Roger", "Boyd",
+        birthday.minusYears(19).format(DateTimeFormatter.ofPattern("MM/dd/yyyy")), List.of(), List.of()));
+    Household household = dataRepository.getHouseholdIndex().find("1509 Culver St");
+    Household elsewhere = dataRepository.getHouseholdIndex().find("834 Binoc Ave");
+    assertThat(household.getAdultsByLastName("Boyd")).extracting(Person::getFirstName).containsExactly("John");
+
+    // when
+    int crossed = dataRepository.refreshAges(birthday);
+    household = dataRepository.getHouseholdIndex().find("1509 Culver St");
+
+    // then
+    assertThat(crossed).isEqualTo(1);
+    assertThat(dataRepository.getHouseholdIndex().find("834 Binoc Ave")).isSameAs(elsewhere);
+    assertThat(household.getChildCount()).isZero();
+    assertThat(household.getAdults()).extracting(Person::getFirstName).containsExactly("John", "Roger");
+    assertThat(household.getAdultsByLastName("Boyd")).hasSize(2);
+    assertThat(household.getAdultsByLastName("Stelzer")).isEmpty();
+  }
+
+  private static Person person(String firstName, String address, int age) {
+    return new Person(firstName, "Boyd", address, "Culver", "97451", "841-874-6512", "jaboyd@email.com", age);
+  }
+}
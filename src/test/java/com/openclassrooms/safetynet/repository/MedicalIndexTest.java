@@ -0,0 +1,118 @@
+package com.openclassrooms.safetynet.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.openclassrooms.safetynet.model.Medication;
+import com.openclassrooms.safetynet.model.MedicalRecord;
+import com.openclassrooms.safetynet.model.Person;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class MedicalIndexTest {
+
+  private DataRepository dataRepository;
+
+  @BeforeEach
+  void setUp() {
+    dataRepository = new DataRepository();
+    dataRepository.setPersistenceExecutor(task -> { });
+    dataRepository.setPersons(new ArrayList<>());
+    dataRepository.setFirestations(new ArrayList<>());
+    dataRepository.setMedicalRecords(List.of(
+        new MedicalRecord("John", "Boyd", "03/06/1984", List.of("aznol:350mg", "hydrapermazol:100mg"),
+            List.of("nillacilan")),
+        new MedicalRecord("Jacob", "Boyd", "03/06/1989", List.of("pharmacol:5000mg"), List.of("peanut"))
+    ));
+  }
+
+  @Test
+  void parse_shouldSplitNameAndDose() {
+    // when
+    Medication medication = Medication.parse("Aznol:350mg");
+
+    // then
+    assertThat(medication.getName()).isEqualTo("aznol");
+    assertThat(medication.getDose()).isEqualTo("350mg");
+    assertThat(Medication.parse("aspirin").getDose()).isEmpty();
+  }
+
+  @Test
+  void findNamesByMedication_shouldIgnoreDoseAndCase() {
+    // when
+    MedicalIndex index = dataRepository.getMedicalIndex();
+
+    // then
+    assertThat(index.findNamesByMedication("AZNOL")).containsExactly(NameKey.of("John", "Boyd"));
+    assertThat(index.findNamesByAllergy("peanut")).containsExactly(NameKey.of("Jacob", "Boyd"));
+    assertThat(index.findNamesByMedication("unknown")).isEmpty();
+    assertThatThrownBy(() -> index.findNamesByMedication("aznol").clear())
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  void findMedicalRecordWith_shouldPickRecordMentioningTerm() {
+    // given
+    MedicalRecord second = new MedicalRecord("john", "boyd", "03/06/1984", List.of("terazine:10mg"), List.of("Shellfish"));
+    dataRepository.addMedicalRecord(second);
+    MedicalIndex index = dataRepository.getMedicalIndex();
+    NameKey john = NameKey.of("John", "Boyd");
+
+    // then
+    assertThat(index.findMedicalRecordWithMedication(john, "TERAZINE")).isSameAs(second);
+    assertThat(index.findMedicalRecordWithMedication(john, "aznol")).isNotSameAs(second);
+    assertThat(index.findMedicalRecordWithAllergy(john, "shellfish")).isSameAs(second);
+    assertThat(index.findMedicalRecordWithAllergy(john, "peanut")).isNull();
+  }
+
+  @Test
+  void setMedicalRecord_shouldMoveResidentBetweenEntries() {
+    // given
+    MedicalRecord updated = new MedicalRecord("John", "Boyd", "03/06/1984", List.of("aznol:200mg", "terazine:10mg"),
+        List.of());
+
+    // when
+    dataRepository.setMedicalRecord(updated);
+    MedicalIndex index = dataRepository.getMedicalIndex();
+
+    // then
+    NameKey john = NameKey.of("John", "Boyd");
+    assertThat(index.findNamesByMedication("aznol")).containsExactly(john);
+    assertThat(index.findNamesByMedication("terazine")).containsExactly(john);
+    assertThat(index.findNamesByMedication("hydrapermazol")).isEmpty();
+    assertThat(index.findNamesByAllergy("nillacilan")).isEmpty();
+    assertThat(index.findMedicalRecords(john)).containsExactly(updated);
+  }
+
+  @Test
+  void deleteMedicalRecord_shouldRemoveResidentFromEntries() {
+    // given
+    MedicalRecord jacob = new MedicalRecord("jacob", "boyd", null, null, null);
+
+    // when
+    dataRepository.deleteMedicalRecord(jacob);
+
+    // then
+    assertThat(dataRepository.getMedicalIndex().findNamesByMedication("pharmacol")).isEmpty();
+    assertThat(dataRepository.getMedicalIndex().findNamesByAllergy("peanut")).isEmpty();
+  }
+
+  @Test
+  void personMutations_shouldKeepPersonsByNameInSync() {
+    // given
+    Person john = new Person("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com", 41);
+    Person moved = new Person("John", "Boyd", "29 15th St", "Culver", "97451", "841-874-6512", "jaboyd@email.com", 41);
+    NameKey key = NameKey.of("John", "Boyd");
+
+    // when
+    dataRepository.addPerson(john);
+    dataRepository.setPerson(moved);
+
+    // then
+    assertThat(dataRepository.getMedicalIndex().findPersons(key)).containsExactly(moved);
+    dataRepository.deletePerson(moved);
+    assertThat(dataRepository.getMedicalIndex().findPersons(key)).isEmpty();
+  }
+}
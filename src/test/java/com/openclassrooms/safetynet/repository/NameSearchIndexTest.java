@@ -0,0 +1,113 @@
+package com.openclassrooms.safetynet.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.openclassrooms.safetynet.model.Person;
+import com.openclassrooms.safetynet.repository.NameSearchIndex.Field;
+import com.openclassrooms.safetynet.repository.NameSearchIndex.Match;
+import com.openclassrooms.safetynet.repository.NameSearchIndex.Mode;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class NameSearchIndexTest {
+
+  private DataRepository dataRepository;
+
+  @BeforeEach
+  void setUp() {
+    dataRepository = new DataRepository();
+    dataRepository.setPersistenceExecutor(task -> { });
+    dataRepository.setPersons(new ArrayList<>(List.of(
+        person("John", "Boyd"),
+        person("Jacob", "Boyd"),
+        person("Brian", "Boyden"),
+        person("Tessa", "Carman"),
+        person("Eric", "Cadigan"),
+        person("Zoé", "Müller"))));
+  }
+
+  @Test
+  void search_prefix_shouldRankShortestTermsFirst() {
+    // when
+    List<Match> matches = dataRepository.getNameSearchIndex().search(Field.LAST_NAME, "BOY", Mode.PREFIX, 0);
+
+    // then
+    assertThat(matches).extracting(Match::getTerm).containsExactly("boyd", "boyden");
+    assertThat(matches.get(0).getNameKeys())
+        .containsExactlyInAnyOrder(NameKey.of("John", "Boyd"), NameKey.of("Jacob", "Boyd"));
+  }
+
+  @Test
+  void search_prefix_shouldStopOnceLimitIsCovered() {
+    // given
+    NameSearchIndex index = dataRepository.getNameSearchIndex();
+
+    // when
+    List<Match> matches = index.search(Field.LAST_NAME, "B", Mode.PREFIX, 0, 2);
+
+    // then
+    assertThat(matches).extracting(Match::getTerm).containsExactly("boyd");
+    assertThat(index.search(Field.LAST_NAME, "B", Mode.PREFIX, 0, 3)).extracting(Match::getTerm)
+        .containsExactly("boyd", "boyden");
+    assertThat(index.search(Field.LAST_NAME, "B", Mode.PREFIX, 0, 0)).isEmpty();
+  }
+
+  @Test
+  void search_fuzzy_shouldTolerateTyposTranspositionsAndAccents() {
+    // when
+    NameSearchIndex index = dataRepository.getNameSearchIndex();
+
+    // then
+    assertThat(index.search(Field.LAST_NAME, "Byod", Mode.FUZZY, 1)).extracting(Match::getTerm)
+        .containsExactly("boyd");
+    assertThat(index.search(Field.LAST_NAME, "Carmen", Mode.FUZZY, 2)).extracting(Match::getTerm)
+        .containsExactly("carman");
+    assertThat(index.search(Field.LAST_NAME, "Muller", Mode.EXACT, 0)).extracting(Match::getTerm)
+        .containsExactly("muller");
+    assertThat(index.search(Field.FIRST_NAME, "Jonh", Mode.FUZZY, 1)).extracting(Match::getTerm)
+        .containsExactly("john");
+    assertThat(index.search(Field.LAST_NAME, "Smith", Mode.FUZZY, 2)).isEmpty();
+  }
+
+  @Test
+  void search_fuzzy_shouldFindShortQueriesThroughDeletionVariants() {
+    // when
+    NameSearchIndex index = dataRepository.getNameSearchIndex();
+
+    // then
+    assertThat(index.search(Field.LAST_NAME, "Bod", Mode.FUZZY, 2)).extracting(Match::getTerm)
+        .containsExactly("boyd");
+    assertThat(index.search(Field.FIRST_NAME, "Jhon", Mode.FUZZY, 2)).extracting(Match::getTerm)
+        .containsExactly("john");
+    assertThat(index.search(Field.FIRST_NAME, "Erik", Mode.FUZZY, 2)).extracting(Match::getTerm)
+        .containsExactly("eric");
+  }
+
+  @Test
+  void personWrites_shouldMaintainIndex() {
+    // when
+    dataRepository.addPerson(person("Peter", "Duncan"));
+    dataRepository.deletePerson(person("Tessa", "Carman"));
+    NameSearchIndex index = dataRepository.getNameSearchIndex();
+
+    // then
+    assertThat(index.search(Field.LAST_NAME, "Dunkan", Mode.FUZZY, 1)).extracting(Match::getTerm)
+        .containsExactly("duncan");
+    assertThat(index.search(Field.LAST_NAME, "Carman", Mode.EXACT, 0)).isEmpty();
+    assertThat(index.search(Field.LAST_NAME, "Carman", Mode.FUZZY, 2)).isEmpty();
+  }
+
+  @Test
+  void distance_shouldCountTranspositionAsOneEdit() {
+    assertThat(NameSearchIndex.distance("boyd", "byod", 2)).isEqualTo(1);
+    assertThat(NameSearchIndex.distance("carman", "carmen", 2)).isEqualTo(1);
+    assertThat(NameSearchIndex.distance("boyd", "cadigan", 2)).isEqualTo(3);
+  }
+
+  private static Person person(String firstName, String lastName) {
+    return new Person(firstName, lastName, "1509 Culver St", "Culver", "97451", "841-874-6512",
+        "jaboyd@email.com", 0);
+  }
+}
@@ -0,0 +1,58 @@
+package com.openclassrooms.safetynet.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class PositionedListTest {
+
+  @Test
+  void indexOf_shouldFollowAppendsReplacesAndCompactingRemoves() {
+    // given
+    List<String> expected = new ArrayList<>(IntStream.range(0, 3000).mapToObj(String::valueOf).toList());
+    PositionedList<String> list = new PositionedList<>();
+    list.reset(expected);
+    int chunksBefore = list.list().chunkCount();
+
+    // when
+    for (int i = 0; i < 2000; i++) {
+      String appended = "a" + i;
+      list.append(appended);
+      expected.add(appended);
+      String replacement = "r" + i;
+      int replaced = (i * 7) % expected.size();
+      list.replace(replaced, replacement);
+      expected.set(replaced, replacement);
+      list.remove(i % expected.size());
+      expected.remove(i % expected.size());
+      list.remove(expected.size() / 2);
+      expected.remove(expected.size() / 2);
+    }
+
+    // then
+    assertThat(list.list()).containsExactlyElementsOf(expected);
+    assertThat(list.list().chunkCount()).isLessThan(chunksBefore + 2000 / ChunkedList.CHUNK_SIZE + 1);
+    assertThat(IntStream.range(0, expected.size()).allMatch(i -> list.indexOf(expected.get(i)) == i)).isTrue();
+    assertThat(list.indexOf(new String("0"))).isEqualTo(-1);
+  }
+
+  @Test
+  void removeAll_shouldRemoveCandidatesInListOrder() {
+    // given
+    List<String> elements = IntStream.range(0, 5).mapToObj(String::valueOf).toList();
+    PositionedList<String> list = new PositionedList<>();
+    list.reset(elements);
+    List<String> removed = new ArrayList<>();
+
+    // when
+    list.removeAll(List.of(elements.get(3), elements.get(1), new String("2")), removed);
+
+    // then
+    assertThat(removed).containsExactly(elements.get(1), elements.get(3));
+    assertThat(list.list()).containsExactly(elements.get(0), elements.get(2), elements.get(4));
+    assertThat(list.firstIndexOf(List.of(elements.get(4), elements.get(2)))).isEqualTo(1);
+  }
+}
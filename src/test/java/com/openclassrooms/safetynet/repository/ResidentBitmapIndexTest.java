@@ -0,0 +1,178 @@
+package com.openclassrooms.safetynet.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.openclassrooms.safetynet.model.Firestation;
+import com.openclassrooms.safetynet.model.MedicalRecord;
+import com.openclassrooms.safetynet.model.Person;
+import com.openclassrooms.safetynet.repository.ResidentBitmapIndex.Dimension;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+public class ResidentBitmapIndexTest {
+
+  private static final String CHILD_BIRTHDATE = LocalDate.now().minusYears(3)
+      .format(DateTimeFormatter.ofPattern("MM/dd/yyyy"));
+
+  private DataRepository dataRepository;
+
+  private final Person john = new Person("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512",
+      "jaboyd@email.com", 0);
+  private final Person roger = new Person("Roger", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512",
+      "jaboyd@email.com", 0);
+  private final Person peter = new Person("Peter", "Duncan", "644 Gershwin Cir", "Pasadena", "97451", "841-874-6512",
+      "jaboyd@email.com", 0);
+
+  @BeforeEach
+  void setUp() {
+    dataRepository = new DataRepository();
+    dataRepository.setPersistenceExecutor(task -> { });
+    dataRepository.setPersons(new ArrayList<>(List.of(john, roger, peter)));
+    dataRepository.setFirestations(new ArrayList<>(List.of(
+        new Firestation("1509 Culver St", 3),
+        new Firestation("644 Gershwin Cir", 1))));
+    dataRepository.setMedicalRecords(new ArrayList<>(List.of(
+        new MedicalRecord("John", "Boyd", "03/06/1984", List.of("aznol:350mg"), List.of()),
+        new MedicalRecord("Roger", "Boyd", CHILD_BIRTHDATE, List.of(), List.of("peanut")),
+        new MedicalRecord("Peter", "Duncan", "09/06/2000", List.of(), List.of("shellfish")))));
+  }
+
+  @Test
+  void bitmap_shouldIndexEveryDimension() {
+    // when
+    ResidentBitmapIndex index = dataRepository.getResidentIndex();
+
+    // then
+    assertThat(residents(index, index.bitmap(Dimension.CITY, "CULVER"))).containsExactlyInAnyOrder(john, roger);
+    assertThat(residents(index, index.bitmap(Dimension.STATION, "1"))).containsExactly(peter);
+    assertThat(residents(index, index.bitmap(Dimension.AGE, "0-4"))).containsExactly(roger);
+    assertThat(residents(index, index.bitmap(Dimension.AGE, "adult"))).containsExactlyInAnyOrder(john, peter);
+    assertThat(residents(index, index.bitmap(Dimension.ADDRESS, "1509 culver st")))
+        .containsExactlyInAnyOrder(john, roger);
+    assertThat(residents(index, index.bitmap(Dimension.FLAG, ResidentBitmapIndex.FLAG_ALLERGY)))
+        .containsExactlyInAnyOrder(roger, peter);
+    assertThat(index.bitmap(Dimension.CITY, "unknown").isEmpty()).isTrue();
+    assertThat(index.all().getCardinality()).isEqualTo(3);
+  }
+
+  @Test
+  void bitmap_whenValueInvalid_shouldThrow() {
+    // when
+    ResidentBitmapIndex index = dataRepository.getResidentIndex();
+
+    // then
+    assertThatThrownBy(() -> index.bitmap(Dimension.STATION, "three")).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> index.bitmap(Dimension.AGE, "10-20")).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void personWrites_shouldMaintainBitmaps() {
+    // given
+    Person movedJohn = new Person("John", "Boyd", "644 Gershwin Cir", "Pasadena", "97451", "841-874-6512",
+        "jaboyd@email.com", 0);
+
+    // when
+    dataRepository.setPerson(movedJohn);
+    dataRepository.deletePerson(roger);
+    ResidentBitmapIndex index = dataRepository.getResidentIndex();
+
+    // then
+    assertThat(index.bitmap(Dimension.CITY, "Culver").isEmpty()).isTrue();
+    assertThat(residents(index, index.bitmap(Dimension.STATION, "1"))).containsExactlyInAnyOrder(peter, movedJohn);
+    assertThat(residents(index, index.bitmap(Dimension.FLAG, ResidentBitmapIndex.FLAG_MEDICATION)))
+        .containsExactly(movedJohn);
+    assertThat(index.bitmap(Dimension.AGE, "child").isEmpty()).isTrue();
+    assertThat(residents(index, index.all())).containsExactlyInAnyOrder(movedJohn, peter);
+  }
+
+  @Test
+  void medicalRecordAndFirestationWrites_shouldMaintainBitmaps() {
+    // when
+    dataRepository.setMedicalRecord(new MedicalRecord("John", "Boyd", "03/06/1984", List.of(), List.of("peanut")));
+    dataRepository.setFirestation(new Firestation("1509 Culver St", 2));
+    ResidentBitmapIndex index = dataRepository.getResidentIndex();
+
+    // then
+    assertThat(index.bitmap(Dimension.FLAG, ResidentBitmapIndex.FLAG_MEDICATION).isEmpty()).isTrue();
+    assertThat(residents(index, index.bitmap(Dimension.FLAG, ResidentBitmapIndex.FLAG_ALLERGY)))
+        .containsExactlyInAnyOrder(john, roger, peter);
+    assertThat(index.bitmap(Dimension.STATION, "3").isEmpty()).isTrue();
+    assertThat(residents(index, index.bitmap(Dimension.STATION, "2"))).containsExactlyInAnyOrder(john, roger);
+    assertThat(index.stationOf("1509 CULVER ST")).isEqualTo(2);
+  }
+
+  @Test
+  void personWrites_shouldKeepOrdinalOnUpdateAndReuseFreedOrdinals() {
+    // given
+    ResidentBitmapIndex index = dataRepository.getResidentIndex();
+    RoaringBitmap before = index.all();
+
+    // when
+    for (int i = 0; i < 100; i++) {
+      dataRepository.setPerson(new Person("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512",
+          "john" + i + "@email.com", 0));
+      dataRepository.deletePerson(roger);
+      dataRepository.addPerson(roger);
+    }
+
+    // then
+    assertThat(index.ordinalCount()).isEqualTo(3);
+    assertThat(index.all()).isEqualTo(before);
+    assertThat(before.getCardinality()).isEqualTo(3);
+    assertThat(residents(index, index.bitmap(Dimension.AGE, "child"))).containsExactly(roger);
+  }
+
+  @Test
+  void firestationWrites_shouldMoveOnlyChangedAddresses() {
+    // given
+    ResidentBitmapIndex index = dataRepository.getResidentIndex();
+    RoaringBitmap station1 = index.bitmap(Dimension.STATION, "1");
+
+    // when
+    dataRepository.addFirestation(new Firestation("1509 Culver St", 1));
+    dataRepository.deleteFirestationByStation(3);
+
+    // then
+    assertThat(station1.getCardinality()).isEqualTo(1);
+    assertThat(residents(index, index.bitmap(Dimension.STATION, "1"))).containsExactlyInAnyOrder(john, roger, peter);
+    assertThat(index.bitmap(Dimension.STATION, "3").isEmpty()).isTrue();
+    assertThat(index.stationOf("1509 Culver St")).isEqualTo(1);
+  }
+
+  @Test
+  void read_shouldRetryQueryCrossedByWriteThatReusesAnOrdinal() {
+    // given
+    ResidentBitmapIndex index = dataRepository.getResidentIndex();
+    Person newcomer = new Person("Jane", "Doe", "644 Gershwin Cir", "Pasadena", "97451", "841-874-6512",
+        "jdoe@email.com", 0);
+    List<RoaringBitmap> evaluated = new ArrayList<>();
+
+    // when
+    List<Person> result = index.read(reader -> {
+      RoaringBitmap culver = reader.bitmap(Dimension.CITY, "Culver");
+      evaluated.add(culver);
+      if (evaluated.size() == 1) {
+        dataRepository.deletePerson(roger);
+        dataRepository.addPerson(newcomer);
+      }
+      return residents(reader, culver);
+    });
+
+    // then
+    assertThat(residents(index, evaluated.get(0))).contains(newcomer);
+    assertThat(evaluated).hasSize(2);
+    assertThat(result).containsExactly(john);
+  }
+
+  private static List<Person> residents(ResidentBitmapIndex index, RoaringBitmap ordinals) {
+    List<Person> residents = new ArrayList<>();
+    ordinals.forEach((int ordinal) -> residents.add(index.resident(ordinal)));
+    return residents;
+  }
+}
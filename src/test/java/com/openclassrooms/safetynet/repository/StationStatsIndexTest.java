@@ -0,0 +1,93 @@
+package com.openclassrooms.safetynet.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.openclassrooms.safetynet.model.Firestation;
+import com.openclassrooms.safetynet.model.MedicalRecord;
+import com.openclassrooms.safetynet.model.Person;
+import com.openclassrooms.safetynet.repository.ResidentBitmapIndex.AgeBand;
+import com.openclassrooms.safetynet.repository.StationStatsIndex.Counters;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class StationStatsIndexTest {
+
+  private DataRepository dataRepository;
+
+  @BeforeEach
+  void setUp() {
+    dataRepository = new DataRepository();
+    dataRepository.setPersistenceExecutor(task -> { });
+    dataRepository.setPersons(new ArrayList<>(List.of(
+        person("John", "1509 Culver St", 41),
+        person("Roger", "1509 Culver St", 8),
+        person("Tessa", "834 Binoc Ave", 70))));
+    dataRepository.setFirestations(new ArrayList<>(List.of(
+        new Firestation("1509 Culver St", 3),
+        new Firestation("834 Binoc Ave", 2),
+        new Firestation("951 LoneTree Rd", 2))));
+    dataRepository.setMedicalRecords(new ArrayList<>(List.of(
+        new MedicalRecord("John", "Boyd", "03/06/1984", List.of("aznol:350mg"), List.of()),
+        new MedicalRecord("Roger", "Boyd", "09/06/2017", List.of(), List.of("peanut")))));
+  }
+
+  @Test
+  void find_shouldCountHouseholdsResidentsAndMedicalFlags() {
+    // when
+    Counters counters = dataRepository.getStationStatsIndex().find(3);
+
+    // then
+    assertThat(counters.households()).isEqualTo(1);
+    assertThat(counters.residents()).isEqualTo(2);
+    assertThat(counters.adults()).isEqualTo(1);
+    assertThat(counters.children()).isEqualTo(1);
+    assertThat(counters.residentsIn(AgeBand.CHILD)).isEqualTo(1);
+    assertThat(counters.residentsIn(AgeBand.ADULT)).isEqualTo(1);
+    assertThat(counters.withMedications()).isEqualTo(1);
+    assertThat(counters.withAllergies()).isEqualTo(1);
+    assertThat(dataRepository.getStationStatsIndex().find(2).households()).isEqualTo(1);
+    assertThat(dataRepository.getStationStatsIndex().all()).containsOnlyKeys(2, 3);
+  }
+
+  @Test
+  void writes_shouldUpdateCountersIncrementally() {
+    // when
+    dataRepository.addPerson(person("Peter", "951 LoneTree Rd", 30));
+    dataRepository.setFirestation(new Firestation("1509 Culver St", 2));
+    dataRepository.deleteMedicalRecord(new MedicalRecord("John", "Boyd", null, null, null));
+    dataRepository.refreshAges(LocalDate.of(2037, 1, 1));
+    StationStatsIndex index = dataRepository.getStationStatsIndex();
+
+    // then
+    Counters counters = index.find(2);
+    assertThat(index.all()).containsOnlyKeys(2);
+    assertThat(counters.households()).isEqualTo(3);
+    assertThat(counters.residents()).isEqualTo(4);
+    assertThat(counters.adults()).isEqualTo(4);
+    assertThat(counters.children()).isZero();
+    assertThat(counters.residentsIn(AgeBand.YOUNG_ADULT)).isEqualTo(2);
+    assertThat(counters.withMedications()).isZero();
+    assertThat(counters.withAllergies()).isEqualTo(1);
+    assertThat(index.find(3).residents()).isZero();
+  }
+
+  @Test
+  void find_shouldSplitChildrenAndAdultsLikeHouseholds() {
+    // when
+    dataRepository.addPerson(person("Tenley", "834 Binoc Ave", 18));
+    Counters counters = dataRepository.getStationStatsIndex().find(2);
+    Household household = dataRepository.getHouseholdIndex().find("834 Binoc Ave");
+
+    // then
+    assertThat(counters.children()).isEqualTo(household.getChildCount()).isEqualTo(1);
+    assertThat(counters.adults()).isEqualTo(household.getAdultCount()).isEqualTo(1);
+    assertThat(counters.residentsIn(AgeBand.TEEN)).isEqualTo(1);
+  }
+
+  private static Person person(String firstName, String address, int age) {
+    return new Person(firstName, "Boyd", address, "Culver", "97451", "841-874-6512", "jaboyd@email.com", age);
+  }
+}
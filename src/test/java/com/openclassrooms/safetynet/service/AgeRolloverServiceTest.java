@@ -0,0 +1,32 @@
+package com.openclassrooms.safetynet.service;
+
+import static org.mockito.ArgumentMatchers.any;
+
+import com.openclassrooms.safetynet.repository.DataRepository;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class AgeRolloverServiceTest {
+  @Mock
+  private DataRepository dataRepository;
+  @InjectMocks
+  private AgeRolloverService ageRolloverService;
+
+  @Test
+  public void rollOverAges_shouldRefreshAgesForToday() {
+    // given
+    Mockito.when(dataRepository.refreshAges(any(LocalDate.class))).thenReturn(1);
+
+    // when
+    ageRolloverService.rollOverAges();
+
+    // then
+    Mockito.verify(dataRepository).refreshAges(LocalDate.now());
+  }
+}
@@ -0,0 +1,92 @@
+package com.openclassrooms.safetynet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.openclassrooms.safetynet.event.ChangeOperation;
+import com.openclassrooms.safetynet.event.ChangeScope;
+import com.openclassrooms.safetynet.event.DataChangeEvent;
+import com.openclassrooms.safetynet.event.EntityType;
+import com.openclassrooms.safetynet.model.Firestation;
+import com.openclassrooms.safetynet.repository.AddressKey;
+import com.openclassrooms.safetynet.service.ChangeStreamService.Subscription;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+@ExtendWith(MockitoExtension.class)
+public class ChangeStreamServiceTest {
+
+  @Mock
+  private SseEmitter slowEmitter;
+
+  @Mock
+  private SseEmitter fastEmitter;
+
+  private final ChangeStreamService changeStreamService = new ChangeStreamService();
+
+  @AfterEach
+  void tearDown() {
+    changeStreamService.shutdown();
+  }
+
+  @Test
+  void onDataChange_shouldDisconnectSlowSubscriberWithoutDelayingOthers() throws Exception {
+    // given
+    CountDownLatch release = new CountDownLatch(1);
+    Mockito.doAnswer(invocation -> {
+      release.await();
+      return null;
+    }).when(slowEmitter).send(Mockito.any(SseEventBuilder.class));
+    changeStreamService.register(new Subscription(slowEmitter, null, null, null, 1));
+    changeStreamService.register(new Subscription(fastEmitter, null, null, null, 8));
+
+    // when
+    for (int i = 1; i <= 3; i++) {
+      changeStreamService.onDataChange(event(i));
+    }
+
+    // then
+    Mockito.verify(fastEmitter, Mockito.timeout(1000).times(3)).send(Mockito.any(SseEventBuilder.class));
+    Mockito.verify(slowEmitter, Mockito.timeout(1000)).complete();
+    assertThat(changeStreamService.getSubscriberCount()).isEqualTo(1);
+    release.countDown();
+  }
+
+  @Test
+  void onDataChange_shouldOnlyQueueEventsMatchingSubscription() throws Exception {
+    // given
+    changeStreamService.register(new Subscription(fastEmitter, 2, null, null, 8));
+
+    // when
+    changeStreamService.onDataChange(event(1));
+
+    // then
+    Mockito.verify(fastEmitter, Mockito.after(100).never()).send(Mockito.any(SseEventBuilder.class));
+  }
+
+  @Test
+  void subscriptionMatches_shouldFilterByStationAddressOrCity() {
+    // given
+    ChangeScope scope = new ChangeScope(Set.of(3), Set.of(AddressKey.of("1509 culver st")), Set.of("culver"));
+
+    // then
+    assertThat(new Subscription(null, 3, null, null, 1).matches(scope)).isTrue();
+    assertThat(new Subscription(null, 2, null, null, 1).matches(scope)).isFalse();
+    assertThat(new Subscription(null, null, AddressKey.of("1509 Culver St."), null, 1).matches(scope)).isTrue();
+    assertThat(new Subscription(null, null, null, "CULVER", 1).matches(scope)).isTrue();
+    assertThat(new Subscription(null, null, null, null, 1).matches(scope)).isTrue();
+  }
+
+  private static DataChangeEvent event(long version) {
+    ChangeScope scope = new ChangeScope(Set.of(3), Set.of(AddressKey.of("1509 Culver St")), Set.of("culver"));
+    return new DataChangeEvent(EntityType.FIRESTATION, ChangeOperation.ADDED, null,
+        new Firestation("1509 Culver St", 3), version, 0L, scope);
+  }
+}
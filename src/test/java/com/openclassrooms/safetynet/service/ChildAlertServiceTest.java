@@ -4,7 +4,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import com.openclassrooms.safetynet.dto.ChildAlertResponseDTO;
 import com.openclassrooms.safetynet.model.Person;
+import com.openclassrooms.safetynet.repository.AddressKey;
 import com.openclassrooms.safetynet.repository.DataRepository;
+import com.openclassrooms.safetynet.repository.Household;
+import com.openclassrooms.safetynet.repository.HouseholdIndex;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,6 +20,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 public class ChildAlertServiceTest {
   @Mock
   private DataRepository dataRepository;
+  @Mock
+  private HouseholdIndex householdIndex;
   @InjectMocks
   private ChildAlertService childAlertService;
 
@@ -27,11 +32,13 @@ public class ChildAlertServiceTest {
     List<Person> persons = List.of(
         new Person("John", "Boyd", "1509 Culver St", null, null, null, null, 41),
         new Person("Jacob", "Boyd", "1509 Culver St", null, null, null, null, 36),
-        new Person("Roger","Boyd", "1509 Culver St", null, null, null, null, 8),
-        new Person("Shawna", "Stelzer", "947 E. Rose Dr", null, null, null, null, 55)
+        new Person("Roger","Boyd", "1509 Culver St", null, null, null, null, 8)
     );
+    Household household = new Household(AddressKey.of("1509 culver st"), "1509 Culver St", null, null, persons,
+        List.of(3));
 
-    Mockito.when(dataRepository.getPersons()).thenReturn(persons);
+    Mockito.when(dataRepository.getHouseholdIndex()).thenReturn(householdIndex);
+    Mockito.when(householdIndex.find(inputAddress)).thenReturn(household);
 
     // when
     ChildAlertResponseDTO result = childAlertService.findChildrenAndFamilyByAddress(inputAddress);
@@ -46,6 +53,24 @@ public class ChildAlertServiceTest {
     assertThat(family).hasSize(2);
     assertThat(family.get(0).getFirstName()).isEqualTo("John");
 
-    Mockito.verify(dataRepository, Mockito.times(1)).getPersons();
+    Mockito.verify(householdIndex, Mockito.times(1)).find(inputAddress);
+  }
+
+  @Test
+  public void findChildrenAndFamilyByAddress_shouldReturnEmptyLists_whenNoChildAtAddress() {
+    // given
+    String inputAddress = "947 E. Rose Dr";
+    Household household = new Household(AddressKey.of("947 e rose dr"), inputAddress, null, null,
+        List.of(new Person("Shawna", "Stelzer", inputAddress, null, null, null, null, 55)), List.of(1));
+
+    Mockito.when(dataRepository.getHouseholdIndex()).thenReturn(householdIndex);
+    Mockito.when(householdIndex.find(inputAddress)).thenReturn(household);
+
+    // when
+    ChildAlertResponseDTO result = childAlertService.findChildrenAndFamilyByAddress(inputAddress);
+
+    // then
+    assertThat(result.getChildren()).isEmpty();
+    assertThat(result.getFamily()).isEmpty();
   }
 }
@@ -6,7 +6,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.openclassrooms.safetynet.dto.FireResponseDTO;
 import com.openclassrooms.safetynet.dto.ResidentDTO;
 import com.openclassrooms.safetynet.model.Person;
+import com.openclassrooms.safetynet.repository.AddressKey;
 import com.openclassrooms.safetynet.repository.DataRepository;
+import com.openclassrooms.safetynet.repository.Household;
+import com.openclassrooms.safetynet.repository.HouseholdIndex;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,7 +23,7 @@ public class FireServiceTest {
   @Mock
   private DataRepository dataRepository;
   @Mock
-  private FirestationService firestationService;
+  private HouseholdIndex householdIndex;
   @Mock
   private MedicalRecordService medicalRecordService;
   @InjectMocks
@@ -33,12 +36,13 @@ public class FireServiceTest {
 
     List<Person> persons = List.of(
         new Person("John", "Boyd", "1509 Culver St", null, null, null, null,41),
-        new Person("Jacob", "Boyd", "1509 Culver St",null, null, null, null,36),
-        new Person("Shawna", "Stelzer", "947 E. Rose Dr", null,null,null,null,55)
+        new Person("Jacob", "Boyd", "1509 Culver St",null, null, null, null,36)
     );
+    Household household = new Household(AddressKey.of("1509 culver st"), "1509 Culver St", null, null, persons,
+        List.of(3));
 
-    Mockito.when(firestationService.getStationNumberByAddress(inputAddress)).thenReturn(3);
-    Mockito.when(dataRepository.getPersons()).thenReturn(persons);
+    Mockito.when(dataRepository.getHouseholdIndex()).thenReturn(householdIndex);
+    Mockito.when(householdIndex.find(inputAddress)).thenReturn(household);
     Mockito.when(medicalRecordService.findMedicationsByName("John", "Boyd")).thenReturn(List.of("medication1"));
     Mockito.when(medicalRecordService.findAllergiesByName("John", "Boyd")).thenReturn(List.of("allergy1", "allergy2"));
     Mockito.when(medicalRecordService.findMedicationsByName("Jacob", "Boyd")).thenReturn(List.of("medication2"));
@@ -63,4 +67,18 @@ public class FireServiceTest {
     assertThat(resident2.getMedications()).containsExactly("medication2");
     assertThat(resident2.getAllergies()).isEmpty();
   }
+
+  @Test
+  public void findResidentsByAddress_shouldReturnNoResident_whenAddressUnknown() {
+    // given
+    Mockito.when(dataRepository.getHouseholdIndex()).thenReturn(householdIndex);
+
+    // when
+    FireResponseDTO result = fireService.findResidentsByAddress("unknown address");
+
+    // then
+    assertThat(result.getStationNumber()).isEqualTo(-1);
+    assertThat(result.getResidents()).isEmpty();
+    Mockito.verifyNoInteractions(medicalRecordService);
+  }
 }
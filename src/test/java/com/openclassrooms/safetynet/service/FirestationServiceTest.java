@@ -1,12 +1,16 @@
 package com.openclassrooms.safetynet.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.when;
 
 import com.openclassrooms.safetynet.dto.FirestationResponseDTO;
 import com.openclassrooms.safetynet.model.Firestation;
+import com.openclassrooms.safetynet.model.MedicalRecord;
 import com.openclassrooms.safetynet.model.Person;
+import com.openclassrooms.safetynet.repository.AddressKey;
 import com.openclassrooms.safetynet.repository.DataRepository;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,6 +22,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 public class FirestationServiceTest {
 
+  private static final DateTimeFormatter BIRTHDATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
   @Mock
   private DataRepository dataRepository;
 
@@ -26,35 +32,41 @@ public class FirestationServiceTest {
 
   /** Teste pour avoir une liste de personne par un numéro de caserne */
   @Test
-  void getPeopleByStation_shouldReturnCorrectCountsAndListOfPeople() {
+  void getPeopleByStation_shouldCountAdultsAndChildrenFromRepositoryData() {
     // given
-    int stationNumber = 3;
-
-    List<Firestation> mockFirestations = List.of(
-        new Firestation("644 Gershwin Cir", 1),
-        new Firestation("1509 Culver St", 3)
-    );
-
-    List<Person> mockPeople = List.of(
-        new Person("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512",
-            "jaboyd@email.com", 41),
-        new Person("Roger", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512",
-            "tenz@email.com", 7),
-        new Person("Peter", "Duncan", "644 Gershwin Cir", "Culver", "97451", "841-874-6512",
-            "jaboyd@email.com", 24)
-    );
+    String eighteenYearsAgo = LocalDate.now().minusYears(18).format(BIRTHDATE_FORMAT);
+    DataRepository repository = new DataRepository();
+    repository.setPersistenceExecutor(task -> { });
+    repository.setPersons(new ArrayList<>(List.of(
+        person("John", "1509 Culver St"),
+        person("Tenley", "1509 Culver St"),
+        person("Roger", "1509 Culver St"),
+        person("Tessa", "834 Binoc Ave"),
+        person("Peter", "29 15th St"))));
+    repository.setFirestations(new ArrayList<>(List.of(
+        new Firestation("1509 Culver St", 3),
+        new Firestation("834 Binoc Ave", 3),
+        new Firestation("29 15th St", 2))));
+    repository.setMedicalRecords(new ArrayList<>(List.of(
+        medicalRecord("John", "03/06/1984"),
+        medicalRecord("Tenley", eighteenYearsAgo),
+        medicalRecord("Roger", "09/06/2017"),
+        medicalRecord("Tessa", "02/18/1950"),
+        medicalRecord("Peter", "03/06/2000"))));
+    FirestationService service = new FirestationService(repository);
 
     // when
-    when(dataRepository.getFirestations()).thenReturn(mockFirestations);
-    when(dataRepository.getPersons()).thenReturn(mockPeople);
-
-    FirestationResponseDTO result = firestationService.getPeopleByStation(stationNumber);
+    FirestationResponseDTO result = service.getPeopleByStation(3);
+    repository.setMedicalRecord(medicalRecord("Tenley", LocalDate.now().minusYears(19).format(BIRTHDATE_FORMAT)));
+    FirestationResponseDTO afterUpdate = service.getPeopleByStation(3);
 
     // then
-    assertThat(result).isNotNull();
-    assertThat(result.getPersons()).hasSize(2);
-    assertThat(result.getAdultCount()).isEqualTo(1);
-    assertThat(result.getChildCount()).isEqualTo(1);
+    assertThat(result.getPersons()).extracting(Person::getFirstName)
+        .containsExactly("John", "Tenley", "Roger", "Tessa");
+    assertThat(result.getAdultCount()).isEqualTo(2);
+    assertThat(result.getChildCount()).isEqualTo(2);
+    assertThat(afterUpdate.getAdultCount()).isEqualTo(3);
+    assertThat(afterUpdate.getChildCount()).isEqualTo(1);
   }
 
   @Test
@@ -63,7 +75,8 @@ public class FirestationServiceTest {
     List<Firestation> existingFirestations = List.of(
         new Firestation("644 Gershwin Cir", 1)
     );
-    Mockito.when(dataRepository.getFirestations()).thenReturn(existingFirestations);
+    Mockito.when(dataRepository.mightContainFirestation("644 Gershwin Cir")).thenReturn(true);
+    Mockito.when(dataRepository.findFirestations(AddressKey.of("644 Gershwin Cir"))).thenReturn(existingFirestations);
 
     // when
     boolean result = firestationService.addFirestation("644 Gershwin Cir", 2);
@@ -76,14 +89,25 @@ public class FirestationServiceTest {
   @Test
   void addFirestation_shouldReturnTrue_whenAddressIsNew() {
     // given
-    List<Firestation> existingFirestations = List.of();
-    Mockito.when(dataRepository.getFirestations()).thenReturn(existingFirestations);
+    Mockito.when(dataRepository.mightContainFirestation("150 Paul Reiss")).thenReturn(true);
+    Mockito.when(dataRepository.findFirestations(AddressKey.of("150 Paul Reiss"))).thenReturn(List.of());
+
+    // when
+    boolean result = firestationService.addFirestation("150 Paul Reiss", 2);
 
+    // then
+    Mockito.verify(dataRepository).addFirestation(new Firestation("150 Paul Reiss", 2));
+    assertThat(result).isTrue();
+  }
+
+  @Test
+  void addFirestation_shouldSkipLookup_whenFilterRulesOutAddress() {
     // when
     boolean result = firestationService.addFirestation("150 Paul Reiss", 2);
 
     // then
     Mockito.verify(dataRepository).addFirestation(new Firestation("150 Paul Reiss", 2));
+    Mockito.verify(dataRepository, Mockito.never()).findFirestations(Mockito.any());
     assertThat(result).isTrue();
   }
 
@@ -91,7 +115,7 @@ public class FirestationServiceTest {
   void setFirestation_shouldReturnTrue_whenAddressAlreadyExists() {
     // given
     List<Firestation> existingFirestations = List.of(new Firestation("1509 Culver St", 3));
-    Mockito.when(dataRepository.getFirestations()).thenReturn(existingFirestations);
+    Mockito.when(dataRepository.findFirestations(AddressKey.of("1509 Culver St"))).thenReturn(existingFirestations);
 
     // when
     boolean result = firestationService.setFirestation("1509 Culver St", 2);
@@ -105,7 +129,7 @@ public class FirestationServiceTest {
   void deleteFirestationByAddress_shouldReturnTrue_whenAddressExist() {
     // given
     List<Firestation> existingFirestations = List.of(new Firestation("644 Gershwin Cir", 1));
-    Mockito.when(dataRepository.getFirestations()).thenReturn(existingFirestations);
+    Mockito.when(dataRepository.findFirestations(AddressKey.of("644 Gershwin Cir"))).thenReturn(existingFirestations);
 
     // when
     boolean result = firestationService.deleteFirestationByAddress("644 Gershwin Cir");
@@ -118,8 +142,7 @@ public class FirestationServiceTest {
   @Test
   void deleteFirestationByAddress_shouldReturnFalse_whenAddressDoesNotExist() {
     // given
-    List<Firestation> existingFirestations = List.of();
-    Mockito.when(dataRepository.getFirestations()).thenReturn(existingFirestations);
+    Mockito.when(dataRepository.findFirestations(AddressKey.of("1509 Culver St"))).thenReturn(List.of());
 
     // when
     boolean result = firestationService.deleteFirestationByAddress("1509 Culver St");
@@ -161,12 +184,9 @@ public class FirestationServiceTest {
   public void getStationNumberByAddress_shouldReturnCorrectNumber_whenAddressExists() {
     // given
     String address = "1509 Culver St";
-    List<Firestation> firestations = List.of(
-        new Firestation("1509 Culver St", 3),
-        new Firestation("29 15th St", 2)
-    );
+    List<Firestation> firestations = List.of(new Firestation("1509 Culver St", 3));
 
-    Mockito.when(dataRepository.getAllFirestations()).thenReturn(firestations);
+    Mockito.when(dataRepository.findFirestations(AddressKey.of(address))).thenReturn(firestations);
 
     // when
     int stationNumber = firestationService.getStationNumberByAddress(address);
@@ -192,4 +212,12 @@ public class FirestationServiceTest {
     assertThat(result).isNotNull();
     assertThat(result).isEqualTo(existingFirestations);
   }
-}
\ No newline at end of file
+
+  private static Person person(String firstName, String address) {
+    return new Person(firstName, "Boyd", address, "Culver", "97451", "841-874-6512", "jaboyd@email.com", 0);
+  }
+
+  private static MedicalRecord medicalRecord(String firstName, String birthdate) {
+    return new MedicalRecord(firstName, "Boyd", birthdate, List.of(), List.of());
+  }
+}
@@ -3,9 +3,11 @@ package com.openclassrooms.safetynet.service;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.openclassrooms.safetynet.dto.FloodResponseDTO;
-import com.openclassrooms.safetynet.model.Firestation;
 import com.openclassrooms.safetynet.model.Person;
+import com.openclassrooms.safetynet.repository.AddressKey;
 import com.openclassrooms.safetynet.repository.DataRepository;
+import com.openclassrooms.safetynet.repository.Household;
+import com.openclassrooms.safetynet.repository.HouseholdIndex;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,6 +22,8 @@ public class FloodServiceTest {
   @Mock
   private DataRepository dataRepository;
   @Mock
+  private HouseholdIndex householdIndex;
+  @Mock
   private MedicalRecordService medicalRecordService;
   @InjectMocks
   private FloodService floodService;
@@ -27,19 +31,14 @@ public class FloodServiceTest {
   @Test
   public void findHouseHoldByStation_shouldReturnListOfFloodDto_whenStationGiven() {
     // given
-    List<Firestation> firestations = List.of(
-        new Firestation("1509 Culver St", 3),
-        new Firestation("29 15th St", 2)
-    );
-
-    List<Person> persons = List.of(
-        new Person("John", "Boyd", "1509 Culver St",null, null, null, null, 0),
-        new Person("Jacob", "Boyd", "29 15th St", null, null, null, null, 0),
-        new Person("Foster", "Shepard", "748 Townings Dr", null, null, null, null, 0)
-    );
+    Household culver = new Household(AddressKey.of("1509 culver st"), "1509 Culver St", null, null,
+        List.of(new Person("John", "Boyd", "1509 Culver St",null, null, null, null, 0)), List.of(3));
+    Household fifteenth = new Household(AddressKey.of("29 15th st"), "29 15th St", null, null,
+        List.of(new Person("Jacob", "Boyd", "29 15th St", null, null, null, null, 0)), List.of(2));
 
-    Mockito.when(dataRepository.getFirestations()).thenReturn(firestations);
-    Mockito.when(dataRepository.getPersons()).thenReturn(persons);
+    Mockito.when(dataRepository.getHouseholdIndex()).thenReturn(householdIndex);
+    Mockito.when(householdIndex.findByStation(3)).thenReturn(List.of(culver));
+    Mockito.when(householdIndex.findByStation(2)).thenReturn(List.of(fifteenth));
 
     Mockito.when(medicalRecordService.findMedicationsByName("John", "Boyd")).thenReturn(List.of("medication1"));
     Mockito.when(medicalRecordService.findAllergiesByName("John", "Boyd")).thenReturn(List.of("allergy1", "allergy2"));
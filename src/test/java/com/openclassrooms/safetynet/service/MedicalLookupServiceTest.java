@@ -0,0 +1,115 @@
+package com.openclassrooms.safetynet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.openclassrooms.safetynet.dto.MedicalLookupResponseDTO;
+import com.openclassrooms.safetynet.model.MedicalRecord;
+import com.openclassrooms.safetynet.model.Person;
+import com.openclassrooms.safetynet.repository.AddressKey;
+import com.openclassrooms.safetynet.repository.DataRepository;
+import com.openclassrooms.safetynet.repository.Household;
+import com.openclassrooms.safetynet.repository.HouseholdIndex;
+import com.openclassrooms.safetynet.repository.MedicalIndex;
+import com.openclassrooms.safetynet.repository.NameKey;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class MedicalLookupServiceTest {
+
+  @Mock
+  private DataRepository dataRepository;
+  @Mock
+  private MedicalIndex medicalIndex;
+  @Mock
+  private HouseholdIndex householdIndex;
+  @InjectMocks
+  private MedicalLookupService medicalLookupService;
+
+  private final NameKey john = NameKey.of("John", "Boyd");
+  private final NameKey tenley = NameKey.of("Tenley", "Boyd");
+
+  @BeforeEach
+  void setUp() {
+    Mockito.when(dataRepository.getMedicalIndex()).thenReturn(medicalIndex);
+    Mockito.when(dataRepository.getHouseholdIndex()).thenReturn(householdIndex);
+    Mockito.when(householdIndex.find(AddressKey.of("1509 Culver St"))).thenReturn(
+        new Household(AddressKey.of("1509 Culver St"), "1509 Culver St", "Culver", "97451", List.of(), List.of(3)));
+    Mockito.when(householdIndex.find(AddressKey.of("29 15th St"))).thenReturn(
+        new Household(AddressKey.of("29 15th St"), "29 15th St", "Culver", "97451", List.of(), List.of(2, 4)));
+    Mockito.when(medicalIndex.findPersons(john)).thenReturn(List.of(
+        new Person("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com", 41)));
+    MedicalRecord johnRecord = new MedicalRecord("John", "Boyd", "03/06/1984", List.of("aznol:350mg"), List.of("peanut"));
+    Mockito.when(medicalIndex.findMedicalRecordWithMedication(john, "aznol")).thenReturn(johnRecord);
+    Mockito.when(medicalIndex.findMedicalRecordWithAllergy(john, "peanut")).thenReturn(johnRecord);
+    Mockito.when(medicalIndex.findPersons(tenley)).thenReturn(List.of(
+        new Person("Tenley", "Boyd", "29 15th St", "Culver", "97451", "841-874-6512", "tenz@email.com", 13)));
+    Mockito.when(medicalIndex.findMedicalRecordWithAllergy(tenley, "peanut")).thenReturn(
+        new MedicalRecord("Tenley", "Boyd", "02/18/2012", List.of(), List.of("peanut")));
+  }
+
+  @Test
+  public void findResidentsByMedication_shouldReturnIndexedResidentsWithStation() {
+    // given
+    Mockito.when(medicalIndex.findNamesByMedication("aznol")).thenReturn(Set.of(john));
+
+    // when
+    List<MedicalLookupResponseDTO> result = medicalLookupService.findResidentsByMedication("aznol", null, null);
+
+    // then
+    assertThat(result).hasSize(1);
+    assertThat(result.get(0).getFirstName()).isEqualTo("John");
+    assertThat(result.get(0).getStationNumber()).isEqualTo(3);
+    assertThat(result.get(0).getMedications()).containsExactly("aznol:350mg");
+    Mockito.verify(dataRepository, Mockito.never()).getMedicalRecords();
+    Mockito.verify(dataRepository, Mockito.never()).getFirestations();
+  }
+
+  @Test
+  public void findResidentsByAllergy_shouldReturnResidentsInNameOrder() {
+    // given
+    Mockito.when(medicalIndex.findNamesByAllergy("peanut")).thenReturn(Set.of(tenley, john));
+
+    // when
+    List<MedicalLookupResponseDTO> result = medicalLookupService.findResidentsByAllergy("peanut", null, null);
+
+    // then
+    assertThat(result).extracting(MedicalLookupResponseDTO::getFirstName).containsExactly("John", "Tenley");
+  }
+
+  @Test
+  public void findResidentsByAllergy_shouldFilterByStations() {
+    // given
+    Mockito.when(medicalIndex.findNamesByAllergy("peanut")).thenReturn(Set.of(john, tenley));
+
+    // when
+    List<MedicalLookupResponseDTO> result = medicalLookupService.findResidentsByAllergy("peanut", List.of(1, 4), null);
+
+    // then
+    assertThat(result).extracting(MedicalLookupResponseDTO::getFirstName).containsExactly("Tenley");
+    assertThat(result.get(0).getStationNumber()).isEqualTo(2);
+  }
+
+  @Test
+  public void findResidentsByAllergy_shouldFilterByAddress() {
+    // given
+    Mockito.when(medicalIndex.findNamesByAllergy("peanut")).thenReturn(Set.of(john, tenley));
+
+    // when
+    List<MedicalLookupResponseDTO> result = medicalLookupService.findResidentsByAllergy("peanut", null,
+        "1509 culver st");
+
+    // then
+    assertThat(result).extracting(MedicalLookupResponseDTO::getFirstName).containsExactly("John");
+  }
+}
@@ -6,6 +6,7 @@ import static org.mockito.ArgumentMatchers.any;
 import com.openclassrooms.safetynet.dto.MedicalRecordResponseDTO;
 import com.openclassrooms.safetynet.model.MedicalRecord;
 import com.openclassrooms.safetynet.repository.DataRepository;
+import com.openclassrooms.safetynet.repository.NameKey;
 import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.Test;
@@ -30,10 +31,8 @@ public class MedicalRecordServiceTest {
     String firstName = "John";
     String lastName = "Boyd";
 
-    List<MedicalRecord> medicalRecords = List.of(
-        new MedicalRecord("John", "Boyd", null, null, null),
-        new MedicalRecord("Jacob", "Boyd", null, null, null));
-    Mockito.when(dataRepository.getMedicalRecords()).thenReturn(medicalRecords);
+    List<MedicalRecord> medicalRecords = List.of(new MedicalRecord("John", "Boyd", null, null, null));
+    Mockito.when(dataRepository.findMedicalRecords(NameKey.of(firstName, lastName))).thenReturn(medicalRecords);
 
     // when
     List<MedicalRecordResponseDTO> result = medicalRecordService.findMedicalRecordsByName(firstName,
@@ -54,10 +53,8 @@ public class MedicalRecordServiceTest {
     List<String> medications = List.of("aznol:350mg", "hydrapermazol:100mg");
     List<String> allergies = List.of("nillacilan");
 
-    List<MedicalRecord> medicalRecords = List.of(
-        new MedicalRecord("John", "Boyd", null, medications, allergies),
-        new MedicalRecord("Jacob", "Boyd", null, null, null));
-    Mockito.when(dataRepository.getMedicalRecords()).thenReturn(medicalRecords);
+    List<MedicalRecord> medicalRecords = List.of(new MedicalRecord("John", "Boyd", null, medications, allergies));
+    Mockito.when(dataRepository.findMedicalRecords(NameKey.of(firstName, lastName))).thenReturn(medicalRecords);
 
     // when
     List<String> result = medicalRecordService.findMedicationsByName(firstName, lastName);
@@ -76,9 +73,8 @@ public class MedicalRecordServiceTest {
     List<String> allergies = List.of("nillacilan");
 
     List<MedicalRecord> medicalRecords = List.of(
-        new MedicalRecord("John", "Boyd", "03/06/1984", medications, allergies),
-        new MedicalRecord("Jacob", "Boyd", "03/06/1989", null, null));
-    Mockito.when(dataRepository.getMedicalRecords()).thenReturn(medicalRecords);
+        new MedicalRecord("John", "Boyd", "03/06/1984", medications, allergies));
+    Mockito.when(dataRepository.findMedicalRecords(NameKey.of(firstName, lastName))).thenReturn(medicalRecords);
 
     // when
     List<String> result = medicalRecordService.findAllergiesByName(firstName, lastName);
@@ -91,9 +87,8 @@ public class MedicalRecordServiceTest {
   @Test
   public void createNewMedicalRecordTest_shouldReturnTrue_whenRecordIsNotExisting() {
     // given
-    List<MedicalRecord> existingRecord = new ArrayList<>(List.of(
-        new MedicalRecord("John", "Boyd", null, null, null)));
-    Mockito.when(dataRepository.getMedicalRecords()).thenReturn(existingRecord);
+    Mockito.when(dataRepository.mightContainMedicalRecord("Jacob", "Boyd")).thenReturn(true);
+    Mockito.when(dataRepository.findMedicalRecords(NameKey.of("Jacob", "Boyd"))).thenReturn(List.of());
 
     List<String> medications = List.of("aznol:350mg", "hydrapermazol:100mg");
     List<String> allergies = List.of("nillacilan");
@@ -110,12 +105,28 @@ public class MedicalRecordServiceTest {
     assertThat(result).isTrue();
   }
 
+  @Test
+  public void createNewMedicalRecordTest_shouldSkipLookup_whenFilterRulesOutName() {
+    // given
+    MedicalRecordResponseDTO newRecord = new MedicalRecordResponseDTO("Jacob", "Boyd", "03/06/1989",
+        List.of(), List.of());
+    Mockito.when(dataRepository.addMedicalRecord(any(MedicalRecord.class))).thenReturn(true);
+
+    // when
+    boolean result = medicalRecordService.createNewMedicalRecord(newRecord);
+
+    // then
+    assertThat(result).isTrue();
+    Mockito.verify(dataRepository, Mockito.never()).findMedicalRecords(any(NameKey.class));
+  }
+
   @Test
   public void createNewMedicalRecordTest_shouldReturnFalse_whenRecordIsExisting() {
     // given
     List<MedicalRecord> existingRecord = new ArrayList<>(List.of(
         new MedicalRecord("Jacob", "Boyd", null, null, null)));
-    Mockito.when(dataRepository.getMedicalRecords()).thenReturn(existingRecord);
+    Mockito.when(dataRepository.mightContainMedicalRecord("Jacob", "Boyd")).thenReturn(true);
+    Mockito.when(dataRepository.findMedicalRecords(NameKey.of("Jacob", "Boyd"))).thenReturn(existingRecord);
 
     MedicalRecordResponseDTO newRecord = new MedicalRecordResponseDTO("Jacob", "Boyd", null, null,
         null);
@@ -151,7 +162,7 @@ public class MedicalRecordServiceTest {
     // given
     List<MedicalRecord> existingRecord = new ArrayList<>(List.of(
         new MedicalRecord("Jacob", "Boyd", null, null, null)));
-    Mockito.when(dataRepository.getMedicalRecords()).thenReturn(existingRecord);
+    Mockito.when(dataRepository.findMedicalRecords(NameKey.of("Jacob", "Boyd"))).thenReturn(existingRecord);
 
     List<String> medications = List.of("doliprane:500mg");
     List<String> allergies = List.of("pollen");
@@ -170,9 +181,7 @@ public class MedicalRecordServiceTest {
   @Test
   public void updateMedicalRecord_shouldReturnFalse_whenMedicalRecordDoesNotExist() {
     // given
-    List<MedicalRecord> existingRecord = new ArrayList<>(List.of(
-        new MedicalRecord("Jacob", "Boyd", null, null, null)));
-    Mockito.when(dataRepository.getMedicalRecords()).thenReturn(existingRecord);
+    Mockito.when(dataRepository.findMedicalRecords(NameKey.of("John", "Boyd"))).thenReturn(List.of());
 
     MedicalRecordResponseDTO updateRecord = new MedicalRecordResponseDTO("John", "Boyd",
         null, null, null);
@@ -191,7 +200,7 @@ public class MedicalRecordServiceTest {
     // given
     List<MedicalRecord> existingRecord = new ArrayList<>(List.of(
         new MedicalRecord("Jacob", "Boyd", "03/06/1989", List.of("medication1"), List.of("allergy1"))));
-    Mockito.when(dataRepository.getMedicalRecords()).thenReturn(existingRecord);
+    Mockito.when(dataRepository.findMedicalRecords(NameKey.of("Jacob", "Boyd"))).thenReturn(existingRecord);
 
     MedicalRecordResponseDTO deleteRecord = new MedicalRecordResponseDTO("Jacob", "Boyd", null,
         null, null);
@@ -208,9 +217,7 @@ public class MedicalRecordServiceTest {
   @Test
   public void deleteMedicalRecord_shouldReturnFalse_whenMedicalRecordDoesNotExist() {
     // given
-    List<MedicalRecord> existingRecord = new ArrayList<>(List.of(
-        new MedicalRecord("John", "Boyd", null, null, null)));
-    Mockito.when(dataRepository.getMedicalRecords()).thenReturn(existingRecord);
+    Mockito.when(dataRepository.findMedicalRecords(NameKey.of("Jacob", "Boyd"))).thenReturn(List.of());
 
     MedicalRecordResponseDTO deleteRecord = new MedicalRecordResponseDTO("Jacob", "Boyd", null,
         null, null);
@@ -0,0 +1,65 @@
+package com.openclassrooms.safetynet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.openclassrooms.safetynet.dto.PersonInfoResponseDTO;
+import com.openclassrooms.safetynet.model.MedicalRecord;
+import com.openclassrooms.safetynet.model.Person;
+import com.openclassrooms.safetynet.repository.DataRepository;
+import com.openclassrooms.safetynet.repository.NameSearchIndex.Mode;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PersonInfoServiceTest {
+
+  private PersonInfoService personInfoService;
+
+  @BeforeEach
+  void setUp() {
+    DataRepository dataRepository = new DataRepository();
+    dataRepository.setPersistenceExecutor(task -> { });
+    dataRepository.setPersons(new ArrayList<>(List.of(
+        new Person("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com", 41),
+        new Person("Jacob", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6513", "drk@email.com", 36),
+        new Person("Brian", "Boyden", "947 E. Rose Dr", "Culver", "97451", "841-874-7784", "bstel@email.com", 49),
+        new Person("Tessa", "Carman", "834 Binoc Ave", "Culver", "97451", "841-874-6512", "tenz@email.com", 13))));
+    dataRepository.setFirestations(new ArrayList<>());
+    dataRepository.setMedicalRecords(new ArrayList<>(List.of(
+        new MedicalRecord("John", "Boyd", "03/06/1984", List.of("aznol:350mg"), List.of("nillacilan")))));
+    personInfoService = new PersonInfoService(dataRepository, new MedicalRecordService(dataRepository));
+  }
+
+  @Test
+  public void searchPersonsInfo_fuzzy_shouldFindMistypedLastName() {
+    // when
+    List<PersonInfoResponseDTO> result = personInfoService.searchPersonsInfo("Byod", "Jonh", Mode.FUZZY, 10);
+
+    // then
+    assertThat(result).hasSize(1);
+    assertThat(result.get(0).getEmail()).isEqualTo("jaboyd@email.com");
+    assertThat(result.get(0).getMedications()).containsExactly("aznol:350mg");
+    assertThat(result.get(0).getAllergies()).containsExactly("nillacilan");
+  }
+
+  @Test
+  public void searchPersonsInfo_prefix_shouldRankExactTermFirstAndApplyLimit() {
+    // when
+    List<PersonInfoResponseDTO> all = personInfoService.searchPersonsInfo("boy", null, Mode.PREFIX, 10);
+    List<PersonInfoResponseDTO> limited = personInfoService.searchPersonsInfo("boy", null, Mode.PREFIX, 2);
+
+    // then
+    assertThat(all).extracting(PersonInfoResponseDTO::getLastName).containsExactly("Boyd", "Boyd", "Boyden");
+    assertThat(limited).hasSize(2);
+  }
+
+  @Test
+  public void findPersonsInfoByLastName_shouldKeepExactMatch() {
+    // when
+    List<PersonInfoResponseDTO> result = personInfoService.findPersonsInfoByLastName("BOYD");
+
+    // then
+    assertThat(result).hasSize(2);
+  }
+}
@@ -6,6 +6,7 @@ import static org.mockito.ArgumentMatchers.any;
 import com.openclassrooms.safetynet.dto.PersonDTO;
 import com.openclassrooms.safetynet.model.Person;
 import com.openclassrooms.safetynet.repository.DataRepository;
+import com.openclassrooms.safetynet.repository.NameKey;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -35,6 +36,23 @@ public class PersonServiceTest {
    boolean result = personService.saveNewPerson(dto);
    assertThat(result).isTrue();
    Mockito.verify(dataRepository).addPerson(any(Person.class));
+   Mockito.verify(dataRepository, Mockito.never()).findPersons(any(NameKey.class));
+  }
+
+  @Test
+  public void saveNewPerson_shouldReturnTrue_whenFilterFalsePositive() {
+    // given
+    PersonDTO dto = new PersonDTO("Jacob", "Boyd", null, null, null, null, null, 36);
+    Mockito.when(dataRepository.mightContainPerson("Jacob", "Boyd")).thenReturn(true);
+    Mockito.when(dataRepository.findPersons(NameKey.of("Jacob", "Boyd"))).thenReturn(List.of());
+    Mockito.when(dataRepository.addPerson(any(Person.class))).thenReturn(true);
+
+    // when
+    boolean result = personService.saveNewPerson(dto);
+
+    // then
+    assertThat(result).isTrue();
+    Mockito.verify(dataRepository).findPersons(NameKey.of("Jacob", "Boyd"));
   }
 
   @Test
@@ -43,7 +61,8 @@ public class PersonServiceTest {
     PersonDTO dto = new PersonDTO("John", "Boyd", null, null, null, null, null, 41);
 
     List<Person> existingPerson = List.of(new Person("John", "Boyd", null, null, null, null, null, 41));
-    Mockito.when(dataRepository.getPersons()).thenReturn(existingPerson);
+    Mockito.when(dataRepository.mightContainPerson("John", "Boyd")).thenReturn(true);
+    Mockito.when(dataRepository.findPersons(NameKey.of("John", "Boyd"))).thenReturn(existingPerson);
 
     // when
     boolean result = personService.saveNewPerson(dto);
@@ -63,7 +82,7 @@ public class PersonServiceTest {
     List<Person> existingPersons = List.of(new Person("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com", 41));
 
     // when
-    Mockito.when(dataRepository.getPersons()).thenReturn(existingPersons);
+    Mockito.when(dataRepository.findPersons(NameKey.of("John", "Boyd"))).thenReturn(existingPersons);
     Mockito.when(dataRepository.setPerson(any(Person.class))).thenReturn(true);
 
     boolean result = personService.updatePerson(dto);
@@ -80,8 +99,7 @@ public class PersonServiceTest {
     dto.setFirstName("John");
     dto.setLastName("Boyd");
 
-    List<Person> existingPersons = List.of(new Person("Jacob", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6513", "drk@email.com", 36));
-    Mockito.when(dataRepository.getPersons()).thenReturn(existingPersons);
+    Mockito.when(dataRepository.findPersons(NameKey.of("John", "Boyd"))).thenReturn(List.of());
 
     // when
     boolean result = personService.updatePerson(dto);
@@ -98,7 +116,7 @@ public class PersonServiceTest {
 
     List<Person> existingPersons = List.of(new Person("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com", 41));
 
-    Mockito.when(dataRepository.getPersons()).thenReturn(existingPersons);
+    Mockito.when(dataRepository.findPersons(NameKey.of("John", "Boyd"))).thenReturn(existingPersons);
     Mockito.when(dataRepository.deletePerson(any(Person.class))).thenReturn(true);
 
     // when
@@ -114,8 +132,7 @@ public class PersonServiceTest {
     // given
     PersonDTO dto = new PersonDTO("John", "Boyd", null, null, null, null, null, 41);
 
-    List<Person> existingPersons = List.of(new Person("Jacob", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6513", "drk@email.com", 36));
-    Mockito.when(dataRepository.getPersons()).thenReturn(existingPersons);
+    Mockito.when(dataRepository.findPersons(NameKey.of("John", "Boyd"))).thenReturn(List.of());
 
     // when
     boolean result = personService.deletePerson(dto);
@@ -143,4 +160,4 @@ public class PersonServiceTest {
     assertThat(result.get(1).getEmail()).isEqualTo("drk@email.com");
     Mockito.verify(dataRepository).getPersons();
   }
-}
\ No newline at end of file
+}
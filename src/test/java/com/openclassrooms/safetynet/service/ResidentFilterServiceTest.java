@@ -0,0 +1,90 @@
+package com.openclassrooms.safetynet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.openclassrooms.safetynet.dto.FilteredResidentDTO;
+import com.openclassrooms.safetynet.dto.ResidentFilterResponseDTO;
+import com.openclassrooms.safetynet.model.Firestation;
+import com.openclassrooms.safetynet.model.MedicalRecord;
+import com.openclassrooms.safetynet.model.Person;
+import com.openclassrooms.safetynet.repository.DataRepository;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ResidentFilterServiceTest {
+
+  private ResidentFilterService residentFilterService;
+
+  @BeforeEach
+  void setUp() {
+    String childBirthdate = LocalDate.now().minusYears(3).format(DateTimeFormatter.ofPattern("MM/dd/yyyy"));
+    DataRepository dataRepository = new DataRepository();
+    dataRepository.setPersistenceExecutor(task -> { });
+    dataRepository.setPersons(new ArrayList<>(List.of(
+        new Person("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com", 41),
+        new Person("Roger", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com", 3),
+        new Person("Tessa", "Carman", "834 Binoc Ave", "Culver", "97451", "841-874-6512", "tenz@email.com", 13),
+        new Person("Peter", "Duncan", "644 Gershwin Cir", "Pasadena", "97451", "841-874-6512", "jaboyd@email.com", 25)
+    )));
+    dataRepository.setFirestations(new ArrayList<>(List.of(
+        new Firestation("1509 Culver St", 3),
+        new Firestation("834 Binoc Ave", 3),
+        new Firestation("644 Gershwin Cir", 1))));
+    dataRepository.setMedicalRecords(new ArrayList<>(List.of(
+        new MedicalRecord("John", "Boyd", "03/06/1984", List.of("aznol:350mg"), List.of()),
+        new MedicalRecord("Roger", "Boyd", childBirthdate, List.of(), List.of()),
+        new MedicalRecord("Tessa", "Carman", "02/18/2012", List.of(), List.of("peanut")),
+        new MedicalRecord("Peter", "Duncan", "09/06/2000", List.of(), List.of("shellfish")))));
+    residentFilterService = new ResidentFilterService(dataRepository);
+  }
+
+  @Test
+  public void filterResidents_shouldCombineAndOrCriteria() {
+    // when
+    ResidentFilterResponseDTO result = residentFilterService.filterResidents(
+        "city:Culver AND station:3 AND (age:0-4 OR flag:allergy)", 100);
+
+    // then
+    assertThat(result.getCount()).isEqualTo(2);
+    assertThat(result.getResidents()).extracting(FilteredResidentDTO::getFirstName)
+        .containsExactlyInAnyOrder("Roger", "Tessa");
+    assertThat(result.getResidents()).extracting(FilteredResidentDTO::getStationNumber).containsOnly(3);
+  }
+
+  @Test
+  public void filterResidents_shouldSupportNotAndQuotedValues() {
+    // when
+    ResidentFilterResponseDTO result = residentFilterService.filterResidents(
+        "household:\"1509 Culver St\" and not age:child", 100);
+
+    // then
+    assertThat(result.getResidents()).extracting(FilteredResidentDTO::getFirstName).containsExactly("John");
+  }
+
+  @Test
+  public void filterResidents_shouldCountBeyondLimit() {
+    // when
+    ResidentFilterResponseDTO result = residentFilterService.filterResidents("flag:allergy OR flag:medication", 1);
+
+    // then
+    assertThat(result.getCount()).isEqualTo(3);
+    assertThat(result.getResidents()).hasSize(1);
+  }
+
+  @Test
+  public void filterResidents_whenExpressionInvalid_shouldThrow() {
+    assertThatThrownBy(() -> residentFilterService.filterResidents("city:Culver AND", 10))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> residentFilterService.filterResidents("(city:Culver", 10))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Missing ')'");
+    assertThatThrownBy(() -> residentFilterService.filterResidents("zip:97451", 10))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Unknown dimension");
+  }
+}